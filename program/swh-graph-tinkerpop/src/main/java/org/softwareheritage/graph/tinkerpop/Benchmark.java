@@ -2,7 +2,7 @@ package org.softwareheritage.graph.tinkerpop;
 
 import com.martiansoftware.jsap.*;
 import it.unimi.dsi.big.webgraph.LazyLongIterator;
-import org.apache.tinkerpop.gremlin.process.traversal.Order;
+import org.apache.commons.configuration2.Configuration;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
 import org.apache.tinkerpop.gremlin.process.traversal.util.Metrics;
@@ -90,7 +90,11 @@ public class Benchmark {
         swhGraph.loadAuthorTimestamps();
 
         WebGraphPropertyProvider swh = SwhProperties.withEdgeLabels(swhGraph);
-        WebGraphGraph graph = WebGraphGraph.open(swhGraph, swh, path, vcache, ecache);
+        Configuration graphConfig = WebGraphGraph.DEFAULT_CONFIGURATION();
+        graphConfig.setProperty(WebGraphGraph.VERTEX_CACHE, vcache);
+        graphConfig.setProperty(WebGraphGraph.EDGE_CACHE, ecache);
+        graphConfig.setProperty(WebGraphGraph.VERTEX_LABEL_INDEX, path);
+        WebGraphGraph graph = WebGraphGraph.open(graphConfig, swhGraph, swh);
         Benchmark benchmark = new Benchmark(graph, swhGraph, samples, iters);
         System.out.println("Done");
 
@@ -251,8 +255,7 @@ public class Benchmark {
 
     private List<Long> randomVerticesWithLabel(String label, long count) {
         return e.get(g -> g.V().hasLabel(label)
-                           .order().by(Order.shuffle)
-                           .limit(count)
+                           .sample((int) count)
                            .id().map(id -> (long) id.get()));
     }
 
@@ -141,16 +141,14 @@ public class Query {
      *
      * @param snapshot the root snapshot
      * @return revisions relationships in snapshot subtree
+     * @implNote each vertex of the subtree is visited once, so each edge is emitted once from its source,
+     * without keeping the edges in a side effect.
      */
     public static Function<GraphTraversalSource, GraphTraversal<Vertex, Edge>> snapshotRevisions(long snapshot) {
-        return g -> g.withSideEffect("e", new HashSet<>())
-                     .V(snapshot)
-                     .repeat(outE().where(P.without("e"))
-                                   .where(inV().hasLabel("REV", "REL"))
-                                   .aggregate("e")
-                                   .inV().dedup())
-                     .<Edge>cap("e")
-                     .unfold();
+        return g -> g.V(snapshot)
+                     .emit()
+                     .repeat(out().hasLabel("REV", "REL").dedup())
+                     .outE().where(inV().hasLabel("REV", "REL"));
     }
 
     /**
@@ -2,27 +2,45 @@ package org.softwareheritage.graph.tinkerpop;
 
 import org.softwareheritage.graph.SwhBidirectionalGraph;
 import org.webgraph.tinkerpop.GremlinQueryExecutor;
+import org.webgraph.tinkerpop.QueryLanguage;
+import org.webgraph.tinkerpop.process.traversal.util.QueryLimits;
 import org.webgraph.tinkerpop.structure.WebGraphGraph;
 import org.webgraph.tinkerpop.structure.provider.WebGraphPropertyProvider;
 
 import java.io.IOException;
+import java.time.Duration;
 
 public class Server {
 
     public static void main(String[] args) throws IOException {
         if (args == null || args.length < 3 || args[0] == null || args[1] == null) {
             System.out.println(
-                    "Usage: org.webgraph.tinkerpop.server.Server <graph_path> <query> [--profile]");
+                    "Usage: org.webgraph.tinkerpop.server.Server <graph_path> <query> [--profile] [--language=groovy|grammar] [--timeout=<seconds>] [--max-elements=<n>]");
             return;
         }
         String path = args[0];
         String query = args[1];
-        boolean profile = args.length == 4 && args[3].equals("--profile");
+        boolean profile = false;
+        QueryLanguage language = QueryLanguage.GROOVY;
+        Duration timeout = null;
+        long maxElements = 0;
+        for (int i = 3; i < args.length; i++) {
+            if (args[i].equals("--profile")) {
+                profile = true;
+            } else if (args[i].startsWith("--language=")) {
+                language = QueryLanguage.parse(args[i].substring("--language=".length()));
+            } else if (args[i].startsWith("--timeout=")) {
+                timeout = Duration.ofSeconds(Long.parseLong(args[i].substring("--timeout=".length())));
+            } else if (args[i].startsWith("--max-elements=")) {
+                maxElements = Long.parseLong(args[i].substring("--max-elements=".length()));
+            }
+        }
         SwhBidirectionalGraph graph = SwhBidirectionalGraph.loadLabelled(path);
         WebGraphPropertyProvider swh = SwhProperties.getProvider(graph);
         try (var gg = WebGraphGraph.open(graph, swh, path)) {
             System.out.println("Opened graph: " + path);
-            var executor = new GremlinQueryExecutor(gg);
+            var executor = new GremlinQueryExecutor(gg, language);
+            executor.setLimits(new QueryLimits(timeout, maxElements, 0));
             if (profile) {
                 executor.profile(query);
             } else {
@@ -0,0 +1,52 @@
+package org.softwareheritage.graph.tinkerpop;
+
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.PBiPredicate;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Predicates on the edge properties of {@link SwhProperties}, whose values hold one element per directory entry.
+ */
+public class SwhPredicates {
+
+    /**
+     * Matches the {@code filenames} of the arcs having an entry with one of the given names, e.g.
+     * {@code outE().has("filenames", anyFilename("setup.py"))}. When the edges are enumerated from the labelled
+     * graph, the names are compared as bytes with the label names of the entries, without decoding the others.
+     *
+     * @param names the file names
+     * @return the predicate
+     */
+    public static P<Object> anyFilename(String... names) {
+        return new P<>(AnyFilename.INSTANCE, List.of(names));
+    }
+
+    /**
+     * The bi-predicate of {@link #anyFilename(String...)}, testing a {@code String[]} of file names
+     * against a collection of names. {@link P} takes a bi-predicate over a single type, hence the {@code Object}
+     * arguments.
+     */
+    public enum AnyFilename implements PBiPredicate<Object, Object> {
+        INSTANCE;
+
+        @Override
+        public boolean test(Object filenames, Object names) {
+            if (!(filenames instanceof String[]) || !(names instanceof Collection)) {
+                return false;
+            }
+            for (String filename : (String[]) filenames) {
+                if (((Collection<?>) names).contains(filename)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public String getPredicateName() {
+            return "anyFilename";
+        }
+    }
+}
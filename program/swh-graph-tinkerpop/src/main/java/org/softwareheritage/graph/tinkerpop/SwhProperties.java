@@ -1,6 +1,8 @@
 package org.softwareheritage.graph.tinkerpop;
 
 import it.unimi.dsi.big.util.MappedFrontCodedStringBigList;
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.softwareheritage.graph.Node;
 import org.softwareheritage.graph.SwhBidirectionalGraph;
 import org.softwareheritage.graph.labels.DirEntry;
 import org.webgraph.tinkerpop.structure.property.edge.ArcLabelEdgeProperty;
@@ -11,7 +13,11 @@ import org.webgraph.tinkerpop.structure.provider.StandardWebGraphPropertyProvide
 
 import java.io.IOException;
 import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.function.Predicate;
 
 public class SwhProperties {
 
@@ -19,7 +25,7 @@ public class SwhProperties {
         String path = graph.getPath();
         graph.loadMessages();
         StandardWebGraphPropertyProvider provider = new StandardWebGraphPropertyProvider();
-        provider.setVertexLabeller(id -> graph.getNodeType(id).toString());
+        provider.setVertexLabeller(nodeTypeLabels(), id -> graph.getNodeType(id).ordinal());
         provider.addVertexProperty(new FileVertexProperty<>("author_timestamp", Long.class,
                 Path.of(path + ".property.author_timestamp.bin")));
         provider.addVertexProperty(new VertexProperty<>("swhid", graph::getSWHID));
@@ -33,17 +39,32 @@ public class SwhProperties {
         return provider;
     }
 
+    /**
+     * Returns the names of all node types, indexed by {@link Node.Type#ordinal()}.
+     */
+    public static String[] nodeTypeLabels() {
+        Node.Type[] types = Node.Type.values();
+        String[] res = new String[types.length];
+        for (int i = 0; i < types.length; i++) {
+            res[i] = types[i].toString();
+        }
+        return res;
+    }
+
     public static StandardWebGraphPropertyProvider withEdgeLabels(SwhBidirectionalGraph graph) throws IOException {
         graph.loadLabelNames();
+        // label names are read through a per-thread copy of the graph, sharing the names loaded above
+        ThreadLocal<SwhBidirectionalGraph> threadGraph = ThreadLocal.withInitial(graph::copy);
         StandardWebGraphPropertyProvider provider = getProvider(graph);
         ArcLabelEdgeProperty<DirEntry[]> edgeProperty = new ArcLabelEdgeProperty<>(
-                graph.getForwardGraph().underlyingLabelledGraph());
+                graph.getForwardGraph().underlyingLabelledGraph(), graph.getBackwardGraph().underlyingLabelledGraph());
         provider.addEdgeProperty(edgeProperty);
         provider.addEdgeProperty(
                 new ArcLabelEdgeSubProperty<>("dir_entry_str", edgeProperty,
-                        dirEntries -> dirEntryStr(dirEntries, graph)));
+                        dirEntries -> dirEntryStr(dirEntries, threadGraph.get())));
         provider.addEdgeProperty(
-                new ArcLabelEdgeSubProperty<>("filenames", edgeProperty, dirEntries -> filenames(dirEntries, graph)));
+                new ArcLabelEdgeSubProperty<>("filenames", edgeProperty, dirEntries -> filenames(dirEntries, threadGraph.get()),
+                        predicate -> filenamesFilter(predicate, threadGraph)));
         return provider;
     }
 
@@ -69,8 +90,34 @@ public class SwhProperties {
         return res;
     }
 
+    /**
+     * Compiles {@link SwhPredicates#anyFilename(String...)} into a predicate on the directory entries of an arc.
+     * The names are encoded once, so that entries are compared as bytes, without building a {@code String}
+     * for each of them. The graph has no lookup from a name to its filename id, which would allow comparing ids.
+     */
+    private static Predicate<DirEntry[]> filenamesFilter(P<?> predicate, ThreadLocal<SwhBidirectionalGraph> threadGraph) {
+        if (predicate.getBiPredicate() != SwhPredicates.AnyFilename.INSTANCE) {
+            return null;
+        }
+        byte[][] names = ((Collection<?>) predicate.getValue()).stream()
+                .map(name -> ((String) name).getBytes(StandardCharsets.UTF_8))
+                .toArray(byte[][]::new);
+        return dirEntries -> {
+            SwhBidirectionalGraph graph = threadGraph.get();
+            for (DirEntry dirEntry : dirEntries) {
+                byte[] filename = graph.getLabelName(dirEntry.filenameId);
+                for (byte[] name : names) {
+                    if (Arrays.equals(filename, name)) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        };
+    }
+
     private static String getFilename(DirEntry dirEntry, SwhBidirectionalGraph graph) {
-        return new String(graph.getLabelName(dirEntry.filenameId));
+        return new String(graph.getLabelName(dirEntry.filenameId), StandardCharsets.UTF_8);
     }
 
     public static class DirEntryString {
@@ -4,10 +4,15 @@ import org.softwareheritage.graph.SwhBidirectionalGraph;
 import org.webgraph.tinkerpop.structure.provider.WebGraphPropertyProvider;
 
 public class SwhWebGraphPropertyProvider implements WebGraphPropertyProvider {
+    private static final String[] NODE_TYPE_LABELS = SwhProperties.nodeTypeLabels();
+
     private final SwhBidirectionalGraph graph;
+    // labelled successor iterators are read through a per-thread copy of the graph
+    private final ThreadLocal<SwhBidirectionalGraph> threadGraph;
 
     public SwhWebGraphPropertyProvider(SwhBidirectionalGraph graph) {
         this.graph = graph;
+        this.threadGraph = ThreadLocal.withInitial(graph::copy);
     }
 
     @Override
@@ -15,6 +20,16 @@ public class SwhWebGraphPropertyProvider implements WebGraphPropertyProvider {
         return graph.getNodeType(nodeId).toString();
     }
 
+    @Override
+    public String[] vertexLabelDictionary() {
+        return NODE_TYPE_LABELS;
+    }
+
+    @Override
+    public byte vertexLabelId(long nodeId) {
+        return (byte) graph.getNodeType(nodeId).ordinal();
+    }
+
     @Override
     public String[] vertexProperties(long nodeId) {
         return new String[]{"author_timestamp"};
@@ -44,7 +59,7 @@ public class SwhWebGraphPropertyProvider implements WebGraphPropertyProvider {
         if (!key.equals("dir_entry")) {
             throw new RuntimeException("Unknown property key: " + key);
         }
-        var s = graph.labelledSuccessors(fromId);
+        var s = threadGraph.get().labelledSuccessors(fromId);
         long succ;
         while ((succ = s.nextLong()) != -1) {
             if (succ == toId) {
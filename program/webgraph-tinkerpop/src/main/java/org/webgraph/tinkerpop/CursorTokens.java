@@ -0,0 +1,256 @@
+package org.webgraph.tinkerpop;
+
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
+import org.webgraph.tinkerpop.process.traversal.step.map.WebGraphReachabilityStep;
+import org.webgraph.tinkerpop.util.VertexIdSet;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Continuation tokens of paged queries.
+ * <p>
+ * A native token holds the whole state of a suspended {@link WebGraphReachabilityStep}: the query text, the stack
+ * of vertex ids and the visited set, deflated, so no server memory is held between pages.
+ * As the query is evaluated again from the token, native tokens are signed with an HMAC whose key is drawn when
+ * the tokens are created, and the signature is verified before anything else is decoded. A native token is thus
+ * only valid for the executor which issued it.
+ * A server token names a traversal kept open in memory until it is exhausted or stays idle for too long.
+ */
+class CursorTokens {
+    private static final char NATIVE = 'n';
+    private static final char SERVER = 's';
+    private static final int VERSION = 1;
+    private static final String MAC_ALGORITHM = "HmacSHA256";
+    private static final int MAC_LENGTH = 32;
+
+    private final Map<String, OpenCursor> cursors = new ConcurrentHashMap<>();
+    private final SecretKeySpec key;
+    private volatile long idleTimeoutNanos;
+
+    CursorTokens(Duration idleTimeout) {
+        setIdleTimeout(idleTimeout);
+        byte[] keyBytes = new byte[MAC_LENGTH];
+        new SecureRandom().nextBytes(keyBytes);
+        this.key = new SecretKeySpec(keyBytes, MAC_ALGORITHM);
+    }
+
+    void setIdleTimeout(Duration idleTimeout) {
+        this.idleTimeoutNanos = idleTimeout.toNanos();
+    }
+
+    static boolean isNative(String token) {
+        return !token.isEmpty() && token.charAt(0) == NATIVE;
+    }
+
+    /**
+     * Encodes the state of a suspended reachability walk of a query.
+     */
+    String encodeNative(String query, long numNodes, WebGraphReachabilityStep.State state) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(new DeflaterOutputStream(bytes))) {
+            out.writeInt(VERSION);
+            byte[] queryBytes = query.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(queryBytes.length);
+            out.write(queryBytes);
+            out.writeLong(numNodes);
+            out.writeLong(state.getStartsConsumed());
+            out.writeBoolean(state.hasHead());
+            out.writeLong(state.getExpanding());
+            out.writeLong(state.getExpanded());
+            out.writeInt(state.getStack().length);
+            for (long id : state.getStack()) {
+                out.writeLong(id);
+            }
+            out.writeBoolean(state.getVisited() != null);
+            if (state.getVisited() != null) {
+                state.getVisited().write(out);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        byte[] body = bytes.toByteArray();
+        byte[] signed = Arrays.copyOf(mac(body), MAC_LENGTH + body.length);
+        System.arraycopy(body, 0, signed, MAC_LENGTH, body.length);
+        return NATIVE + Base64.getUrlEncoder().withoutPadding().encodeToString(signed);
+    }
+
+    private byte[] mac(byte[] body) {
+        try {
+            // Mac instances are not thread-safe
+            Mac mac = Mac.getInstance(MAC_ALGORITHM);
+            mac.init(key);
+            return mac.doFinal(body);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(MAC_ALGORITHM + " is not available", e);
+        }
+    }
+
+    /**
+     * A decoded native token.
+     */
+    static class NativeCursor {
+        final String query;
+        final long numNodes;
+        final WebGraphReachabilityStep.State state;
+
+        NativeCursor(String query, long numNodes, WebGraphReachabilityStep.State state) {
+            this.query = query;
+            this.numNodes = numNodes;
+            this.state = state;
+        }
+    }
+
+    /**
+     * Decodes a native token issued by this object for a graph with the given number of nodes.
+     * Lengths and vertex ids are checked against the number of nodes before anything is allocated.
+     *
+     * @throws IllegalArgumentException if the token is malformed, was not issued by this object,
+     *                                  or does not match the graph
+     */
+    NativeCursor decodeNative(String token, long numNodes) {
+        byte[] signed;
+        try {
+            signed = Base64.getUrlDecoder().decode(token.substring(1));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Malformed cursor token", e);
+        }
+        if (signed.length < MAC_LENGTH) {
+            throw new IllegalArgumentException("Malformed cursor token");
+        }
+        byte[] body = Arrays.copyOfRange(signed, MAC_LENGTH, signed.length);
+        if (!MessageDigest.isEqual(mac(body), Arrays.copyOf(signed, MAC_LENGTH))) {
+            throw new IllegalArgumentException("Invalid cursor token signature");
+        }
+        try (DataInputStream in = new DataInputStream(new InflaterInputStream(new ByteArrayInputStream(body)))) {
+            if (in.readInt() != VERSION) {
+                throw new IllegalArgumentException("Unsupported cursor token version");
+            }
+            int queryLength = in.readInt();
+            if (queryLength < 0) {
+                throw new IOException("Invalid query length " + queryLength);
+            }
+            // reads in chunks rather than allocating the declared length
+            byte[] queryBytes = in.readNBytes(queryLength);
+            if (queryBytes.length != queryLength) {
+                throw new IOException("Truncated query");
+            }
+            if (in.readLong() != numNodes) {
+                throw new IllegalArgumentException("Cursor does not match the graph");
+            }
+            long startsConsumed = in.readLong();
+            boolean hasHead = in.readBoolean();
+            long expanding = in.readLong();
+            long expanded = in.readLong();
+            if (startsConsumed < 0 || expanding < -1 || expanding >= numNodes || expanded < 0) {
+                throw new IOException("Invalid walk state");
+            }
+            int stackSize = in.readInt();
+            if (stackSize < 0) {
+                throw new IOException("Invalid stack size " + stackSize);
+            }
+            LongArrayList stack = new LongArrayList();
+            for (int i = 0; i < stackSize; i++) {
+                long id = in.readLong();
+                if (id < 0 || id >= numNodes) {
+                    throw new IOException("Vertex id " + id + " out of range");
+                }
+                stack.add(id);
+            }
+            VertexIdSet visited = in.readBoolean() ? VertexIdSet.read(in, numNodes) : null;
+            return new NativeCursor(new String(queryBytes, StandardCharsets.UTF_8), numNodes,
+                    new WebGraphReachabilityStep.State(startsConsumed, hasHead, expanding, expanded,
+                            stack.toLongArray(), visited));
+        } catch (IOException | RuntimeException e) {
+            if (e instanceof IllegalArgumentException) {
+                throw (IllegalArgumentException) e;
+            }
+            throw new IllegalArgumentException("Malformed cursor token", e);
+        }
+    }
+
+    /**
+     * Keeps a traversal open and returns its token.
+     */
+    String open(GraphTraversal<?, ?> traversal) {
+        expireIdle();
+        String token = SERVER + UUID.randomUUID().toString();
+        cursors.put(token, new OpenCursor(traversal));
+        return token;
+    }
+
+    /**
+     * @return the open traversal
+     * @throws IllegalArgumentException if the cursor does not exist or has expired
+     */
+    GraphTraversal<?, ?> get(String token) {
+        expireIdle();
+        OpenCursor cursor = cursors.get(token);
+        if (cursor == null) {
+            throw new IllegalArgumentException("Unknown or expired cursor");
+        }
+        cursor.lastAccess = System.nanoTime();
+        return cursor.traversal;
+    }
+
+    void close(String token) {
+        OpenCursor cursor = cursors.remove(token);
+        if (cursor != null) {
+            cursor.close();
+        }
+    }
+
+    /**
+     * @return the number of open server cursors
+     */
+    int size() {
+        return cursors.size();
+    }
+
+    private void expireIdle() {
+        long now = System.nanoTime();
+        cursors.values().removeIf(cursor -> {
+            if (now - cursor.lastAccess <= idleTimeoutNanos) {
+                return false;
+            }
+            cursor.close();
+            return true;
+        });
+    }
+
+    private static class OpenCursor {
+        final GraphTraversal<?, ?> traversal;
+        volatile long lastAccess = System.nanoTime();
+
+        OpenCursor(GraphTraversal<?, ?> traversal) {
+            this.traversal = traversal;
+        }
+
+        void close() {
+            try {
+                traversal.close();
+            } catch (Exception ignored) {
+                // the traversal holds no external resources
+            }
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package org.webgraph.tinkerpop;
+
+import org.apache.tinkerpop.gremlin.language.grammar.GremlinAntlrToJava;
+import org.apache.tinkerpop.gremlin.language.grammar.GremlinQueryParser;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+
+import java.util.Map;
+
+/**
+ * Parses queries with the {@code gremlin-language} grammar into traversals,
+ * without the Groovy script engine.
+ */
+class GrammarQueryEvaluator implements QueryEvaluator {
+
+    @Override
+    public GraphTraversal<?, ?> eval(GraphTraversalSource g, String query, Map<String, Object> params) {
+        if (!params.isEmpty()) {
+            throw new IllegalArgumentException("Parameters are not supported by " + QueryLanguage.GRAMMAR + " queries");
+        }
+        Object res = GremlinQueryParser.parse(query, new GremlinAntlrToJava(g));
+        if (!(res instanceof GraphTraversal)) {
+            throw new IllegalArgumentException("Query is not a traversal: " + query);
+        }
+        return (GraphTraversal<?, ?>) res;
+    }
+}
@@ -1,29 +1,113 @@
 package org.webgraph.tinkerpop;
 
-import org.apache.tinkerpop.gremlin.groovy.engine.GremlinExecutor;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.GraphStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.IdentityStep;
 import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalMetrics;
 import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.webgraph.tinkerpop.process.traversal.step.map.WebGraphReachabilityStep;
+import org.webgraph.tinkerpop.process.traversal.step.sideEffect.WebGraphBudgetStep;
+import org.webgraph.tinkerpop.process.traversal.strategy.finalization.WebGraphBudgetStrategy;
+import org.webgraph.tinkerpop.process.traversal.util.QueryBudget;
+import org.webgraph.tinkerpop.process.traversal.util.QueryLimits;
+import org.webgraph.tinkerpop.structure.WebGraphGraph;
 
-import javax.script.Bindings;
-import javax.script.SimpleBindings;
 import java.time.Duration;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 
 /**
  * This class provides utility methods that can execute {@code Gremlin} queries on the provided {@code WebGraphGraph}.
+ * <p>
+ * String queries are evaluated according to the {@link QueryLanguage} of the executor. With {@link QueryLanguage#GROOVY},
+ * one Groovy script engine is created on first use and kept for the lifetime of the executor, and compiled scripts
+ * are cached by their text in a bounded LRU cache, so a query evaluated again, possibly with different parameter
+ * bindings, is not compiled again. With {@link QueryLanguage#GRAMMAR}, the Groovy engine is never loaded.
+ * <p>
+ * Queries passed to {@code submit} run asynchronously on a query pool, by default a fixed pool with one thread
+ * per core, created on first use and shut down by {@link #close()}. A {@code WebGraphGraph} must be opened with
+ * {@link WebGraphGraph#CONCURRENT}, so that each query thread reads the graph through its own copy.
+ * <p>
+ * Every query is subject to {@link QueryLimits}, by default the ones {@link #setLimits(QueryLimits) set} on the
+ * executor, enforced at step boundaries by a {@link WebGraphBudgetStrategy}. A query exceeding them fails with a
+ * {@link org.webgraph.tinkerpop.process.traversal.util.QueryLimitExceededException}. Submitted queries can also
+ * pass through a {@link QueryAdmission}, which may be shared by several executors.
+ * <p>
+ * Large results can be fetched in pages with {@link #page(String, int)} and {@link #nextPage(String, int)}.
+ * If a query is a native reachability traversal, {@code g.V(ids).repeat(out().dedup())...}, the continuation token
+ * holds the whole state of the walk and the server keeps nothing between pages. Such tokens are signed, and only
+ * accepted by the executor which issued them. Other queries are kept open in memory until they are exhausted
+ * or idle for longer than the {@link #setCursorTimeout(Duration) cursor timeout}.
  */
-public class GremlinQueryExecutor {
+public class GremlinQueryExecutor implements AutoCloseable {
+    public static final int DEFAULT_SCRIPT_CACHE_SIZE = 256;
+    public static final Duration DEFAULT_CURSOR_TIMEOUT = Duration.ofMinutes(10);
 
     private final Graph g;
+    private final QueryLanguage language;
+    private final int scriptCacheSize;
+    private volatile QueryEvaluator evaluator;
+    private ExecutorService queryPool;
+    private final boolean ownsQueryPool;
+    private volatile QueryLimits limits = QueryLimits.NONE;
+    private volatile QueryAdmission admission;
+    private final CursorTokens cursors = new CursorTokens(DEFAULT_CURSOR_TIMEOUT);
 
     public GremlinQueryExecutor(Graph g) {
+        this(g, QueryLanguage.GROOVY);
+    }
+
+    /**
+     * @param g               the graph
+     * @param scriptCacheSize the maximum number of compiled scripts kept
+     */
+    public GremlinQueryExecutor(Graph g, int scriptCacheSize) {
+        this(g, QueryLanguage.GROOVY, scriptCacheSize);
+    }
+
+    /**
+     * @param g        the graph
+     * @param language the language of string queries
+     */
+    public GremlinQueryExecutor(Graph g, QueryLanguage language) {
+        this(g, language, DEFAULT_SCRIPT_CACHE_SIZE);
+    }
+
+    /**
+     * @param g               the graph
+     * @param language        the language of string queries
+     * @param scriptCacheSize the maximum number of compiled scripts kept, if the language is {@link QueryLanguage#GROOVY}
+     */
+    public GremlinQueryExecutor(Graph g, QueryLanguage language, int scriptCacheSize) {
+        this(g, language, scriptCacheSize, null);
+    }
+
+    /**
+     * @param g               the graph
+     * @param language        the language of string queries
+     * @param scriptCacheSize the maximum number of compiled scripts kept, if the language is {@link QueryLanguage#GROOVY}
+     * @param queryPool       the pool running submitted queries, e.g. a virtual thread per task executor,
+     *                        or null to create a fixed pool with one thread per core on first use.
+     *                        A given pool is not shut down by {@link #close()}.
+     */
+    public GremlinQueryExecutor(Graph g, QueryLanguage language, int scriptCacheSize, ExecutorService queryPool) {
         this.g = g;
+        this.language = language;
+        this.scriptCacheSize = scriptCacheSize;
+        this.queryPool = queryPool;
+        this.ownsQueryPool = queryPool == null;
     }
 
     /**
@@ -33,15 +117,93 @@ public class GremlinQueryExecutor {
      * @return a lazy {@code GraphTraversal} which can be printed or profiled
      */
     public GraphTraversal<?, ?> eval(String query) {
-        Bindings bindings = new SimpleBindings();
-        bindings.put("g", g.traversal());
-        try (GremlinExecutor ge = GremlinExecutor.build()
-                                                 .globalBindings(bindings)
-                                                 .create()) {
-            return (GraphTraversal<?, ?>) ge.eval(query, bindings).get();
-        } catch (Exception e) {
-            throw new RuntimeException(e);
+        return eval(query, Map.of());
+    }
+
+    /**
+     * Evaluates the given {@code Gremlin} query with the given parameters bound as variables, e.g.
+     * {@code eval("g.V(id).out()", Map.of("id", 42L))}.
+     * Queries differing only in parameter values share one compiled script.
+     * Parameters are only supported by {@link QueryLanguage#GROOVY}.
+     *
+     * @param query  the {@code Gremlin } query
+     * @param params the values of the variables used in the query
+     * @return a lazy {@code GraphTraversal} which can be printed or profiled
+     */
+    public GraphTraversal<?, ?> eval(String query, Map<String, Object> params) {
+        return evaluator().eval(traversal(budget(limits)), query, params);
+    }
+
+    private QueryEvaluator evaluator() {
+        QueryEvaluator res = evaluator;
+        if (res == null) {
+            synchronized (this) {
+                res = evaluator;
+                if (res == null) {
+                    res = evaluator = language == QueryLanguage.GROOVY
+                            ? new GroovyQueryEvaluator(scriptCacheSize)
+                            : new GrammarQueryEvaluator();
+                }
+            }
         }
+        return res;
+    }
+
+    private static QueryBudget budget(QueryLimits limits) {
+        return limits.isUnlimited() ? null : new QueryBudget(limits);
+    }
+
+    /**
+     * Returns a traversal source over the graph, enforcing the budget if there is one.
+     */
+    private GraphTraversalSource traversal(QueryBudget budget) {
+        GraphTraversalSource res = g.traversal();
+        return budget == null ? res : res.withStrategies(new WebGraphBudgetStrategy(budget));
+    }
+
+    /**
+     * Sets the limits of the queries evaluated by this executor, unless other limits are given to {@code submit}.
+     * The timeout of a query starts when it is evaluated.
+     *
+     * @param limits the default query limits
+     */
+    public void setLimits(QueryLimits limits) {
+        this.limits = limits;
+    }
+
+    /**
+     * @return the default query limits
+     */
+    public QueryLimits getLimits() {
+        return limits;
+    }
+
+    /**
+     * Sets the admission control of submitted queries.
+     *
+     * @param admission the admission control, or null to start all submitted queries right away
+     */
+    public void setAdmission(QueryAdmission admission) {
+        this.admission = admission;
+    }
+
+    /**
+     * Returns the language of string queries.
+     *
+     * @return the query language
+     */
+    public QueryLanguage language() {
+        return language;
+    }
+
+    /**
+     * Returns the number of compiled scripts currently cached.
+     *
+     * @return the number of cached scripts, or 0 if the language is not {@link QueryLanguage#GROOVY}
+     */
+    public int cachedScripts() {
+        QueryEvaluator res = evaluator;
+        return res instanceof GroovyQueryEvaluator ? ((GroovyQueryEvaluator) res).cachedScripts() : 0;
     }
 
     /**
@@ -51,7 +213,7 @@ public class GremlinQueryExecutor {
      * @return a lazy {@code GraphTraversal} which can be printed or profiled
      */
     public <S, E> GraphTraversal<S, E> eval(Function<GraphTraversalSource, GraphTraversal<S, E>> t) {
-        return t.apply(g.traversal());
+        return t.apply(traversal(budget(limits)));
     }
 
     /**
@@ -72,6 +234,16 @@ public class GremlinQueryExecutor {
         print(eval(query));
     }
 
+    /**
+     * Prints the result entities of the traversal to standard output.
+     *
+     * @param query  the traversal query
+     * @param params the values of the variables used in the query
+     */
+    public void print(String query, Map<String, Object> params) {
+        print(eval(query, params));
+    }
+
     /**
      * Prints the result entities of the traversal to standard output.
      *
@@ -105,6 +277,271 @@ public class GremlinQueryExecutor {
         return res;
     }
 
+    /**
+     * Asynchronously evaluates the traversal on the query pool and collects its result entities.
+     * Cancelling the returned future stops the traversal at the next step boundary.
+     *
+     * @param t the traversal
+     * @return the future result entities
+     */
+    public <S, E> CompletableFuture<List<E>> submit(Function<GraphTraversalSource, GraphTraversal<S, E>> t) {
+        return submit(t, limits);
+    }
+
+    /**
+     * Asynchronously evaluates the traversal on the query pool and collects its result entities.
+     * Cancelling the returned future stops the traversal at the next step boundary.
+     *
+     * @param t      the traversal
+     * @param limits the limits of the query, whose timeout starts when the query starts running
+     * @return the future result entities
+     */
+    public <S, E> CompletableFuture<List<E>> submit(Function<GraphTraversalSource, GraphTraversal<S, E>> t,
+                                                    QueryLimits limits) {
+        CompletableFuture<List<E>> res = new CompletableFuture<>();
+        ExecutorService pool = queryPool();
+        QueryAdmission admission = this.admission;
+        boolean expensive = admission != null && admission.isExpensive(limits);
+        Runnable start = () -> {
+            try {
+                pool.execute(() -> run(t, limits, res, admission, expensive));
+            } catch (RejectedExecutionException e) {
+                res.completeExceptionally(e);
+                if (admission != null) {
+                    admission.release(expensive);
+                }
+            }
+        };
+        if (admission == null) {
+            start.run();
+        } else if (!admission.admit(expensive, start)) {
+            res.completeExceptionally(new RejectedExecutionException("Query queue is full"));
+        }
+        return res;
+    }
+
+    /**
+     * Asynchronously evaluates the query on the query pool and collects its result entities.
+     * Cancelling the returned future stops the traversal at the next step boundary.
+     *
+     * @param query the traversal query
+     * @return the future result entities
+     */
+    public CompletableFuture<List<Object>> submit(String query) {
+        return submit(query, Map.of());
+    }
+
+    /**
+     * Asynchronously evaluates the query on the query pool and collects its result entities.
+     * Cancelling the returned future stops the traversal at the next step boundary.
+     *
+     * @param query  the traversal query
+     * @param params the values of the variables used in the query
+     * @return the future result entities
+     */
+    public CompletableFuture<List<Object>> submit(String query, Map<String, Object> params) {
+        return submit(query, params, limits);
+    }
+
+    /**
+     * Asynchronously evaluates the query on the query pool and collects its result entities.
+     * Cancelling the returned future stops the traversal at the next step boundary.
+     *
+     * @param query  the traversal query
+     * @param params the values of the variables used in the query
+     * @param limits the limits of the query, whose timeout starts when the query starts running
+     * @return the future result entities
+     */
+    public CompletableFuture<List<Object>> submit(String query, Map<String, Object> params, QueryLimits limits) {
+        return submit(source -> (GraphTraversal<Object, Object>) evaluator().eval(source, query, params), limits);
+    }
+
+    /**
+     * Creates and iterates the traversal on a thread of the query pool, so that it only touches the graph copies
+     * of that thread. The traversal always gets a budget, so that cancelling the future stops it.
+     */
+    private <S, E> void run(Function<GraphTraversalSource, GraphTraversal<S, E>> traversal, QueryLimits limits,
+                            CompletableFuture<List<E>> res, QueryAdmission admission, boolean expensive) {
+        try {
+            if (res.isDone()) {
+                return;
+            }
+            QueryBudget budget = new QueryBudget(limits);
+            res.whenComplete((r, e) -> budget.cancel());
+            GraphTraversal<S, E> t = traversal.apply(traversal(budget));
+            List<E> list = new ArrayList<>();
+            while (!res.isDone() && t.hasNext()) {
+                list.add(t.next());
+            }
+            res.complete(list);
+        } catch (Throwable e) {
+            res.completeExceptionally(e);
+        } finally {
+            if (admission != null) {
+                admission.release(expensive);
+            }
+        }
+    }
+
+    private synchronized ExecutorService queryPool() {
+        if (g instanceof WebGraphGraph && !((WebGraphGraph) g).isConcurrent()) {
+            throw new IllegalStateException("Concurrent queries require " + WebGraphGraph.CONCURRENT);
+        }
+        if (queryPool == null) {
+            AtomicInteger threads = new AtomicInteger();
+            queryPool = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), r -> {
+                Thread thread = new Thread(r, "gremlin-query-" + threads.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return queryPool;
+    }
+
+    /**
+     * Evaluates the query and returns the first page of its results.
+     *
+     * @param query    the traversal query
+     * @param pageSize the maximum number of results in a page
+     * @return the first page
+     */
+    public ResultPage<Object> page(String query, int pageSize) {
+        return page(query, Map.of(), pageSize);
+    }
+
+    /**
+     * Evaluates the query and returns the first page of its results.
+     * Queries with parameters are always kept open in memory between pages.
+     *
+     * @param query    the traversal query
+     * @param params   the values of the variables used in the query
+     * @param pageSize the maximum number of results in a page
+     * @return the first page
+     */
+    public ResultPage<Object> page(String query, Map<String, Object> params, int pageSize) {
+        GraphTraversal<Object, Object> t = (GraphTraversal<Object, Object>) eval(query, params);
+        t.asAdmin().applyStrategies();
+        WebGraphReachabilityStep step = params.isEmpty() ? resumableStep(t) : null;
+        if (step != null) {
+            return nativePage(query, t, step, pageSize);
+        }
+        return serverPage(t, cursors.open(t), pageSize);
+    }
+
+    /**
+     * Evaluates the traversal and returns the first page of its results.
+     * The traversal is kept open in memory between pages.
+     *
+     * @param t        the traversal
+     * @param pageSize the maximum number of results in a page
+     * @return the first page
+     */
+    public <S, E> ResultPage<E> page(Function<GraphTraversalSource, GraphTraversal<S, E>> t, int pageSize) {
+        GraphTraversal<S, E> traversal = eval(t);
+        return serverPage(traversal, cursors.open(traversal), pageSize);
+    }
+
+    /**
+     * Returns the next page of the results of a query.
+     *
+     * @param token    the token of the previous page
+     * @param pageSize the maximum number of results in a page
+     * @return the next page
+     * @throws IllegalArgumentException if the token is malformed, was not issued by this executor,
+     *                                  or names a cursor which expired
+     */
+    public <E> ResultPage<E> nextPage(String token, int pageSize) {
+        if (!CursorTokens.isNative(token)) {
+            return serverPage((GraphTraversal<?, E>) cursors.get(token), token, pageSize);
+        }
+        // the token is signed, so the query was evaluated by this executor before
+        CursorTokens.NativeCursor cursor = cursors.decodeNative(token, ((WebGraphGraph) g).getBaseGraph().numNodes());
+        GraphTraversal<Object, E> t = (GraphTraversal<Object, E>) eval(cursor.query);
+        t.asAdmin().applyStrategies();
+        WebGraphReachabilityStep step = resumableStep(t);
+        if (step == null) {
+            throw new IllegalArgumentException("Cursor does not match the query");
+        }
+        step.restoreState(cursor.state);
+        return nativePage(cursor.query, t, step, pageSize);
+    }
+
+    /**
+     * Releases the traversal kept open for a token. Tokens of native traversals hold no server state.
+     *
+     * @param token the token of a page
+     */
+    public void closeCursor(String token) {
+        if (!CursorTokens.isNative(token)) {
+            cursors.close(token);
+        }
+    }
+
+    /**
+     * Sets how long a traversal kept open between pages may stay idle before it is released.
+     *
+     * @param timeout the idle timeout
+     */
+    public void setCursorTimeout(Duration timeout) {
+        cursors.setIdleTimeout(timeout);
+    }
+
+    private <E> ResultPage<E> nativePage(String query, GraphTraversal<?, E> t, WebGraphReachabilityStep step,
+                                         int pageSize) {
+        List<E> results = nextResults(t, pageSize);
+        if (results.size() < pageSize) {
+            return new ResultPage<>(results, null);
+        }
+        WebGraphGraph graph = (WebGraphGraph) t.asAdmin().getGraph().orElseThrow();
+        return new ResultPage<>(results, cursors.encodeNative(query, graph.getBaseGraph().numNodes(), step.saveState()));
+    }
+
+    private <E> ResultPage<E> serverPage(GraphTraversal<?, E> t, String token, int pageSize) {
+        List<E> results;
+        synchronized (t) {
+            results = nextResults(t, pageSize);
+        }
+        if (results.size() < pageSize) {
+            cursors.close(token);
+            return new ResultPage<>(results, null);
+        }
+        return new ResultPage<>(results, token);
+    }
+
+    /**
+     * Takes up to {@code pageSize} results, without looking ahead, so that the traversal can be suspended
+     * right after the last one.
+     */
+    private static <E> List<E> nextResults(GraphTraversal<?, E> t, int pageSize) {
+        List<E> res = new ArrayList<>(Math.min(pageSize, 1 << 16));
+        while (res.size() < pageSize && t.hasNext()) {
+            res.add(t.next());
+        }
+        return res;
+    }
+
+    /**
+     * Returns the reachability step of a traversal whose state is entirely held by the step:
+     * {@code g.V(ids)} followed by the step. The step is only created on a {@code WebGraphGraph}.
+     */
+    private static WebGraphReachabilityStep resumableStep(Traversal.Admin<?, ?> traversal) {
+        List<Step> steps = new ArrayList<>();
+        for (Step step : traversal.getSteps()) {
+            if (!(step instanceof WebGraphBudgetStep) && !(step instanceof IdentityStep)) {
+                steps.add(step);
+            }
+        }
+        if (steps.size() != 2 || steps.get(0).getClass() != GraphStep.class
+                || !(steps.get(1) instanceof WebGraphReachabilityStep)) {
+            return null;
+        }
+        GraphStep<?, ?> graphStep = (GraphStep<?, ?>) steps.get(0);
+        if (!graphStep.returnsVertex() || graphStep.getIds().length == 0) {
+            return null;
+        }
+        return (WebGraphReachabilityStep) steps.get(1);
+    }
+
     /**
      * Executes the query and prints stats after the delay passes.
      *
@@ -192,6 +629,17 @@ public class GremlinQueryExecutor {
         return profile(eval(query));
     }
 
+    /**
+     * Prints the profile stats of given traversal to standard output.
+     *
+     * @param query  the query to profile
+     * @param params the values of the variables used in the query
+     * @return the execution time of the traversal in milliseconds
+     */
+    public TraversalMetrics profile(String query, Map<String, Object> params) {
+        return profile(eval(query, params));
+    }
+
     /**
      * Prints the profile stats of given traversal to standard output.
      *
@@ -201,5 +649,15 @@ public class GremlinQueryExecutor {
     public TraversalMetrics profile(GraphTraversal<?, ?> t) {
         return t.profile().next();
     }
-}
 
+    /**
+     * Shuts down the query pool created by this executor. Queries already submitted still complete.
+     */
+    @Override
+    public synchronized void close() {
+        if (ownsQueryPool && queryPool != null) {
+            queryPool.shutdown();
+            queryPool = null;
+        }
+    }
+}
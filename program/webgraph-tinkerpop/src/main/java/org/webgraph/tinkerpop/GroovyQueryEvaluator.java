@@ -0,0 +1,75 @@
+package org.webgraph.tinkerpop;
+
+import it.unimi.dsi.fastutil.objects.Object2ObjectLinkedOpenHashMap;
+import org.apache.tinkerpop.gremlin.groovy.jsr223.GremlinGroovyScriptEngine;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+
+import javax.script.Bindings;
+import javax.script.CompiledScript;
+import javax.script.ScriptException;
+import javax.script.SimpleBindings;
+import java.util.Map;
+
+/**
+ * Evaluates queries as Groovy scripts.
+ * <p>
+ * One script engine is kept for the lifetime of the evaluator. Compiled scripts are cached by their text
+ * in a bounded LRU cache, so a query evaluated again, possibly with different parameter bindings,
+ * is not compiled again.
+ */
+class GroovyQueryEvaluator implements QueryEvaluator {
+    private final int scriptCacheSize;
+    private final Object2ObjectLinkedOpenHashMap<String, CompiledScript> scripts = new Object2ObjectLinkedOpenHashMap<>();
+    private final GremlinGroovyScriptEngine engine = new GremlinGroovyScriptEngine();
+
+    GroovyQueryEvaluator(int scriptCacheSize) {
+        this.scriptCacheSize = scriptCacheSize;
+    }
+
+    @Override
+    public GraphTraversal<?, ?> eval(GraphTraversalSource g, String query, Map<String, Object> params) {
+        Bindings bindings = new SimpleBindings();
+        bindings.putAll(params);
+        bindings.put("g", g);
+        try {
+            return (GraphTraversal<?, ?>) compile(query).eval(bindings);
+        } catch (ScriptException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Returns the compiled script for the query, compiling and caching it if it is not cached.
+     *
+     * @param query the {@code Gremlin } query
+     * @return the compiled script
+     */
+    private CompiledScript compile(String query) throws ScriptException {
+        synchronized (scripts) {
+            CompiledScript script = scripts.getAndMoveToLast(query);
+            if (script != null) {
+                return script;
+            }
+        }
+        CompiledScript script = engine.compile(query);
+        synchronized (scripts) {
+            if (scriptCacheSize > 0) {
+                scripts.putAndMoveToLast(query, script);
+                if (scripts.size() > scriptCacheSize) {
+                    scripts.removeFirst();
+                }
+            }
+        }
+        return script;
+    }
+
+    /**
+     * @return the number of compiled scripts currently cached
+     */
+    int cachedScripts() {
+        synchronized (scripts) {
+            return scripts.size();
+        }
+    }
+}
@@ -1,20 +1,38 @@
 package org.webgraph.tinkerpop;
 
+import org.webgraph.tinkerpop.process.traversal.util.QueryLimits;
 import org.webgraph.tinkerpop.structure.WebGraphGraph;
 
+import java.time.Duration;
+
 public class Main {
 
     public static void main(String[] args) {
         if (args == null || args.length < 2 || args[0] == null || args[1] == null) {
-            System.out.println("Usage: org.webgraph.tinkerpop.Main <graph_path> <query> [--profile]");
+            System.out.println("Usage: org.webgraph.tinkerpop.Main <graph_path> <query> [--profile] [--language=groovy|grammar] [--timeout=<seconds>] [--max-elements=<n>]");
             return;
         }
         String path = args[0];
         String query = args[1];
-        boolean profile = args.length == 3 && args[2].equals("--profile");
+        boolean profile = false;
+        QueryLanguage language = QueryLanguage.GROOVY;
+        Duration timeout = null;
+        long maxElements = 0;
+        for (int i = 2; i < args.length; i++) {
+            if (args[i].equals("--profile")) {
+                profile = true;
+            } else if (args[i].startsWith("--language=")) {
+                language = QueryLanguage.parse(args[i].substring("--language=".length()));
+            } else if (args[i].startsWith("--timeout=")) {
+                timeout = Duration.ofSeconds(Long.parseLong(args[i].substring("--timeout=".length())));
+            } else if (args[i].startsWith("--max-elements=")) {
+                maxElements = Long.parseLong(args[i].substring("--max-elements=".length()));
+            }
+        }
         try (WebGraphGraph g = WebGraphGraph.open(path)) {
             System.out.println("Opened graph: " + path);
-            var executor = new GremlinQueryExecutor(g);
+            var executor = new GremlinQueryExecutor(g, language);
+            executor.setLimits(new QueryLimits(timeout, maxElements, 0));
             if (profile) {
                 executor.profile(query);
             } else {
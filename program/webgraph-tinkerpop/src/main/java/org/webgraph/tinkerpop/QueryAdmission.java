@@ -0,0 +1,121 @@
+package org.webgraph.tinkerpop;
+
+import org.webgraph.tinkerpop.process.traversal.util.QueryLimits;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+
+/**
+ * Global admission control for the queries submitted to one or more {@link GremlinQueryExecutor}s.
+ * <p>
+ * At most {@code maxRunning} queries run at a time, of which at most {@code maxExpensiveRunning} are expensive.
+ * A query is expensive if its timeout is unset or longer than {@code cheapTimeout}. Queries which cannot start
+ * right away wait in a queue of at most {@code maxQueued} queries, where cheap queries are started before
+ * expensive ones. Queries arriving at a full queue are shed.
+ */
+public class QueryAdmission {
+    private final int maxRunning;
+    private final int maxExpensiveRunning;
+    private final int maxQueued;
+    private final Duration cheapTimeout;
+    private final ArrayDeque<Runnable> queuedCheap = new ArrayDeque<>();
+    private final ArrayDeque<Runnable> queuedExpensive = new ArrayDeque<>();
+    private int running;
+    private int expensiveRunning;
+
+    /**
+     * @param maxRunning          the maximum number of running queries
+     * @param maxExpensiveRunning the maximum number of running expensive queries
+     * @param maxQueued           the maximum number of waiting queries
+     * @param cheapTimeout        the longest timeout of a cheap query
+     */
+    public QueryAdmission(int maxRunning, int maxExpensiveRunning, int maxQueued, Duration cheapTimeout) {
+        if (maxRunning < 1 || maxExpensiveRunning < 1) {
+            throw new IllegalArgumentException("At least one query must be able to run");
+        }
+        this.maxRunning = maxRunning;
+        this.maxExpensiveRunning = Math.min(maxExpensiveRunning, maxRunning);
+        this.maxQueued = maxQueued;
+        this.cheapTimeout = cheapTimeout;
+    }
+
+    /**
+     * @param limits the limits of a query
+     * @return {@code true} if the query is expensive
+     */
+    public boolean isExpensive(QueryLimits limits) {
+        return limits.getTimeout() == null || limits.getTimeout().compareTo(cheapTimeout) > 0;
+    }
+
+    /**
+     * Starts a query now, or queues it until a running query is {@link #release(boolean) released}.
+     *
+     * @param expensive whether the query is expensive
+     * @param start     starts the query, which must call {@link #release(boolean)} once it is done
+     * @return {@code false} if the query was shed
+     */
+    public boolean admit(boolean expensive, Runnable start) {
+        synchronized (this) {
+            if (!canRun(expensive)) {
+                if (queuedCheap.size() + queuedExpensive.size() >= maxQueued) {
+                    return false;
+                }
+                (expensive ? queuedExpensive : queuedCheap).add(start);
+                return true;
+            }
+            acquire(expensive);
+        }
+        start.run();
+        return true;
+    }
+
+    /**
+     * Releases the slot of a finished query, starting the next queued query if there is one.
+     *
+     * @param expensive whether the finished query was expensive
+     */
+    public void release(boolean expensive) {
+        Runnable next;
+        synchronized (this) {
+            running--;
+            if (expensive) {
+                expensiveRunning--;
+            }
+            if (!queuedCheap.isEmpty()) {
+                next = queuedCheap.poll();
+                acquire(false);
+            } else if (!queuedExpensive.isEmpty() && canRun(true)) {
+                next = queuedExpensive.poll();
+                acquire(true);
+            } else {
+                return;
+            }
+        }
+        next.run();
+    }
+
+    private boolean canRun(boolean expensive) {
+        return running < maxRunning && (!expensive || expensiveRunning < maxExpensiveRunning);
+    }
+
+    private void acquire(boolean expensive) {
+        running++;
+        if (expensive) {
+            expensiveRunning++;
+        }
+    }
+
+    /**
+     * @return the number of running queries
+     */
+    public synchronized int running() {
+        return running;
+    }
+
+    /**
+     * @return the number of waiting queries
+     */
+    public synchronized int queued() {
+        return queuedCheap.size() + queuedExpensive.size();
+    }
+}
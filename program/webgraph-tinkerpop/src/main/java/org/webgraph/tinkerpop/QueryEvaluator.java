@@ -0,0 +1,20 @@
+package org.webgraph.tinkerpop;
+
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+
+import java.util.Map;
+
+/**
+ * Turns a {@code Gremlin} query string into a traversal, see {@link QueryLanguage}.
+ */
+interface QueryEvaluator {
+
+    /**
+     * @param g      the traversal source bound to {@code g} in the query
+     * @param query  the {@code Gremlin} query
+     * @param params the values of the variables used in the query
+     * @return a lazy traversal
+     */
+    GraphTraversal<?, ?> eval(GraphTraversalSource g, String query, Map<String, Object> params);
+}
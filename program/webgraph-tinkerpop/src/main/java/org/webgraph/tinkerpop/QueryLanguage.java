@@ -0,0 +1,27 @@
+package org.webgraph.tinkerpop;
+
+/**
+ * The way {@link GremlinQueryExecutor} evaluates string queries.
+ */
+public enum QueryLanguage {
+    /**
+     * Evaluates queries as Groovy scripts. Supports arbitrary Groovy code and parameter bindings,
+     * but the first query of each shape pays for the compilation.
+     */
+    GROOVY,
+    /**
+     * Parses queries with the ANTLR grammar of {@code gremlin-language} straight into a traversal.
+     * Does not load the Groovy script engine, but supports only plain traversals without variables or lambdas.
+     */
+    GRAMMAR;
+
+    /**
+     * Parses a command line value, ignoring case.
+     *
+     * @param name the name of the language
+     * @return the language
+     */
+    public static QueryLanguage parse(String name) {
+        return valueOf(name.toUpperCase());
+    }
+}
@@ -0,0 +1,52 @@
+package org.webgraph.tinkerpop;
+
+import java.util.List;
+
+/**
+ * A page of the results of a query, with a continuation token for the next page.
+ *
+ * @param <E> the type of the results
+ * @see GremlinQueryExecutor#page(String, int)
+ */
+public class ResultPage<E> {
+    private final List<E> results;
+    private final String token;
+
+    /**
+     * @param results the results in this page
+     * @param token   the token of the next page, or null if there are no more results
+     */
+    public ResultPage(List<E> results, String token) {
+        this.results = results;
+        this.token = token;
+    }
+
+    /**
+     * @return the results in this page
+     */
+    public List<E> getResults() {
+        return results;
+    }
+
+    /**
+     * Returns the token to pass to {@link GremlinQueryExecutor#nextPage(String, int)} to get the next page.
+     * A full page may be followed by an empty last page.
+     *
+     * @return the token, or null if there are no more results
+     */
+    public String getToken() {
+        return token;
+    }
+
+    /**
+     * @return {@code true} if there may be more results
+     */
+    public boolean hasMore() {
+        return token != null;
+    }
+
+    @Override
+    public String toString() {
+        return "ResultPage[results=" + results.size() + (token == null ? "" : ", more") + "]";
+    }
+}
@@ -0,0 +1,192 @@
+package org.webgraph.tinkerpop.process.computer;
+
+import it.unimi.dsi.fastutil.BigArrays;
+import it.unimi.dsi.fastutil.objects.ObjectBigArrays;
+import org.apache.tinkerpop.gremlin.process.computer.GraphComputer;
+import org.apache.tinkerpop.gremlin.process.computer.GraphFilter;
+import org.apache.tinkerpop.gremlin.process.computer.VertexComputeKey;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.VertexProperty;
+import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
+import org.webgraph.tinkerpop.structure.WebGraphVertex;
+import org.webgraph.tinkerpop.structure.WebGraphVertexProperty;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Vertex properties written by a {@link org.apache.tinkerpop.gremlin.process.computer.VertexProgram}.
+ * <p>
+ * Values of each compute key are kept in a big array indexed by vertex id, allocated on the first write.
+ * Each vertex is only written by the worker executing it, and iterations are separated by a barrier,
+ * so slots need no synchronization. Once the computation is complete, transient keys are dropped
+ * and the view becomes read-only.
+ * <p>
+ * When computations are chained, the view of each one falls back to the view of the previous one,
+ * so that the properties it computed remain readable. The view also applies the edge filter
+ * of the computation to the adjacency of vertices.
+ */
+public class WebGraphComputerView {
+    private final WebGraphComputerView parent;
+    private final long numNodes;
+    private final Map<String, VertexComputeKey> computeKeys;
+    private final Map<String, Object[][]> values = new ConcurrentHashMap<>();
+    private final GraphFilter graphFilter;
+    /**
+     * Copy of the graph filter owned by each thread, as its traversals cannot be shared.
+     */
+    private final ThreadLocal<GraphFilter> threadFilter;
+    /**
+     * Whether the calling thread is evaluating the edge filter, whose own edge reads must not be filtered.
+     */
+    private final ThreadLocal<Boolean> filtering = ThreadLocal.withInitial(() -> false);
+    private volatile boolean complete = false;
+
+    /**
+     * @param parent       the view of the computation which produced the input graph, or {@code null}
+     * @param numNodes     the number of vertices
+     * @param computeKeys  the compute keys of the vertex program
+     * @param graphFilter  the graph filter of the computation
+     */
+    public WebGraphComputerView(WebGraphComputerView parent, long numNodes, Set<VertexComputeKey> computeKeys,
+                                GraphFilter graphFilter) {
+        this.parent = parent;
+        this.numNodes = numNodes;
+        this.computeKeys = new ConcurrentHashMap<>();
+        computeKeys.forEach(key -> this.computeKeys.put(key.getKey(), key));
+        this.graphFilter = graphFilter;
+        this.threadFilter = ThreadLocal.withInitial(graphFilter::clone);
+    }
+
+    /**
+     * @param key a property key
+     * @return {@code true} if the key is a compute key of this view or of a parent view
+     */
+    public boolean isComputeKey(String key) {
+        return computeKeys.containsKey(key) || parent != null && parent.isComputeKey(key);
+    }
+
+    /**
+     * @return the compute keys of this view and of its parent views
+     */
+    public Set<String> computeKeys() {
+        if (parent == null) {
+            return computeKeys.keySet();
+        }
+        Set<String> res = new HashSet<>(parent.computeKeys());
+        res.addAll(computeKeys.keySet());
+        return res;
+    }
+
+    /**
+     * Returns a compute property of a vertex.
+     *
+     * @param vertex the vertex
+     * @param key    a compute key
+     * @return the property, or an empty property if it was never written
+     */
+    public <V> VertexProperty<V> getProperty(WebGraphVertex vertex, String key) {
+        if (!computeKeys.containsKey(key) && parent != null) {
+            return parent.getProperty(vertex, key);
+        }
+        Object[][] slots = values.get(key);
+        V value = slots == null ? null : (V) BigArrays.get(slots, (long) vertex.id());
+        return value == null ? VertexProperty.empty() : new ComputeProperty<>(vertex, key, value);
+    }
+
+    /**
+     * Sets a compute property of a vertex.
+     *
+     * @param vertex the vertex
+     * @param key    a compute key
+     * @param value  the value
+     * @return the new property
+     * @throws IllegalArgumentException if the key is not a compute key of this view
+     * @throws IllegalStateException    if the computation is complete
+     */
+    public <V> VertexProperty<V> setProperty(WebGraphVertex vertex, String key, V value) {
+        if (complete) {
+            throw new IllegalStateException("The computation is complete, compute properties are read-only");
+        }
+        if (!computeKeys.containsKey(key)) {
+            throw GraphComputer.Exceptions.providedKeyIsNotAnElementComputeKey(key);
+        }
+        Object[][] slots = values.computeIfAbsent(key, k -> ObjectBigArrays.newBigArray(numNodes));
+        BigArrays.set(slots, (long) vertex.id(), value);
+        return new ComputeProperty<>(vertex, key, value);
+    }
+
+    /**
+     * @return {@code true} if the computation has an edge filter, so that adjacency must be read through
+     * {@link #legalEdges(WebGraphVertex, Direction, Iterator)}
+     */
+    public boolean filtersEdges() {
+        return graphFilter.hasEdgeFilter();
+    }
+
+    /**
+     * Filters the edges of a vertex in one direction with the edge filter of the computation.
+     * The filter is only evaluated if its legality cannot be decided from the direction alone.
+     *
+     * @param vertex    the vertex
+     * @param direction the direction of the edges, {@link Direction#OUT} or {@link Direction#IN}
+     * @param edges     the edges of the vertex in this direction
+     * @return the legal edges
+     */
+    public Iterator<Edge> legalEdges(WebGraphVertex vertex, Direction direction, Iterator<Edge> edges) {
+        if (!graphFilter.hasEdgeFilter() || filtering.get()) {
+            return edges;
+        }
+        switch (graphFilter.checkEdgeLegality(direction)) {
+            case YES:
+                return edges;
+            case NO:
+                return Collections.emptyIterator();
+            default:
+                Set<Edge> legal;
+                filtering.set(true);
+                try {
+                    legal = IteratorUtils.set(threadFilter.get().legalEdges(vertex));
+                } finally {
+                    filtering.set(false);
+                }
+                return IteratorUtils.filter(edges, legal::contains);
+        }
+    }
+
+    /**
+     * Drops transient compute keys and makes the view read-only.
+     */
+    void complete() {
+        computeKeys.values().removeIf(key -> {
+            if (key.isTransient()) {
+                values.remove(key.getKey());
+                return true;
+            }
+            return false;
+        });
+        complete = true;
+    }
+
+    private class ComputeProperty<V> extends WebGraphVertexProperty<V> {
+        ComputeProperty(WebGraphVertex vertex, String key, V value) {
+            super(vertex, key, value);
+        }
+
+        @Override
+        public void remove() {
+            if (complete) {
+                super.remove();
+            }
+            Object[][] slots = values.get(key);
+            if (slots != null) {
+                BigArrays.set(slots, (long) element().id(), null);
+            }
+        }
+    }
+}
@@ -0,0 +1,365 @@
+package org.webgraph.tinkerpop.process.computer;
+
+import org.apache.tinkerpop.gremlin.process.computer.ComputerResult;
+import org.apache.tinkerpop.gremlin.process.computer.GraphComputer;
+import org.apache.tinkerpop.gremlin.process.computer.GraphFilter;
+import org.apache.tinkerpop.gremlin.process.computer.MapReduce;
+import org.apache.tinkerpop.gremlin.process.computer.VertexProgram;
+import org.apache.tinkerpop.gremlin.process.computer.util.ComputerGraph;
+import org.apache.tinkerpop.gremlin.process.computer.util.DefaultComputerResult;
+import org.apache.tinkerpop.gremlin.process.computer.util.GraphComputerHelper;
+import org.apache.tinkerpop.gremlin.process.computer.util.ImmutableMemory;
+import org.apache.tinkerpop.gremlin.process.computer.util.MapReducePool;
+import org.apache.tinkerpop.gremlin.process.computer.util.VertexProgramPool;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalInterruptedException;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
+import org.webgraph.tinkerpop.structure.WebGraphGraph;
+import org.webgraph.tinkerpop.structure.WebGraphVertex;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * A {@link GraphComputer} running vertex programs bulk-synchronously over a {@link WebGraphGraph}.
+ * <p>
+ * In each iteration, workers claim consecutive chunks of vertex ids and execute the vertex program on them,
+ * reading the graph through their own copy. Vertex compute properties are stored in a {@link WebGraphComputerView}
+ * and messages in a {@link WebGraphMessageBoard}, both indexed by vertex id, so no state is kept in vertex objects
+ * and vertices are not cached. The graph itself is read-only, so compute properties can only be persisted
+ * to a {@link ResultGraph#NEW} graph, which shares the structure of the original one.
+ */
+public class WebGraphGraphComputer implements GraphComputer {
+    /**
+     * Number of vertex ids claimed at once by a worker.
+     */
+    private static final int CHUNK_SIZE = 4096;
+
+    private final WebGraphGraph graph;
+    private ResultGraph resultGraph;
+    private Persist persist;
+    private VertexProgram<?> vertexProgram;
+    private final Set<MapReduce> mapReducers = new HashSet<>();
+    private final GraphFilter graphFilter = new GraphFilter();
+    private int workers = Runtime.getRuntime().availableProcessors();
+    private WebGraphMemory memory;
+    private boolean executed = false;
+
+    public WebGraphGraphComputer(WebGraphGraph graph) {
+        this.graph = graph;
+    }
+
+    @Override
+    public GraphComputer result(ResultGraph resultGraph) {
+        this.resultGraph = resultGraph;
+        return this;
+    }
+
+    @Override
+    public GraphComputer persist(Persist persist) {
+        this.persist = persist;
+        return this;
+    }
+
+    @Override
+    public GraphComputer program(VertexProgram vertexProgram) {
+        this.vertexProgram = vertexProgram;
+        return this;
+    }
+
+    @Override
+    public GraphComputer mapReduce(MapReduce mapReduce) {
+        this.mapReducers.add(mapReduce);
+        return this;
+    }
+
+    @Override
+    public GraphComputer workers(int workers) {
+        this.workers = workers;
+        return this;
+    }
+
+    @Override
+    public GraphComputer vertices(Traversal<Vertex, Vertex> vertexFilter) {
+        this.graphFilter.setVertexFilter(vertexFilter);
+        return this;
+    }
+
+    @Override
+    public GraphComputer edges(Traversal<Vertex, Edge> edgeFilter) {
+        this.graphFilter.setEdgeFilter(edgeFilter);
+        return this;
+    }
+
+    @Override
+    public Future<ComputerResult> submit() {
+        if (executed) {
+            throw GraphComputer.Exceptions.computerHasAlreadyBeenSubmittedAVertexProgram();
+        }
+        executed = true;
+        if (vertexProgram == null && mapReducers.isEmpty()) {
+            throw GraphComputer.Exceptions.computerHasNoVertexProgramNorMapReducers();
+        }
+        if (vertexProgram != null) {
+            GraphComputerHelper.validateProgramOnComputer(this, vertexProgram);
+            mapReducers.addAll(vertexProgram.getMapReducers());
+        }
+        resultGraph = GraphComputerHelper.getResultGraphState(Optional.ofNullable(vertexProgram), Optional.ofNullable(resultGraph));
+        persist = GraphComputerHelper.getPersistState(Optional.ofNullable(vertexProgram), Optional.ofNullable(persist));
+        if (!features().supportsResultGraphPersistCombination(resultGraph, persist)) {
+            throw GraphComputer.Exceptions.resultGraphPersistCombinationNotSupported(resultGraph, persist);
+        }
+        if (workers > features().getMaxWorkers()) {
+            throw GraphComputer.Exceptions.computerRequiresMoreWorkersThanSupported(workers, features().getMaxWorkers());
+        }
+        memory = new WebGraphMemory(vertexProgram, mapReducers);
+        ExecutorService computerService = Executors.newSingleThreadExecutor();
+        try {
+            return computerService.submit(this::compute);
+        } finally {
+            computerService.shutdown();
+        }
+    }
+
+    private ComputerResult compute() throws InterruptedException, ExecutionException {
+        long time = System.currentTimeMillis();
+        long numNodes = graph.getBaseGraph().numNodes();
+        WebGraphComputerView view = new WebGraphComputerView(graph.getComputerView(), numNodes,
+                vertexProgram == null ? Set.of() : vertexProgram.getVertexComputeKeys(), graphFilter);
+        WebGraphGraph computerGraph = graph.withComputerView(view);
+        ExecutorService workerPool = Executors.newFixedThreadPool(workers);
+        try {
+            if (vertexProgram != null) {
+                executeVertexProgram(computerGraph, workerPool, numNodes);
+            }
+            view.complete();
+            for (MapReduce mapReduce : mapReducers) {
+                executeMapReduce(mapReduce, computerGraph, workerPool, numNodes);
+            }
+        } finally {
+            workerPool.shutdownNow();
+        }
+        memory.setRuntime(System.currentTimeMillis() - time);
+        memory.complete();
+        Graph result = resultGraph == ResultGraph.NEW && persist != Persist.NOTHING ? computerGraph : graph;
+        return new DefaultComputerResult(result, memory.asImmutable());
+    }
+
+    private <M> void executeVertexProgram(WebGraphGraph computerGraph, ExecutorService workerPool, long numNodes)
+            throws InterruptedException, ExecutionException {
+        vertexProgram.setup(memory);
+        VertexProgramPool programPool = new VertexProgramPool(vertexProgram, workers);
+        WebGraphMessageBoard<M> messageBoard = new WebGraphMessageBoard<>(numNodes,
+                ((VertexProgram<M>) vertexProgram).getMessageCombiner().orElse(null));
+        while (true) {
+            if (Thread.interrupted()) {
+                throw new TraversalInterruptedException();
+            }
+            memory.completeSubRound();
+            runWorkers(workerPool, computerGraph, numNodes, () -> {
+                VertexProgram<M> program = programPool.take();
+                WebGraphWorkerMemory workerMemory = new WebGraphWorkerMemory(memory);
+                WebGraphMessenger<M> messenger = new WebGraphMessenger<>(computerGraph, messageBoard);
+                program.workerIterationStart(new ImmutableMemory(workerMemory));
+                return new Worker() {
+                    @Override
+                    public void execute(WebGraphVertex vertex) {
+                        messenger.setVertex(vertex);
+                        program.execute(ComputerGraph.vertexProgram(vertex, program), messenger, workerMemory);
+                    }
+
+                    @Override
+                    public void complete() {
+                        program.workerIterationEnd(new ImmutableMemory(workerMemory));
+                        workerMemory.complete();
+                        programPool.offer(program);
+                    }
+                };
+            });
+            messageBoard.completeIteration();
+            memory.completeSubRound();
+            boolean terminate = vertexProgram.terminate(memory);
+            memory.incrIteration();
+            if (terminate) {
+                break;
+            }
+        }
+    }
+
+    private void executeMapReduce(MapReduce mapReduce, WebGraphGraph computerGraph, ExecutorService workerPool,
+                                  long numNodes) throws InterruptedException, ExecutionException {
+        MapReducePool mapReducePool = new MapReducePool(mapReduce, workers);
+        WebGraphMapEmitter<?, ?> mapEmitter = new WebGraphMapEmitter<>(mapReduce.doStage(MapReduce.Stage.REDUCE));
+        runWorkers(workerPool, computerGraph, numNodes, () -> {
+            MapReduce workerMapReduce = mapReducePool.take();
+            workerMapReduce.workerStart(MapReduce.Stage.MAP);
+            return new Worker() {
+                @Override
+                public void execute(WebGraphVertex vertex) {
+                    workerMapReduce.map(ComputerGraph.mapReduce(vertex), mapEmitter);
+                }
+
+                @Override
+                public void complete() {
+                    workerMapReduce.workerEnd(MapReduce.Stage.MAP);
+                    mapReducePool.offer(workerMapReduce);
+                }
+            };
+        });
+        mapEmitter.complete(mapReduce);
+        if (!mapReduce.doStage(MapReduce.Stage.REDUCE)) {
+            mapReduce.addResultToMemory(memory, mapEmitter.mapQueue.iterator());
+            return;
+        }
+        WebGraphReduceEmitter<?, ?> reduceEmitter = new WebGraphReduceEmitter<>();
+        Iterator<? extends Map.Entry<?, ? extends Queue<?>>> entries = mapEmitter.reduceMap.entrySet().iterator();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < workers; i++) {
+            futures.add(workerPool.submit(() -> {
+                MapReduce workerMapReduce = mapReducePool.take();
+                workerMapReduce.workerStart(MapReduce.Stage.REDUCE);
+                for (Map.Entry<?, ? extends Queue<?>> entry; (entry = next(entries)) != null; ) {
+                    workerMapReduce.reduce(entry.getKey(), entry.getValue().iterator(), reduceEmitter);
+                }
+                workerMapReduce.workerEnd(MapReduce.Stage.REDUCE);
+                mapReducePool.offer(workerMapReduce);
+                return null;
+            }));
+        }
+        await(futures);
+        reduceEmitter.complete(mapReduce);
+        mapReduce.addResultToMemory(memory, reduceEmitter.reduceQueue.iterator());
+    }
+
+    private static <T> T next(Iterator<T> iterator) {
+        synchronized (iterator) {
+            return iterator.hasNext() ? iterator.next() : null;
+        }
+    }
+
+    /**
+     * Work done by one worker in a stage of the computation.
+     */
+    private interface Worker {
+        void execute(WebGraphVertex vertex);
+
+        void complete();
+    }
+
+    /**
+     * Runs a stage of the computation on all legal vertices, and waits for its completion.
+     *
+     * @param workerPool    the pool running the workers
+     * @param computerGraph the graph whose vertices are passed to the workers
+     * @param numNodes      the number of vertices
+     * @param workerFactory creates the state of each worker, called in the worker thread
+     */
+    private void runWorkers(ExecutorService workerPool, WebGraphGraph computerGraph, long numNodes,
+                            Supplier<Worker> workerFactory) throws InterruptedException, ExecutionException {
+        AtomicLong nextChunk = new AtomicLong();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < workers; i++) {
+            // the vertex filter is a traversal, which cannot be shared by threads
+            GraphFilter workerFilter = graphFilter.hasVertexFilter() ? graphFilter.clone() : null;
+            futures.add(workerPool.submit(() -> {
+                Worker worker = workerFactory.get();
+                for (long from; (from = nextChunk.getAndAdd(CHUNK_SIZE)) < numNodes; ) {
+                    if (Thread.interrupted()) {
+                        throw new TraversalInterruptedException();
+                    }
+                    long to = Math.min(numNodes, from + CHUNK_SIZE);
+                    for (long id = from; id < to; id++) {
+                        WebGraphVertex vertex = new WebGraphVertex(id, computerGraph);
+                        if (workerFilter == null || workerFilter.legalVertex(vertex)) {
+                            worker.execute(vertex);
+                        }
+                    }
+                }
+                worker.complete();
+                return null;
+            }));
+        }
+        await(futures);
+    }
+
+    private static void await(List<Future<?>> futures) throws InterruptedException, ExecutionException {
+        try {
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            futures.forEach(future -> future.cancel(true));
+        }
+    }
+
+    @Override
+    public String toString() {
+        return StringFactory.graphComputerString(this);
+    }
+
+    @Override
+    public Features features() {
+        return new Features() {
+            @Override
+            public int getMaxWorkers() {
+                return Runtime.getRuntime().availableProcessors();
+            }
+
+            @Override
+            public boolean supportsVertexAddition() {
+                return false;
+            }
+
+            @Override
+            public boolean supportsVertexRemoval() {
+                return false;
+            }
+
+            @Override
+            public boolean supportsVertexPropertyRemoval() {
+                return false;
+            }
+
+            @Override
+            public boolean supportsEdgeAddition() {
+                return false;
+            }
+
+            @Override
+            public boolean supportsEdgeRemoval() {
+                return false;
+            }
+
+            @Override
+            public boolean supportsEdgePropertyAddition() {
+                return false;
+            }
+
+            @Override
+            public boolean supportsEdgePropertyRemoval() {
+                return false;
+            }
+
+            @Override
+            public boolean supportsResultGraphPersistCombination(ResultGraph resultGraph, Persist persist) {
+                // edges are never modified, so persisting them is the same as persisting vertex properties only
+                return persist == Persist.NOTHING || resultGraph == ResultGraph.NEW;
+            }
+        };
+    }
+}
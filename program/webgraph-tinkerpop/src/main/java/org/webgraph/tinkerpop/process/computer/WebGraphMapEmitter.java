@@ -0,0 +1,64 @@
+package org.webgraph.tinkerpop.process.computer;
+
+import org.apache.tinkerpop.gremlin.process.computer.KeyValue;
+import org.apache.tinkerpop.gremlin.process.computer.MapReduce;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Collects the output of the map stage of a {@link MapReduce} job, shared by all workers.
+ * If the job has a reduce stage, values are grouped by key; otherwise key/value pairs are queued.
+ */
+class WebGraphMapEmitter<K, V> implements MapReduce.MapEmitter<K, V> {
+    Map<K, Queue<V>> reduceMap;
+    Queue<KeyValue<K, V>> mapQueue;
+    private final boolean doReduce;
+
+    WebGraphMapEmitter(boolean doReduce) {
+        this.doReduce = doReduce;
+        if (doReduce) {
+            reduceMap = new ConcurrentHashMap<>();
+        } else {
+            mapQueue = new ConcurrentLinkedQueue<>();
+        }
+    }
+
+    @Override
+    public void emit(K key, V value) {
+        if (doReduce) {
+            reduceMap.computeIfAbsent(key, k -> new ConcurrentLinkedQueue<>()).add(value);
+        } else {
+            mapQueue.add(new KeyValue<>(key, value));
+        }
+    }
+
+    /**
+     * Sorts the output by key if the job requires it.
+     *
+     * @param mapReduce the job
+     */
+    void complete(MapReduce<K, V, ?, ?, ?> mapReduce) {
+        if (!mapReduce.getMapKeySort().isPresent()) {
+            return;
+        }
+        Comparator<K> comparator = mapReduce.getMapKeySort().get();
+        if (doReduce) {
+            List<Map.Entry<K, Queue<V>>> entries = new ArrayList<>(reduceMap.entrySet());
+            entries.sort(Map.Entry.comparingByKey(comparator));
+            reduceMap = new LinkedHashMap<>();
+            entries.forEach(entry -> reduceMap.put(entry.getKey(), entry.getValue()));
+        } else {
+            List<KeyValue<K, V>> keyValues = new ArrayList<>(mapQueue);
+            keyValues.sort(Comparator.comparing(KeyValue::getKey, comparator));
+            mapQueue.clear();
+            mapQueue.addAll(keyValues);
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package org.webgraph.tinkerpop.process.computer;
+
+import org.apache.tinkerpop.gremlin.process.computer.GraphComputer;
+import org.apache.tinkerpop.gremlin.process.computer.MapReduce;
+import org.apache.tinkerpop.gremlin.process.computer.Memory;
+import org.apache.tinkerpop.gremlin.process.computer.MemoryComputeKey;
+import org.apache.tinkerpop.gremlin.process.computer.VertexProgram;
+import org.apache.tinkerpop.gremlin.process.computer.util.MemoryHelper;
+import org.apache.tinkerpop.gremlin.process.traversal.Operator;
+import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The global memory of a {@link WebGraphGraphComputer} run.
+ * <p>
+ * Values added during an iteration are reduced into the current map and only become visible to
+ * {@link #get(String)} after {@link #completeSubRound()}, as required by the bulk synchronous model.
+ * Workers add through a {@link WebGraphWorkerMemory}, which reduces locally and merges once per iteration.
+ */
+public class WebGraphMemory implements Memory.Admin {
+    private final Map<String, MemoryComputeKey> memoryKeys = new ConcurrentHashMap<>();
+    private Map<String, Object> previousMap = new ConcurrentHashMap<>();
+    private Map<String, Object> currentMap = new ConcurrentHashMap<>();
+    private final AtomicInteger iteration = new AtomicInteger(0);
+    private final AtomicLong runtime = new AtomicLong(0L);
+    private volatile boolean inExecute = false;
+
+    public WebGraphMemory(VertexProgram<?> vertexProgram, Set<MapReduce> mapReducers) {
+        if (vertexProgram != null) {
+            for (MemoryComputeKey key : vertexProgram.getMemoryComputeKeys()) {
+                memoryKeys.put(key.getKey(), key);
+            }
+        }
+        for (MapReduce mapReduce : mapReducers) {
+            memoryKeys.put(mapReduce.getMemoryKey(),
+                    MemoryComputeKey.of(mapReduce.getMemoryKey(), Operator.assign, false, false));
+        }
+    }
+
+    @Override
+    public Set<String> keys() {
+        Set<String> res = new HashSet<>();
+        previousMap.keySet().stream()
+                   .filter(key -> !inExecute || memoryKeys.get(key).isBroadcast())
+                   .forEach(res::add);
+        return Collections.unmodifiableSet(res);
+    }
+
+    @Override
+    public void incrIteration() {
+        iteration.getAndIncrement();
+    }
+
+    @Override
+    public void setIteration(int iteration) {
+        this.iteration.set(iteration);
+    }
+
+    @Override
+    public int getIteration() {
+        return iteration.get();
+    }
+
+    @Override
+    public void setRuntime(long runtime) {
+        this.runtime.set(runtime);
+    }
+
+    @Override
+    public long getRuntime() {
+        return runtime.get();
+    }
+
+    /**
+     * Makes the values added since the last call visible, and drops transient keys once the computation is complete.
+     */
+    protected void complete() {
+        iteration.decrementAndGet();
+        previousMap = currentMap;
+        memoryKeys.values().stream()
+                  .filter(MemoryComputeKey::isTransient)
+                  .forEach(key -> previousMap.remove(key.getKey()));
+    }
+
+    /**
+     * Ends a sub-round of the computation, making the values added during it visible.
+     */
+    protected void completeSubRound() {
+        previousMap = new ConcurrentHashMap<>(currentMap);
+        inExecute = !inExecute;
+    }
+
+    @Override
+    public boolean isInitialIteration() {
+        return getIteration() == 0;
+    }
+
+    @Override
+    public <R> R get(String key) throws IllegalArgumentException {
+        R r = (R) previousMap.get(key);
+        if (r == null) {
+            throw Memory.Exceptions.memoryDoesNotExist(key);
+        }
+        if (inExecute && !memoryKeys.get(key).isBroadcast()) {
+            throw Memory.Exceptions.memoryDoesNotExist(key);
+        }
+        return r;
+    }
+
+    @Override
+    public void set(String key, Object value) {
+        checkKeyValue(key, value);
+        if (inExecute) {
+            throw Memory.Exceptions.memorySetOnlyDuringVertexProgramSetUpAndTerminate(key);
+        }
+        currentMap.put(key, value);
+    }
+
+    @Override
+    public void add(String key, Object value) {
+        checkKeyValue(key, value);
+        if (!inExecute) {
+            throw Memory.Exceptions.memoryAddOnlyDuringVertexProgramExecute(key);
+        }
+        currentMap.compute(key, (k, v) -> v == null ? value : memoryKeys.get(key).getReducer().apply(v, value));
+    }
+
+    /**
+     * Checks that a key was declared by the vertex program or a map reduce job.
+     *
+     * @param key   the memory key
+     * @param value the value
+     */
+    void checkKeyValue(String key, Object value) {
+        if (!memoryKeys.containsKey(key)) {
+            throw GraphComputer.Exceptions.providedKeyIsNotAMemoryComputeKey(key);
+        }
+        MemoryHelper.validateValue(value);
+    }
+
+    /**
+     * @return {@code true} if the vertex program is executing
+     */
+    boolean inExecute() {
+        return inExecute;
+    }
+
+    /**
+     * @return the declared memory keys
+     */
+    Collection<MemoryComputeKey> memoryKeys() {
+        return memoryKeys.values();
+    }
+
+    @Override
+    public String toString() {
+        return StringFactory.memoryString(this);
+    }
+}
@@ -0,0 +1,87 @@
+package org.webgraph.tinkerpop.process.computer;
+
+import it.unimi.dsi.fastutil.BigArrays;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import it.unimi.dsi.fastutil.objects.ObjectBigArrays;
+import org.apache.tinkerpop.gremlin.process.computer.MessageCombiner;
+
+import java.util.Collections;
+import java.util.Iterator;
+
+/**
+ * Messages exchanged by the vertices of a {@link WebGraphGraphComputer} run.
+ * <p>
+ * Messages sent during an iteration are delivered to an outbox with one slot per vertex id, and become
+ * readable in the next iteration. If the vertex program has a {@link MessageCombiner}, each slot holds a
+ * single message combined in place on delivery, so memory does not grow with the number of messages;
+ * otherwise it holds the list of received messages. Deliveries lock one of a fixed set of stripes.
+ */
+class WebGraphMessageBoard<M> {
+    private static final int LOCK_STRIPES = 1024;
+
+    private final MessageCombiner<M> combiner;
+    private final Object[] locks = new Object[LOCK_STRIPES];
+    private Object[][] inbox;
+    private Object[][] outbox;
+
+    /**
+     * @param numNodes the number of vertices
+     * @param combiner the message combiner of the vertex program, or {@code null}
+     */
+    WebGraphMessageBoard(long numNodes, MessageCombiner<M> combiner) {
+        this.combiner = combiner;
+        this.inbox = ObjectBigArrays.newBigArray(numNodes);
+        this.outbox = ObjectBigArrays.newBigArray(numNodes);
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    /**
+     * Delivers a message, to be received in the next iteration.
+     *
+     * @param target  the id of the receiving vertex
+     * @param message the message
+     */
+    void send(long target, M message) {
+        synchronized (locks[(int) (target & (LOCK_STRIPES - 1))]) {
+            Object slot = BigArrays.get(outbox, target);
+            if (combiner != null) {
+                BigArrays.set(outbox, target, slot == null ? message : combiner.combine((M) slot, message));
+            } else {
+                if (slot == null) {
+                    slot = new ObjectArrayList<M>(1);
+                    BigArrays.set(outbox, target, slot);
+                }
+                ((ObjectArrayList<M>) slot).add(message);
+            }
+        }
+    }
+
+    /**
+     * Returns the messages received by a vertex in the previous iteration.
+     *
+     * @param target the id of the receiving vertex
+     * @return the messages
+     */
+    Iterator<M> receive(long target) {
+        Object slot = BigArrays.get(inbox, target);
+        if (slot == null) {
+            return Collections.emptyIterator();
+        }
+        return combiner != null
+                ? Collections.singletonList((M) slot).iterator()
+                : ((ObjectArrayList<M>) slot).iterator();
+    }
+
+    /**
+     * Makes the messages sent during the iteration receivable, and clears the others.
+     * Must be called between iterations, when no worker is running.
+     */
+    void completeIteration() {
+        Object[][] received = inbox;
+        inbox = outbox;
+        BigArrays.fill(received, null);
+        outbox = received;
+    }
+}
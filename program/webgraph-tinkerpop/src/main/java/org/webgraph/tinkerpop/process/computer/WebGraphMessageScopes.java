@@ -0,0 +1,55 @@
+package org.webgraph.tinkerpop.process.computer;
+
+import org.apache.tinkerpop.gremlin.process.computer.MessageScope;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+
+/**
+ * Message scopes which {@link WebGraphGraphComputer} delivers without creating edges.
+ * <p>
+ * A local scope created here passes messages unchanged along its edges. When its incident traversal is a single
+ * {@code outE()/inE()/bothE()}, the receivers are read directly from the successor and predecessor lists.
+ * So does a scope created by {@code MessageScope.Local.of(incidentTraversal)} without an edge function.
+ * Any other local scope has its edge function applied to every edge, which requires creating the edge.
+ */
+public class WebGraphMessageScopes {
+
+    /**
+     * The edge function of the scopes created by {@link #local(Supplier)}.
+     */
+    private static final BiFunction<Object, Edge, Object> IDENTITY_EDGE_FUNCTION = (message, edge) -> message;
+
+    /**
+     * The edge function of the scopes created by {@code MessageScope.Local.of(incidentTraversal)}, a non-capturing
+     * lambda of TinkerPop which is shared by all of them.
+     */
+    private static final BiFunction<?, Edge, ?> DEFAULT_EDGE_FUNCTION = MessageScope.Local.of(() -> null).getEdgeFunction();
+
+    private WebGraphMessageScopes() {
+    }
+
+    /**
+     * Checks whether an edge function is known to pass messages unchanged, i.e. is the one of a scope created
+     * by {@link #local(Supplier)} or without an edge function.
+     *
+     * @param edgeFunction the edge function of a local scope
+     * @return {@code true} if the edge function is the identity
+     */
+    static boolean isIdentity(BiFunction<?, Edge, ?> edgeFunction) {
+        return edgeFunction == IDENTITY_EDGE_FUNCTION || edgeFunction == DEFAULT_EDGE_FUNCTION;
+    }
+
+    /**
+     * Returns a local scope sending messages unchanged to the vertices reached by the incident traversal.
+     *
+     * @param incidentTraversal the traversal from a vertex to its incident edges, e.g. {@code __::outE}
+     * @return the scope
+     */
+    public static <M> MessageScope.Local<M> local(Supplier<? extends Traversal<Vertex, Edge>> incidentTraversal) {
+        return MessageScope.Local.of(incidentTraversal, (BiFunction<M, Edge, M>) (BiFunction<?, Edge, ?>) IDENTITY_EDGE_FUNCTION);
+    }
+}
@@ -0,0 +1,128 @@
+package org.webgraph.tinkerpop.process.computer;
+
+import it.unimi.dsi.big.webgraph.BidirectionalImmutableGraph;
+import it.unimi.dsi.big.webgraph.LazyLongIterator;
+import org.apache.tinkerpop.gremlin.process.computer.MessageScope;
+import org.apache.tinkerpop.gremlin.process.computer.Messenger;
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.VertexStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.StartStep;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.webgraph.tinkerpop.process.traversal.util.VertexFilters;
+import org.webgraph.tinkerpop.structure.WebGraphGraph;
+import org.webgraph.tinkerpop.structure.WebGraphVertex;
+import org.webgraph.tinkerpop.util.ArcIndex;
+
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.BiFunction;
+
+/**
+ * The messenger of one worker of a {@link WebGraphGraphComputer}, rebound to each vertex the worker executes.
+ * <p>
+ * Messages are pushed to the receivers' slots of the {@link WebGraphMessageBoard} when sent.
+ * For local scopes whose incident traversal is a single {@code outE()/inE()/bothE()}, receivers are read
+ * directly from the successor and predecessor lists, and edges are only created if the scope has an edge function,
+ * unless the computation has an edge filter. Scopes created by {@link WebGraphMessageScopes#local} or by
+ * {@code MessageScope.Local.of(incidentTraversal)}, as in the stock vertex programs, are known to have none:
+ * the edge function of any other scope is applied. Edges created for it are numbered from the offset of the
+ * sending vertex, or resolve their arc id lazily for incoming edges, so no successor list is scanned per message.
+ * Other incident traversals are evaluated from the sending vertex.
+ */
+class WebGraphMessenger<M> implements Messenger<M> {
+    /**
+     * Vertex programs normally reuse a few scopes; the direction map is cleared if one creates them on the fly.
+     */
+    private static final int MAX_SCOPES = 64;
+
+    private final WebGraphGraph graph;
+    private final WebGraphMessageBoard<M> messageBoard;
+    /**
+     * Adjacency direction of each local scope seen by this worker, empty if the incident traversal has another shape.
+     */
+    private final Map<MessageScope, Optional<Direction>> directions = new IdentityHashMap<>();
+    private WebGraphVertex vertex;
+
+    WebGraphMessenger(WebGraphGraph graph, WebGraphMessageBoard<M> messageBoard) {
+        this.graph = graph;
+        this.messageBoard = messageBoard;
+    }
+
+    /**
+     * Binds the messenger to the vertex about to be executed.
+     *
+     * @param vertex the vertex
+     */
+    void setVertex(WebGraphVertex vertex) {
+        this.vertex = vertex;
+    }
+
+    @Override
+    public Iterator<M> receiveMessages() {
+        return messageBoard.receive((long) vertex.id());
+    }
+
+    @Override
+    public void sendMessage(MessageScope messageScope, M message) {
+        if (messageScope instanceof MessageScope.Global) {
+            for (Vertex target : ((MessageScope.Global) messageScope).vertices()) {
+                messageBoard.send(((Number) target.id()).longValue(), message);
+            }
+            return;
+        }
+        MessageScope.Local<M> localScope = (MessageScope.Local<M>) messageScope;
+        if (directions.size() >= MAX_SCOPES && !directions.containsKey(localScope)) {
+            directions.clear();
+        }
+        Optional<Direction> direction = directions.computeIfAbsent(localScope, scope -> adjacencyDirection(localScope));
+        if (direction.isPresent() && !graph.getComputerView().filtersEdges()) {
+            long id = (long) vertex.id();
+            BiFunction<M, Edge, M> edgeFunction = WebGraphMessageScopes.isIdentity(localScope.getEdgeFunction())
+                    ? null : localScope.getEdgeFunction();
+            BidirectionalImmutableGraph baseGraph = graph.getBaseGraph();
+            ArcIndex arcIndex = graph.getArcIndex();
+            if (direction.get() != Direction.IN) {
+                LazyLongIterator successors = baseGraph.successors(id);
+                long arcId = edgeFunction == null || arcIndex == null ? -1 : arcIndex.offset(id);
+                for (long to; (to = successors.nextLong()) != -1; arcId++) {
+                    if (edgeFunction == null) {
+                        messageBoard.send(to, message);
+                    } else {
+                        Edge edge = arcIndex == null ? graph.getEdge(id, to) : graph.getEdge(arcId, id, to);
+                        messageBoard.send(to, edgeFunction.apply(message, edge));
+                    }
+                }
+            }
+            if (direction.get() != Direction.OUT) {
+                LazyLongIterator predecessors = baseGraph.predecessors(id);
+                for (long from; (from = predecessors.nextLong()) != -1; ) {
+                    messageBoard.send(from, edgeFunction == null ? message : edgeFunction.apply(message, graph.getIncomingEdge(from, id)));
+                }
+            }
+            return;
+        }
+        Traversal.Admin<Vertex, Edge> incidentTraversal = localScope.getIncidentTraversal().get().asAdmin();
+        incidentTraversal.addStep(0, new StartStep<>(incidentTraversal, vertex));
+        while (incidentTraversal.hasNext()) {
+            Edge edge = incidentTraversal.next();
+            long id = (long) vertex.id();
+            long outId = ((Number) edge.outVertex().id()).longValue();
+            long target = outId == id ? ((Number) edge.inVertex().id()).longValue() : outId;
+            messageBoard.send(target, localScope.getEdgeFunction().apply(message, edge));
+        }
+    }
+
+    private static Optional<Direction> adjacencyDirection(MessageScope.Local<?> localScope) {
+        Traversal.Admin<Vertex, Edge> incidentTraversal = localScope.getIncidentTraversal().get().asAdmin();
+        Step<?, ?> endStep = incidentTraversal.getEndStep();
+        if (!(endStep instanceof VertexStep) || !((VertexStep<?>) endStep).returnsEdge()) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(VertexFilters.adjacencyDirection(incidentTraversal));
+    }
+}
@@ -0,0 +1,37 @@
+package org.webgraph.tinkerpop.process.computer;
+
+import org.apache.tinkerpop.gremlin.process.computer.KeyValue;
+import org.apache.tinkerpop.gremlin.process.computer.MapReduce;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Collects the output of the reduce stage of a {@link MapReduce} job, shared by all workers.
+ */
+class WebGraphReduceEmitter<OK, OV> implements MapReduce.ReduceEmitter<OK, OV> {
+    final Queue<KeyValue<OK, OV>> reduceQueue = new ConcurrentLinkedQueue<>();
+
+    @Override
+    public void emit(OK key, OV value) {
+        reduceQueue.add(new KeyValue<>(key, value));
+    }
+
+    /**
+     * Sorts the output by key if the job requires it.
+     *
+     * @param mapReduce the job
+     */
+    void complete(MapReduce<?, ?, OK, OV, ?> mapReduce) {
+        if (mapReduce.getReduceKeySort().isPresent()) {
+            Comparator<OK> comparator = mapReduce.getReduceKeySort().get();
+            List<KeyValue<OK, OV>> keyValues = new ArrayList<>(reduceQueue);
+            keyValues.sort(Comparator.comparing(KeyValue::getKey, comparator));
+            reduceQueue.clear();
+            reduceQueue.addAll(keyValues);
+        }
+    }
+}
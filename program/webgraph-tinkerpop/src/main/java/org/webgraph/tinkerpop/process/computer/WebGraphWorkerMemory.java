@@ -0,0 +1,76 @@
+package org.webgraph.tinkerpop.process.computer;
+
+import org.apache.tinkerpop.gremlin.process.computer.Memory;
+import org.apache.tinkerpop.gremlin.process.computer.MemoryComputeKey;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BinaryOperator;
+
+/**
+ * The memory seen by one worker of a {@link WebGraphGraphComputer}.
+ * <p>
+ * Added values are reduced locally, with the worker's own copy of each reducer, and merged into the
+ * {@link WebGraphMemory} at the end of the iteration, so that workers do not contend on the shared memory
+ * for every vertex. All other operations are delegated.
+ */
+class WebGraphWorkerMemory implements Memory {
+    private final WebGraphMemory mainMemory;
+    private final Map<String, BinaryOperator<Object>> reducers = new HashMap<>();
+    private final Map<String, Object> workerMap = new HashMap<>();
+
+    WebGraphWorkerMemory(WebGraphMemory mainMemory) {
+        this.mainMemory = mainMemory;
+        for (MemoryComputeKey key : mainMemory.memoryKeys()) {
+            reducers.put(key.getKey(), key.clone().getReducer());
+        }
+    }
+
+    @Override
+    public Set<String> keys() {
+        return mainMemory.keys();
+    }
+
+    @Override
+    public <R> R get(String key) throws IllegalArgumentException {
+        return mainMemory.get(key);
+    }
+
+    @Override
+    public void set(String key, Object value) {
+        mainMemory.set(key, value);
+    }
+
+    @Override
+    public void add(String key, Object value) {
+        mainMemory.checkKeyValue(key, value);
+        if (!mainMemory.inExecute()) {
+            throw Memory.Exceptions.memoryAddOnlyDuringVertexProgramExecute(key);
+        }
+        workerMap.merge(key, value, reducers.get(key));
+    }
+
+    @Override
+    public int getIteration() {
+        return mainMemory.getIteration();
+    }
+
+    @Override
+    public long getRuntime() {
+        return mainMemory.getRuntime();
+    }
+
+    @Override
+    public boolean isInitialIteration() {
+        return mainMemory.isInitialIteration();
+    }
+
+    /**
+     * Merges the values added since the last call into the shared memory.
+     */
+    void complete() {
+        workerMap.forEach(mainMemory::add);
+        workerMap.clear();
+    }
+}
@@ -0,0 +1,82 @@
+package org.webgraph.tinkerpop.process.traversal.step.filter;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.FilterStep;
+import org.apache.tinkerpop.gremlin.structure.Element;
+import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
+import org.webgraph.tinkerpop.process.traversal.util.BudgetedStep;
+import org.webgraph.tinkerpop.process.traversal.util.QueryBudget;
+import org.webgraph.tinkerpop.util.VertexIdSet;
+
+/**
+ * Replacement for {@code dedup()} over vertices, which keeps seen vertex ids in a {@link VertexIdSet}
+ * instead of a {@code HashSet} of vertex objects.
+ * Also used for edges when they are identified by arc ids, since those are bounded by the number of arcs.
+ *
+ * @see org.webgraph.tinkerpop.process.traversal.strategy.optimization.WebGraphVertexIdSetStrategy
+ */
+public class WebGraphDedupGlobalStep extends FilterStep<Element> implements BudgetedStep {
+
+    private final long numIds;
+    private final long expectedSize;
+    private VertexIdSet seen;
+    private QueryBudget budget;
+    private long chargedBytes;
+
+    /**
+     * @param traversal    the traversal this step belongs to
+     * @param numIds       the number of nodes in the graph, or the number of arcs for edges
+     * @param expectedSize the expected number of distinct elements passing through this step
+     */
+    public WebGraphDedupGlobalStep(Traversal.Admin traversal, long numIds, long expectedSize) {
+        super(traversal);
+        this.numIds = numIds;
+        this.expectedSize = expectedSize;
+    }
+
+    @Override
+    protected boolean filter(Traverser.Admin<Element> traverser) {
+        if (seen == null) {
+            seen = new VertexIdSet(numIds, expectedSize);
+        }
+        traverser.setBulk(1L);
+        if (!seen.add((long) traverser.get().id())) {
+            return false;
+        }
+        if (budget != null) {
+            long bytes = seen.memoryBytes();
+            budget.chargeMemory(bytes - chargedBytes);
+            chargedBytes = bytes;
+        }
+        return true;
+    }
+
+    @Override
+    public void setBudget(QueryBudget budget) {
+        this.budget = budget;
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        seen = null;
+        if (budget != null) {
+            budget.chargeMemory(-chargedBytes);
+        }
+        chargedBytes = 0;
+    }
+
+    @Override
+    public WebGraphDedupGlobalStep clone() {
+        WebGraphDedupGlobalStep clone = (WebGraphDedupGlobalStep) super.clone();
+        clone.seen = null;
+        clone.chargedBytes = 0;
+        return clone;
+    }
+
+    @Override
+    public String toString() {
+        return StringFactory.stepString(this);
+    }
+}
@@ -0,0 +1,65 @@
+package org.webgraph.tinkerpop.process.traversal.step.filter;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.FilterStep;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
+import org.webgraph.tinkerpop.process.traversal.util.Degrees;
+import org.webgraph.tinkerpop.structure.WebGraphGraph;
+
+/**
+ * Native replacement for {@code not(out())} and {@code where(out())} (or {@code in()/both()} and their edge
+ * counterparts), which tests the degree of the vertex instead of enumerating its neighbours.
+ *
+ * @see org.webgraph.tinkerpop.process.traversal.strategy.optimization.WebGraphDegreeStrategy
+ */
+public class WebGraphDegreeFilterStep extends FilterStep<Vertex> {
+    private final WebGraphGraph graph;
+    private final Direction direction;
+    private final boolean isolated;
+
+    /**
+     * @param traversal the traversal this step belongs to
+     * @param graph     the graph of the vertices
+     * @param direction the direction of the replaced adjacency step
+     * @param isolated  {@code true} to keep vertices without neighbours, as {@code not(out())},
+     *                  {@code false} to keep vertices with neighbours, as {@code where(out())}
+     */
+    public WebGraphDegreeFilterStep(Traversal.Admin traversal, WebGraphGraph graph, Direction direction, boolean isolated) {
+        super(traversal);
+        this.graph = graph;
+        this.direction = direction;
+        this.isolated = isolated;
+    }
+
+    @Override
+    protected boolean filter(Traverser.Admin<Vertex> traverser) {
+        return (Degrees.degree(graph, (long) traverser.get().id(), direction) == 0) == isolated;
+    }
+
+    /**
+     * @return the direction of the replaced adjacency step
+     */
+    public Direction getDirection() {
+        return direction;
+    }
+
+    /**
+     * @return {@code true} if vertices without neighbours are kept
+     */
+    public boolean isIsolated() {
+        return isolated;
+    }
+
+    @Override
+    public String toString() {
+        return StringFactory.stepString(this, (isolated ? "none-" : "some-") + direction.name().toLowerCase());
+    }
+
+    @Override
+    public int hashCode() {
+        return super.hashCode() ^ direction.hashCode() ^ Boolean.hashCode(isolated);
+    }
+}
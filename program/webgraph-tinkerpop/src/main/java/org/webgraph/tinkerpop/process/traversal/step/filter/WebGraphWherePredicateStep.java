@@ -0,0 +1,47 @@
+package org.webgraph.tinkerpop.process.traversal.step.filter;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.FilterStep;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
+import org.webgraph.tinkerpop.util.VertexIdSet;
+
+/**
+ * Replacement for {@code where(P.within(key))} and {@code where(P.without(key))}, where {@code key}
+ * is a side effect filled by {@link org.webgraph.tinkerpop.process.traversal.step.sideEffect.WebGraphAggregateStep}.
+ *
+ * @see org.webgraph.tinkerpop.process.traversal.strategy.optimization.WebGraphVertexIdSetStrategy
+ */
+public class WebGraphWherePredicateStep extends FilterStep<Vertex> {
+
+    private final String sideEffectKey;
+    private final boolean within;
+
+    /**
+     * @param traversal     the traversal this step belongs to
+     * @param sideEffectKey the key of the {@link VertexIdSet} side effect
+     * @param within        {@code true} for {@code within}, {@code false} for {@code without}
+     */
+    public WebGraphWherePredicateStep(Traversal.Admin traversal, String sideEffectKey, boolean within) {
+        super(traversal);
+        this.sideEffectKey = sideEffectKey;
+        this.within = within;
+    }
+
+    @Override
+    protected boolean filter(Traverser.Admin<Vertex> traverser) {
+        VertexIdSet set = this.getTraversal().getSideEffects().get(sideEffectKey);
+        return set.contains((long) traverser.get().id()) == within;
+    }
+
+    @Override
+    public String toString() {
+        return StringFactory.stepString(this, (within ? "within(" : "without(") + sideEffectKey + ")");
+    }
+
+    @Override
+    public int hashCode() {
+        return super.hashCode() ^ sideEffectKey.hashCode() ^ Boolean.hashCode(within);
+    }
+}
@@ -0,0 +1,92 @@
+package org.webgraph.tinkerpop.process.traversal.step.map;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.AbstractStep;
+import org.apache.tinkerpop.gremlin.process.traversal.util.FastNoSuchElementException;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
+import org.webgraph.tinkerpop.process.traversal.util.BudgetedStep;
+import org.webgraph.tinkerpop.process.traversal.util.Degrees;
+import org.webgraph.tinkerpop.process.traversal.util.QueryBudget;
+import org.webgraph.tinkerpop.structure.WebGraphGraph;
+
+/**
+ * Native replacement for {@code out().count()}, {@code inE().count()}, {@code both().limit(n).count()} and similar.
+ * <p>
+ * As {@code count()}, sums over all incoming traversers and emits a single traverser with the result,
+ * which is {@code 0} if there are none. The neighbours are never enumerated: the degrees of the incoming
+ * vertices are read from the graph. The incoming traversers are charged by the previous step, so a
+ * {@link QueryBudget} is only checked, every {@link QueryBudget#CHECK_INTERVAL} of them.
+ *
+ * @see org.webgraph.tinkerpop.process.traversal.strategy.optimization.WebGraphDegreeStrategy
+ */
+public class WebGraphDegreeCountStep extends AbstractStep<Vertex, Long> implements BudgetedStep {
+    private final WebGraphGraph graph;
+    private final Direction direction;
+    private final long limit;
+    private QueryBudget budget;
+    private boolean done;
+
+    /**
+     * @param traversal the traversal this step belongs to
+     * @param graph     the graph of the vertices
+     * @param direction the direction of the replaced adjacency step
+     * @param limit     the maximum count, from a {@code limit(n)} between the adjacency step and {@code count()},
+     *                  or {@link Long#MAX_VALUE}
+     */
+    public WebGraphDegreeCountStep(Traversal.Admin traversal, WebGraphGraph graph, Direction direction, long limit) {
+        super(traversal);
+        this.graph = graph;
+        this.direction = direction;
+        this.limit = limit;
+    }
+
+    @Override
+    protected Traverser.Admin<Long> processNextStart() {
+        if (done) {
+            throw FastNoSuchElementException.instance();
+        }
+        done = true;
+        long count = 0;
+        for (int unchecked = 0; count < limit && starts.hasNext(); unchecked++) {
+            if (budget != null && unchecked == QueryBudget.CHECK_INTERVAL) {
+                budget.check();
+                unchecked = 0;
+            }
+            Traverser.Admin<Vertex> start = starts.next();
+            count += Degrees.degree(graph, (long) start.get().id(), direction) * start.bulk();
+        }
+        return getTraversal().getTraverserGenerator().generate(Math.min(count, limit), (Step) this, 1L);
+    }
+
+    @Override
+    public void setBudget(QueryBudget budget) {
+        this.budget = budget;
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        done = false;
+    }
+
+    @Override
+    public WebGraphDegreeCountStep clone() {
+        WebGraphDegreeCountStep clone = (WebGraphDegreeCountStep) super.clone();
+        clone.done = false;
+        return clone;
+    }
+
+    @Override
+    public String toString() {
+        return StringFactory.stepString(this, direction.name().toLowerCase(), limit == Long.MAX_VALUE ? "" : limit);
+    }
+
+    @Override
+    public int hashCode() {
+        return super.hashCode() ^ direction.hashCode() ^ Long.hashCode(limit);
+    }
+}
@@ -0,0 +1,78 @@
+package org.webgraph.tinkerpop.process.traversal.step.map;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.AbstractStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
+import org.apache.tinkerpop.gremlin.process.traversal.util.FastNoSuchElementException;
+import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
+import org.webgraph.tinkerpop.process.traversal.util.BudgetedStep;
+import org.webgraph.tinkerpop.process.traversal.util.QueryBudget;
+import org.webgraph.tinkerpop.structure.property.vertex.index.VertexPropertyIndex;
+
+/**
+ * Native replacement for {@code g.V().has(key, predicate).count()} when the predicate is counted exactly
+ * by a {@link VertexPropertyIndex}, e.g. {@code g.V().hasLabel(label).count()} with a label index.
+ * Emits a single traverser with the count, without enumerating the vertices.
+ * As no element is processed, a {@link QueryBudget} is only checked before counting.
+ *
+ * @see org.webgraph.tinkerpop.process.traversal.strategy.optimization.WebGraphIndexStrategy
+ */
+public class WebGraphIndexCountStep extends AbstractStep<Object, Long> implements BudgetedStep {
+    private final VertexPropertyIndex index;
+    private final HasContainer hasContainer;
+    private QueryBudget budget;
+    private boolean done;
+
+    /**
+     * @param traversal    the traversal this step belongs to
+     * @param index        the index counting the vertices
+     * @param hasContainer the counted container
+     */
+    public WebGraphIndexCountStep(Traversal.Admin traversal, VertexPropertyIndex index, HasContainer hasContainer) {
+        super(traversal);
+        this.index = index;
+        this.hasContainer = hasContainer;
+    }
+
+    @Override
+    protected Traverser.Admin<Long> processNextStart() {
+        if (done) {
+            throw FastNoSuchElementException.instance();
+        }
+        done = true;
+        if (budget != null) {
+            budget.check();
+        }
+        return getTraversal().getTraverserGenerator().generate(index.count(hasContainer.getPredicate()), (Step) this, 1L);
+    }
+
+    @Override
+    public void setBudget(QueryBudget budget) {
+        this.budget = budget;
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        done = false;
+    }
+
+    @Override
+    public WebGraphIndexCountStep clone() {
+        WebGraphIndexCountStep clone = (WebGraphIndexCountStep) super.clone();
+        clone.done = false;
+        return clone;
+    }
+
+    @Override
+    public String toString() {
+        return StringFactory.stepString(this, "index(" + index.getKey() + ")", hasContainer);
+    }
+
+    @Override
+    public int hashCode() {
+        return super.hashCode() ^ hasContainer.hashCode();
+    }
+}
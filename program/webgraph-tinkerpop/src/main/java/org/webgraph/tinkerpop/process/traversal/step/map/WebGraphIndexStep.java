@@ -0,0 +1,290 @@
+package org.webgraph.tinkerpop.process.traversal.step.map;
+
+import it.unimi.dsi.fastutil.ints.IntComparator;
+import it.unimi.dsi.fastutil.ints.IntHeapPriorityQueue;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongBigArrayBigList;
+import it.unimi.dsi.fastutil.longs.LongBigArrays;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongIterators;
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.step.HasContainerHolder;
+import org.apache.tinkerpop.gremlin.process.traversal.step.Seedable;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.GraphStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
+import org.webgraph.tinkerpop.process.traversal.util.BudgetedStep;
+import org.webgraph.tinkerpop.process.traversal.util.QueryBudget;
+import org.webgraph.tinkerpop.process.traversal.util.VertexFilters;
+import org.webgraph.tinkerpop.structure.WebGraphGraph;
+import org.webgraph.tinkerpop.structure.property.vertex.index.VertexPropertyIndex;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.function.LongConsumer;
+import java.util.function.LongPredicate;
+
+/**
+ * Replacement of {@code g.V().has(...)} reading the candidate vertices from a {@link VertexPropertyIndex}.
+ * <p>
+ * The candidates are returned by increasing id, so vertices are returned in the same order as by a scan,
+ * and all has containers, including the indexed one, are tested on each candidate. Sorted runs of candidates,
+ * e.g. the ids of a single value, are merged lazily, so {@code has(...).limit(n)} reads about {@code n} of them.
+ * <p>
+ * A following {@code sample(n)} can be folded into the step if the index answers the predicate exactly,
+ * in which case the index draws the sample, see {@link VertexPropertyIndex#sample}.
+ * <p>
+ * If the query has a {@link QueryBudget}, the candidates rejected by the has containers are charged as elements,
+ * the others being charged after the step, and the buffers of unsorted candidates and of samples are charged as memory.
+ *
+ * @see org.webgraph.tinkerpop.process.traversal.strategy.optimization.WebGraphIndexStrategy
+ */
+public class WebGraphIndexStep extends GraphStep<Vertex, Vertex> implements HasContainerHolder, Seedable, BudgetedStep {
+    private final WebGraphGraph graph;
+    private final VertexPropertyIndex index;
+    private final HasContainer indexedContainer;
+    private final List<HasContainer> hasContainers = new ArrayList<>();
+    private final Random random = new Random();
+    private int sampleAmount = -1;
+    private QueryBudget budget;
+    private long chargedBytes;
+
+    /**
+     * @param originalGraphStep the replaced {@code V()} step
+     * @param graph             the graph
+     * @param index             the index answering the indexed container
+     * @param indexedContainer  the container whose predicate is looked up in the index
+     */
+    public WebGraphIndexStep(GraphStep<Vertex, Vertex> originalGraphStep, WebGraphGraph graph,
+                             VertexPropertyIndex index, HasContainer indexedContainer) {
+        super(originalGraphStep.getTraversal(), Vertex.class, originalGraphStep.isStartStep());
+        originalGraphStep.getLabels().forEach(this::addLabel);
+        this.graph = graph;
+        this.index = index;
+        this.indexedContainer = indexedContainer;
+        this.setIteratorSupplier(this::vertices);
+    }
+
+    /**
+     * Makes the step return a uniform sample of the matching vertices.
+     * Only valid if the indexed container is the only one, and the index counts it exactly.
+     *
+     * @param sampleAmount the number of vertices to sample
+     */
+    public void setSampleAmount(int sampleAmount) {
+        this.sampleAmount = sampleAmount;
+    }
+
+    @Override
+    public void resetSeed(long seed) {
+        random.setSeed(seed);
+    }
+
+    private Iterator<Vertex> vertices() {
+        P<?> predicate = indexedContainer.getPredicate();
+        LongIterator ids = sampleAmount >= 0 ? sampledIds(predicate) : sortedIds(predicate);
+        LongPredicate filter = VertexFilters.compile(hasContainers, graph);
+        return new Iterator<>() {
+            int rejected;
+            long next = nextId();
+
+            private long nextId() {
+                while (ids.hasNext()) {
+                    long id = ids.nextLong();
+                    if (filter.test(id)) {
+                        return id;
+                    }
+                    if (budget != null && ++rejected == QueryBudget.CHECK_INTERVAL) {
+                        budget.chargeElements(rejected);
+                        rejected = 0;
+                    }
+                }
+                return -1;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next != -1;
+            }
+
+            @Override
+            public Vertex next() {
+                if (next == -1) {
+                    throw new NoSuchElementException();
+                }
+                long res = next;
+                next = nextId();
+                return graph.getVertex(res);
+            }
+        };
+    }
+
+    /**
+     * Returns the distinct candidates in increasing order. Sorted runs are merged lazily, so that the first
+     * vertices are returned without reading all candidates; other candidates are collected and sorted first.
+     */
+    private LongIterator sortedIds(P<?> predicate) {
+        List<LongIterator> runs = index.sortedCandidates(predicate);
+        if (runs == null) {
+            // e.g. a range of values, whose ids are sorted by value
+            LongBigArrayBigList ids = new LongBigArrayBigList();
+            for (LongIterator candidates = index.candidates(predicate); candidates.hasNext(); ) {
+                ids.add(candidates.nextLong());
+                if (budget != null && ids.size64() % QueryBudget.CHECK_INTERVAL == 0) {
+                    chargeMemory((long) QueryBudget.CHECK_INTERVAL * Long.BYTES);
+                    budget.check();
+                }
+            }
+            if (budget != null) {
+                chargeMemory(ids.size64() % QueryBudget.CHECK_INTERVAL * Long.BYTES);
+            }
+            LongBigArrays.quickSort(ids.elements(), 0, ids.size64());
+            runs = List.of(ids.iterator());
+        }
+        return merge(runs);
+    }
+
+    /**
+     * Merges runs of sorted ids, skipping repeated ids.
+     */
+    private static LongIterator merge(List<LongIterator> runs) {
+        long[] heads = new long[runs.size()];
+        IntComparator byHead = (a, b) -> Long.compare(heads[a], heads[b]);
+        IntHeapPriorityQueue queue = new IntHeapPriorityQueue(byHead);
+        for (int i = 0; i < heads.length; i++) {
+            if (runs.get(i).hasNext()) {
+                heads[i] = runs.get(i).nextLong();
+                queue.enqueue(i);
+            }
+        }
+        return new LongIterator() {
+            long last = -1;
+
+            @Override
+            public boolean hasNext() {
+                // candidates of several values may repeat
+                while (!queue.isEmpty() && heads[queue.firstInt()] == last) {
+                    advance();
+                }
+                return !queue.isEmpty();
+            }
+
+            @Override
+            public long nextLong() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                last = heads[queue.firstInt()];
+                advance();
+                return last;
+            }
+
+            private void advance() {
+                int run = queue.dequeueInt();
+                if (runs.get(run).hasNext()) {
+                    heads[run] = runs.get(run).nextLong();
+                    queue.enqueue(run);
+                }
+            }
+        };
+    }
+
+    /**
+     * Returns a sorted sample of size {@link #sampleAmount} of the distinct candidates, drawn by the index if it
+     * supports it, or else by reservoir sampling over the sorted candidates, which keeps only the sample in memory.
+     */
+    private LongIterator sampledIds(P<?> predicate) {
+        LongIterator sampled = index.sample(predicate, sampleAmount, random);
+        long[] sample;
+        int size = 0;
+        if (budget != null) {
+            chargeMemory((long) sampleAmount * Long.BYTES);
+        }
+        if (sampled != null) {
+            LongArrayList ids = new LongArrayList(sampleAmount);
+            sampled.forEachRemaining((LongConsumer) ids::add);
+            sample = ids.elements();
+            size = ids.size();
+        } else {
+            sample = new long[sampleAmount];
+            long seen = 0;
+            for (LongIterator i = sortedIds(predicate); i.hasNext(); seen++) {
+                long id = i.nextLong();
+                if (seen < sampleAmount) {
+                    sample[size++] = id;
+                } else {
+                    long j = nextLong(random, seen + 1);
+                    if (j < sampleAmount) {
+                        sample[(int) j] = id;
+                    }
+                }
+            }
+        }
+        Arrays.sort(sample, 0, size);
+        return merge(List.of(LongIterators.wrap(sample, 0, size)));
+    }
+
+    private void chargeMemory(long deltaBytes) {
+        budget.chargeMemory(deltaBytes);
+        chargedBytes += deltaBytes;
+    }
+
+    private static long nextLong(Random random, long bound) {
+        long bits;
+        long res;
+        do {
+            bits = random.nextLong() >>> 1;
+            res = bits % bound;
+        } while (bits - res + (bound - 1) < 0);
+        return res;
+    }
+
+    @Override
+    public void setBudget(QueryBudget budget) {
+        this.budget = budget;
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        if (budget != null) {
+            budget.chargeMemory(-chargedBytes);
+        }
+        chargedBytes = 0;
+    }
+
+    @Override
+    public WebGraphIndexStep clone() {
+        WebGraphIndexStep clone = (WebGraphIndexStep) super.clone();
+        clone.chargedBytes = 0;
+        return clone;
+    }
+
+    @Override
+    public List<HasContainer> getHasContainers() {
+        return Collections.unmodifiableList(hasContainers);
+    }
+
+    @Override
+    public void addHasContainer(HasContainer hasContainer) {
+        hasContainers.add(hasContainer);
+    }
+
+    @Override
+    public String toString() {
+        return sampleAmount >= 0
+                ? StringFactory.stepString(this, "index(" + index.getKey() + ")", hasContainers, "sample(" + sampleAmount + ")")
+                : StringFactory.stepString(this, "index(" + index.getKey() + ")", hasContainers);
+    }
+
+    @Override
+    public int hashCode() {
+        return super.hashCode() ^ hasContainers.hashCode();
+    }
+}
@@ -0,0 +1,322 @@
+package org.webgraph.tinkerpop.process.traversal.step.map;
+
+import it.unimi.dsi.big.webgraph.BidirectionalImmutableGraph;
+import it.unimi.dsi.big.webgraph.LazyLongIterator;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.AbstractStep;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
+import org.webgraph.tinkerpop.process.traversal.util.BudgetedStep;
+import org.webgraph.tinkerpop.process.traversal.util.QueryBudget;
+import org.webgraph.tinkerpop.structure.WebGraphGraph;
+import org.webgraph.tinkerpop.util.VertexIdSet;
+
+import java.util.function.LongPredicate;
+
+/**
+ * Native replacement for {@code repeat(out().dedup())} and its {@code in()/both()} variants,
+ * optionally modulated with {@code emit(...)} and {@code until(...)}.
+ * <p>
+ * Walks the underlying {@link BidirectionalImmutableGraph} depth-first, keeping visited vertices in a {@link VertexIdSet}.
+ * {@code WebGraphVertex} objects are only created for the emitted vertices.
+ * As in the original traversal, the visited set is shared by all incoming traversers and does not contain
+ * the start vertices themselves.
+ * <p>
+ * If the query has a {@link QueryBudget}, every scanned arc is charged as an element, and the visited set and
+ * the stack are charged as memory.
+ * <p>
+ * The walk can be suspended between two emitted vertices with {@link #saveState()} and continued by an equal step
+ * of a new traversal with {@link #restoreState(State)}, see {@link org.webgraph.tinkerpop.GremlinQueryExecutor#page}.
+ *
+ * @see org.webgraph.tinkerpop.process.traversal.strategy.optimization.WebGraphReachabilityStrategy
+ */
+public class WebGraphReachabilityStep extends AbstractStep<Vertex, Vertex> implements BudgetedStep {
+
+    private final WebGraphGraph graph;
+    private final Direction direction;
+    private final LongPredicate until;
+    private final LongPredicate emit;
+    private final boolean untilFirst;
+    private final boolean emitFirst;
+    private final Traversal.Admin<?, ?> untilTraversal;
+    private final Traversal.Admin<?, ?> emitTraversal;
+
+    private VertexIdSet visited;
+    private LongArrayList stack = new LongArrayList();
+    private LazyLongIterator neighbours;
+    private long expanding = -1;
+    private long expanded;
+    private long startsConsumed;
+    private Traverser.Admin<Vertex> head;
+    private QueryBudget budget;
+    private int uncharged;
+    private long chargedBytes;
+
+    /**
+     * @param traversal      the traversal this step belongs to
+     * @param graph          the graph to walk
+     * @param direction      the direction of the adjacency step inside {@code repeat}
+     * @param until          the compiled {@code until} predicate, or {@code null} if absent
+     * @param emit           the compiled {@code emit} predicate, or {@code null} if absent
+     * @param untilFirst     whether {@code until} preceded {@code repeat}
+     * @param emitFirst      whether {@code emit} preceded {@code repeat}
+     * @param untilTraversal the original {@code until} traversal, used for display only
+     * @param emitTraversal  the original {@code emit} traversal, used for display only
+     */
+    public WebGraphReachabilityStep(Traversal.Admin traversal, WebGraphGraph graph, Direction direction,
+                                    LongPredicate until, LongPredicate emit, boolean untilFirst, boolean emitFirst,
+                                    Traversal.Admin<?, ?> untilTraversal, Traversal.Admin<?, ?> emitTraversal) {
+        super(traversal);
+        this.graph = graph;
+        this.direction = direction;
+        this.until = until;
+        this.emit = emit;
+        this.untilFirst = untilFirst;
+        this.emitFirst = emitFirst;
+        this.untilTraversal = untilTraversal;
+        this.emitTraversal = emitTraversal;
+    }
+
+    @Override
+    protected Traverser.Admin<Vertex> processNextStart() {
+        while (true) {
+            if (neighbours != null) {
+                long next;
+                while ((next = neighbours.nextLong()) != -1) {
+                    expanded++;
+                    if (budget != null && ++uncharged == QueryBudget.CHECK_INTERVAL) {
+                        charge();
+                    }
+                    if (!visited.add(next)) {
+                        continue;
+                    }
+                    if (until != null && until.test(next)) {
+                        return split(next);
+                    }
+                    stack.push(next);
+                    if (emit != null && emit.test(next)) {
+                        return split(next);
+                    }
+                }
+                neighbours = null;
+                expanding = -1;
+            }
+            if (!stack.isEmpty()) {
+                expanding = stack.popLong();
+                expanded = 0;
+                neighbours = adjacent(expanding);
+                continue;
+            }
+            head = null;
+            Traverser.Admin<Vertex> start = this.starts.next();
+            startsConsumed++;
+            long id = (long) start.get().id();
+            if (untilFirst && until != null && until.test(id)) {
+                return start;
+            }
+            if (visited == null) {
+                visited = new VertexIdSet(graph.getBaseGraph().numNodes());
+            }
+            head = start;
+            stack.push(id);
+            if (emitFirst && emit != null && emit.test(id)) {
+                return start.split();
+            }
+        }
+    }
+
+    private void charge() {
+        budget.chargeElements(uncharged);
+        uncharged = 0;
+        long bytes = visited.memoryBytes() + (long) stack.elements().length * Long.BYTES;
+        budget.chargeMemory(bytes - chargedBytes);
+        chargedBytes = bytes;
+    }
+
+    /**
+     * Returns the state of the walk after the last emitted vertex.
+     * The state shares the visited set with this step, so it must be serialized before the walk continues.
+     *
+     * @return the state
+     */
+    public State saveState() {
+        return new State(startsConsumed, head != null, expanding, expanded, stack.toLongArray(), visited);
+    }
+
+    /**
+     * Continues the walk of another step from a saved state, before this step emitted any vertex.
+     * The start vertices consumed by the other step are taken from the previous step again.
+     *
+     * @param state the state saved by an equal step of an equal traversal
+     * @throws IllegalStateException if there are fewer start vertices than in the original traversal
+     */
+    public void restoreState(State state) {
+        for (long i = 0; i < state.startsConsumed; i++) {
+            if (!this.starts.hasNext()) {
+                throw new IllegalStateException("Expected " + state.startsConsumed + " start vertices, got " + i);
+            }
+            head = this.starts.next();
+        }
+        if (!state.hasHead) {
+            head = null;
+        }
+        startsConsumed = state.startsConsumed;
+        visited = state.visited;
+        stack = LongArrayList.wrap(state.stack.clone());
+        expanding = state.expanding;
+        expanded = state.expanded;
+        neighbours = null;
+        if (expanding != -1) {
+            neighbours = adjacent(expanding);
+            neighbours.skip(expanded);
+        }
+    }
+
+    /**
+     * The state of a suspended walk: the number of consumed start vertices, the vertex whose neighbours
+     * are being visited with the number of visited neighbours, the stack of vertices to expand, and the visited set.
+     */
+    public static class State {
+        private final long startsConsumed;
+        private final boolean hasHead;
+        private final long expanding;
+        private final long expanded;
+        private final long[] stack;
+        private final VertexIdSet visited;
+
+        /**
+         * @param startsConsumed the number of start vertices taken from the previous step
+         * @param hasHead        whether the walk from the last start vertex is still running
+         * @param expanding      the vertex whose neighbours are being visited, or -1 if there is none
+         * @param expanded       the number of visited neighbours of {@code expanding}
+         * @param stack          the vertices whose neighbours are still to be visited, the last one first
+         * @param visited        the visited vertices, or null if no walk has started
+         */
+        public State(long startsConsumed, boolean hasHead, long expanding, long expanded, long[] stack, VertexIdSet visited) {
+            this.startsConsumed = startsConsumed;
+            this.hasHead = hasHead;
+            this.expanding = expanding;
+            this.expanded = expanded;
+            this.stack = stack;
+            this.visited = visited;
+        }
+
+        public long getStartsConsumed() {
+            return startsConsumed;
+        }
+
+        public boolean hasHead() {
+            return hasHead;
+        }
+
+        public long getExpanding() {
+            return expanding;
+        }
+
+        public long getExpanded() {
+            return expanded;
+        }
+
+        public long[] getStack() {
+            return stack;
+        }
+
+        public VertexIdSet getVisited() {
+            return visited;
+        }
+    }
+
+    @Override
+    public void setBudget(QueryBudget budget) {
+        this.budget = budget;
+    }
+
+    private Traverser.Admin<Vertex> split(long id) {
+        Traverser.Admin<Vertex> res = head.split(graph.getVertex(id), this);
+        res.setBulk(1L);
+        return res;
+    }
+
+    private LazyLongIterator adjacent(long id) {
+        BidirectionalImmutableGraph g = graph.getBaseGraph();
+        switch (direction) {
+            case OUT:
+                return g.successors(id);
+            case IN:
+                return g.predecessors(id);
+            default:
+                return new LazyLongIterator() {
+                    final LazyLongIterator successors = g.successors(id);
+                    LazyLongIterator predecessors;
+
+                    @Override
+                    public long nextLong() {
+                        if (predecessors == null) {
+                            long next = successors.nextLong();
+                            if (next != -1) {
+                                return next;
+                            }
+                            predecessors = g.predecessors(id);
+                        }
+                        return predecessors.nextLong();
+                    }
+
+                    @Override
+                    public long skip(long n) {
+                        long skipped = 0;
+                        while (skipped < n && nextLong() != -1) {
+                            skipped++;
+                        }
+                        return skipped;
+                    }
+                };
+        }
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        if (budget != null) {
+            budget.chargeMemory(-chargedBytes);
+        }
+        uncharged = 0;
+        chargedBytes = 0;
+        visited = null;
+        stack = new LongArrayList();
+        neighbours = null;
+        expanding = -1;
+        expanded = 0;
+        startsConsumed = 0;
+        head = null;
+    }
+
+    @Override
+    public WebGraphReachabilityStep clone() {
+        WebGraphReachabilityStep clone = (WebGraphReachabilityStep) super.clone();
+        clone.visited = null;
+        clone.stack = new LongArrayList();
+        clone.neighbours = null;
+        clone.expanding = -1;
+        clone.expanded = 0;
+        clone.startsConsumed = 0;
+        clone.head = null;
+        clone.uncharged = 0;
+        clone.chargedBytes = 0;
+        return clone;
+    }
+
+    @Override
+    public String toString() {
+        return StringFactory.stepString(this, direction.name().toLowerCase(),
+                untilTraversal == null ? "" : (untilFirst ? "until-first(" : "until(") + untilTraversal + ")",
+                emitTraversal == null ? "" : (emitFirst ? "emit-first(" : "emit(") + emitTraversal + ")");
+    }
+
+    @Override
+    public int hashCode() {
+        return super.hashCode() ^ direction.hashCode() ^ Boolean.hashCode(untilFirst) ^ Boolean.hashCode(emitFirst);
+    }
+}
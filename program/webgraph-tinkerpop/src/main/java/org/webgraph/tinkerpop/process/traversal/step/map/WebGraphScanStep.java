@@ -0,0 +1,104 @@
+package org.webgraph.tinkerpop.process.traversal.step.map;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.AbstractStep;
+import org.apache.tinkerpop.gremlin.process.traversal.util.FastNoSuchElementException;
+import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
+import org.webgraph.tinkerpop.process.traversal.util.BudgetedStep;
+import org.webgraph.tinkerpop.process.traversal.util.QueryBudget;
+import org.webgraph.tinkerpop.process.traversal.util.VertexScan;
+import org.webgraph.tinkerpop.structure.WebGraphGraph;
+
+import java.util.List;
+import java.util.function.LongPredicate;
+
+/**
+ * Native replacement for {@code g.V().<filters>.count()} and {@code g.V().<filters>.groupCount().by(label)}.
+ * <p>
+ * Scans the vertex ids with {@link VertexScan}, in parallel if the graph is configured so,
+ * and emits a single traverser with the aggregated result. If the query has a {@link QueryBudget},
+ * the scanned vertices are charged as elements.
+ *
+ * @see org.webgraph.tinkerpop.process.traversal.strategy.optimization.WebGraphScanStrategy
+ */
+public class WebGraphScanStep<E> extends AbstractStep<Object, E> implements BudgetedStep {
+
+    public enum Aggregation {
+        COUNT,
+        GROUP_COUNT_BY_LABEL,
+        COUNT_EDGES
+    }
+
+    private final WebGraphGraph graph;
+    private final LongPredicate filter;
+    private final Aggregation aggregation;
+    private final List<Step<?, ?>> filterSteps;
+    private QueryBudget budget;
+    private boolean done;
+
+    /**
+     * @param traversal   the traversal this step belongs to
+     * @param graph       the graph to scan
+     * @param filter      the compiled vertex filters, or {@code null} if all elements are aggregated
+     * @param aggregation the aggregation to compute
+     * @param filterSteps the original filter steps, used for display only
+     */
+    public WebGraphScanStep(Traversal.Admin traversal, WebGraphGraph graph, LongPredicate filter,
+                                  Aggregation aggregation, List<Step<?, ?>> filterSteps) {
+        super(traversal);
+        this.graph = graph;
+        this.filter = filter;
+        this.aggregation = aggregation;
+        this.filterSteps = filterSteps;
+    }
+
+    @Override
+    protected Traverser.Admin<E> processNextStart() {
+        if (done) {
+            throw FastNoSuchElementException.instance();
+        }
+        done = true;
+        Object result;
+        switch (aggregation) {
+            case COUNT:
+                result = VertexScan.count(graph, filter, budget);
+                break;
+            case GROUP_COUNT_BY_LABEL:
+                result = VertexScan.countByLabel(graph, filter, budget);
+                break;
+            default:
+                result = graph.getBaseGraph().numArcs();
+        }
+        return getTraversal().getTraverserGenerator().generate((E) result, (Step) this, 1L);
+    }
+
+    @Override
+    public void setBudget(QueryBudget budget) {
+        this.budget = budget;
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        done = false;
+    }
+
+    @Override
+    public WebGraphScanStep<E> clone() {
+        WebGraphScanStep<E> clone = (WebGraphScanStep<E>) super.clone();
+        clone.done = false;
+        return clone;
+    }
+
+    @Override
+    public String toString() {
+        return StringFactory.stepString(this, aggregation.name().toLowerCase(), filterSteps);
+    }
+
+    @Override
+    public int hashCode() {
+        return super.hashCode() ^ aggregation.hashCode();
+    }
+}
@@ -0,0 +1,104 @@
+package org.webgraph.tinkerpop.process.traversal.step.map;
+
+import it.unimi.dsi.big.webgraph.labelling.Label;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.VertexStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Element;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
+import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
+import org.webgraph.tinkerpop.structure.WebGraphVertex;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.LongPredicate;
+import java.util.function.Predicate;
+
+/**
+ * Native replacement for {@code out().hasLabel(...)} and {@code outE().where(inV().hasLabel(...))}
+ * (or {@code in()/both()} and {@code inE()/outV()}), which filters the neighbours on their raw ids
+ * before any vertex or edge is created, and for {@code outE().has(key, predicate)}, which filters
+ * the arcs on their labels while iterating the labelled successors.
+ *
+ * @see org.webgraph.tinkerpop.process.traversal.strategy.optimization.WebGraphNeighbourLabelStrategy
+ * @see org.webgraph.tinkerpop.process.traversal.strategy.optimization.WebGraphEdgePropertyStrategy
+ */
+public class WebGraphVertexStep<E extends Element> extends VertexStep<E> {
+    private final LongPredicate neighbourFilter;
+    private final List<HasContainer> neighbourHasContainers;
+    private final Predicate<Label> arcLabelFilter;
+    private final List<HasContainer> edgeHasContainers;
+
+    /**
+     * @param traversal              the traversal this step belongs to
+     * @param returnClass            {@code Vertex.class} or {@code Edge.class}
+     * @param direction              the direction of the adjacency
+     * @param neighbourFilter        the filter over the ids of the neighbours, i.e., the other endpoints of the edges,
+     *                               or {@code null}
+     * @param neighbourHasContainers the filters {@code neighbourFilter} is compiled from
+     * @param arcLabelFilter         the filter over the arc labels, or {@code null}; only for edges
+     * @param edgeHasContainers      the filters {@code arcLabelFilter} is compiled from
+     */
+    public WebGraphVertexStep(Traversal.Admin traversal, Class<E> returnClass, Direction direction,
+                              LongPredicate neighbourFilter, List<HasContainer> neighbourHasContainers,
+                              Predicate<Label> arcLabelFilter, List<HasContainer> edgeHasContainers) {
+        super(traversal, returnClass, direction);
+        this.neighbourFilter = neighbourFilter;
+        this.neighbourHasContainers = neighbourHasContainers;
+        this.arcLabelFilter = arcLabelFilter;
+        this.edgeHasContainers = edgeHasContainers;
+    }
+
+    /**
+     * @return the filter over the ids of the neighbours, or {@code null}
+     */
+    public LongPredicate getNeighbourFilter() {
+        return neighbourFilter;
+    }
+
+    /**
+     * @return the filters the neighbour filter is compiled from
+     */
+    public List<HasContainer> getNeighbourHasContainers() {
+        return neighbourHasContainers;
+    }
+
+    @Override
+    protected Iterator<E> flatMap(Traverser.Admin<Vertex> traverser) {
+        Vertex vertex = traverser.get();
+        if (vertex instanceof WebGraphVertex) {
+            WebGraphVertex webGraphVertex = (WebGraphVertex) vertex;
+            if (returnsVertex()) {
+                return (Iterator<E>) (neighbourFilter == null
+                        ? webGraphVertex.vertices(getDirection())
+                        : webGraphVertex.vertices(getDirection(), neighbourFilter));
+            }
+            return (Iterator<E>) webGraphVertex.edges(getDirection(), neighbourFilter, arcLabelFilter);
+        }
+        // e.g. detached vertices passed with inject()
+        if (returnsVertex()) {
+            return (Iterator<E>) IteratorUtils.filter(vertex.vertices(getDirection()),
+                    v -> neighbourFilter == null || neighbourFilter.test((long) v.id()));
+        }
+        return (Iterator<E>) IteratorUtils.filter(vertex.edges(getDirection()),
+                e -> (neighbourFilter == null || neighbourFilter.test((long) e.vertices(getDirection().opposite()).next().id()))
+                        && HasContainer.testAll(e, edgeHasContainers));
+    }
+
+    @Override
+    public String toString() {
+        List<HasContainer> hasContainers = new ArrayList<>(edgeHasContainers);
+        hasContainers.addAll(neighbourHasContainers);
+        return StringFactory.stepString(this, getDirection(), getReturnClass().getSimpleName().toLowerCase(),
+                hasContainers);
+    }
+
+    @Override
+    public int hashCode() {
+        return super.hashCode() ^ neighbourHasContainers.hashCode() ^ edgeHasContainers.hashCode();
+    }
+}
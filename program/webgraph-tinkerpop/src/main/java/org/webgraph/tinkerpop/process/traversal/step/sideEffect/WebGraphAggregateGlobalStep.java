@@ -0,0 +1,84 @@
+package org.webgraph.tinkerpop.process.traversal.step.sideEffect;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
+import org.apache.tinkerpop.gremlin.process.traversal.step.LocalBarrier;
+import org.apache.tinkerpop.gremlin.process.traversal.traverser.util.TraverserSet;
+import org.apache.tinkerpop.gremlin.process.traversal.util.FastNoSuchElementException;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.webgraph.tinkerpop.util.VertexIdSet;
+
+/**
+ * Replacement for {@code aggregate(key)} over vertices, which stores vertex ids in a {@link VertexIdSet} side effect.
+ * <p>
+ * As {@code AggregateGlobalStep}, it is a barrier: all incoming vertices are aggregated before the first one
+ * is passed on, so steps reading the side effect afterwards see the whole set.
+ *
+ * @see org.webgraph.tinkerpop.process.traversal.strategy.optimization.WebGraphVertexIdSetStrategy
+ */
+public class WebGraphAggregateGlobalStep extends WebGraphAggregateStep implements LocalBarrier<Vertex> {
+
+    private TraverserSet<Vertex> barrier;
+
+    /**
+     * @param traversal     the traversal this step belongs to
+     * @param sideEffectKey the key of the {@link VertexIdSet} side effect
+     */
+    public WebGraphAggregateGlobalStep(Traversal.Admin traversal, String sideEffectKey) {
+        super(traversal, sideEffectKey, true);
+        this.barrier = (TraverserSet<Vertex>) traversal.getTraverserSetSupplier().get();
+    }
+
+    @Override
+    protected Traverser.Admin<Vertex> processNextStart() {
+        processAllStarts();
+        if (barrier.isEmpty()) {
+            throw FastNoSuchElementException.instance();
+        }
+        return barrier.remove();
+    }
+
+    @Override
+    public void processAllStarts() {
+        while (this.starts.hasNext()) {
+            Traverser.Admin<Vertex> traverser = this.starts.next();
+            aggregate(traverser);
+            barrier.add(traverser);
+        }
+    }
+
+    @Override
+    public boolean hasNextBarrier() {
+        processAllStarts();
+        return !barrier.isEmpty();
+    }
+
+    @Override
+    public TraverserSet<Vertex> nextBarrier() {
+        processAllStarts();
+        if (barrier.isEmpty()) {
+            throw FastNoSuchElementException.instance();
+        }
+        TraverserSet<Vertex> res = barrier;
+        barrier = (TraverserSet<Vertex>) getTraversal().getTraverserSetSupplier().get();
+        return res;
+    }
+
+    @Override
+    public void addBarrier(TraverserSet<Vertex> barrier) {
+        this.barrier.addAll(barrier);
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        barrier.clear();
+    }
+
+    @Override
+    public WebGraphAggregateGlobalStep clone() {
+        WebGraphAggregateGlobalStep clone = (WebGraphAggregateGlobalStep) super.clone();
+        clone.barrier = (TraverserSet<Vertex>) getTraversal().getTraverserSetSupplier().get();
+        return clone;
+    }
+}
@@ -0,0 +1,80 @@
+package org.webgraph.tinkerpop.process.traversal.step.sideEffect;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.AbstractStep;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
+import org.webgraph.tinkerpop.process.traversal.util.BudgetedStep;
+import org.webgraph.tinkerpop.process.traversal.util.QueryBudget;
+import org.webgraph.tinkerpop.util.VertexIdSet;
+
+/**
+ * Replacement for {@code aggregate(local, key)} over vertices, which stores vertex ids in a {@link VertexIdSet}
+ * side effect. The global variant, which is a barrier, is {@link WebGraphAggregateGlobalStep}.
+ *
+ * @see org.webgraph.tinkerpop.process.traversal.strategy.optimization.WebGraphVertexIdSetStrategy
+ */
+public class WebGraphAggregateStep extends AbstractStep<Vertex, Vertex> implements BudgetedStep {
+
+    private final String sideEffectKey;
+    private final boolean global;
+    private QueryBudget budget;
+    private long chargedBytes;
+
+    /**
+     * @param traversal     the traversal this step belongs to
+     * @param sideEffectKey the key of the {@link VertexIdSet} side effect
+     */
+    public WebGraphAggregateStep(Traversal.Admin traversal, String sideEffectKey) {
+        this(traversal, sideEffectKey, false);
+    }
+
+    protected WebGraphAggregateStep(Traversal.Admin traversal, String sideEffectKey, boolean global) {
+        super(traversal);
+        this.sideEffectKey = sideEffectKey;
+        this.global = global;
+    }
+
+    @Override
+    protected Traverser.Admin<Vertex> processNextStart() {
+        Traverser.Admin<Vertex> traverser = this.starts.next();
+        aggregate(traverser);
+        return traverser;
+    }
+
+    protected void aggregate(Traverser.Admin<Vertex> traverser) {
+        VertexIdSet set = this.getTraversal().getSideEffects().get(sideEffectKey);
+        if (set.add((long) traverser.get().id()) && budget != null) {
+            long bytes = set.memoryBytes();
+            budget.chargeMemory(bytes - chargedBytes);
+            chargedBytes = bytes;
+        }
+    }
+
+    @Override
+    public void setBudget(QueryBudget budget) {
+        this.budget = budget;
+    }
+
+    public String getSideEffectKey() {
+        return sideEffectKey;
+    }
+
+    @Override
+    public WebGraphAggregateStep clone() {
+        WebGraphAggregateStep clone = (WebGraphAggregateStep) super.clone();
+        clone.chargedBytes = 0;
+        return clone;
+    }
+
+    @Override
+    public String toString() {
+        return StringFactory.stepString(this, global ? "global" : "local", sideEffectKey);
+    }
+
+    @Override
+    public int hashCode() {
+        return super.hashCode() ^ sideEffectKey.hashCode() ^ Boolean.hashCode(global);
+    }
+}
@@ -0,0 +1,59 @@
+package org.webgraph.tinkerpop.process.traversal.step.sideEffect;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.AbstractStep;
+import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
+import org.webgraph.tinkerpop.process.traversal.util.QueryBudget;
+
+/**
+ * Passes traversers through unchanged, charging them to the {@link QueryBudget} of the query.
+ * <p>
+ * Traversers are charged in batches of {@link QueryBudget#CHECK_INTERVAL}, but cancellation is checked
+ * for every traverser.
+ *
+ * @see org.webgraph.tinkerpop.process.traversal.strategy.finalization.WebGraphBudgetStrategy
+ */
+public class WebGraphBudgetStep<S> extends AbstractStep<S, S> {
+    private final QueryBudget budget;
+    private int uncharged;
+
+    /**
+     * @param traversal the traversal this step belongs to
+     * @param budget    the budget of the query
+     */
+    public WebGraphBudgetStep(Traversal.Admin traversal, QueryBudget budget) {
+        super(traversal);
+        this.budget = budget;
+    }
+
+    @Override
+    protected Traverser.Admin<S> processNextStart() {
+        Traverser.Admin<S> traverser = starts.next();
+        if (++uncharged == QueryBudget.CHECK_INTERVAL) {
+            budget.chargeElements(uncharged);
+            uncharged = 0;
+        } else if (budget.isCancelled()) {
+            budget.check();
+        }
+        return traverser;
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        uncharged = 0;
+    }
+
+    @Override
+    public WebGraphBudgetStep<S> clone() {
+        WebGraphBudgetStep<S> clone = (WebGraphBudgetStep<S>) super.clone();
+        clone.uncharged = 0;
+        return clone;
+    }
+
+    @Override
+    public String toString() {
+        return StringFactory.stepString(this);
+    }
+}
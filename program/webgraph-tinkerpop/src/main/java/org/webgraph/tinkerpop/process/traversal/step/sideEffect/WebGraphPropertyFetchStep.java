@@ -0,0 +1,110 @@
+package org.webgraph.tinkerpop.process.traversal.step.sideEffect;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.AbstractStep;
+import org.apache.tinkerpop.gremlin.process.traversal.util.FastNoSuchElementException;
+import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
+import org.webgraph.tinkerpop.structure.WebGraphGraph;
+import org.webgraph.tinkerpop.structure.WebGraphVertex;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Passes traversers through unchanged, but reads some vertex properties of them in batches beforehand.
+ * <p>
+ * Traversers are buffered up to a batch size, and the properties of all buffered vertices are read with one call
+ * to {@link org.webgraph.tinkerpop.structure.provider.WebGraphPropertyProvider#vertexProperties(String, long[], Object[])}
+ * per key, which reads the vertices in id order. The values are cached in the vertices, where the following step reads them.
+ * Unlike a {@code barrier()}, traversers are neither merged nor reordered.
+ *
+ * @see org.webgraph.tinkerpop.process.traversal.strategy.optimization.WebGraphPropertyFetchStrategy
+ */
+public class WebGraphPropertyFetchStep<S> extends AbstractStep<S, S> {
+    private final WebGraphGraph graph;
+    private final Set<String> keys = new LinkedHashSet<>();
+    private final int batchSize;
+    private ArrayDeque<Traverser.Admin<S>> buffer = new ArrayDeque<>();
+
+    /**
+     * @param traversal the traversal this step belongs to
+     * @param graph     the graph of the vertices
+     * @param keys      the keys of the properties to read
+     * @param batchSize the maximum number of buffered traversers
+     */
+    public WebGraphPropertyFetchStep(Traversal.Admin traversal, WebGraphGraph graph, Set<String> keys, int batchSize) {
+        super(traversal);
+        this.graph = graph;
+        this.keys.addAll(keys);
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * @param keys more keys of properties to read
+     */
+    public void addKeys(Set<String> keys) {
+        this.keys.addAll(keys);
+    }
+
+    /**
+     * @return the keys of the properties to read
+     */
+    public Set<String> getKeys() {
+        return Collections.unmodifiableSet(keys);
+    }
+
+    @Override
+    protected Traverser.Admin<S> processNextStart() {
+        if (buffer.isEmpty()) {
+            fetchNextBatch();
+            if (buffer.isEmpty()) {
+                throw FastNoSuchElementException.instance();
+            }
+        }
+        return buffer.poll();
+    }
+
+    private void fetchNextBatch() {
+        List<WebGraphVertex> vertices = new ArrayList<>();
+        while (buffer.size() < batchSize && starts.hasNext()) {
+            Traverser.Admin<S> traverser = starts.next();
+            buffer.add(traverser);
+            if (traverser.get() instanceof WebGraphVertex) {
+                vertices.add((WebGraphVertex) traverser.get());
+            }
+        }
+        if (!vertices.isEmpty()) {
+            for (String key : keys) {
+                WebGraphVertex.fetchProperty(graph, vertices, key);
+            }
+        }
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        buffer.clear();
+    }
+
+    @Override
+    public WebGraphPropertyFetchStep<S> clone() {
+        WebGraphPropertyFetchStep<S> clone = (WebGraphPropertyFetchStep<S>) super.clone();
+        clone.buffer = new ArrayDeque<>();
+        return clone;
+    }
+
+    @Override
+    public String toString() {
+        return StringFactory.stepString(this, keys, batchSize);
+    }
+
+    @Override
+    public int hashCode() {
+        return super.hashCode() ^ keys.hashCode();
+    }
+}
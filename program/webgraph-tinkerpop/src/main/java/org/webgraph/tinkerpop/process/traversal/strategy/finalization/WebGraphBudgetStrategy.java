@@ -0,0 +1,65 @@
+package org.webgraph.tinkerpop.process.traversal.strategy.finalization;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.step.branch.RepeatStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.ComputerAwareStep;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.AbstractTraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.finalization.ProfileStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+import org.webgraph.tinkerpop.process.traversal.step.sideEffect.WebGraphBudgetStep;
+import org.webgraph.tinkerpop.process.traversal.util.BudgetedStep;
+import org.webgraph.tinkerpop.process.traversal.util.QueryBudget;
+
+import java.util.ArrayList;
+import java.util.Set;
+
+/**
+ * Enforces the {@link QueryBudget} of a query, by inserting a {@link WebGraphBudgetStep} after every step
+ * of the root and child traversals, and handing the budget to every {@link BudgetedStep}.
+ * <p>
+ * Unlike the other strategies, it is not registered for the graph, but added to the traversal source of a query
+ * with limits, see {@link org.webgraph.tinkerpop.GremlinQueryExecutor}:
+ * <pre>
+ * g.withStrategies(new WebGraphBudgetStrategy(budget)).V().out()   // is executed as
+ * g.V().webGraphBudget().out().webGraphBudget()
+ * </pre>
+ */
+public class WebGraphBudgetStrategy extends AbstractTraversalStrategy<TraversalStrategy.FinalizationStrategy>
+        implements TraversalStrategy.FinalizationStrategy {
+
+    private final QueryBudget budget;
+
+    /**
+     * @param budget the budget of the query
+     */
+    public WebGraphBudgetStrategy(QueryBudget budget) {
+        this.budget = budget;
+    }
+
+    @Override
+    public void apply(Traversal.Admin<?, ?> traversal) {
+        for (Step<?, ?> step : new ArrayList<>(traversal.getSteps())) {
+            if (step instanceof BudgetedStep) {
+                ((BudgetedStep) step).setBudget(budget);
+            }
+            if (step instanceof RepeatStep.RepeatEndStep || step instanceof ComputerAwareStep.EndStep) {
+                continue; // must stay last, the step before it is checked
+            }
+            TraversalHelper.insertAfterStep(new WebGraphBudgetStep<>(traversal, budget), (Step) step, traversal);
+        }
+    }
+
+    /**
+     * @return the budget of the query
+     */
+    public QueryBudget getBudget() {
+        return budget;
+    }
+
+    @Override
+    public Set<Class<? extends FinalizationStrategy>> applyPost() {
+        return Set.of(ProfileStrategy.class);
+    }
+}
@@ -0,0 +1,121 @@
+package org.webgraph.tinkerpop.process.traversal.strategy.optimization;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.NotStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.RangeGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.TraversalFilterStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.CountGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.NoOpBarrierStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.VertexStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.IdentityStep;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.AbstractTraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.webgraph.tinkerpop.process.traversal.step.filter.WebGraphDegreeFilterStep;
+import org.webgraph.tinkerpop.process.traversal.step.map.WebGraphDegreeCountStep;
+import org.webgraph.tinkerpop.process.traversal.util.VertexFilters;
+import org.webgraph.tinkerpop.process.traversal.util.WebGraphTraversalHelper;
+import org.webgraph.tinkerpop.structure.WebGraphGraph;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Replaces neighbour counts and emptiness checks with degree lookups, so that neighbours are never enumerated.
+ * <p>
+ * Handles {@code out().count()}, optionally with {@code limit(n)} before {@code count()}, and {@code not(out())}
+ * and {@code where(out())}, with {@code in()/both()} and the edge steps {@code outE()/inE()/bothE()}, as long as
+ * the adjacency step has no edge labels. {@code where(out().count().is(0))} is covered too, as {@code CountStrategy}
+ * turns it into {@code not(out())}. Runs after the other strategies, which compile {@code not(out())} themselves.
+ * <pre>
+ * g.V(v).repeat(out()).until(not(out())).where(in().count().is(gt(5)))   // is replaced by
+ * g.V(v).repeat(out()).until(webGraphDegreeFilter(none-out)).where(webGraphDegreeCount(in,6).is(gt(5)))
+ * </pre>
+ */
+public class WebGraphDegreeStrategy extends AbstractTraversalStrategy<TraversalStrategy.ProviderOptimizationStrategy>
+        implements TraversalStrategy.ProviderOptimizationStrategy {
+
+    private static final WebGraphDegreeStrategy INSTANCE = new WebGraphDegreeStrategy();
+
+    private WebGraphDegreeStrategy() {
+    }
+
+    public static WebGraphDegreeStrategy instance() {
+        return INSTANCE;
+    }
+
+    @Override
+    public void apply(Traversal.Admin<?, ?> traversal) {
+        WebGraphGraph graph = WebGraphTraversalHelper.getGraph(traversal);
+        if (graph == null) {
+            return;
+        }
+        for (Step<?, ?> step : new ArrayList<>(traversal.getSteps())) {
+            if (step instanceof CountGlobalStep) {
+                replaceCount((CountGlobalStep<?>) step, traversal, graph);
+            } else if (step instanceof NotStep) {
+                replaceFilter(step, ((NotStep<?>) step).getLocalChildren().get(0), true, traversal, graph);
+            } else if (step instanceof TraversalFilterStep) {
+                replaceFilter(step, ((TraversalFilterStep<?>) step).getLocalChildren().get(0), false, traversal, graph);
+            }
+        }
+    }
+
+    /**
+     * Replaces {@code out().count()} or {@code out().limit(n).count()} ending at the given count step.
+     */
+    private static void replaceCount(CountGlobalStep<?> countStep, Traversal.Admin<?, ?> traversal, WebGraphGraph graph) {
+        List<Step<?, ?>> replaced = new ArrayList<>();
+        long limit = Long.MAX_VALUE;
+        Step<?, ?> step = countStep.getPreviousStep();
+        while (step instanceof IdentityStep || step instanceof NoOpBarrierStep || step instanceof RangeGlobalStep) {
+            if (!step.getLabels().isEmpty()) {
+                return;
+            }
+            if (step instanceof RangeGlobalStep) {
+                RangeGlobalStep<?> rangeStep = (RangeGlobalStep<?>) step;
+                if (rangeStep.getLowRange() != 0 || limit != Long.MAX_VALUE) {
+                    return;
+                }
+                limit = rangeStep.getHighRange() == -1 ? Long.MAX_VALUE : rangeStep.getHighRange();
+            }
+            replaced.add(step);
+            step = step.getPreviousStep();
+        }
+        if (!(step instanceof VertexStep) || !step.getLabels().isEmpty()
+                || ((VertexStep<?>) step).getEdgeLabels().length != 0) {
+            return;
+        }
+        VertexStep<?> vertexStep = (VertexStep<?>) step;
+        WebGraphDegreeCountStep degreeStep = new WebGraphDegreeCountStep(traversal, graph, vertexStep.getDirection(), limit);
+        TraversalHelper.copyLabels(countStep, degreeStep, false);
+        for (Step<?, ?> s : replaced) {
+            traversal.removeStep(s);
+        }
+        traversal.removeStep(vertexStep);
+        TraversalHelper.replaceStep((Step) countStep, degreeStep, traversal);
+    }
+
+    /**
+     * Replaces {@code not(out())} or {@code where(out())}.
+     */
+    private static void replaceFilter(Step<?, ?> filterStep, Traversal.Admin<?, ?> child, boolean isolated,
+                                      Traversal.Admin<?, ?> traversal, WebGraphGraph graph) {
+        Direction direction = VertexFilters.adjacencyDirection(child);
+        if (direction == null) {
+            return;
+        }
+        WebGraphDegreeFilterStep degreeStep = new WebGraphDegreeFilterStep(traversal, graph, direction, isolated);
+        TraversalHelper.copyLabels(filterStep, degreeStep, false);
+        TraversalHelper.replaceStep((Step) filterStep, degreeStep, traversal);
+    }
+
+    @Override
+    public Set<Class<? extends ProviderOptimizationStrategy>> applyPrior() {
+        return Set.of(WebGraphReachabilityStrategy.class, WebGraphIndexStrategy.class, WebGraphScanStrategy.class,
+                WebGraphVertexIdSetStrategy.class, WebGraphPropertyFetchStrategy.class);
+    }
+}
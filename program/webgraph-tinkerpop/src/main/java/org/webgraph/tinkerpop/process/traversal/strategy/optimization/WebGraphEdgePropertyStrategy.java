@@ -0,0 +1,126 @@
+package org.webgraph.tinkerpop.process.traversal.strategy.optimization;
+
+import it.unimi.dsi.big.webgraph.labelling.Label;
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.HasStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.WherePredicateStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.VertexStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.AbstractTraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.webgraph.tinkerpop.process.traversal.step.filter.WebGraphWherePredicateStep;
+import org.webgraph.tinkerpop.process.traversal.step.map.WebGraphVertexStep;
+import org.webgraph.tinkerpop.process.traversal.util.WebGraphTraversalHelper;
+import org.webgraph.tinkerpop.structure.WebGraphGraph;
+import org.webgraph.tinkerpop.structure.provider.WebGraphPropertyProvider;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Pushes the {@code has(key, predicate)} filters on edges into the iteration of the labelled successors
+ * (or predecessors), for the properties computed from the arc labels, so that only the matching arcs become edges.
+ * <p>
+ * Handles {@code has()} steps after {@code outE()/inE()/bothE()} without edge labels, possibly with other
+ * {@code has()}/{@code where()} filters in between, for which the provider returns an
+ * {@link WebGraphPropertyProvider#edgePropertyFilter(String, org.apache.tinkerpop.gremlin.process.traversal.P) edge property filter}.
+ * The graph must have a labelled graph for each direction of the edge step.
+ * <pre>
+ * g.V(v).repeat(outE().has("filenames", anyFilename("setup.py")).inV())   // is replaced by
+ * g.V(v).repeat(webGraphVertex(OUT,edge,[filenames.anyFilename([setup.py])]).inV())
+ * </pre>
+ */
+public class WebGraphEdgePropertyStrategy extends AbstractTraversalStrategy<TraversalStrategy.ProviderOptimizationStrategy>
+        implements TraversalStrategy.ProviderOptimizationStrategy {
+
+    private static final WebGraphEdgePropertyStrategy INSTANCE = new WebGraphEdgePropertyStrategy();
+
+    private WebGraphEdgePropertyStrategy() {
+    }
+
+    public static WebGraphEdgePropertyStrategy instance() {
+        return INSTANCE;
+    }
+
+    @Override
+    public void apply(Traversal.Admin<?, ?> traversal) {
+        WebGraphGraph graph = WebGraphTraversalHelper.getGraph(traversal);
+        if (graph == null) {
+            return;
+        }
+        for (Step<?, ?> step : new ArrayList<>(traversal.getSteps())) {
+            if ((step.getClass() != VertexStep.class && step.getClass() != WebGraphVertexStep.class)
+                    || !((VertexStep<?>) step).returnsEdge() || ((VertexStep<?>) step).getEdgeLabels().length != 0
+                    || !hasLabelledGraph(graph, ((VertexStep<?>) step).getDirection())) {
+                continue;
+            }
+            VertexStep<?> vertexStep = (VertexStep<?>) step;
+            List<HasContainer> hasContainers = new ArrayList<>();
+            Predicate<Label> arcLabelFilter = takeEdgePropertyFilters(vertexStep, traversal, graph.getPropertyProvider(),
+                    hasContainers);
+            if (arcLabelFilter == null) {
+                continue;
+            }
+            WebGraphVertexStep<?> newStep = vertexStep instanceof WebGraphVertexStep
+                    ? new WebGraphVertexStep<>(traversal, vertexStep.getReturnClass(), vertexStep.getDirection(),
+                    ((WebGraphVertexStep<?>) vertexStep).getNeighbourFilter(),
+                    ((WebGraphVertexStep<?>) vertexStep).getNeighbourHasContainers(), arcLabelFilter, hasContainers)
+                    : new WebGraphVertexStep<>(traversal, vertexStep.getReturnClass(), vertexStep.getDirection(),
+                    null, List.of(), arcLabelFilter, hasContainers);
+            TraversalHelper.copyLabels(vertexStep, newStep, false);
+            TraversalHelper.replaceStep((Step) vertexStep, newStep, traversal);
+        }
+    }
+
+    private static boolean hasLabelledGraph(WebGraphGraph graph, Direction direction) {
+        return (direction == Direction.IN || graph.getArcLabelledGraph() != null)
+                && (direction == Direction.OUT || graph.getTransposedArcLabelledGraph() != null);
+    }
+
+    /**
+     * Removes the containers of the {@code has()} steps following an edge step which the provider can test
+     * on arc labels, and returns their conjunction. Steps left without containers are removed, and their labels
+     * moved to the edge step.
+     *
+     * @param hasContainers receives the removed containers
+     * @return the conjunction of the filters, or {@code null} if no container was removed
+     */
+    private static Predicate<Label> takeEdgePropertyFilters(VertexStep<?> vertexStep, Traversal.Admin<?, ?> traversal,
+                                                            WebGraphPropertyProvider provider,
+                                                            List<HasContainer> hasContainers) {
+        Predicate<Label> res = null;
+        Step<?, ?> step = vertexStep.getNextStep();
+        while (step instanceof HasStep || step instanceof WherePredicateStep || step instanceof WebGraphWherePredicateStep) {
+            Step<?, ?> nextStep = step.getNextStep();
+            if (step instanceof HasStep) {
+                HasStep<?> hasStep = (HasStep<?>) step;
+                for (HasContainer hasContainer : new ArrayList<>(hasStep.getHasContainers())) {
+                    Predicate<Label> filter = provider.edgePropertyFilter(hasContainer.getKey(), hasContainer.getPredicate());
+                    if (filter != null) {
+                        res = res == null ? filter : res.and(filter);
+                        hasContainers.add(hasContainer);
+                        hasStep.removeHasContainer(hasContainer);
+                    }
+                }
+                if (hasStep.getHasContainers().isEmpty()) {
+                    TraversalHelper.copyLabels(hasStep, vertexStep, false);
+                    traversal.removeStep(hasStep);
+                }
+            }
+            step = nextStep;
+        }
+        return res;
+    }
+
+    @Override
+    public Set<Class<? extends ProviderOptimizationStrategy>> applyPrior() {
+        return Set.of(WebGraphReachabilityStrategy.class, WebGraphIndexStrategy.class, WebGraphScanStrategy.class,
+                WebGraphVertexIdSetStrategy.class, WebGraphPropertyFetchStrategy.class, WebGraphDegreeStrategy.class,
+                WebGraphNeighbourLabelStrategy.class);
+    }
+}
@@ -0,0 +1,155 @@
+package org.webgraph.tinkerpop.process.traversal.strategy.optimization;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Compare;
+import org.apache.tinkerpop.gremlin.process.traversal.Contains;
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.lambda.ConstantTraversal;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.HasStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.SampleGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.CountGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.GraphStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.NoOpBarrierStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.AbstractTraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.decoration.SeedStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.webgraph.tinkerpop.process.traversal.step.map.WebGraphIndexCountStep;
+import org.webgraph.tinkerpop.process.traversal.step.map.WebGraphIndexStep;
+import org.webgraph.tinkerpop.process.traversal.util.WebGraphTraversalHelper;
+import org.webgraph.tinkerpop.structure.WebGraphGraph;
+import org.webgraph.tinkerpop.structure.property.vertex.index.VertexPropertyIndex;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Replaces {@code V()} followed by {@code has()} filters on an indexed vertex property with a {@link WebGraphIndexStep}.
+ * <p>
+ * Indexes are declared in the property provider, see
+ * {@link org.webgraph.tinkerpop.structure.provider.WebGraphPropertyProvider#vertexPropertyIndex(String)}.
+ * Label filters use the label index of the graph, see {@link WebGraphGraph#VERTEX_LABEL_INDEX}.
+ * If several containers can be answered by an index, equality lookups are preferred to ranges.
+ * <p>
+ * If the only filter is counted exactly by its index, a following {@code count()} is replaced with a
+ * {@link WebGraphIndexCountStep}, and a following {@code sample(n)} is drawn by the index.
+ * <pre>
+ * g.V().has("author_timestamp", gt(x))   // is replaced by
+ * g.webGraphIndex(index(author_timestamp), [author_timestamp.gt(x)])
+ * g.V().hasLabel("REV").count()             // is replaced by
+ * g.webGraphIndexCount(index(~label), ~label.eq(REV))
+ * </pre>
+ */
+public class WebGraphIndexStrategy extends AbstractTraversalStrategy<TraversalStrategy.ProviderOptimizationStrategy>
+        implements TraversalStrategy.ProviderOptimizationStrategy {
+
+    private static final WebGraphIndexStrategy INSTANCE = new WebGraphIndexStrategy();
+
+    private WebGraphIndexStrategy() {
+    }
+
+    public static WebGraphIndexStrategy instance() {
+        return INSTANCE;
+    }
+
+    @Override
+    public void apply(Traversal.Admin<?, ?> traversal) {
+        WebGraphGraph graph = WebGraphTraversalHelper.getGraph(traversal);
+        if (graph == null) {
+            return;
+        }
+        for (GraphStep<?, ?> graphStep : TraversalHelper.getStepsOfClass(GraphStep.class, traversal)) {
+            if (!graphStep.returnsVertex() || graphStep.getIds().length != 0) {
+                continue;
+            }
+            List<HasStep<?>> hasSteps = new ArrayList<>();
+            List<HasContainer> hasContainers = new ArrayList<>();
+            for (Step<?, ?> step = graphStep.getNextStep(); step instanceof HasStep || step instanceof NoOpBarrierStep;
+                 step = step.getNextStep()) {
+                if (step instanceof HasStep) {
+                    hasSteps.add((HasStep<?>) step);
+                    hasContainers.addAll(((HasStep<?>) step).getHasContainers());
+                }
+            }
+            VertexPropertyIndex index = null;
+            HasContainer indexedContainer = null;
+            for (HasContainer hasContainer : hasContainers) {
+                VertexPropertyIndex candidate = index(graph, hasContainer.getKey());
+                if (candidate == null || candidate.candidates(hasContainer.getPredicate()) == null) {
+                    continue;
+                }
+                if (index == null || isEquality(hasContainer) && !isEquality(indexedContainer)) {
+                    index = candidate;
+                    indexedContainer = hasContainer;
+                }
+            }
+            if (index == null) {
+                continue;
+            }
+            WebGraphIndexStep indexStep = new WebGraphIndexStep((GraphStep<Vertex, Vertex>) graphStep, graph, index, indexedContainer);
+            hasContainers.forEach(indexStep::addHasContainer);
+            for (HasStep<?> hasStep : hasSteps) {
+                hasStep.getLabels().forEach(indexStep::addLabel);
+                traversal.removeStep(hasStep);
+            }
+            TraversalHelper.replaceStep((Step) graphStep, indexStep, traversal);
+            if (hasContainers.size() == 1 && index.count(indexedContainer.getPredicate()) >= 0) {
+                foldAggregation(traversal, indexStep, index, indexedContainer);
+            }
+        }
+    }
+
+    /**
+     * Folds a {@code count()} or a {@code sample(n)} following the index step of a root traversal,
+     * when the index answers its only container exactly.
+     */
+    private static void foldAggregation(Traversal.Admin<?, ?> traversal, WebGraphIndexStep indexStep,
+                                        VertexPropertyIndex index, HasContainer hasContainer) {
+        Step<?, ?> next = indexStep.getNextStep();
+        if (!traversal.isRoot() || traversal.getStartStep() != indexStep || !indexStep.getLabels().isEmpty()
+                || !next.getLabels().isEmpty() || WebGraphTraversalHelper.requiresPath(traversal)) {
+            return;
+        }
+        if (next instanceof CountGlobalStep) {
+            traversal.removeStep(next);
+            TraversalHelper.replaceStep((Step) indexStep, new WebGraphIndexCountStep(traversal, index, hasContainer), traversal);
+        } else if (next instanceof SampleGlobalStep && isUniform((SampleGlobalStep<?>) next)) {
+            int amount = WebGraphTraversalHelper.sampleAmount((SampleGlobalStep<?>) next);
+            if (amount >= 0) {
+                indexStep.setSampleAmount(amount);
+                traversal.getStrategies().getStrategy(SeedStrategy.class)
+                         .ifPresent(seedStrategy -> indexStep.resetSeed(seedStrategy.getSeed()));
+                traversal.removeStep(next);
+            }
+        }
+    }
+
+    private static boolean isUniform(SampleGlobalStep<?> sampleStep) {
+        List<? extends Traversal.Admin<?, ?>> by = sampleStep.getLocalChildren();
+        return by.size() == 1 && by.get(0) instanceof ConstantTraversal
+                && Objects.equals(((ConstantTraversal<?, ?>) by.get(0)).next(), 1.0d);
+    }
+
+    /**
+     * Returns the index of a key: the label index of the graph for {@code T.label}, the index of the provider otherwise.
+     */
+    private static VertexPropertyIndex index(WebGraphGraph graph, String key) {
+        return T.label.getAccessor().equals(key)
+                ? graph.getVertexLabelIndex()
+                : graph.getPropertyProvider().vertexPropertyIndex(key);
+    }
+
+    private static boolean isEquality(HasContainer hasContainer) {
+        return hasContainer.getBiPredicate() == Compare.eq || hasContainer.getBiPredicate() == Contains.within;
+    }
+
+    @Override
+    public Set<Class<? extends ProviderOptimizationStrategy>> applyPost() {
+        return Set.of(WebGraphScanStrategy.class);
+    }
+}
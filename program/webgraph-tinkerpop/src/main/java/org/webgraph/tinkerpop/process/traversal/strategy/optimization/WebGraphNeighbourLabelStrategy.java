@@ -0,0 +1,177 @@
+package org.webgraph.tinkerpop.process.traversal.strategy.optimization;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.HasStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.TraversalFilterStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.WherePredicateStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.EdgeVertexStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.NoOpBarrierStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.VertexStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.IdentityStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.AbstractTraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.webgraph.tinkerpop.process.traversal.step.filter.WebGraphWherePredicateStep;
+import org.webgraph.tinkerpop.process.traversal.step.map.WebGraphVertexStep;
+import org.webgraph.tinkerpop.process.traversal.step.sideEffect.WebGraphPropertyFetchStep;
+import org.webgraph.tinkerpop.process.traversal.util.VertexFilters;
+import org.webgraph.tinkerpop.process.traversal.util.WebGraphTraversalHelper;
+import org.webgraph.tinkerpop.structure.WebGraphGraph;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Pushes the label filters on neighbours into the adjacency steps, so that neighbours with other labels are
+ * rejected on their ids, with the primitive labels of the provider, before any vertex or edge is created.
+ * <p>
+ * Handles {@code hasLabel(...)} right after {@code out()/in()/both()}, and {@code where(inV().hasLabel(...))}
+ * after {@code outE()} (or {@code where(outV().hasLabel(...))} after {@code inE()}), possibly with other
+ * {@code has()}/{@code where()} filters in between. Adjacency steps with edge labels are left untouched.
+ * Runs after the other strategies, as the replacement is still a {@link VertexStep}, which they would take
+ * for an unfiltered one.
+ * <pre>
+ * g.V(v).out().hasLabel("DIR").outE().where(P.without("e")).where(inV().hasLabel("REV", "REL"))   // is replaced by
+ * g.V(v).webGraphVertex(OUT,vertex,[~label.eq(DIR)]).webGraphVertex(OUT,edge,[~label.within([REV, REL])]).where(without(e))
+ * </pre>
+ */
+public class WebGraphNeighbourLabelStrategy extends AbstractTraversalStrategy<TraversalStrategy.ProviderOptimizationStrategy>
+        implements TraversalStrategy.ProviderOptimizationStrategy {
+
+    private static final WebGraphNeighbourLabelStrategy INSTANCE = new WebGraphNeighbourLabelStrategy();
+
+    private WebGraphNeighbourLabelStrategy() {
+    }
+
+    public static WebGraphNeighbourLabelStrategy instance() {
+        return INSTANCE;
+    }
+
+    @Override
+    public void apply(Traversal.Admin<?, ?> traversal) {
+        WebGraphGraph graph = WebGraphTraversalHelper.getGraph(traversal);
+        if (graph == null) {
+            return;
+        }
+        for (VertexStep<?> vertexStep : TraversalHelper.getStepsOfClass(VertexStep.class, traversal)) {
+            if (vertexStep.getEdgeLabels().length != 0) {
+                continue;
+            }
+            List<HasContainer> hasContainers = vertexStep.returnsVertex()
+                    ? takeLabelFilters(vertexStep, traversal)
+                    : takeEndpointLabelFilters(vertexStep, traversal);
+            if (hasContainers.isEmpty()) {
+                continue;
+            }
+            WebGraphVertexStep<?> step = new WebGraphVertexStep<>(traversal, vertexStep.getReturnClass(),
+                    vertexStep.getDirection(), VertexFilters.compile(hasContainers, graph), hasContainers,
+                    null, List.of());
+            TraversalHelper.copyLabels(vertexStep, step, false);
+            TraversalHelper.replaceStep((Step) vertexStep, step, traversal);
+        }
+    }
+
+    /**
+     * Removes the label containers of the {@code has()} steps following a step returning vertices.
+     * Steps left without containers are removed, and their labels moved to the vertex step.
+     */
+    private static List<HasContainer> takeLabelFilters(VertexStep<?> vertexStep, Traversal.Admin<?, ?> traversal) {
+        List<HasContainer> res = new ArrayList<>();
+        Step<?, ?> step = vertexStep.getNextStep();
+        while (step instanceof HasStep || (step instanceof WebGraphPropertyFetchStep && step.getLabels().isEmpty())) {
+            Step<?, ?> nextStep = step.getNextStep();
+            if (step instanceof HasStep) {
+                HasStep<?> hasStep = (HasStep<?>) step;
+                for (HasContainer hasContainer : new ArrayList<>(hasStep.getHasContainers())) {
+                    if (isLabelFilter(hasContainer)) {
+                        res.add(hasContainer);
+                        hasStep.removeHasContainer(hasContainer);
+                    }
+                }
+                if (hasStep.getHasContainers().isEmpty()) {
+                    TraversalHelper.copyLabels(hasStep, vertexStep, false);
+                    traversal.removeStep(hasStep);
+                }
+            }
+            step = nextStep;
+        }
+        return res;
+    }
+
+    /**
+     * Removes the {@code where(inV().hasLabel(...))} steps following an {@code outE()} step
+     * (or {@code where(outV().hasLabel(...))} following {@code inE()}), and returns their label containers.
+     * Only steps separated from the edge step by pure filters are removed, so that no side effect sees
+     * fewer edges than before.
+     */
+    private static List<HasContainer> takeEndpointLabelFilters(VertexStep<?> vertexStep, Traversal.Admin<?, ?> traversal) {
+        List<HasContainer> res = new ArrayList<>();
+        Direction direction = vertexStep.getDirection();
+        if (direction == Direction.BOTH) {
+            return res;
+        }
+        Step<?, ?> step = vertexStep.getNextStep();
+        while (step instanceof HasStep || step instanceof WherePredicateStep || step instanceof WebGraphWherePredicateStep
+                || step instanceof TraversalFilterStep) {
+            Step<?, ?> nextStep = step.getNextStep();
+            if (step instanceof TraversalFilterStep) {
+                List<HasContainer> hasContainers = step.getLabels().isEmpty()
+                        ? endpointLabelFilters(((TraversalFilterStep<?>) step).getLocalChildren().get(0), direction.opposite())
+                        : null;
+                if (hasContainers == null) {
+                    break;
+                }
+                res.addAll(hasContainers);
+                traversal.removeStep(step);
+            }
+            step = nextStep;
+        }
+        return res;
+    }
+
+    /**
+     * Returns the label containers of a traversal consisting of an unlabelled {@code inV()/outV()} step
+     * followed by label filters only.
+     *
+     * @return the containers, or {@code null} if the traversal has another shape
+     */
+    private static List<HasContainer> endpointLabelFilters(Traversal.Admin<?, ?> traversal, Direction endpoint) {
+        List<HasContainer> res = new ArrayList<>();
+        boolean seenEndpoint = false;
+        for (Step<?, ?> step : traversal.getSteps()) {
+            if (step instanceof IdentityStep || step instanceof NoOpBarrierStep) {
+                continue;
+            }
+            if (!step.getLabels().isEmpty()) {
+                return null;
+            }
+            if (!seenEndpoint) {
+                if (!(step instanceof EdgeVertexStep) || ((EdgeVertexStep) step).getDirection() != endpoint) {
+                    return null;
+                }
+                seenEndpoint = true;
+            } else if (step instanceof HasStep
+                    && ((HasStep<?>) step).getHasContainers().stream().allMatch(WebGraphNeighbourLabelStrategy::isLabelFilter)) {
+                res.addAll(((HasStep<?>) step).getHasContainers());
+            } else {
+                return null;
+            }
+        }
+        return res.isEmpty() ? null : res;
+    }
+
+    private static boolean isLabelFilter(HasContainer hasContainer) {
+        return T.label.getAccessor().equals(hasContainer.getKey());
+    }
+
+    @Override
+    public Set<Class<? extends ProviderOptimizationStrategy>> applyPrior() {
+        return Set.of(WebGraphReachabilityStrategy.class, WebGraphIndexStrategy.class, WebGraphScanStrategy.class,
+                WebGraphVertexIdSetStrategy.class, WebGraphPropertyFetchStrategy.class, WebGraphDegreeStrategy.class);
+    }
+}
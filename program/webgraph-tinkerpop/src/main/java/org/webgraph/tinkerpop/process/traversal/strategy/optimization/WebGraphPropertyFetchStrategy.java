@@ -0,0 +1,107 @@
+package org.webgraph.tinkerpop.process.traversal.strategy.optimization;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.lambda.ValueTraversal;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.HasStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.ElementMapStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.OrderGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.PropertiesStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.PropertyMapStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.AbstractTraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.javatuples.Pair;
+import org.webgraph.tinkerpop.process.traversal.step.sideEffect.WebGraphPropertyFetchStep;
+import org.webgraph.tinkerpop.process.traversal.util.WebGraphTraversalHelper;
+import org.webgraph.tinkerpop.structure.WebGraphGraph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Reads the vertex properties used by {@code order().by(key)}, {@code values(key)}, {@code properties(key)},
+ * {@code valueMap(key)}, {@code elementMap(key)} and {@code has(key, ...)} in batches, by inserting a
+ * {@link WebGraphPropertyFetchStep} before these steps.
+ * <p>
+ * Only steps of the root traversal whose input is known to be vertices, and which name their keys, are prefixed.
+ * <pre>
+ * g.V(v).repeat(in().dedup()).emit(hasLabel("REV")).order().by("author_timestamp")   // is replaced by
+ * g.V(v).repeat(in().dedup()).emit(hasLabel("REV")).webGraphPropertyFetch([author_timestamp],2500).order().by("author_timestamp")
+ * </pre>
+ */
+public class WebGraphPropertyFetchStrategy extends AbstractTraversalStrategy<TraversalStrategy.ProviderOptimizationStrategy>
+        implements TraversalStrategy.ProviderOptimizationStrategy {
+
+    /**
+     * The maximum number of traversers whose properties are read together.
+     */
+    public static final int BATCH_SIZE = 2500;
+
+    private static final WebGraphPropertyFetchStrategy INSTANCE = new WebGraphPropertyFetchStrategy();
+
+    private WebGraphPropertyFetchStrategy() {
+    }
+
+    public static WebGraphPropertyFetchStrategy instance() {
+        return INSTANCE;
+    }
+
+    @Override
+    public void apply(Traversal.Admin<?, ?> traversal) {
+        WebGraphGraph graph = WebGraphTraversalHelper.getGraph(traversal);
+        if (graph == null || !traversal.isRoot()) {
+            return;
+        }
+        for (Step<?, ?> step : new ArrayList<>(traversal.getSteps())) {
+            Set<String> keys = fetchedKeys(step);
+            if (keys.isEmpty() || !WebGraphTraversalHelper.consumesVertices(step)) {
+                continue;
+            }
+            Step<?, ?> previousStep = step.getPreviousStep();
+            if (previousStep instanceof WebGraphPropertyFetchStep && previousStep.getLabels().isEmpty()) {
+                ((WebGraphPropertyFetchStep<?>) previousStep).addKeys(keys);
+            } else {
+                TraversalHelper.insertBeforeStep(new WebGraphPropertyFetchStep<>(traversal, graph, keys, BATCH_SIZE),
+                        (Step) step, traversal);
+            }
+        }
+    }
+
+    /**
+     * Returns the keys of the vertex properties read by a step, if it is one of the supported steps.
+     */
+    private static Set<String> fetchedKeys(Step<?, ?> step) {
+        Set<String> res = new LinkedHashSet<>();
+        if (step instanceof PropertiesStep) {
+            res.addAll(Arrays.asList(((PropertiesStep<?>) step).getPropertyKeys()));
+        } else if (step instanceof PropertyMapStep) {
+            res.addAll(Arrays.asList(((PropertyMapStep<?, ?>) step).getPropertyKeys()));
+        } else if (step instanceof ElementMapStep) {
+            res.addAll(Arrays.asList(((ElementMapStep<?, ?>) step).getPropertyKeys()));
+        } else if (step instanceof HasStep) {
+            for (HasContainer hasContainer : ((HasStep<?>) step).getHasContainers()) {
+                if (!T.label.getAccessor().equals(hasContainer.getKey()) && !T.id.getAccessor().equals(hasContainer.getKey())) {
+                    res.add(hasContainer.getKey());
+                }
+            }
+        } else if (step instanceof OrderGlobalStep) {
+            for (Pair<? extends Traversal.Admin<?, ?>, ?> comparator : ((OrderGlobalStep<?, ?>) step).getComparators()) {
+                if (comparator.getValue0() instanceof ValueTraversal) {
+                    res.add(((ValueTraversal<?, ?>) comparator.getValue0()).getPropertyKey());
+                }
+            }
+        }
+        return res;
+    }
+
+    @Override
+    public Set<Class<? extends ProviderOptimizationStrategy>> applyPrior() {
+        return Set.of(WebGraphReachabilityStrategy.class, WebGraphIndexStrategy.class, WebGraphScanStrategy.class,
+                WebGraphVertexIdSetStrategy.class);
+    }
+}
@@ -0,0 +1,104 @@
+package org.webgraph.tinkerpop.process.traversal.strategy.optimization;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.step.branch.RepeatStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.DedupGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.NoOpBarrierStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.VertexStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.IdentityStep;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.AbstractTraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+import org.webgraph.tinkerpop.process.traversal.step.map.WebGraphReachabilityStep;
+import org.webgraph.tinkerpop.process.traversal.util.VertexFilters;
+import org.webgraph.tinkerpop.process.traversal.util.WebGraphTraversalHelper;
+import org.webgraph.tinkerpop.structure.WebGraphGraph;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongPredicate;
+
+/**
+ * Replaces {@code repeat(out().dedup())} reachability traversals with a {@link WebGraphReachabilityStep}.
+ * <p>
+ * Handles {@code out()}, {@code in()} and {@code both()} with any combination of {@code emit()} and {@code until()},
+ * as long as their traversals can be compiled by {@link VertexFilters}, e.g. {@code hasLabel(...)} or {@code not(out())}.
+ * Traversals that require paths or run on a graph computer are left untouched.
+ * <pre>
+ * g.V(v).repeat(in().dedup()).emit(hasLabel("REV"))   // is replaced by
+ * g.V(v).webGraphReachability(in, emit([HasStep([~label.eq(REV)])]))
+ * </pre>
+ */
+public class WebGraphReachabilityStrategy extends AbstractTraversalStrategy<TraversalStrategy.ProviderOptimizationStrategy>
+        implements TraversalStrategy.ProviderOptimizationStrategy {
+
+    private static final WebGraphReachabilityStrategy INSTANCE = new WebGraphReachabilityStrategy();
+
+    private WebGraphReachabilityStrategy() {
+    }
+
+    public static WebGraphReachabilityStrategy instance() {
+        return INSTANCE;
+    }
+
+    @Override
+    public void apply(Traversal.Admin<?, ?> traversal) {
+        WebGraphGraph graph = WebGraphTraversalHelper.getGraph(traversal);
+        if (graph == null || WebGraphTraversalHelper.requiresPath(traversal)) {
+            return;
+        }
+        for (RepeatStep<?> repeatStep : TraversalHelper.getStepsOfClass(RepeatStep.class, traversal)) {
+            VertexStep<?> vertexStep = reachabilityStep(repeatStep.getRepeatTraversal());
+            if (vertexStep == null) {
+                continue;
+            }
+            Traversal.Admin<?, ?> untilTraversal = repeatStep.getUntilTraversal();
+            Traversal.Admin<?, ?> emitTraversal = repeatStep.getEmitTraversal();
+            if (untilTraversal != null && emitTraversal != null && repeatStep.untilFirst != repeatStep.emitFirst) {
+                continue; // mixed positions check until and emit in a different order, keep the generic step
+            }
+            LongPredicate until = untilTraversal == null ? null : VertexFilters.compile(untilTraversal, graph);
+            LongPredicate emit = emitTraversal == null ? null : VertexFilters.compile(emitTraversal, graph);
+            if ((untilTraversal != null && until == null) || (emitTraversal != null && emit == null)) {
+                continue;
+            }
+            WebGraphReachabilityStep reachabilityStep = new WebGraphReachabilityStep(traversal, graph,
+                    vertexStep.getDirection(), until, emit, repeatStep.untilFirst, repeatStep.emitFirst,
+                    untilTraversal, emitTraversal);
+            TraversalHelper.copyLabels(repeatStep, reachabilityStep, false);
+            TraversalHelper.replaceStep((Step) repeatStep, reachabilityStep, traversal);
+        }
+    }
+
+    /**
+     * Checks that the repeated traversal is exactly {@code out().dedup()} (or {@code in()}/{@code both()}),
+     * without labels, {@code by()} modulators or edge labels.
+     *
+     * @return the adjacency step, or {@code null} if the traversal has another shape
+     */
+    private static VertexStep<?> reachabilityStep(Traversal.Admin<?, ?> repeatTraversal) {
+        List<Step<?, ?>> steps = new ArrayList<>();
+        for (Step<?, ?> step : repeatTraversal.getSteps()) {
+            if (step instanceof IdentityStep || step instanceof NoOpBarrierStep || step instanceof RepeatStep.RepeatEndStep) {
+                continue;
+            }
+            if (!step.getLabels().isEmpty()) {
+                return null;
+            }
+            steps.add(step);
+        }
+        if (steps.size() != 2
+                || !(steps.get(0) instanceof VertexStep)
+                || !(steps.get(1) instanceof DedupGlobalStep)) {
+            return null;
+        }
+        VertexStep<?> vertexStep = (VertexStep<?>) steps.get(0);
+        DedupGlobalStep<?> dedupStep = (DedupGlobalStep<?>) steps.get(1);
+        if (!vertexStep.returnsVertex() || vertexStep.getEdgeLabels().length != 0
+                || !dedupStep.getLocalChildren().isEmpty() || !dedupStep.getScopeKeys().isEmpty()) {
+            return null;
+        }
+        return vertexStep;
+    }
+}
@@ -0,0 +1,122 @@
+package org.webgraph.tinkerpop.process.traversal.strategy.optimization;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.lambda.TokenTraversal;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.CountGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.GraphStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.GroupCountStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.LabelStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.NoOpBarrierStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.IdentityStep;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.AbstractTraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.webgraph.tinkerpop.process.traversal.step.map.WebGraphIndexStep;
+import org.webgraph.tinkerpop.process.traversal.step.map.WebGraphScanStep;
+import org.webgraph.tinkerpop.process.traversal.util.VertexFilters;
+import org.webgraph.tinkerpop.process.traversal.util.WebGraphTraversalHelper;
+import org.webgraph.tinkerpop.structure.WebGraphGraph;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongPredicate;
+
+/**
+ * Replaces full-graph aggregations at the start of a traversal with a {@link WebGraphScanStep}.
+ * <p>
+ * Handles {@code g.V()} followed by filters that can be compiled by {@link VertexFilters} and by {@code count()}
+ * or {@code groupCount().by(label)}, and {@code g.E().count()}. Scans run in parallel if
+ * {@link WebGraphGraph#SCAN_PARALLELISM} is greater than 1.
+ * <pre>
+ * g.V().hasLabel("ORI").count()   // is replaced by
+ * g.webGraphScan(count, [HasStep([~label.eq(ORI)])])
+ * </pre>
+ */
+public class WebGraphScanStrategy extends AbstractTraversalStrategy<TraversalStrategy.ProviderOptimizationStrategy>
+        implements TraversalStrategy.ProviderOptimizationStrategy {
+
+    private static final WebGraphScanStrategy INSTANCE = new WebGraphScanStrategy();
+
+    private WebGraphScanStrategy() {
+    }
+
+    public static WebGraphScanStrategy instance() {
+        return INSTANCE;
+    }
+
+    @Override
+    public void apply(Traversal.Admin<?, ?> traversal) {
+        WebGraphGraph graph = WebGraphTraversalHelper.getGraph(traversal);
+        if (graph == null || !traversal.isRoot() || WebGraphTraversalHelper.requiresPath(traversal)) {
+            return;
+        }
+        List<Step> steps = traversal.getSteps();
+        if (steps.isEmpty() || !(steps.get(0) instanceof GraphStep) || steps.get(0) instanceof WebGraphIndexStep) {
+            return;
+        }
+        GraphStep<?, ?> graphStep = (GraphStep<?, ?>) steps.get(0);
+        if (graphStep.getIds().length != 0 || !graphStep.getLabels().isEmpty()) {
+            return;
+        }
+        List<Step<?, ?>> filterSteps = new ArrayList<>();
+        int i = 1;
+        for (; i < steps.size(); i++) {
+            Step<?, ?> step = steps.get(i);
+            if (step instanceof CountGlobalStep || step instanceof GroupCountStep) {
+                break;
+            }
+            if (!step.getLabels().isEmpty()) {
+                return;
+            }
+            if (step instanceof IdentityStep || step instanceof NoOpBarrierStep) {
+                continue;
+            }
+            filterSteps.add(step);
+        }
+        if (i == steps.size()) {
+            return;
+        }
+        Step<?, ?> aggregationStep = steps.get(i);
+        WebGraphScanStep.Aggregation aggregation;
+        if (aggregationStep instanceof CountGlobalStep) {
+            aggregation = graphStep.returnsVertex() ? WebGraphScanStep.Aggregation.COUNT : WebGraphScanStep.Aggregation.COUNT_EDGES;
+        } else if (graphStep.returnsVertex() && groupsByLabel((GroupCountStep<?, ?>) aggregationStep)) {
+            aggregation = WebGraphScanStep.Aggregation.GROUP_COUNT_BY_LABEL;
+        } else {
+            return;
+        }
+        LongPredicate filter = null;
+        if (!filterSteps.isEmpty()) {
+            if (aggregation == WebGraphScanStep.Aggregation.COUNT_EDGES) {
+                return;
+            }
+            for (Step<?, ?> step : filterSteps) {
+                LongPredicate p = VertexFilters.compile(step, graph);
+                if (p == null) {
+                    return;
+                }
+                filter = filter == null ? p : filter.and(p);
+            }
+        }
+        WebGraphScanStep<?> scanStep = new WebGraphScanStep<>(traversal, graph, filter, aggregation, filterSteps);
+        TraversalHelper.copyLabels(aggregationStep, scanStep, false);
+        for (int j = i; j > 0; j--) {
+            traversal.removeStep(j);
+        }
+        TraversalHelper.replaceStep((Step) graphStep, scanStep, traversal);
+    }
+
+    private static boolean groupsByLabel(GroupCountStep<?, ?> groupCountStep) {
+        List<? extends Traversal.Admin<?, ?>> by = groupCountStep.getLocalChildren();
+        if (by.size() != 1) {
+            return false;
+        }
+        Traversal.Admin<?, ?> key = by.get(0);
+        if (key instanceof TokenTraversal) {
+            return ((TokenTraversal<?, ?>) key).getToken() == T.label;
+        }
+        return key.getSteps().size() == 1 && key.getSteps().get(0) instanceof LabelStep;
+    }
+}
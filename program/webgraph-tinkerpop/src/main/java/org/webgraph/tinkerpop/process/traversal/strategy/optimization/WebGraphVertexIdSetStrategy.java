@@ -0,0 +1,183 @@
+package org.webgraph.tinkerpop.process.traversal.strategy.optimization;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Contains;
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.step.LambdaHolder;
+import org.apache.tinkerpop.gremlin.process.traversal.step.Scoping;
+import org.apache.tinkerpop.gremlin.process.traversal.step.SideEffectCapable;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.DedupGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.WherePredicateStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.GraphStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.AggregateGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.AggregateLocalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.SideEffectCapStep;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.AbstractTraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+import org.apache.tinkerpop.gremlin.util.function.BulkSetSupplier;
+import org.webgraph.tinkerpop.process.traversal.step.filter.WebGraphDedupGlobalStep;
+import org.webgraph.tinkerpop.process.traversal.step.filter.WebGraphWherePredicateStep;
+import org.webgraph.tinkerpop.process.traversal.step.map.WebGraphIndexStep;
+import org.webgraph.tinkerpop.process.traversal.step.sideEffect.WebGraphAggregateGlobalStep;
+import org.webgraph.tinkerpop.process.traversal.step.sideEffect.WebGraphAggregateStep;
+import org.webgraph.tinkerpop.process.traversal.util.WebGraphTraversalHelper;
+import org.webgraph.tinkerpop.structure.WebGraphGraph;
+import org.webgraph.tinkerpop.util.ArcIndex;
+import org.webgraph.tinkerpop.util.VertexIdSet;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Replaces vertex {@code dedup()} (and edge {@code dedup()} when edges have arc ids) and {@code aggregate(key)}/{@code where(P.without(key))} side effects
+ * with steps that keep vertex ids in a {@link VertexIdSet}.
+ * <p>
+ * A side effect is only replaced if it is used exclusively by {@code aggregate} and {@code where(within/without)}
+ * steps over vertices. If it is read in any other way (e.g. by {@code cap()}), or if it was given by
+ * {@code withSideEffect(key, collection)}, which the caller may read afterwards, the traversal is left untouched.
+ * <pre>
+ * g.V().repeat(out().dedup().where(without("a")).aggregate("a"))   // is replaced by
+ * g.V().repeat(out().webGraphDedupGlobal().webGraphWherePredicate(without(a)).webGraphAggregateGlobal(global,a))
+ * </pre>
+ */
+public class WebGraphVertexIdSetStrategy extends AbstractTraversalStrategy<TraversalStrategy.ProviderOptimizationStrategy>
+        implements TraversalStrategy.ProviderOptimizationStrategy {
+
+    private static final WebGraphVertexIdSetStrategy INSTANCE = new WebGraphVertexIdSetStrategy();
+
+    private WebGraphVertexIdSetStrategy() {
+    }
+
+    public static WebGraphVertexIdSetStrategy instance() {
+        return INSTANCE;
+    }
+
+    @Override
+    public void apply(Traversal.Admin<?, ?> traversal) {
+        WebGraphGraph graph = WebGraphTraversalHelper.getGraph(traversal);
+        if (graph == null || WebGraphTraversalHelper.requiresPath(traversal)) {
+            return;
+        }
+        long numNodes = graph.getBaseGraph().numNodes();
+        ArcIndex arcIndex = graph.getArcIndex();
+        for (DedupGlobalStep<?> dedupStep : TraversalHelper.getStepsOfClass(DedupGlobalStep.class, traversal)) {
+            if (!dedupStep.getLocalChildren().isEmpty() || !dedupStep.getScopeKeys().isEmpty()) {
+                continue;
+            }
+            long numIds;
+            if (WebGraphTraversalHelper.consumesVertices(dedupStep)) {
+                numIds = numNodes;
+            } else if (arcIndex != null && WebGraphTraversalHelper.consumesEdges(dedupStep)) {
+                numIds = arcIndex.numArcs();
+            } else {
+                continue;
+            }
+            long expectedSize = isFullScan(dedupStep.getPreviousStep()) ? numIds : 0;
+            WebGraphDedupGlobalStep step = new WebGraphDedupGlobalStep(traversal, numIds, expectedSize);
+            TraversalHelper.copyLabels(dedupStep, step, false);
+            TraversalHelper.replaceStep((Step) dedupStep, step, traversal);
+        }
+        if (traversal.isRoot()) {
+            replaceSideEffects(traversal, numNodes);
+        }
+    }
+
+    private static boolean isFullScan(Step<?, ?> step) {
+        return step instanceof GraphStep && !(step instanceof WebGraphIndexStep) && ((GraphStep<?, ?>) step).getIds().length == 0;
+    }
+
+    private void replaceSideEffects(Traversal.Admin<?, ?> root, long numNodes) {
+        if (!TraversalHelper.getStepsOfAssignableClassRecursively(LambdaHolder.class, root).isEmpty()) {
+            return; // lambdas may read side effects directly
+        }
+        Set<String> keys = new LinkedHashSet<>();
+        for (SideEffectCapable<?, ?> step : TraversalHelper.getStepsOfAssignableClassRecursively(SideEffectCapable.class, root)) {
+            if (step instanceof AggregateGlobalStep || step instanceof AggregateLocalStep) {
+                keys.add(step.getSideEffectKey());
+            }
+        }
+        for (String key : keys) {
+            if (!(root.getSideEffects().getSupplier(key) instanceof BulkSetSupplier)) {
+                continue; // given by withSideEffect(), or registered by another step
+            }
+            List<Step<?, ?>> aggregates = new ArrayList<>();
+            List<WherePredicateStep<?>> wheres = new ArrayList<>();
+            if (!collectUsages(root, key, aggregates, wheres)) {
+                continue;
+            }
+            for (Step<?, ?> aggregate : aggregates) {
+                Traversal.Admin<?, ?> t = aggregate.getTraversal();
+                WebGraphAggregateStep step = aggregate instanceof AggregateGlobalStep
+                        ? new WebGraphAggregateGlobalStep(t, key)
+                        : new WebGraphAggregateStep(t, key);
+                TraversalHelper.copyLabels(aggregate, step, false);
+                TraversalHelper.replaceStep((Step) aggregate, step, t);
+            }
+            for (WherePredicateStep<?> where : wheres) {
+                Traversal.Admin<?, ?> t = where.getTraversal();
+                boolean within = where.getPredicate().get().getBiPredicate() == Contains.within;
+                WebGraphWherePredicateStep step = new WebGraphWherePredicateStep(t, key, within);
+                TraversalHelper.copyLabels(where, step, false);
+                TraversalHelper.replaceStep((Step) where, step, t);
+            }
+            root.getSideEffects().register(key, () -> new VertexIdSet(numNodes), null);
+        }
+    }
+
+    /**
+     * Collects all steps using the side effect, checking that they all can be replaced.
+     *
+     * @return {@code false} if the side effect is used in an unsupported way
+     */
+    private static boolean collectUsages(Traversal.Admin<?, ?> root, String key,
+                                         List<Step<?, ?>> aggregates, List<WherePredicateStep<?>> wheres) {
+        for (Step<?, ?> step : TraversalHelper.getStepsOfAssignableClassRecursively(Step.class, root)) {
+            if (step.getLabels().contains(key)) {
+                return false;
+            }
+            if (step instanceof AggregateGlobalStep || step instanceof AggregateLocalStep) {
+                if (!key.equals(((SideEffectCapable<?, ?>) step).getSideEffectKey())) {
+                    continue;
+                }
+                List<?> by = step instanceof AggregateGlobalStep
+                        ? ((AggregateGlobalStep<?>) step).getLocalChildren()
+                        : ((AggregateLocalStep<?>) step).getLocalChildren();
+                if (!by.isEmpty() || !WebGraphTraversalHelper.consumesVertices(step)) {
+                    return false;
+                }
+                aggregates.add(step);
+            } else if (step instanceof SideEffectCapStep) {
+                if (((SideEffectCapStep<?, ?>) step).getSideEffectKeys().contains(key)) {
+                    return false;
+                }
+            } else if (step instanceof SideEffectCapable) {
+                if (key.equals(((SideEffectCapable<?, ?>) step).getSideEffectKey())) {
+                    return false;
+                }
+            } else if (step instanceof Scoping && ((Scoping) step).getScopeKeys().contains(key)) {
+                if (!(step instanceof WherePredicateStep)) {
+                    return false;
+                }
+                WherePredicateStep<?> where = (WherePredicateStep<?>) step;
+                P<?> predicate = where.getPredicate().orElse(null);
+                if (where.getStartKey().isPresent() || !where.getLocalChildren().isEmpty()
+                        || where.getScopeKeys().size() != 1 || predicate == null
+                        || (predicate.getBiPredicate() != Contains.within && predicate.getBiPredicate() != Contains.without)
+                        || !WebGraphTraversalHelper.consumesVertices(where)) {
+                    return false;
+                }
+                wheres.add(where);
+            }
+        }
+        return !aggregates.isEmpty();
+    }
+
+    @Override
+    public Set<Class<? extends ProviderOptimizationStrategy>> applyPrior() {
+        return Set.of(WebGraphReachabilityStrategy.class);
+    }
+}
@@ -0,0 +1,15 @@
+package org.webgraph.tinkerpop.process.traversal.util;
+
+/**
+ * A step which charges its work to a {@link QueryBudget}, e.g. a native step processing many elements
+ * or building a large structure without passing traversers on.
+ *
+ * @see org.webgraph.tinkerpop.process.traversal.strategy.finalization.WebGraphBudgetStrategy
+ */
+public interface BudgetedStep {
+
+    /**
+     * @param budget the budget of the query the step belongs to
+     */
+    void setBudget(QueryBudget budget);
+}
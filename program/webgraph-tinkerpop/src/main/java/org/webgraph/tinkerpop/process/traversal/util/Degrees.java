@@ -0,0 +1,32 @@
+package org.webgraph.tinkerpop.process.traversal.util;
+
+import it.unimi.dsi.big.webgraph.BidirectionalImmutableGraph;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.webgraph.tinkerpop.structure.WebGraphGraph;
+
+/**
+ * Reads vertex degrees from the underlying graph, without enumerating neighbours.
+ */
+public class Degrees {
+
+    /**
+     * Returns the number of neighbours of a vertex in a direction, as enumerated by {@code out()/in()/both()}.
+     *
+     * @param graph     the graph
+     * @param id        the vertex id
+     * @param direction the direction
+     * @return the degree, with self-loops counted twice for {@link Direction#BOTH}
+     */
+    public static long degree(WebGraphGraph graph, long id, Direction direction) {
+        // the base graph is fetched on each call, as it may be a copy owned by the calling thread
+        BidirectionalImmutableGraph g = graph.getBaseGraph();
+        switch (direction) {
+            case OUT:
+                return g.outdegree(id);
+            case IN:
+                return g.indegree(id);
+            default:
+                return g.outdegree(id) + g.indegree(id);
+        }
+    }
+}
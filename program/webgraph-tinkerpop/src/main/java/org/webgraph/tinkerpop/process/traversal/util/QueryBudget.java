@@ -0,0 +1,125 @@
+package org.webgraph.tinkerpop.process.traversal.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tracks the resources used by one query against its {@link QueryLimits}.
+ * <p>
+ * Steps charge the elements they process, and the native steps the memory of their id sets and candidate buffers.
+ * Other collections, e.g. traverser barriers or the side effects of {@code aggregate()} with a custom
+ * supplier, are not charged as memory; only the elements flowing through them are.
+ * Once a limit is exceeded, the deadline has passed, or the query was {@link #cancel() cancelled}, the next charge
+ * throws a {@link QueryLimitExceededException}, which stops the traversal at a step boundary.
+ * To keep the overhead low, steps charge elements in batches of {@link #CHECK_INTERVAL}.
+ * <p>
+ * A budget may be charged from several threads, e.g. by the ranges of a parallel {@link VertexScan}.
+ */
+public class QueryBudget {
+    /**
+     * Number of elements a step processes between two charges.
+     */
+    public static final int CHECK_INTERVAL = 1024;
+
+    private final QueryLimits limits;
+    private final long deadline;
+    private final long maxElements;
+    private final long maxMemoryBytes;
+    private final AtomicLong elements = new AtomicLong();
+    private final AtomicLong memoryBytes = new AtomicLong();
+    private volatile boolean cancelled;
+
+    /**
+     * Creates a budget whose deadline starts now.
+     *
+     * @param limits the limits of the query
+     */
+    public QueryBudget(QueryLimits limits) {
+        this.limits = limits;
+        this.deadline = limits.getTimeout() == null ? Long.MAX_VALUE : System.nanoTime() + limits.getTimeout().toNanos();
+        this.maxElements = limits.getMaxElements() <= 0 ? Long.MAX_VALUE : limits.getMaxElements();
+        this.maxMemoryBytes = limits.getMaxMemoryBytes() <= 0 ? Long.MAX_VALUE : limits.getMaxMemoryBytes();
+    }
+
+    /**
+     * Charges processed elements and checks the deadline.
+     *
+     * @param count the number of elements
+     * @throws QueryLimitExceededException if a limit is exceeded or the query was cancelled
+     */
+    public void chargeElements(long count) {
+        if (elements.addAndGet(count) > maxElements) {
+            throw new QueryLimitExceededException("Query exceeded " + limits.getMaxElements() + " traversed elements");
+        }
+        check();
+    }
+
+    /**
+     * Charges a change of the estimated memory of a structure built by the query.
+     * Does not check the deadline, as memory may be charged for every element.
+     *
+     * @param deltaBytes the change in bytes, negative if memory was released
+     * @throws QueryLimitExceededException if a limit is exceeded or the query was cancelled
+     */
+    public void chargeMemory(long deltaBytes) {
+        if (memoryBytes.addAndGet(deltaBytes) > maxMemoryBytes) {
+            throw new QueryLimitExceededException("Query exceeded " + limits.getMaxMemoryBytes() + " bytes of memory");
+        }
+        if (cancelled) {
+            throw new QueryLimitExceededException("Query was cancelled");
+        }
+    }
+
+    /**
+     * Checks the deadline and cancellation.
+     *
+     * @throws QueryLimitExceededException if the deadline has passed or the query was cancelled
+     */
+    public void check() {
+        if (cancelled) {
+            throw new QueryLimitExceededException("Query was cancelled");
+        }
+        if (deadline != Long.MAX_VALUE && System.nanoTime() - deadline > 0) {
+            throw new QueryLimitExceededException("Query exceeded its timeout of " + limits.getTimeout());
+        }
+    }
+
+    /**
+     * Cancels the query. Its steps throw on their next charge.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * @return {@code true} if the query was cancelled
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * @return the number of elements charged so far
+     */
+    public long getElements() {
+        return elements.get();
+    }
+
+    /**
+     * @return the estimated memory in bytes charged so far
+     */
+    public long getMemoryBytes() {
+        return memoryBytes.get();
+    }
+
+    /**
+     * @return the limits of the query
+     */
+    public QueryLimits getLimits() {
+        return limits;
+    }
+
+    @Override
+    public String toString() {
+        return "QueryBudget[elements=" + elements.get() + ", memoryBytes=" + memoryBytes.get() + ", " + limits + "]";
+    }
+}
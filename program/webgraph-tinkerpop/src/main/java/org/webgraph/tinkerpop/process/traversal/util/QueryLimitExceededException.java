@@ -0,0 +1,11 @@
+package org.webgraph.tinkerpop.process.traversal.util;
+
+/**
+ * Thrown from the steps of a query which exceeded one of its {@link QueryLimits} or was cancelled.
+ */
+public class QueryLimitExceededException extends RuntimeException {
+
+    public QueryLimitExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,63 @@
+package org.webgraph.tinkerpop.process.traversal.util;
+
+import java.time.Duration;
+
+/**
+ * Limits on the resources a single query may use, enforced by a {@link QueryBudget}.
+ */
+public class QueryLimits {
+    /**
+     * No limits.
+     */
+    public static final QueryLimits NONE = new QueryLimits(null, 0, 0);
+
+    private final Duration timeout;
+    private final long maxElements;
+    private final long maxMemoryBytes;
+
+    /**
+     * @param timeout        the maximum wall-clock time of the query, or null for no limit
+     * @param maxElements    the maximum number of elements passing through the steps of the query,
+     *                       including vertices visited by native traversals, or 0 for no limit
+     * @param maxMemoryBytes the maximum estimated memory of the dedup and side-effect structures of the query,
+     *                       or 0 for no limit
+     */
+    public QueryLimits(Duration timeout, long maxElements, long maxMemoryBytes) {
+        this.timeout = timeout;
+        this.maxElements = maxElements;
+        this.maxMemoryBytes = maxMemoryBytes;
+    }
+
+    /**
+     * @return the maximum wall-clock time of the query, or null for no limit
+     */
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    /**
+     * @return the maximum number of traversed elements, or 0 for no limit
+     */
+    public long getMaxElements() {
+        return maxElements;
+    }
+
+    /**
+     * @return the maximum estimated memory in bytes, or 0 for no limit
+     */
+    public long getMaxMemoryBytes() {
+        return maxMemoryBytes;
+    }
+
+    /**
+     * @return {@code true} if no limit is set
+     */
+    public boolean isUnlimited() {
+        return timeout == null && maxElements <= 0 && maxMemoryBytes <= 0;
+    }
+
+    @Override
+    public String toString() {
+        return "QueryLimits[timeout=" + timeout + ", maxElements=" + maxElements + ", maxMemoryBytes=" + maxMemoryBytes + "]";
+    }
+}
@@ -0,0 +1,159 @@
+package org.webgraph.tinkerpop.process.traversal.util;
+
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.lambda.AbstractLambdaTraversal;
+import org.apache.tinkerpop.gremlin.process.traversal.lambda.TrueTraversal;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.HasStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.NotStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.NoOpBarrierStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.VertexStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.IdentityStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.webgraph.tinkerpop.structure.WebGraphGraph;
+import org.webgraph.tinkerpop.structure.provider.WebGraphPropertyProvider;
+
+import java.util.List;
+import java.util.function.LongPredicate;
+
+/**
+ * Compiles simple {@code Gremlin} vertex filters into predicates over raw vertex ids.
+ * <p>
+ * Compiled predicates do not create {@code WebGraphVertex} objects, so they can be evaluated
+ * by native steps for every visited vertex.
+ */
+public class VertexFilters {
+
+    /**
+     * Compiles a filter traversal, such as the one passed to {@code emit()} or {@code until()}.
+     * <p>
+     * Supported steps are {@code has(...)}/{@code hasLabel(...)}/{@code hasId(...)} and
+     * {@code not(out())}/{@code not(in())}/{@code not(both())} (or their edge counterparts).
+     * A traversal of several supported steps is compiled to their conjunction.
+     *
+     * @param filter the filter traversal
+     * @param graph  the graph the ids belong to
+     * @return a predicate over vertex ids, or {@code null} if the traversal cannot be compiled
+     */
+    public static LongPredicate compile(Traversal.Admin<?, ?> filter, WebGraphGraph graph) {
+        if (filter instanceof TrueTraversal) {
+            return id -> true;
+        }
+        if (filter instanceof AbstractLambdaTraversal) { // e.g. times(n) or loops()
+            return null;
+        }
+        LongPredicate res = null;
+        for (Step<?, ?> step : filter.getSteps()) {
+            if (step instanceof IdentityStep || step instanceof NoOpBarrierStep) {
+                continue;
+            }
+            if (!step.getLabels().isEmpty()) {
+                return null;
+            }
+            LongPredicate p = compile(step, graph);
+            if (p == null) {
+                return null;
+            }
+            res = res == null ? p : res.and(p);
+        }
+        return res == null ? id -> true : res;
+    }
+
+    /**
+     * Compiles a list of {@link HasContainer}s to their conjunction.
+     *
+     * @param hasContainers the containers to compile
+     * @param graph         the graph the ids belong to
+     * @return a predicate over vertex ids
+     */
+    public static LongPredicate compile(List<HasContainer> hasContainers, WebGraphGraph graph) {
+        LongPredicate res = id -> true;
+        for (HasContainer hasContainer : hasContainers) {
+            res = res.and(compile(hasContainer, graph));
+        }
+        return res;
+    }
+
+    /**
+     * Compiles a single {@link HasContainer}. Missing properties never match, as in {@link HasContainer#test}.
+     *
+     * @param hasContainer the container to compile
+     * @param graph        the graph the ids belong to
+     * @return a predicate over vertex ids
+     */
+    public static LongPredicate compile(HasContainer hasContainer, WebGraphGraph graph) {
+        WebGraphPropertyProvider provider = graph.getPropertyProvider();
+        String key = hasContainer.getKey();
+        P<Object> predicate = (P<Object>) hasContainer.getPredicate();
+        if (key.equals(T.label.getAccessor())) {
+            String[] labels = provider.vertexLabelDictionary();
+            if (labels == null) {
+                return id -> predicate.test(provider.vertexLabel(id));
+            }
+            boolean[] matches = new boolean[labels.length];
+            for (int i = 0; i < labels.length; i++) {
+                matches[i] = predicate.test(labels[i]);
+            }
+            return id -> matches[provider.vertexLabelId(id)];
+        }
+        if (key.equals(T.id.getAccessor())) {
+            return id -> predicate.test(id);
+        }
+        LongPredicate filter = provider.vertexPropertyFilter(key, predicate);
+        if (filter != null) {
+            return filter;
+        }
+        return id -> {
+            Object value = provider.vertexProperty(key, id);
+            return value != null && predicate.test(value);
+        };
+    }
+
+    /**
+     * Compiles a single filter step.
+     *
+     * @param step  the step to compile
+     * @param graph the graph the ids belong to
+     * @return a predicate over vertex ids, or {@code null} if the step is not supported
+     */
+    public static LongPredicate compile(Step<?, ?> step, WebGraphGraph graph) {
+        if (step instanceof HasStep) {
+            return compile(((HasStep<?>) step).getHasContainers(), graph);
+        }
+        if (step instanceof NotStep) {
+            Direction direction = adjacencyDirection(((NotStep<?>) step).getLocalChildren().get(0));
+            if (direction == null) {
+                return null;
+            }
+            return id -> Degrees.degree(graph, id, direction) == 0;
+        }
+        return null;
+    }
+
+    /**
+     * Returns the direction of a traversal consisting of a single unlabelled {@code out()/in()/both()}
+     * or {@code outE()/inE()/bothE()} step.
+     *
+     * @param traversal the traversal to check
+     * @return the direction of the adjacency step, or {@code null} if the traversal has another shape
+     */
+    public static Direction adjacencyDirection(Traversal.Admin<?, ?> traversal) {
+        VertexStep<?> vertexStep = null;
+        for (Step<?, ?> step : traversal.getSteps()) {
+            if (step instanceof IdentityStep || step instanceof NoOpBarrierStep) {
+                continue;
+            }
+            if (vertexStep != null || !(step instanceof VertexStep) || !step.getLabels().isEmpty()) {
+                return null;
+            }
+            vertexStep = (VertexStep<?>) step;
+        }
+        if (vertexStep == null || vertexStep.getEdgeLabels().length != 0) {
+            return null;
+        }
+        return vertexStep.getDirection();
+    }
+}
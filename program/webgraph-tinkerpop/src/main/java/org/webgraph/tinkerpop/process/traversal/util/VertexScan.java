@@ -0,0 +1,169 @@
+package org.webgraph.tinkerpop.process.traversal.util;
+
+import org.webgraph.tinkerpop.structure.WebGraphGraph;
+import org.webgraph.tinkerpop.structure.provider.WebGraphPropertyProvider;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.LongPredicate;
+import java.util.stream.LongStream;
+
+/**
+ * Aggregates over all vertices of a graph, without creating {@code WebGraphVertex} objects.
+ * <p>
+ * If the graph has a {@link WebGraphGraph#SCAN_PARALLELISM scan parallelism} greater than 1, the id space is split
+ * into ranges which are scanned by the {@link WebGraphGraph#getScanPool() scan pool} and the partial results are merged.
+ * Filters are evaluated in the pool threads, each reading the graph through its own copy.
+ * <p>
+ * If a {@link QueryBudget} is given, each range charges its scanned ids in chunks of {@link QueryBudget#CHECK_INTERVAL}.
+ * A range exhausting the budget cancels it, so that the other ranges stop at the end of their current chunk.
+ */
+public class VertexScan {
+    /**
+     * Number of id ranges per scan thread, so that threads finishing early can take over remaining work.
+     */
+    private static final int RANGES_PER_THREAD = 16;
+
+    /**
+     * Counts the vertices matching a filter.
+     *
+     * @param graph  the graph
+     * @param filter the filter, or {@code null} to count all vertices
+     * @param budget the budget of the query, or {@code null}
+     * @return the number of matching vertices
+     */
+    public static long count(WebGraphGraph graph, LongPredicate filter, QueryBudget budget) {
+        long numNodes = graph.getBaseGraph().numNodes();
+        if (filter == null) {
+            return numNodes;
+        }
+        if (graph.getScanParallelism() <= 1) {
+            return count(filter, budget, 0, numNodes);
+        }
+        long ranges = numRanges(graph, numNodes);
+        return graph.getScanPool().submit(() -> LongStream.range(0, ranges).parallel()
+                                                          .map(r -> count(filter, budget, rangeStart(r, ranges, numNodes),
+                                                                  rangeStart(r + 1, ranges, numNodes)))
+                                                          .sum()).join();
+    }
+
+    /**
+     * Counts the vertices matching a filter by label.
+     *
+     * @param graph  the graph
+     * @param filter the filter, or {@code null} to count all vertices
+     * @param budget the budget of the query, or {@code null}
+     * @return the number of matching vertices for each label with at least one match
+     */
+    public static Map<String, Long> countByLabel(WebGraphGraph graph, LongPredicate filter, QueryBudget budget) {
+        long numNodes = graph.getBaseGraph().numNodes();
+        WebGraphPropertyProvider provider = graph.getPropertyProvider();
+        String[] labels = provider.vertexLabelDictionary();
+        long ranges = graph.getScanParallelism() <= 1 ? 1 : numRanges(graph, numNodes);
+        Map<String, Long> res = new HashMap<>();
+        if (labels != null) {
+            long[] counts = ranges == 1
+                    ? countByLabelId(provider, filter, budget, labels.length, 0, numNodes)
+                    : graph.getScanPool().submit(() -> LongStream.range(0, ranges).parallel()
+                                                                 .mapToObj(r -> countByLabelId(provider, filter, budget, labels.length,
+                                                                         rangeStart(r, ranges, numNodes),
+                                                                         rangeStart(r + 1, ranges, numNodes)))
+                                                                 .reduce(new long[labels.length], VertexScan::sum)).join();
+            for (int i = 0; i < labels.length; i++) {
+                if (counts[i] != 0) {
+                    res.put(labels[i], counts[i]);
+                }
+            }
+            return res;
+        }
+        if (ranges == 1) {
+            return countByLabel(provider, filter, budget, 0, numNodes);
+        }
+        return graph.getScanPool().submit(() -> LongStream.range(0, ranges).parallel()
+                                                          .mapToObj(r -> countByLabel(provider, filter, budget,
+                                                                  rangeStart(r, ranges, numNodes),
+                                                                  rangeStart(r + 1, ranges, numNodes)))
+                                                          .reduce(new HashMap<>(), VertexScan::sum)).join();
+    }
+
+    private static long count(LongPredicate filter, QueryBudget budget, long from, long to) {
+        long res = 0;
+        for (long chunk = from; chunk < to; chunk += QueryBudget.CHECK_INTERVAL) {
+            long end = Math.min(to, chunk + QueryBudget.CHECK_INTERVAL);
+            for (long id = chunk; id < end; id++) {
+                if (filter.test(id)) {
+                    res++;
+                }
+            }
+            charge(budget, end - chunk);
+        }
+        return res;
+    }
+
+    private static long[] countByLabelId(WebGraphPropertyProvider provider, LongPredicate filter, QueryBudget budget,
+                                         int numLabels, long from, long to) {
+        long[] res = new long[numLabels];
+        for (long chunk = from; chunk < to; chunk += QueryBudget.CHECK_INTERVAL) {
+            long end = Math.min(to, chunk + QueryBudget.CHECK_INTERVAL);
+            for (long id = chunk; id < end; id++) {
+                if (filter == null || filter.test(id)) {
+                    res[provider.vertexLabelId(id)]++;
+                }
+            }
+            charge(budget, end - chunk);
+        }
+        return res;
+    }
+
+    private static Map<String, Long> countByLabel(WebGraphPropertyProvider provider, LongPredicate filter,
+                                                  QueryBudget budget, long from, long to) {
+        Map<String, Long> res = new HashMap<>();
+        for (long chunk = from; chunk < to; chunk += QueryBudget.CHECK_INTERVAL) {
+            long end = Math.min(to, chunk + QueryBudget.CHECK_INTERVAL);
+            for (long id = chunk; id < end; id++) {
+                if (filter == null || filter.test(id)) {
+                    res.merge(provider.vertexLabel(id), 1L, Long::sum);
+                }
+            }
+            charge(budget, end - chunk);
+        }
+        return res;
+    }
+
+    /**
+     * Charges a scanned chunk of ids, cancelling the budget if it is exhausted so that the other ranges stop too.
+     */
+    private static void charge(QueryBudget budget, long ids) {
+        if (budget == null) {
+            return;
+        }
+        try {
+            budget.chargeElements(ids);
+        } catch (QueryLimitExceededException e) {
+            budget.cancel();
+            throw e;
+        }
+    }
+
+    private static long[] sum(long[] a, long[] b) {
+        long[] res = new long[a.length];
+        for (int i = 0; i < a.length; i++) {
+            res[i] = a[i] + b[i];
+        }
+        return res;
+    }
+
+    private static Map<String, Long> sum(Map<String, Long> a, Map<String, Long> b) {
+        Map<String, Long> res = new HashMap<>(a);
+        b.forEach((label, count) -> res.merge(label, count, Long::sum));
+        return res;
+    }
+
+    private static long numRanges(WebGraphGraph graph, long numNodes) {
+        return Math.max(1, Math.min(numNodes, (long) graph.getScanParallelism() * RANGES_PER_THREAD));
+    }
+
+    private static long rangeStart(long range, long ranges, long numNodes) {
+        return numNodes / ranges * range + Math.min(range, numNodes % ranges);
+    }
+}
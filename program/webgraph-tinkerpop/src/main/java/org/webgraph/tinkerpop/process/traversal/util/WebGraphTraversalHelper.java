@@ -0,0 +1,124 @@
+package org.webgraph.tinkerpop.process.traversal.util;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.FilterStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.SampleGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.EdgeVertexStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.GraphStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.NoOpBarrierStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.VertexStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.AggregateGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.IdentityStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.SideEffectStep;
+import org.apache.tinkerpop.gremlin.process.traversal.traverser.TraverserRequirement;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.webgraph.tinkerpop.process.traversal.step.map.WebGraphReachabilityStep;
+import org.webgraph.tinkerpop.process.traversal.step.sideEffect.WebGraphAggregateStep;
+import org.webgraph.tinkerpop.process.traversal.step.sideEffect.WebGraphPropertyFetchStep;
+import org.webgraph.tinkerpop.structure.WebGraphGraph;
+
+import java.lang.reflect.Field;
+
+/**
+ * Utility methods shared by the WebGraph-specific traversal strategies.
+ */
+public class WebGraphTraversalHelper {
+    private static final Field SAMPLE_AMOUNT = sampleAmountField();
+
+    /**
+     * Returns the {@link WebGraphGraph} a traversal is executed on.
+     *
+     * @param traversal the traversal, possibly a child traversal
+     * @return the graph, or {@code null} if the traversal is not executed on a {@code WebGraphGraph} in OLTP mode
+     */
+    public static WebGraphGraph getGraph(Traversal.Admin<?, ?> traversal) {
+        if (TraversalHelper.onGraphComputer(traversal)) {
+            return null;
+        }
+        Graph graph = TraversalHelper.getRootTraversal(traversal).getGraph().orElse(null);
+        return graph instanceof WebGraphGraph ? (WebGraphGraph) graph : null;
+    }
+
+    /**
+     * Checks whether any step of the whole traversal requires traverser paths.
+     * Native steps do not maintain paths, so they must not be used in such traversals.
+     *
+     * @param traversal the traversal, possibly a child traversal
+     * @return {@code true} if paths are required
+     */
+    public static boolean requiresPath(Traversal.Admin<?, ?> traversal) {
+        return TraversalHelper.anyStepRecursively(step -> step.getRequirements().contains(TraverserRequirement.PATH)
+                        || step.getRequirements().contains(TraverserRequirement.LABELED_PATH),
+                TraversalHelper.getRootTraversal(traversal));
+    }
+
+    /**
+     * Returns the number of traversers kept by a {@code sample(n)} step, which the step does not expose.
+     *
+     * @param sampleStep the step
+     * @return the amount, or {@code -1} if it cannot be read
+     */
+    public static int sampleAmount(SampleGlobalStep<?> sampleStep) {
+        try {
+            return SAMPLE_AMOUNT == null ? -1 : SAMPLE_AMOUNT.getInt(sampleStep);
+        } catch (IllegalAccessException e) {
+            return -1;
+        }
+    }
+
+    private static Field sampleAmountField() {
+        try {
+            Field field = SampleGlobalStep.class.getDeclaredField("amountToSample");
+            field.setAccessible(true);
+            return field;
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Checks whether the objects arriving to the given step are known to be vertices.
+     * <p>
+     * Walks back over filters and side effects until a step producing vertices is found.
+     *
+     * @param step the step to check the input of
+     * @return {@code true} if the input of the step is known to be vertices
+     */
+    public static boolean consumesVertices(Step<?, ?> step) {
+        Step<?, ?> prev = producer(step);
+        if (prev instanceof VertexStep) {
+            return ((VertexStep<?>) prev).returnsVertex();
+        }
+        if (prev instanceof GraphStep) {
+            return ((GraphStep<?, ?>) prev).returnsVertex();
+        }
+        return prev instanceof EdgeVertexStep || prev instanceof WebGraphReachabilityStep;
+    }
+
+    /**
+     * Checks whether the objects arriving to the given step are known to be edges.
+     *
+     * @param step the step to check the input of
+     * @return {@code true} if the input of the step is known to be edges
+     * @see #consumesVertices(Step)
+     */
+    public static boolean consumesEdges(Step<?, ?> step) {
+        Step<?, ?> prev = producer(step);
+        if (prev instanceof VertexStep) {
+            return ((VertexStep<?>) prev).returnsEdge();
+        }
+        return prev instanceof GraphStep && ((GraphStep<?, ?>) prev).returnsEdge();
+    }
+
+    private static Step<?, ?> producer(Step<?, ?> step) {
+        Step<?, ?> prev = step.getPreviousStep();
+        while (prev instanceof FilterStep || prev instanceof SideEffectStep || prev instanceof IdentityStep
+                || prev instanceof NoOpBarrierStep || prev instanceof AggregateGlobalStep
+                || prev instanceof WebGraphAggregateStep || prev instanceof WebGraphPropertyFetchStep) {
+            prev = prev.getPreviousStep();
+        }
+        return prev;
+    }
+}
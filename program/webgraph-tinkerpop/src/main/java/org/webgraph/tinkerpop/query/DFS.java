@@ -13,7 +13,6 @@ import java.io.IOException;
 import java.lang.management.ManagementFactory;
 import java.time.Duration;
 import java.time.Instant;
-import java.util.HashSet;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
@@ -25,8 +24,8 @@ public class DFS {
     }
 
     public static Function<GraphTraversalSource, GraphTraversal<Vertex, Vertex>> gremlin() {
-        return g -> g.withSideEffect("a", new HashSet<>())
-                     .V().not(__.in())
+        // the side effect is registered by aggregate(), so that it can be kept in a VertexIdSet
+        return g -> g.V().not(__.in())
                      .repeat(__.out().dedup().where(P.without("a")).aggregate("a"))
                      .until(__.not(__.out()));
     }
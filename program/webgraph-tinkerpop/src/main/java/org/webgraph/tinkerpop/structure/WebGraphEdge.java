@@ -1,5 +1,6 @@
 package org.webgraph.tinkerpop.structure;
 
+import it.unimi.dsi.big.webgraph.labelling.Label;
 import it.unimi.dsi.fastutil.longs.LongLongImmutablePair;
 import it.unimi.dsi.fastutil.longs.LongLongPair;
 import org.apache.tinkerpop.gremlin.structure.Direction;
@@ -9,51 +10,167 @@ import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.apache.tinkerpop.gremlin.structure.util.ElementHelper;
 import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
 import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
+import org.webgraph.tinkerpop.structure.provider.PropertySchema;
+import org.webgraph.tinkerpop.structure.provider.WebGraphPropertyProvider;
 
-import java.util.HashMap;
 import java.util.Iterator;
-import java.util.Map;
 
 public class WebGraphEdge extends WebGraphElement implements Edge {
+    private static final Object UNRESOLVED_ARC_ID = new Object();
 
-    private final Map<String, Property> properties = new HashMap<>();
+    private final long fromId;
+    private final long toId;
+    private volatile Label arcLabel;
+    private volatile Long resolvedArcId;
 
     public WebGraphEdge(long fromId, long toId, WebGraphGraph graph) {
         this(new LongLongImmutablePair(fromId, toId), graph);
     }
 
     public WebGraphEdge(LongLongPair id, WebGraphGraph graph) {
-        super(id, graph.getPropertyProvider().edgeLabel(id.firstLong(), id.secondLong()), graph);
+        super(id, graph);
+        this.fromId = id.firstLong();
+        this.toId = id.secondLong();
+    }
+
+    /**
+     * Creates an edge identified by its arc id.
+     *
+     * @param arcId  the id of the arc, see {@link org.webgraph.tinkerpop.util.ArcIndex}
+     * @param fromId the id of the source vertex
+     * @param toId   the id of the target vertex
+     * @param graph  the graph
+     */
+    public WebGraphEdge(long arcId, long fromId, long toId, WebGraphGraph graph) {
+        super(arcId, graph);
+        this.fromId = fromId;
+        this.toId = toId;
+    }
+
+    /**
+     * Creates an edge identified by an arc id which is only computed from its ends when the id is first read.
+     * Finding the arc id of an incoming edge means scanning the successors of its source, which enumerations
+     * of predecessors leave to the edges that are actually identified or compared.
+     * Such edges are not cached, as the cache is keyed by arc ids. Their properties are read with an unknown arc id
+     * until it is resolved, so that only the properties stored per arc look it up.
+     *
+     * @param fromId the id of the source vertex
+     * @param toId   the id of the target vertex
+     * @param graph  the graph, whose edges are identified by arc ids
+     * @return the edge
+     */
+    static WebGraphEdge withLazyArcId(long fromId, long toId, WebGraphGraph graph) {
+        return new WebGraphEdge(graph, fromId, toId);
+    }
+
+    private WebGraphEdge(WebGraphGraph graph, long fromId, long toId) {
+        super(UNRESOLVED_ARC_ID, graph);
+        this.fromId = fromId;
+        this.toId = toId;
+    }
+
+    @Override
+    public Object id() {
+        Object id = super.id();
+        if (id != UNRESOLVED_ARC_ID) {
+            return id;
+        }
+        Long arcId = resolvedArcId;
+        if (arcId == null) {
+            // racing threads compute the same id
+            long resolved = graph.getArcIndex().arcId(graph.getBaseGraph(), fromId, toId);
+            if (resolved == -1) {
+                throw new IllegalStateException("No arc from " + fromId + " to " + toId);
+            }
+            resolvedArcId = arcId = resolved;
+        }
+        return arcId;
+    }
+
+    /**
+     * @return the id of the source vertex
+     */
+    public long outVertexId() {
+        return fromId;
+    }
+
+    /**
+     * @return the id of the target vertex
+     */
+    public long inVertexId() {
+        return toId;
+    }
+
+    /**
+     * @return the id of the arc if edges are identified by arc ids, -1 otherwise
+     */
+    public long arcId() {
+        Object id = id();
+        return id instanceof Long ? (long) id : -1;
+    }
+
+    /**
+     * @return the id of the arc if edges are identified by arc ids and the id is resolved, -1 otherwise
+     */
+    private long knownArcId() {
+        Object id = super.id();
+        if (id == UNRESOLVED_ARC_ID) {
+            Long arcId = resolvedArcId;
+            return arcId == null ? -1 : arcId;
+        }
+        return id instanceof Long ? (long) id : -1;
+    }
+
+    /**
+     * Binds the label of the arc in the {@link WebGraphPropertyProvider#arcLabelledGraph() arc-labelled graph},
+     * read while enumerating the labelled successors of the source vertex or predecessors of the target vertex.
+     * Properties based on arc labels are then computed from it.
+     *
+     * @param arcLabel the label of the arc, not reused by the caller
+     */
+    void bindArcLabel(Label arcLabel) {
+        if (this.arcLabel == null) {
+            this.arcLabel = arcLabel;
+        }
+    }
+
+    @Override
+    protected String[] labelDictionary() {
+        return graph.getPropertyProvider().edgeLabelDictionary();
+    }
+
+    @Override
+    protected PropertySchema propertySchema() {
+        return graph.getPropertyProvider().edgePropertySchema();
+    }
+
+    @Override
+    protected String resolveLabel() {
+        return graph.getPropertyProvider().edgeLabel(fromId, toId);
+    }
+
+    @Override
+    protected byte resolveLabelId() {
+        return graph.getPropertyProvider().edgeLabelId(fromId, toId);
     }
 
     @Override
     public Iterator<Vertex> vertices(Direction direction) {
-        LongLongPair edge = (LongLongPair) id();
         switch (direction) {
             case OUT:
-                Vertex f = graph.vertexCache.computeIfAbsent(edge.firstLong(),
-                        idd -> new WebGraphVertex(idd, graph));
-                return IteratorUtils.of(f);
+                return IteratorUtils.of(graph.getVertex(fromId));
             case IN:
-                Vertex s = graph.vertexCache.computeIfAbsent(edge.secondLong(),
-                        idd -> new WebGraphVertex(idd, graph));
-                return IteratorUtils.of(s);
+                return IteratorUtils.of(graph.getVertex(toId));
             default:
-                Vertex f2 = graph.vertexCache.computeIfAbsent(edge.firstLong(),
-                        idd -> new WebGraphVertex(idd, graph));
-                Vertex s2 = graph.vertexCache.computeIfAbsent(edge.secondLong(),
-                        idd -> new WebGraphVertex(idd, graph));
-                return IteratorUtils.of(f2, s2);
+                return IteratorUtils.of(graph.getVertex(fromId), graph.getVertex(toId));
         }
     }
 
 
     @Override
     public <V> Iterator<Property<V>> properties(String... propertyKeys) {
-        LongLongPair id = (LongLongPair) id();
         String[] keys = propertyKeys.length == 0 ? graph.getPropertyProvider()
-                                                        .edgeProperties(id.firstLong(),
-                                                                id.secondLong()) : propertyKeys; // if no props are provided, return all props
+                                                        .edgeProperties(fromId, toId) : propertyKeys; // if no props are provided, return all props
         return new Iterator<>() {
             int nextIndex = -1;
             Property<V> nextProp = nextProp();
@@ -74,8 +191,8 @@ public class WebGraphEdge extends WebGraphElement implements Edge {
                 nextIndex++;
                 while (nextIndex < keys.length) {
                     String key = keys[nextIndex];
-                    Property<V> p = properties.computeIfAbsent(key, k -> {
-                        Object val = graph.getPropertyProvider().edgeProperty(key, id.firstLong(), id.secondLong());
+                    Property<V> p = memoizedProperty(key, k -> {
+                        Object val = graph.getPropertyProvider().edgeProperty(key, knownArcId(), fromId, toId, arcLabel);
                         if (val == null) {
                             return Property.empty();
                         }
@@ -2,16 +2,40 @@ package org.webgraph.tinkerpop.structure;
 
 import org.apache.tinkerpop.gremlin.structure.Element;
 import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.Property;
+import org.webgraph.tinkerpop.structure.provider.PropertySchema;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.function.Function;
+
+/**
+ * Base class for vertices and edges.
+ * <p>
+ * The label is resolved lazily on first access. If the property provider supports label ids,
+ * only the small label id is stored and the label string is taken from the provider's label dictionary.
+ * <p>
+ * Properties read from the provider are memoized in an array indexed by the provider's {@link PropertySchema},
+ * allocated on first use, so elements which never read a property do not allocate anything.
+ * The array is published with a compare-and-set, so racing threads all end up writing into the same array.
+ * Providers without a schema get a map instead. Memoized properties are immutable, so threads racing on a
+ * slot at worst read a value twice.
+ */
 public abstract class WebGraphElement implements Element {
+    private static final byte UNRESOLVED = -1;
+    private static final AtomicReferenceFieldUpdater<WebGraphElement, Property[]> PROPERTY_SLOTS =
+            AtomicReferenceFieldUpdater.newUpdater(WebGraphElement.class, Property[].class, "propertySlots");
 
     private final Object id;
-    private final String label;
+    private byte labelId = UNRESOLVED;
+    private String label;
     protected final WebGraphGraph graph;
+    private volatile Property<?>[] propertySlots;
+    private volatile Map<String, Property<?>> propertyMap;
 
-    public WebGraphElement(Object id, String label, WebGraphGraph graph) {
+    public WebGraphElement(Object id, WebGraphGraph graph) {
         this.id = id;
-        this.label = label;
         this.graph = graph;
     }
 
@@ -22,9 +46,110 @@ public abstract class WebGraphElement implements Element {
 
     @Override
     public String label() {
+        String[] dictionary = labelDictionary();
+        if (dictionary != null) {
+            return dictionary[labelId()];
+        }
+        if (label == null) {
+            label = resolveLabel();
+        }
         return label;
     }
 
+    /**
+     * Returns the id of the label of this element in the provider's label dictionary.
+     *
+     * @return the label id
+     * @throws UnsupportedOperationException if the provider does not support label ids
+     */
+    public byte labelId() {
+        if (labelId == UNRESOLVED) {
+            labelId = resolveLabelId();
+        }
+        return labelId;
+    }
+
+    /**
+     * @return the label dictionary of the provider for this kind of element, or null if label ids are not supported
+     */
+    protected abstract String[] labelDictionary();
+
+    protected abstract String resolveLabel();
+
+    protected abstract byte resolveLabelId();
+
+    /**
+     * @return the property schema of the provider for this kind of element, or null if there is none
+     */
+    protected abstract PropertySchema propertySchema();
+
+    /**
+     * Returns the memoized property with the given key, computing and memoizing it if it is missing.
+     * Properties excluded from memoization by the schema are computed on each call.
+     *
+     * @param key     the key of the property
+     * @param compute computes the property, or an empty property if the element has no value
+     * @return the property
+     */
+    protected <P extends Property<?>> P memoizedProperty(String key, Function<String, P> compute) {
+        P res = (P) memoizedProperty(key);
+        if (res == null) {
+            res = compute.apply(key);
+            memoizeProperty(key, res, false);
+        }
+        return res;
+    }
+
+    /**
+     * @param key the key of the property
+     * @return the memoized property, or null if it is not memoized
+     */
+    Property<?> memoizedProperty(String key) {
+        PropertySchema schema = propertySchema();
+        if (schema == null) {
+            Map<String, Property<?>> map = propertyMap;
+            return map == null ? null : map.get(key);
+        }
+        int index = schema.indexOf(key);
+        Property<?>[] slots = propertySlots;
+        return index == -1 || slots == null ? null : slots[index];
+    }
+
+    /**
+     * Memoizes a property.
+     *
+     * @param key      the key of the property
+     * @param property the property, or an empty property if the element has no value
+     * @param always   whether to memoize properties excluded from memoization by the schema
+     */
+    void memoizeProperty(String key, Property<?> property, boolean always) {
+        PropertySchema schema = propertySchema();
+        if (schema == null) {
+            Map<String, Property<?>> map = propertyMap;
+            if (map == null) {
+                synchronized (this) {
+                    if (propertyMap == null) {
+                        propertyMap = new ConcurrentHashMap<>();
+                    }
+                    map = propertyMap;
+                }
+            }
+            map.putIfAbsent(key, property);
+            return;
+        }
+        int index = schema.indexOf(key);
+        if (index == -1 || !always && !schema.isMemoized(index)) {
+            return;
+        }
+        Property<?>[] slots = propertySlots;
+        if (slots == null) {
+            // keeps the array of the thread winning the race, so that no memoized slot is lost
+            PROPERTY_SLOTS.compareAndSet(this, null, new Property<?>[schema.size()]);
+            slots = propertySlots;
+        }
+        slots[index] = property;
+    }
+
     @Override
     public Graph graph() {
         return graph;
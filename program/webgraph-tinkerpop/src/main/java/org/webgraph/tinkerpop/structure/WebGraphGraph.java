@@ -1,33 +1,123 @@
 package org.webgraph.tinkerpop.structure;
 
 import it.unimi.dsi.big.webgraph.*;
+import it.unimi.dsi.big.webgraph.labelling.ArcLabelledImmutableGraph;
+import it.unimi.dsi.fastutil.HashCommon;
 import it.unimi.dsi.fastutil.longs.LongLongPair;
 import org.apache.commons.configuration2.BaseConfiguration;
 import org.apache.commons.configuration2.Configuration;
 import org.apache.tinkerpop.gremlin.process.computer.GraphComputer;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategies;
 import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.Graph;
 import org.apache.tinkerpop.gremlin.structure.Transaction;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.apache.tinkerpop.gremlin.structure.util.wrapped.WrappedGraph;
 import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
+import org.webgraph.tinkerpop.process.computer.WebGraphComputerView;
+import org.webgraph.tinkerpop.process.computer.WebGraphGraphComputer;
+import org.webgraph.tinkerpop.process.traversal.strategy.optimization.WebGraphDegreeStrategy;
+import org.webgraph.tinkerpop.process.traversal.strategy.optimization.WebGraphEdgePropertyStrategy;
+import org.webgraph.tinkerpop.process.traversal.strategy.optimization.WebGraphIndexStrategy;
+import org.webgraph.tinkerpop.process.traversal.strategy.optimization.WebGraphNeighbourLabelStrategy;
+import org.webgraph.tinkerpop.process.traversal.strategy.optimization.WebGraphPropertyFetchStrategy;
+import org.webgraph.tinkerpop.process.traversal.strategy.optimization.WebGraphReachabilityStrategy;
+import org.webgraph.tinkerpop.process.traversal.strategy.optimization.WebGraphScanStrategy;
+import org.webgraph.tinkerpop.process.traversal.strategy.optimization.WebGraphVertexIdSetStrategy;
+import org.webgraph.tinkerpop.structure.property.vertex.index.VertexLabelIndex;
 import org.webgraph.tinkerpop.structure.provider.StandardWebGraphPropertyProvider;
 import org.webgraph.tinkerpop.structure.provider.WebGraphPropertyProvider;
-import org.webgraph.tinkerpop.util.LRUCache;
+import org.webgraph.tinkerpop.util.ArcIndex;
+import org.webgraph.tinkerpop.util.cache.ElementCache;
+import org.webgraph.tinkerpop.util.cache.ElementCacheFactory;
+import org.webgraph.tinkerpop.util.cache.TinyLfuElementCache;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
 import java.util.Iterator;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
 
 public class WebGraphGraph implements Graph, WrappedGraph<BidirectionalImmutableGraph> {
     private static final String GRAPH_PATH = "webgraph.path";
     public static final String EDGE_CACHE = "webgraph.cache.edge";
     public static final String VERTEX_CACHE = "webgraph.cache.vertex";
+    /**
+     * Size bound of the edge cache in bytes. Takes precedence over {@link #EDGE_CACHE} when set.
+     */
+    public static final String EDGE_CACHE_BYTES = "webgraph.cache.edge.bytes";
+    /**
+     * Size bound of the vertex cache in bytes. Takes precedence over {@link #VERTEX_CACHE} when set.
+     */
+    public static final String VERTEX_CACHE_BYTES = "webgraph.cache.vertex.bytes";
+    /**
+     * Name of the {@link ElementCacheFactory} class creating the element caches.
+     */
+    public static final String CACHE_FACTORY = "webgraph.cache.factory";
+    /**
+     * How edges are identified: {@link #PAIR_EDGE_IDS} (default) or {@link #ARC_EDGE_IDS}.
+     */
+    public static final String EDGE_IDS = "webgraph.edge.ids";
+    /**
+     * Whether the graph is shared by concurrent traversals. If {@code true}, each thread reads the graph
+     * through its own lightweight copy, see {@link #getBaseGraph()}.
+     */
+    public static final String CONCURRENT = "webgraph.concurrent";
+    /**
+     * Number of threads used by full-graph scans, see {@link #getScanPool()}. Defaults to 1 (sequential scans).
+     * A value greater than 1 implies {@link #CONCURRENT}.
+     */
+    public static final String SCAN_PARALLELISM = "webgraph.scan.parallelism";
+    /**
+     * Basename of the {@link VertexLabelIndex} files, typically the graph basename. If set, the index is opened
+     * with the graph, and built from the vertex labeller of the provider if its files do not exist.
+     */
+    public static final String VERTEX_LABEL_INDEX = "webgraph.index.label";
+    /**
+     * Edges are identified by a {@link LongLongPair} of their end vertex ids.
+     */
+    public static final String PAIR_EDGE_IDS = "pair";
+    /**
+     * Edges are identified by a single {@code long} arc id, see {@link ArcIndex}.
+     */
+    public static final String ARC_EDGE_IDS = "arc";
+
+    /**
+     * Estimated heap footprint of a cached vertex, including the cache entry.
+     */
+    private static final long VERTEX_ENTRY_BYTES = 128;
+    /**
+     * Estimated heap footprint of a cached edge, including its id pair and the cache entry.
+     */
+    private static final long EDGE_ENTRY_BYTES = 160;
+
+    static {
+        TraversalStrategies.GlobalCache.registerStrategies(WebGraphGraph.class,
+                TraversalStrategies.GlobalCache.getStrategies(Graph.class).clone().addStrategies(
+                        WebGraphReachabilityStrategy.instance(),
+                        WebGraphIndexStrategy.instance(),
+                        WebGraphScanStrategy.instance(),
+                        WebGraphVertexIdSetStrategy.instance(),
+                        WebGraphPropertyFetchStrategy.instance(),
+                        WebGraphDegreeStrategy.instance(),
+                        WebGraphNeighbourLabelStrategy.instance(),
+                        WebGraphEdgePropertyStrategy.instance()));
+    }
 
     private final BidirectionalImmutableGraph graph;
+    private final ThreadLocal<BidirectionalImmutableGraph> threadGraph;
+    private final ThreadLocal<ArcLabelledImmutableGraph> threadLabelledGraph;
+    private final ThreadLocal<ArcLabelledImmutableGraph> threadTransposedLabelledGraph;
     private final Configuration configuration;
     private final WebGraphPropertyProvider propertyProvider;
-    protected final LRUCache<LongLongPair, Edge> edgeCache;
-    protected final LRUCache<Long, Vertex> vertexCache;
+    protected final ElementCache<Edge> edgeCache;
+    protected final ElementCache<Vertex> vertexCache;
+    private final ArcIndex arcIndex;
+    private final VertexLabelIndex vertexLabelIndex;
+    private final int scanParallelism;
+    private ForkJoinPool scanPool;
+    private final WebGraphComputerView computerView;
 
     private WebGraphGraph(String path, Configuration configuration) throws IOException {
         this(new BidirectionalImmutableGraph(ImmutableGraph.load(path), ImmutableGraph.load(path + "-transposed")),
@@ -37,9 +127,69 @@ public class WebGraphGraph implements Graph, WrappedGraph<BidirectionalImmutable
     private WebGraphGraph(BidirectionalImmutableGraph graph, WebGraphPropertyProvider propertyProvider, Configuration configuration) {
         this.configuration = configuration;
         this.graph = graph;
+        this.scanParallelism = configuration.getInt(SCAN_PARALLELISM, 1);
+        this.threadGraph = configuration.getBoolean(CONCURRENT, false) || scanParallelism > 1
+                ? ThreadLocal.withInitial(graph::copy) : null;
         this.propertyProvider = propertyProvider;
-        this.edgeCache = new LRUCache<>(configuration.getInt(EDGE_CACHE));
-        this.vertexCache = new LRUCache<>(configuration.getInt(VERTEX_CACHE));
+        ArcLabelledImmutableGraph labelledGraph = propertyProvider.arcLabelledGraph();
+        this.threadLabelledGraph = labelledGraph == null ? null : ThreadLocal.withInitial(labelledGraph::copy);
+        ArcLabelledImmutableGraph transposedLabelledGraph = propertyProvider.transposedArcLabelledGraph();
+        this.threadTransposedLabelledGraph = transposedLabelledGraph == null ? null
+                : ThreadLocal.withInitial(transposedLabelledGraph::copy);
+        ElementCacheFactory cacheFactory = cacheFactory(configuration);
+        this.edgeCache = cacheFactory.create(cacheCapacity(configuration, EDGE_CACHE, EDGE_CACHE_BYTES, EDGE_ENTRY_BYTES));
+        this.vertexCache = cacheFactory.create(cacheCapacity(configuration, VERTEX_CACHE, VERTEX_CACHE_BYTES, VERTEX_ENTRY_BYTES));
+        String edgeIds = configuration.getString(EDGE_IDS, PAIR_EDGE_IDS);
+        if (ARC_EDGE_IDS.equals(edgeIds)) {
+            this.arcIndex = new ArcIndex(graph);
+        } else if (PAIR_EDGE_IDS.equals(edgeIds)) {
+            this.arcIndex = null;
+        } else {
+            throw new IllegalArgumentException("Unknown edge id mode " + edgeIds);
+        }
+        String labelIndex = configuration.getString(VERTEX_LABEL_INDEX, null);
+        try {
+            this.vertexLabelIndex = labelIndex == null ? null
+                    : VertexLabelIndex.openOrBuild(propertyProvider, graph.numNodes(), labelIndex);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        this.computerView = null;
+    }
+
+    private WebGraphGraph(WebGraphGraph source, Configuration configuration, WebGraphComputerView computerView) {
+        this.configuration = configuration;
+        this.graph = source.graph;
+        this.scanParallelism = source.scanParallelism;
+        this.threadGraph = ThreadLocal.withInitial(graph::copy);
+        this.propertyProvider = source.propertyProvider;
+        this.threadLabelledGraph = source.threadLabelledGraph;
+        this.threadTransposedLabelledGraph = source.threadTransposedLabelledGraph;
+        ElementCacheFactory cacheFactory = cacheFactory(configuration);
+        this.edgeCache = cacheFactory.create(cacheCapacity(configuration, EDGE_CACHE, EDGE_CACHE_BYTES, EDGE_ENTRY_BYTES));
+        this.vertexCache = cacheFactory.create(cacheCapacity(configuration, VERTEX_CACHE, VERTEX_CACHE_BYTES, VERTEX_ENTRY_BYTES));
+        this.arcIndex = source.arcIndex;
+        this.vertexLabelIndex = source.vertexLabelIndex;
+        this.computerView = computerView;
+    }
+
+    private static ElementCacheFactory cacheFactory(Configuration configuration) {
+        String className = configuration.getString(CACHE_FACTORY, null);
+        if (className == null) {
+            return new TinyLfuElementCache.Factory();
+        }
+        try {
+            return (ElementCacheFactory) Class.forName(className).getConstructor().newInstance();
+        } catch (ReflectiveOperationException | ClassCastException e) {
+            throw new IllegalArgumentException("Cannot instantiate cache factory " + className, e);
+        }
+    }
+
+    private static long cacheCapacity(Configuration configuration, String entriesKey, String bytesKey, long entryBytes) {
+        if (configuration.containsKey(bytesKey)) {
+            return configuration.getLong(bytesKey) / entryBytes;
+        }
+        return configuration.getLong(entriesKey);
     }
 
     public static WebGraphGraph open(BidirectionalImmutableGraph graph, WebGraphPropertyProvider propertyProvider, String path) {
@@ -48,6 +198,10 @@ public class WebGraphGraph implements Graph, WrappedGraph<BidirectionalImmutable
         return new WebGraphGraph(graph, propertyProvider, config);
     }
 
+    public static WebGraphGraph open(Configuration configuration, BidirectionalImmutableGraph graph, WebGraphPropertyProvider propertyProvider) {
+        return new WebGraphGraph(graph, propertyProvider, configuration);
+    }
+
     @Override
     public Iterator<Edge> edges(Object... edgeIds) {
         if (edgeIds.length == 0) { // returns all graph edges
@@ -57,14 +211,15 @@ public class WebGraphGraph implements Graph, WrappedGraph<BidirectionalImmutable
                 long nextFrom;
                 LazyLongIterator tos;
                 long nextTo;
+                long nextArcId = 0;
 
                 WebGraphEdge nextEdge = nextEdge();
 
                 private WebGraphEdge nextEdge() {
                     if (froms == null) { // first run, initialize fields
-                        froms = graph.nodeIterator();
+                        froms = getBaseGraph().nodeIterator();
                         nextFrom = nextFrom();
-                        tos = nextFrom == -1 ? LazyLongIterators.EMPTY_ITERATOR : graph.successors(nextFrom);
+                        tos = nextFrom == -1 ? LazyLongIterators.EMPTY_ITERATOR : froms.successors();
                     }
                     nextTo = tos.nextLong();
                     while (nextTo == -1) { // no more successors for this node
@@ -72,10 +227,12 @@ public class WebGraphGraph implements Graph, WrappedGraph<BidirectionalImmutable
                         if (nextFrom == -1) { // no more 'from' nodes
                             return null;
                         }
-                        tos = graph.successors(nextFrom);
+                        tos = froms.successors();
                         nextTo = tos.nextLong();
                     }
-                    return new WebGraphEdge(nextFrom, nextTo, WebGraphGraph.this);
+                    return arcIndex != null
+                            ? new WebGraphEdge(nextArcId++, nextFrom, nextTo, WebGraphGraph.this)
+                            : new WebGraphEdge(nextFrom, nextTo, WebGraphGraph.this);
                 }
 
                 @Override
@@ -95,25 +252,27 @@ public class WebGraphGraph implements Graph, WrappedGraph<BidirectionalImmutable
                 }
             };
         }
-        return new Iterator<>() {
-            int nextIndex = 0;
-
-            @Override
-            public boolean hasNext() {
-                return nextIndex < edgeIds.length;
-            }
+        // ids of arcs that do not exist are skipped
+        return IteratorUtils.filter(IteratorUtils.map(Arrays.asList(edgeIds).iterator(), this::edgeById), Objects::nonNull);
+    }
 
-            @Override
-            public Edge next() {
-                Object idObj = edgeIds[nextIndex];
-                if (!(idObj instanceof LongLongPair)) {
-                    throw new IllegalArgumentException("Expected id of type LongLongPair.");
-                }
-                LongLongPair id = (LongLongPair) idObj;
-                nextIndex++;
-                return edgeCache.computeIfAbsent(id, idd -> new WebGraphEdge(idd, WebGraphGraph.this));
+    private Edge edgeById(Object id) {
+        if (id instanceof LongLongPair) {
+            long from = ((LongLongPair) id).firstLong();
+            long to = ((LongLongPair) id).secondLong();
+            if (arcIndex != null) {
+                long arcId = arcIndex.arcId(getBaseGraph(), from, to);
+                return arcId == -1 ? null : getEdge(arcId, from, to);
             }
-        };
+            return ArcIndex.successorIndex(getBaseGraph(), from, to) == -1 ? null : getEdge(from, to);
+        }
+        if (arcIndex != null && id instanceof Number) {
+            long arcId = ((Number) id).longValue();
+            return arcIndex.contains(arcId) ? getEdge(arcId) : null;
+        }
+        throw new IllegalArgumentException(arcIndex != null
+                ? "Expected id of numeric type or LongLongPair."
+                : "Expected id of type LongLongPair.");
     }
 
     public static WebGraphGraph open(BidirectionalImmutableGraph graph, WebGraphPropertyProvider propertyProvider, String path, int vertexCache, int edgeCache) {
@@ -146,7 +305,7 @@ public class WebGraphGraph implements Graph, WrappedGraph<BidirectionalImmutable
     @Override
     public Iterator<Vertex> vertices(Object... vertexIds) {
         if (vertexIds.length == 0) {
-            return IteratorUtils.map(graph.nodeIterator(), id -> new WebGraphVertex(id, this));
+            return IteratorUtils.map(getBaseGraph().nodeIterator(), id -> new WebGraphVertex(id, this));
         }
         return new Iterator<>() {
             int nextIndex = 0;
@@ -164,11 +323,123 @@ public class WebGraphGraph implements Graph, WrappedGraph<BidirectionalImmutable
                 }
                 long idLong = ((Number) id).longValue();
                 nextIndex++;
-                return vertexCache.computeIfAbsent(idLong, idd -> new WebGraphVertex(idd, WebGraphGraph.this));
+                return getVertex(idLong);
             }
         };
     }
 
+    /**
+     * Returns the vertex with the given id, using the vertex cache.
+     *
+     * @param id the id of the vertex
+     * @return the vertex
+     */
+    public Vertex getVertex(long id) {
+        return vertexCache.computeIfAbsent(id, idd -> new WebGraphVertex(idd, this));
+    }
+
+    /**
+     * Returns the edge between the given vertices, using the edge cache.
+     * The existence of the arc is only checked if edges are identified by arc ids.
+     *
+     * @param fromId the id of the source vertex
+     * @param toId   the id of the target vertex
+     * @return the edge
+     * @throws IllegalArgumentException if edges are identified by arc ids and the arc does not exist
+     */
+    public Edge getEdge(long fromId, long toId) {
+        if (arcIndex != null) {
+            long arcId = arcIndex.arcId(getBaseGraph(), fromId, toId);
+            if (arcId == -1) {
+                throw new IllegalArgumentException("No arc from " + fromId + " to " + toId);
+            }
+            return getEdge(arcId, fromId, toId);
+        }
+        // the cache is keyed by a hash of both ends, so a hit must be checked against the actual id
+        long key = HashCommon.mix(fromId) ^ toId;
+        Edge edge = edgeCache.getIfPresent(key);
+        if (edge != null) {
+            LongLongPair id = (LongLongPair) edge.id();
+            if (id.firstLong() == fromId && id.secondLong() == toId) {
+                return edge;
+            }
+        }
+        edge = new WebGraphEdge(fromId, toId, this);
+        edgeCache.put(key, edge);
+        return edge;
+    }
+
+    /**
+     * Returns the edge with the given arc id, using the edge cache.
+     *
+     * @param arcId the arc id
+     * @return the edge
+     * @throws IllegalStateException if edges are not identified by arc ids
+     */
+    public Edge getEdge(long arcId) {
+        if (arcIndex == null) {
+            throw new IllegalStateException("Edges are not identified by arc ids");
+        }
+        Edge edge = edgeCache.getIfPresent(arcId);
+        if (edge == null) {
+            long from = arcIndex.source(arcId);
+            edge = new WebGraphEdge(arcId, from, arcIndex.target(getBaseGraph(), arcId, from), this);
+            edgeCache.put(arcId, edge);
+        }
+        return edge;
+    }
+
+    /**
+     * Returns the edge with the given arc id and end vertices, using the edge cache.
+     * Only valid if edges are identified by arc ids, and the arc from {@code fromId} to {@code toId} has this id,
+     * e.g. when enumerating the successors of {@code fromId} from its {@link ArcIndex#offset(long) offset}.
+     *
+     * @param arcId  the arc id
+     * @param fromId the id of the source vertex
+     * @param toId   the id of the target vertex
+     * @return the edge
+     */
+    public Edge getEdge(long arcId, long fromId, long toId) {
+        return edgeCache.computeIfAbsent(arcId, idd -> new WebGraphEdge(idd, fromId, toId, this));
+    }
+
+    /**
+     * Returns an existing edge enumerated from the predecessors of its target.
+     * If edges are identified by arc ids, the arc id is only resolved when the id of the edge is read,
+     * as it requires scanning the successors of the source, and the edge is not cached.
+     *
+     * @param fromId the id of the source vertex
+     * @param toId   the id of the target vertex
+     * @return the edge
+     */
+    public Edge getIncomingEdge(long fromId, long toId) {
+        return arcIndex == null ? getEdge(fromId, toId) : WebGraphEdge.withLazyArcId(fromId, toId, this);
+    }
+
+    /**
+     * Returns the arc index, used as edge ids if {@link #EDGE_IDS} is {@link #ARC_EDGE_IDS}.
+     *
+     * @return the arc index, or {@code null} if edges are identified by pairs of vertex ids
+     */
+    public ArcIndex getArcIndex() {
+        return arcIndex;
+    }
+
+    /**
+     * @return the index of the vertex labels, or {@code null} if {@link #VERTEX_LABEL_INDEX} is not configured
+     */
+    public VertexLabelIndex getVertexLabelIndex() {
+        return vertexLabelIndex;
+    }
+
+    public ElementCache<Vertex> getVertexCache() {
+        return vertexCache;
+    }
+
+    public ElementCache<Edge> getEdgeCache() {
+        return edgeCache;
+    }
+
     @Override
     public Vertex addVertex(Object... keyValues) {
         throw Graph.Exceptions.vertexAdditionsNotSupported();
@@ -176,12 +447,38 @@ public class WebGraphGraph implements Graph, WrappedGraph<BidirectionalImmutable
 
     @Override
     public <C extends GraphComputer> C compute(Class<C> graphComputerClass) throws IllegalArgumentException {
-        throw Graph.Exceptions.graphComputerNotSupported();
+        if (!graphComputerClass.equals(WebGraphGraphComputer.class)) {
+            throw Graph.Exceptions.graphDoesNotSupportProvidedGraphComputer(graphComputerClass);
+        }
+        return (C) new WebGraphGraphComputer(this);
     }
 
     @Override
     public GraphComputer compute() throws IllegalArgumentException {
-        throw Graph.Exceptions.graphComputerNotSupported();
+        return new WebGraphGraphComputer(this);
+    }
+
+    /**
+     * Returns a graph sharing the underlying graph, property provider and arc index of this graph,
+     * whose vertices also expose the compute properties of a {@link WebGraphGraphComputer} run.
+     * The returned graph is always {@link #CONCURRENT}, as vertex programs are executed by several workers.
+     *
+     * @param computerView the compute properties
+     * @return the new graph
+     */
+    public WebGraphGraph withComputerView(WebGraphComputerView computerView) {
+        Configuration config = new BaseConfiguration();
+        configuration.getKeys().forEachRemaining(key -> config.setProperty(key, configuration.getProperty(key)));
+        config.setProperty(CONCURRENT, true);
+        return new WebGraphGraph(this, config, computerView);
+    }
+
+    /**
+     * @return the compute properties exposed by the vertices, or {@code null} if this is not the graph of a
+     * {@link WebGraphGraphComputer} run
+     */
+    public WebGraphComputerView getComputerView() {
+        return computerView;
     }
 
     @Override
@@ -190,7 +487,11 @@ public class WebGraphGraph implements Graph, WrappedGraph<BidirectionalImmutable
     }
 
     @Override
-    public void close() {
+    public synchronized void close() {
+        if (scanPool != null) {
+            scanPool.shutdown();
+            scanPool = null;
+        }
     }
 
     @Override
@@ -203,12 +504,66 @@ public class WebGraphGraph implements Graph, WrappedGraph<BidirectionalImmutable
         return configuration;
     }
 
+    /**
+     * @return whether the graph may be shared by concurrent traversals, see {@link #CONCURRENT}
+     */
+    public boolean isConcurrent() {
+        return threadGraph != null;
+    }
+
+    /**
+     * Returns the underlying graph. If {@link #CONCURRENT} is set, this is a copy owned by the calling thread,
+     * so iterators obtained from it must not be passed to other threads.
+     */
     @Override
     public BidirectionalImmutableGraph getBaseGraph() {
-        return graph;
+        return threadGraph != null ? threadGraph.get() : graph;
+    }
+
+    /**
+     * Returns the {@link WebGraphPropertyProvider#arcLabelledGraph() arc-labelled graph} of the provider,
+     * through a copy owned by the calling thread.
+     *
+     * @return the labelled graph, or {@code null} if the provider has none
+     */
+    public ArcLabelledImmutableGraph getArcLabelledGraph() {
+        return threadLabelledGraph != null ? threadLabelledGraph.get() : null;
+    }
+
+    /**
+     * Returns the {@link WebGraphPropertyProvider#transposedArcLabelledGraph() transposed arc-labelled graph}
+     * of the provider, through a copy owned by the calling thread.
+     *
+     * @return the transposed labelled graph, or {@code null} if the provider has none
+     */
+    public ArcLabelledImmutableGraph getTransposedArcLabelledGraph() {
+        return threadTransposedLabelledGraph != null ? threadTransposedLabelledGraph.get() : null;
     }
 
     public WebGraphPropertyProvider getPropertyProvider() {
         return propertyProvider;
     }
+
+    /**
+     * @return the number of threads used by full-graph scans
+     */
+    public int getScanParallelism() {
+        return scanParallelism;
+    }
+
+    /**
+     * Returns the pool running full-graph scans, created on first use with {@link #SCAN_PARALLELISM} threads.
+     *
+     * @return the scan pool
+     * @throws IllegalStateException if scans are sequential
+     */
+    public synchronized ForkJoinPool getScanPool() {
+        if (scanParallelism <= 1) {
+            throw new IllegalStateException("Scans are sequential");
+        }
+        if (scanPool == null) {
+            scanPool = new ForkJoinPool(scanParallelism);
+        }
+        return scanPool;
+    }
 }
@@ -1,7 +1,9 @@
 package org.webgraph.tinkerpop.structure;
 
 import it.unimi.dsi.big.webgraph.LazyLongIterator;
-import it.unimi.dsi.fastutil.longs.LongLongImmutablePair;
+import it.unimi.dsi.big.webgraph.labelling.ArcLabelledImmutableGraph;
+import it.unimi.dsi.big.webgraph.labelling.ArcLabelledNodeIterator.LabelledArcIterator;
+import it.unimi.dsi.big.webgraph.labelling.Label;
 import org.apache.tinkerpop.gremlin.structure.Direction;
 import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
@@ -9,43 +11,104 @@ import org.apache.tinkerpop.gremlin.structure.VertexProperty;
 import org.apache.tinkerpop.gremlin.structure.util.ElementHelper;
 import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
 import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
+import org.webgraph.tinkerpop.process.computer.WebGraphComputerView;
+import org.webgraph.tinkerpop.structure.provider.PropertySchema;
+import org.webgraph.tinkerpop.structure.provider.WebGraphPropertyProvider;
+import org.webgraph.tinkerpop.util.ArcIndex;
 
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
-import java.util.Map;
+import java.util.List;
+import java.util.function.LongPredicate;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
 
 public class WebGraphVertex extends WebGraphElement implements Vertex {
 
-    private final Map<String, VertexProperty> properties = new HashMap<>();
-
     public WebGraphVertex(long id, WebGraphGraph graph) {
-        super(id, graph.getPropertyProvider().vertexLabel(id), graph);
+        super(id, graph);
+    }
+
+    @Override
+    protected String[] labelDictionary() {
+        return graph.getPropertyProvider().vertexLabelDictionary();
+    }
+
+    @Override
+    protected PropertySchema propertySchema() {
+        return graph.getPropertyProvider().vertexPropertySchema();
+    }
+
+    @Override
+    protected String resolveLabel() {
+        return graph.getPropertyProvider().vertexLabel((long) id());
+    }
+
+    @Override
+    protected byte resolveLabelId() {
+        return graph.getPropertyProvider().vertexLabelId((long) id());
     }
 
     @Override
     public Iterator<Vertex> vertices(Direction direction, String... edgeLabels) {
+        WebGraphComputerView computerView = graph.getComputerView();
+        if (computerView != null && computerView.filtersEdges()) { // only neighbours through legal edges
+            switch (direction) {
+                case OUT:
+                    return IteratorUtils.map(edges(Direction.OUT, edgeLabels), Edge::inVertex);
+                case IN:
+                    return IteratorUtils.map(edges(Direction.IN, edgeLabels), Edge::outVertex);
+                default:
+                    return IteratorUtils.concat(vertices(Direction.OUT, edgeLabels), vertices(Direction.IN, edgeLabels));
+            }
+        }
         // ignores edge labels
+        return neighbours(direction, null);
+    }
+
+    /**
+     * Returns the neighbours of this vertex whose ids pass a filter, as {@link #vertices(Direction, String...)}
+     * without edge labels. The filter is tested on the raw ids, before the vertices are created or looked up
+     * in the cache.
+     *
+     * @param direction       the direction of the neighbours
+     * @param neighbourFilter the filter over the ids of the neighbours, or {@code null} to accept all neighbours
+     * @return the neighbours passing the filter
+     */
+    public Iterator<Vertex> vertices(Direction direction, LongPredicate neighbourFilter) {
+        WebGraphComputerView computerView = graph.getComputerView();
+        if (computerView != null && computerView.filtersEdges()) {
+            if (neighbourFilter == null) {
+                return vertices(direction);
+            }
+            return IteratorUtils.filter(vertices(direction), v -> neighbourFilter.test((long) v.id()));
+        }
+        return neighbours(direction, neighbourFilter);
+    }
+
+    private Iterator<Vertex> neighbours(Direction direction, LongPredicate filter) {
         switch (direction) {
             case OUT:
-                return successors();
+                return successors(filter);
             case IN:
-                return predecessors();
+                return predecessors(filter);
             default:
-                return IteratorUtils.concat(successors(), predecessors());
+                return IteratorUtils.concat(successors(filter), predecessors(filter));
         }
     }
 
-    private Iterator<Vertex> predecessors() {
-        return toNativeIterator(graph.getBaseGraph().predecessors((Long) id()));
+    private Iterator<Vertex> predecessors(LongPredicate filter) {
+        return toNativeIterator(graph.getBaseGraph().predecessors((Long) id()), filter);
     }
 
-    private Iterator<Vertex> successors() {
-        return toNativeIterator(graph.getBaseGraph().successors((Long) id()));
+    private Iterator<Vertex> successors(LongPredicate filter) {
+        return toNativeIterator(graph.getBaseGraph().successors((Long) id()), filter);
     }
 
-    private Iterator<Vertex> toNativeIterator(LazyLongIterator source) {
+    private Iterator<Vertex> toNativeIterator(LazyLongIterator source, LongPredicate filter) {
         return new Iterator<>() {
-            long next = source.nextLong();
+            long next = advance();
 
             @Override
             public boolean hasNext() {
@@ -55,50 +118,217 @@ public class WebGraphVertex extends WebGraphElement implements Vertex {
             @Override
             public Vertex next() {
                 long res = next;
-                next = source.nextLong();
-                return graph.vertexCache.computeIfAbsent(res, idd -> new WebGraphVertex(idd, graph));
+                next = advance();
+                return graph.getVertex(res);
+            }
+
+            private long advance() {
+                long id = source.nextLong();
+                while (filter != null && id != -1 && !filter.test(id)) {
+                    id = source.nextLong();
+                }
+                return id;
             }
         };
     }
 
     @Override
     public Iterator<Edge> edges(Direction direction, String... edgeLabels) {
+        // ignores edge labels
+        return edges(direction, (LongPredicate) null);
+    }
+
+    /**
+     * Returns the edges of this vertex whose other endpoint passes a filter, as {@link #edges(Direction, String...)}
+     * without edge labels. The filter is tested on the raw ids of the other endpoints, before the edges are created
+     * or looked up in the cache.
+     *
+     * @param direction       the direction of the edges
+     * @param neighbourFilter the filter over the ids of the other endpoints, or {@code null} to return all edges
+     * @return the edges whose other endpoint passes the filter
+     */
+    public Iterator<Edge> edges(Direction direction, LongPredicate neighbourFilter) {
+        return edges(direction, neighbourFilter, null);
+    }
+
+    /**
+     * Returns the edges of this vertex whose other endpoint and arc label pass filters. The arc label filter is
+     * tested on the labels of the labelled successors (or predecessors), before the edges are created.
+     *
+     * @param direction       the direction of the edges
+     * @param neighbourFilter the filter over the ids of the other endpoints, or {@code null} to accept all of them
+     * @param arcLabelFilter  the filter over the arc labels, or {@code null} to accept all of them
+     * @return the edges passing the filters
+     * @throws IllegalStateException if an arc label filter is given and the graph has no labelled graph
+     *                               for the direction
+     * @see WebGraphPropertyProvider#edgePropertyFilter(String, org.apache.tinkerpop.gremlin.process.traversal.P)
+     */
+    public Iterator<Edge> edges(Direction direction, LongPredicate neighbourFilter, Predicate<Label> arcLabelFilter) {
         switch (direction) {
             case OUT:
-                return outEdges(edgeLabels);
+                return legalEdges(Direction.OUT, outEdges(neighbourFilter, arcLabelFilter));
             case IN:
-                return inEdges(edgeLabels);
+                return legalEdges(Direction.IN, inEdges(neighbourFilter, arcLabelFilter));
             default:
-                return IteratorUtils.concat(outEdges(edgeLabels), inEdges(edgeLabels));
+                return IteratorUtils.concat(legalEdges(Direction.OUT, outEdges(neighbourFilter, arcLabelFilter)),
+                        legalEdges(Direction.IN, inEdges(neighbourFilter, arcLabelFilter)));
         }
     }
 
-    private Iterator<Edge> outEdges(String... edgeLabels) {
-        Iterator<Vertex> out = vertices(Direction.OUT, edgeLabels);
-        return IteratorUtils.map(out, to1 -> {
-            var id = new LongLongImmutablePair((long) id(), (long) to1.id());
-            return graph.edgeCache.computeIfAbsent(id, idd -> new WebGraphEdge(idd, graph));
-        });
+    private Iterator<Edge> legalEdges(Direction direction, Iterator<Edge> edges) {
+        WebGraphComputerView computerView = graph.getComputerView();
+        return computerView == null ? edges : computerView.legalEdges(this, direction, edges);
     }
 
-    private Iterator<Edge> inEdges(String... edgeLabels) {
-        Iterator<Vertex> in = vertices(Direction.IN, edgeLabels);
-        return IteratorUtils.map(in, from1 -> {
-            var id = new LongLongImmutablePair((long) from1.id(), (long) id());
-            return graph.edgeCache.computeIfAbsent(id, idd -> new WebGraphEdge(idd, graph));
-        });
+    private Iterator<Edge> outEdges(LongPredicate filter, Predicate<Label> labelFilter) {
+        ArcIndex arcIndex = graph.getArcIndex();
+        ArcLabelledImmutableGraph labelledGraph = graph.getArcLabelledGraph();
+        if (labelledGraph != null) {
+            return labelledOutEdges(labelledGraph, arcIndex, filter, labelFilter);
+        }
+        if (labelFilter != null) {
+            throw new IllegalStateException("Arc label filters require an arc-labelled graph");
+        }
+        long from = (long) id();
+        LazyLongIterator successors = graph.getBaseGraph().successors(from);
+        // arc ids of successive successors are consecutive, no lookup needed
+        return new Iterator<>() {
+            long arcId = arcIndex == null ? -1 : arcIndex.offset(from) - 1;
+            long next = advance();
+
+            @Override
+            public boolean hasNext() {
+                return next != -1;
+            }
+
+            @Override
+            public Edge next() {
+                Edge edge = arcIndex == null ? graph.getEdge(from, next) : graph.getEdge(arcId, from, next);
+                next = advance();
+                return edge;
+            }
+
+            private long advance() {
+                long id;
+                do {
+                    id = successors.nextLong();
+                    arcId++;
+                } while (filter != null && id != -1 && !filter.test(id));
+                return id;
+            }
+        };
+    }
+
+    /**
+     * Enumerates the outgoing edges from the labelled successor list, binding to each edge the label of its arc,
+     * so that properties based on arc labels do not decode the successor list again.
+     */
+    private Iterator<Edge> labelledOutEdges(ArcLabelledImmutableGraph labelledGraph, ArcIndex arcIndex,
+                                            LongPredicate filter, Predicate<Label> labelFilter) {
+        long from = (long) id();
+        LabelledArcIterator successors = labelledGraph.successors(from);
+        return new Iterator<>() {
+            long arcId = arcIndex == null ? -1 : arcIndex.offset(from) - 1;
+            long next = advance();
+
+            @Override
+            public boolean hasNext() {
+                return next != -1;
+            }
+
+            @Override
+            public Edge next() {
+                // the iterator reuses its label object
+                Label label = successors.label().copy();
+                WebGraphEdge edge = (WebGraphEdge) (arcIndex == null
+                        ? graph.getEdge(from, next)
+                        : graph.getEdge(arcId, from, next));
+                edge.bindArcLabel(label);
+                next = advance();
+                return edge;
+            }
+
+            private long advance() {
+                long id;
+                do {
+                    id = successors.nextLong();
+                    arcId++;
+                } while (id != -1 && !accept(id, successors.label(), filter, labelFilter));
+                return id;
+            }
+        };
+    }
+
+    private static boolean accept(long id, Label label, LongPredicate filter, Predicate<Label> labelFilter) {
+        return (filter == null || filter.test(id)) && (labelFilter == null || labelFilter.test(label));
+    }
+
+    /**
+     * Enumerates the incoming edges from the labelled predecessor list, binding to each edge the label of its arc.
+     */
+    private Iterator<Edge> labelledInEdges(ArcLabelledImmutableGraph transposedLabelledGraph, LongPredicate filter,
+                                           Predicate<Label> labelFilter) {
+        long to = (long) id();
+        LabelledArcIterator predecessors = transposedLabelledGraph.successors(to);
+        return new Iterator<>() {
+            long next = advance();
+
+            @Override
+            public boolean hasNext() {
+                return next != -1;
+            }
+
+            @Override
+            public Edge next() {
+                Label label = predecessors.label().copy();
+                WebGraphEdge edge = inEdge(next, to);
+                edge.bindArcLabel(label);
+                next = advance();
+                return edge;
+            }
+
+            private long advance() {
+                long id = predecessors.nextLong();
+                while (id != -1 && !accept(id, predecessors.label(), filter, labelFilter)) {
+                    id = predecessors.nextLong();
+                }
+                return id;
+            }
+        };
+    }
+
+    private Iterator<Edge> inEdges(LongPredicate filter, Predicate<Label> labelFilter) {
+        ArcLabelledImmutableGraph transposedLabelledGraph = graph.getTransposedArcLabelledGraph();
+        if (transposedLabelledGraph != null) {
+            return labelledInEdges(transposedLabelledGraph, filter, labelFilter);
+        }
+        if (labelFilter != null) {
+            throw new IllegalStateException("Arc label filters on incoming edges require a transposed arc-labelled graph");
+        }
+        long to = (long) id();
+        return IteratorUtils.map(predecessors(filter), from -> inEdge((long) from.id(), to));
+    }
+
+    private WebGraphEdge inEdge(long from, long to) {
+        return (WebGraphEdge) graph.getIncomingEdge(from, to);
     }
 
     @Override
     public <V> VertexProperty<V> property(VertexProperty.Cardinality cardinality, String key, V value, Object... keyValues) {
+        WebGraphComputerView computerView = graph.getComputerView();
+        if (computerView != null) {
+            // vertex programs write compute keys only, cardinality and meta-properties do not apply
+            ElementHelper.validateProperty(key, value);
+            return computerView.setProperty(this, key, value);
+        }
         throw new UnsupportedOperationException("Vertex property creation is not supported");
     }
 
     @Override
     public <V> Iterator<VertexProperty<V>> properties(String... propertyKeys) {
+        WebGraphComputerView computerView = graph.getComputerView();
         String[] keys = propertyKeys.length == 0
-                ? graph.getPropertyProvider()
-                       .vertexProperties((long) id()) // if no props are provided, return all props
+                ? allPropertyKeys(computerView) // if no props are provided, return all props
                 : propertyKeys;
         return new Iterator<>() {
             int nextIndex = -1;
@@ -120,7 +350,10 @@ public class WebGraphVertex extends WebGraphElement implements Vertex {
                 nextIndex++;
                 while (nextIndex < keys.length) {
                     String key = keys[nextIndex];
-                    VertexProperty<V> p = properties.computeIfAbsent(key, k -> {
+                    // compute properties change during the computation, so they are not cached
+                    VertexProperty<V> p = computerView != null && computerView.isComputeKey(key)
+                            ? computerView.getProperty(WebGraphVertex.this, key)
+                            : memoizedProperty(key, k -> {
                         Object val = graph.getPropertyProvider().vertexProperty(key, (long) id());
                         if (val == null) {
                             return VertexProperty.empty();
@@ -137,6 +370,48 @@ public class WebGraphVertex extends WebGraphElement implements Vertex {
         };
     }
 
+    /**
+     * Reads a property of several vertices with one call to the provider, and caches the values in the vertices,
+     * so that reading the property afterwards does not query the provider. Vertices which already cached the
+     * property are skipped.
+     *
+     * @param graph    the graph of the vertices
+     * @param vertices the vertices
+     * @param key      the key of the property
+     * @see WebGraphPropertyProvider#vertexProperties(String, long[], Object[])
+     */
+    public static void fetchProperty(WebGraphGraph graph, List<WebGraphVertex> vertices, String key) {
+        List<WebGraphVertex> missing = new ArrayList<>(vertices.size());
+        for (WebGraphVertex vertex : vertices) {
+            if (vertex.memoizedProperty(key) == null) {
+                missing.add(vertex);
+            }
+        }
+        if (missing.isEmpty()) {
+            return;
+        }
+        long[] ids = new long[missing.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = (long) missing.get(i).id();
+        }
+        Object[] values = new Object[ids.length];
+        graph.getPropertyProvider().vertexProperties(key, ids, values);
+        for (int i = 0; i < ids.length; i++) {
+            WebGraphVertex vertex = missing.get(i);
+            vertex.memoizeProperty(key, values[i] == null
+                    ? VertexProperty.empty()
+                    : new WebGraphVertexProperty<>(vertex, key, values[i]), true);
+        }
+    }
+
+    private String[] allPropertyKeys(WebGraphComputerView computerView) {
+        String[] keys = graph.getPropertyProvider().vertexProperties((long) id());
+        if (computerView == null) {
+            return keys;
+        }
+        return Stream.concat(Arrays.stream(keys), computerView.computeKeys().stream()).toArray(String[]::new);
+    }
+
     @Override
     public Edge addEdge(String label, Vertex inVertex, Object... keyValues) {
         throw Vertex.Exceptions.edgeAdditionsNotSupported();
@@ -4,6 +4,7 @@ import org.apache.tinkerpop.gremlin.structure.Property;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.apache.tinkerpop.gremlin.structure.VertexProperty;
 
+import java.util.Collections;
 import java.util.Iterator;
 
 public class WebGraphVertexProperty<V> extends WebGraphProperty<V> implements VertexProperty<V> {
@@ -32,6 +33,7 @@ public class WebGraphVertexProperty<V> extends WebGraphProperty<V> implements Ve
 
     @Override
     public <U> Iterator<Property<U>> properties(String... propertyKeys) {
-        throw VertexProperty.Exceptions.metaPropertiesNotSupported();
+        // no meta-properties, e.g. when detaching the results of a graph computer
+        return Collections.emptyIterator();
     }
 }
@@ -1,16 +1,30 @@
 package org.webgraph.tinkerpop.structure.property.edge;
 
 import it.unimi.dsi.big.webgraph.labelling.ArcLabelledImmutableGraph;
+import it.unimi.dsi.big.webgraph.labelling.Label;
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+
+import java.util.function.Predicate;
 
 /**
  * Edge property getter based on {@link ArcLabelledImmutableGraph}.
  * <p>
  * Allows access to a single label for each edge. In order to deconstruct the label object, see {@link ArcLabelEdgeSubProperty}.
+ * Each thread reads the labels through its own {@link ArcLabelledImmutableGraph#copy() copy} of the graph.
+ * A lookup decodes the successor list of the source vertex up to the target, so the label is taken from the
+ * edge instead when it was created by iterating the labelled successors, see
+ * {@link org.webgraph.tinkerpop.structure.provider.WebGraphPropertyProvider#arcLabelledGraph()}.
+ * <p>
+ * If the transposed labelled graph is also given, incoming edges carry their label as well, and a lookup decodes
+ * the shorter of the successor list of the source and the predecessor list of the target.
  */
 public class ArcLabelEdgeProperty<T> extends EdgeProperty<T> {
 
     private static final String KEY = "__arc_label_property__";
 
+    private final ArcLabelledImmutableGraph graph;
+    private final ArcLabelledImmutableGraph transposedGraph;
+
     /**
      * Constructs an edge property from an {@code ArcLabelledImmutableGraph}.
      * The labels are used as a property with a predefined key {@link #KEY}.
@@ -19,18 +33,87 @@ public class ArcLabelEdgeProperty<T> extends EdgeProperty<T> {
      */
     public ArcLabelEdgeProperty(ArcLabelledImmutableGraph graph) {
         super(KEY, getArcLabelPropertyGetter(graph));
+        this.graph = graph;
+        this.transposedGraph = null;
+    }
+
+    /**
+     * Constructs an edge property from an {@code ArcLabelledImmutableGraph} and its transpose,
+     * which has the same label on each reversed arc.
+     *
+     * @param graph           the {@code ArcLabelledImmutableGraph}.
+     * @param transposedGraph the transposed {@code ArcLabelledImmutableGraph}.
+     */
+    public ArcLabelEdgeProperty(ArcLabelledImmutableGraph graph, ArcLabelledImmutableGraph transposedGraph) {
+        super(KEY, getArcLabelPropertyGetter(graph, transposedGraph));
+        this.graph = graph;
+        this.transposedGraph = transposedGraph;
+    }
+
+    @Override
+    public T get(long fromId, long toId, Label arcLabel) {
+        return value(arcLabel);
+    }
+
+    /**
+     * Gets the value of this property carried by an arc label.
+     *
+     * @param arcLabel the label of the arc.
+     * @return the value of the property.
+     */
+    public T value(Label arcLabel) {
+        return (T) arcLabel.get();
+    }
+
+    @Override
+    public Predicate<Label> arcLabelFilter(P<?> predicate) {
+        P<Object> p = (P<Object>) predicate;
+        return arcLabel -> {
+            T value = value(arcLabel);
+            return value != null && p.test(value);
+        };
+    }
+
+    @Override
+    public ArcLabelledImmutableGraph labelledGraph() {
+        return graph;
+    }
+
+    @Override
+    public ArcLabelledImmutableGraph transposedLabelledGraph() {
+        return transposedGraph;
     }
 
     public static <T> EdgePropertyGetter<T> getArcLabelPropertyGetter(ArcLabelledImmutableGraph graph) {
+        ThreadLocal<ArcLabelledImmutableGraph> threadGraph = ThreadLocal.withInitial(graph::copy);
+        return (fromId, toId) -> find(threadGraph.get(), fromId, toId);
+    }
+
+    /**
+     * Returns a getter which looks the label up in the successors of the source or in the predecessors
+     * of the target, whichever list is shorter.
+     */
+    public static <T> EdgePropertyGetter<T> getArcLabelPropertyGetter(ArcLabelledImmutableGraph graph,
+                                                                      ArcLabelledImmutableGraph transposedGraph) {
+        ThreadLocal<ArcLabelledImmutableGraph> threadGraph = ThreadLocal.withInitial(graph::copy);
+        ThreadLocal<ArcLabelledImmutableGraph> threadTransposedGraph = ThreadLocal.withInitial(transposedGraph::copy);
         return (fromId, toId) -> {
-            var s = graph.successors(fromId);
-            long succ;
-            while ((succ = s.nextLong()) != -1) {
-                if (succ == toId) {
-                    return (T) s.label().get();
-                }
-            }
-            return null;
+            ArcLabelledImmutableGraph forward = threadGraph.get();
+            ArcLabelledImmutableGraph backward = threadTransposedGraph.get();
+            return forward.outdegree(fromId) <= backward.outdegree(toId)
+                    ? find(forward, fromId, toId)
+                    : find(backward, toId, fromId);
         };
     }
+
+    private static <T> T find(ArcLabelledImmutableGraph graph, long fromId, long toId) {
+        var s = graph.successors(fromId);
+        long succ;
+        while ((succ = s.nextLong()) != -1) {
+            if (succ == toId) {
+                return (T) s.label().get();
+            }
+        }
+        return null;
+    }
 }
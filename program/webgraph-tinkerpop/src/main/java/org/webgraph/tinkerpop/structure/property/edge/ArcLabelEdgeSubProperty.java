@@ -1,6 +1,10 @@
 package org.webgraph.tinkerpop.structure.property.edge;
 
 import it.unimi.dsi.big.webgraph.labelling.ArcLabelledImmutableGraph;
+import it.unimi.dsi.big.webgraph.labelling.Label;
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+
+import java.util.function.Predicate;
 
 /**
  * Edge property getter based on {@link ArcLabelEdgeProperty}.
@@ -14,9 +18,15 @@ import it.unimi.dsi.big.webgraph.labelling.ArcLabelledImmutableGraph;
  * provider.addEdgeProperty(subProperty);
  * }
  * </pre>
+ * A {@link ArcLabelEdgeSubPropertyFilter} can be given to test predicates on the label objects directly,
+ * e.g. on ids instead of the strings they stand for, when arcs are filtered by {@link #arcLabelFilter(P)}.
  */
 public class ArcLabelEdgeSubProperty<T> extends EdgeProperty<T> {
 
+    private final ArcLabelEdgeProperty<?> arcLabelProperty;
+    private final ArcLabelEdgeSubPropertyGetter<Object, T> getter;
+    private final ArcLabelEdgeSubPropertyFilter<Object> filter;
+
     /**
      * Constructs an edge property from the WebGraph label property.
      *
@@ -25,7 +35,58 @@ public class ArcLabelEdgeSubProperty<T> extends EdgeProperty<T> {
      * @param getter           a function which retrieves the sub property from the label object.
      */
     public <E> ArcLabelEdgeSubProperty(String key, ArcLabelEdgeProperty<E> arcLabelProperty, ArcLabelEdgeSubPropertyGetter<E, T> getter) {
+        this(key, arcLabelProperty, getter, null);
+    }
+
+    /**
+     * Constructs an edge property from the WebGraph label property, with a compiler of predicates on the label objects.
+     *
+     * @param key              the string key of the property
+     * @param arcLabelProperty the base {@link ArcLabelEdgeProperty} which retrieves the label from {@link ArcLabelledImmutableGraph}.
+     * @param getter           a function which retrieves the sub property from the label object.
+     * @param filter           compiles predicates on the sub property into predicates on the label object, or null.
+     */
+    public <E> ArcLabelEdgeSubProperty(String key, ArcLabelEdgeProperty<E> arcLabelProperty,
+                                       ArcLabelEdgeSubPropertyGetter<E, T> getter, ArcLabelEdgeSubPropertyFilter<E> filter) {
         super(key, getArcLabelPropertyGetter(arcLabelProperty, getter));
+        this.arcLabelProperty = arcLabelProperty;
+        this.getter = (ArcLabelEdgeSubPropertyGetter<Object, T>) getter;
+        this.filter = (ArcLabelEdgeSubPropertyFilter<Object>) filter;
+    }
+
+    @Override
+    public T get(long fromId, long toId, Label arcLabel) {
+        return getter.get(arcLabelProperty.get(fromId, toId, arcLabel));
+    }
+
+    /**
+     * Tests the predicate with the filter of this property if it supports it, or else on the sub property
+     * extracted from the label object, which still avoids creating the edge.
+     */
+    @Override
+    public Predicate<Label> arcLabelFilter(P<?> predicate) {
+        Predicate<Object> compiled = filter == null ? null : filter.compile(predicate);
+        if (compiled != null) {
+            return arcLabel -> {
+                Object value = arcLabelProperty.value(arcLabel);
+                return value != null && compiled.test(value);
+            };
+        }
+        P<Object> p = (P<Object>) predicate;
+        return arcLabel -> {
+            T value = getter.get(arcLabelProperty.value(arcLabel));
+            return value != null && p.test(value);
+        };
+    }
+
+    @Override
+    public ArcLabelledImmutableGraph labelledGraph() {
+        return arcLabelProperty.labelledGraph();
+    }
+
+    @Override
+    public ArcLabelledImmutableGraph transposedLabelledGraph() {
+        return arcLabelProperty.transposedLabelledGraph();
     }
 
     public static <E, T> EdgePropertyGetter<T> getArcLabelPropertyGetter(ArcLabelEdgeProperty<E> arcLabelProperty, ArcLabelEdgeSubPropertyGetter<E, T> getter) {
@@ -0,0 +1,19 @@
+package org.webgraph.tinkerpop.structure.property.edge;
+
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+
+import java.util.function.Predicate;
+
+/**
+ * Compiles predicates on an {@link ArcLabelEdgeSubProperty} into predicates on the label object it is extracted from.
+ */
+@FunctionalInterface
+public interface ArcLabelEdgeSubPropertyFilter<E> {
+
+    /**
+     * @param predicate the predicate on the values of the sub property
+     * @return a predicate on the label object, equivalent to testing the sub property extracted from it,
+     * or null if the predicate is not supported
+     */
+    Predicate<E> compile(P<?> predicate);
+}
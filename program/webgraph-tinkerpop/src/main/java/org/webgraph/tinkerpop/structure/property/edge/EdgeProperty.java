@@ -1,5 +1,11 @@
 package org.webgraph.tinkerpop.structure.property.edge;
 
+import it.unimi.dsi.big.webgraph.labelling.ArcLabelledImmutableGraph;
+import it.unimi.dsi.big.webgraph.labelling.Label;
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+
+import java.util.function.Predicate;
+
 /**
  * Defines an edge property of a graph.
  */
@@ -38,4 +44,58 @@ public class EdgeProperty<T> {
     public T get(long fromId, long toId) {
         return propertyGetter.get(fromId, toId);
     }
+
+    /**
+     * Gets the value of this property for the given edge, whose label in {@link #labelledGraph()} is known.
+     *
+     * @param fromId   the outgoing vertex id.
+     * @param toId     the incoming vertex id.
+     * @param arcLabel the label of the arc.
+     * @return the value of the property.
+     */
+    public T get(long fromId, long toId, Label arcLabel) {
+        return get(fromId, toId);
+    }
+
+    /**
+     * Gets the value of this property for the given edge, whose arc id is known.
+     *
+     * @param arcId  the id of the arc, see {@link org.webgraph.tinkerpop.util.ArcIndex}, or -1 if it is not known.
+     * @param fromId the outgoing vertex id.
+     * @param toId   the incoming vertex id.
+     * @return the value of the property.
+     */
+    public T get(long arcId, long fromId, long toId) {
+        return get(fromId, toId);
+    }
+
+    /**
+     * Compiles a predicate on the values of this property into a predicate on the labels of {@link #labelledGraph()},
+     * so that arcs can be filtered while iterating the labelled successors, before their edges are created.
+     * Edges without a value never match.
+     *
+     * @param predicate the predicate on the values.
+     * @return a predicate on arc labels, or null if the property is not based on arc labels.
+     */
+    public Predicate<Label> arcLabelFilter(P<?> predicate) {
+        return null;
+    }
+
+    /**
+     * Gets the labelled graph whose arc labels this property is computed from.
+     *
+     * @return the labelled graph, or null if the property is not based on arc labels.
+     */
+    public ArcLabelledImmutableGraph labelledGraph() {
+        return null;
+    }
+
+    /**
+     * Gets the transpose of {@link #labelledGraph()}, with the same label on each reversed arc.
+     *
+     * @return the transposed labelled graph, or null if the property is not based on arc labels or has no transpose.
+     */
+    public ArcLabelledImmutableGraph transposedLabelledGraph() {
+        return null;
+    }
 }
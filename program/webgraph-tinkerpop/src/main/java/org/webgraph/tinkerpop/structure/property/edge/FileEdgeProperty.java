@@ -0,0 +1,174 @@
+package org.webgraph.tinkerpop.structure.property.edge;
+
+import it.unimi.dsi.big.webgraph.ImmutableGraph;
+import it.unimi.dsi.big.webgraph.LazyLongIterator;
+import it.unimi.dsi.big.webgraph.NodeIterator;
+import org.webgraph.tinkerpop.structure.property.vertex.VertexProperty;
+import org.webgraph.tinkerpop.structure.property.vertex.file.FileVertexProperty;
+import org.webgraph.tinkerpop.util.ArcIndex;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Edge property stored in a file, with one value per arc.
+ * <p>
+ * The values are stored in a column aligned with the successor lists of the graph: the value of an arc is at the
+ * position of its {@link ArcIndex arc id}, i.e. the offset of its source plus its position among the successors of
+ * the source. The column is memory-mapped and read with the getter of a {@link FileVertexProperty} of the same type,
+ * and takes the width of the type per arc, which is much smaller than a labelled graph for scalar values.
+ * <p>
+ * Edges identified by arc ids, see {@link org.webgraph.tinkerpop.structure.WebGraphGraph#ARC_EDGE_IDS}, read their
+ * value with a single mapped read. Otherwise the position of the target is looked up in the successors of the source.
+ * Columns are written by {@link #build(ImmutableGraph, EdgePropertyGetter, Class, Path)} or a {@link Writer}.
+ *
+ * @see FileVertexProperty for the supported types and the representation of missing values
+ */
+public class FileEdgeProperty<T> extends EdgeProperty<T> {
+
+    private final VertexProperty<T> column;
+    private final ArcIndex arcIndex;
+    private final ThreadLocal<ImmutableGraph> threadGraph;
+
+    /**
+     * Constructs an edge property from a column file.
+     *
+     * @param key      the string key of the property
+     * @param type     the type of the values, one of the numeric types of {@link FileVertexProperty}
+     * @param path     the path to the column file
+     * @param graph    the graph whose arcs the column is aligned with
+     * @param arcIndex the arc index of the graph
+     * @throws IOException if an I/O error occurs
+     */
+    public FileEdgeProperty(String key, Class<T> type, Path path, ImmutableGraph graph, ArcIndex arcIndex) throws IOException {
+        this(key, new FileVertexProperty<>(key, checkType(type), path), graph, arcIndex);
+    }
+
+    /**
+     * Constructs an edge property from a column file, indexing the arcs of the graph.
+     *
+     * @param key   the string key of the property
+     * @param type  the type of the values, one of the numeric types of {@link FileVertexProperty}
+     * @param path  the path to the column file
+     * @param graph the graph whose arcs the column is aligned with
+     * @throws IOException if an I/O error occurs
+     */
+    public FileEdgeProperty(String key, Class<T> type, Path path, ImmutableGraph graph) throws IOException {
+        this(key, type, path, graph, new ArcIndex(graph));
+    }
+
+    private FileEdgeProperty(String key, VertexProperty<T> column, ImmutableGraph graph, ArcIndex arcIndex) {
+        super(key, (fromId, toId) -> null);
+        this.column = column;
+        this.arcIndex = arcIndex;
+        this.threadGraph = ThreadLocal.withInitial(graph::copy);
+    }
+
+    @Override
+    public T get(long fromId, long toId) {
+        long arcId = arcIndex.arcId(threadGraph.get(), fromId, toId);
+        return arcId == -1 ? null : column.get(arcId);
+    }
+
+    @Override
+    public T get(long arcId, long fromId, long toId) {
+        return arcId == -1 ? get(fromId, toId) : column.get(arcId);
+    }
+
+    /**
+     * Writes the column of a property with the values of a getter, enumerating the arcs of the graph.
+     *
+     * @param graph  the graph
+     * @param values returns the value of an arc, or null if it has none
+     * @param type   the type of the values, one of the numeric types of {@link FileVertexProperty}
+     * @param path   the path to the column file
+     * @throws IOException if an I/O error occurs
+     */
+    public static void build(ImmutableGraph graph, EdgePropertyGetter<? extends Number> values, Class<?> type, Path path)
+            throws IOException {
+        try (Writer writer = new Writer(path, type)) {
+            NodeIterator nodes = graph.nodeIterator();
+            while (nodes.hasNext()) {
+                long from = nodes.nextLong();
+                LazyLongIterator successors = nodes.successors();
+                for (long to; (to = successors.nextLong()) != -1; ) {
+                    writer.write(values.get(from, to));
+                }
+            }
+        }
+    }
+
+    private static <T> Class<T> checkType(Class<T> type) {
+        if (!Writer.isSupported(type)) {
+            throw new IllegalArgumentException("Unsupported property type: " + type.getSimpleName());
+        }
+        return type;
+    }
+
+    /**
+     * Writes a column from a stream of values, given in the order of the arcs, i.e. by source and,
+     * for each source, in the order of its successors.
+     */
+    public static class Writer implements Closeable {
+        private final DataOutputStream out;
+        private final Class<?> type;
+        private long count;
+
+        /**
+         * @param path the path to the column file
+         * @param type the type of the values, one of the numeric types of {@link FileVertexProperty}
+         * @throws IOException if an I/O error occurs
+         */
+        public Writer(Path path, Class<?> type) throws IOException {
+            if (!isSupported(type)) {
+                throw new IllegalArgumentException("Unsupported property type: " + type.getSimpleName());
+            }
+            this.type = type;
+            this.out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(path.toFile()), 1 << 16));
+        }
+
+        /**
+         * Appends the value of the next arc.
+         *
+         * @param value the value, or null if the arc has none
+         * @throws IOException if an I/O error occurs
+         */
+        public void write(Number value) throws IOException {
+            if (type == Long.class) {
+                out.writeLong(value == null ? Long.MIN_VALUE : value.longValue());
+            } else if (type == Integer.class) {
+                out.writeInt(value == null ? Integer.MIN_VALUE : value.intValue());
+            } else if (type == Short.class) {
+                out.writeShort(value == null ? Short.MIN_VALUE : value.shortValue());
+            } else if (type == Byte.class) {
+                out.writeByte(value == null ? Byte.MIN_VALUE : value.byteValue());
+            } else if (type == Double.class) {
+                out.writeDouble(value == null ? Double.NaN : value.doubleValue());
+            } else {
+                out.writeFloat(value == null ? Float.NaN : value.floatValue());
+            }
+            count++;
+        }
+
+        /**
+         * @return the number of values written so far
+         */
+        public long count() {
+            return count;
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+
+        static boolean isSupported(Class<?> type) {
+            return type == Long.class || type == Integer.class || type == Short.class || type == Byte.class
+                    || type == Double.class || type == Float.class;
+        }
+    }
+}
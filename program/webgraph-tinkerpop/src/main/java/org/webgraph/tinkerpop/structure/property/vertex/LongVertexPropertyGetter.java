@@ -0,0 +1,46 @@
+package org.webgraph.tinkerpop.structure.property.vertex;
+
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+
+import java.util.function.LongPredicate;
+
+/**
+ * Getter of a property whose values are {@code long}s, which can be read without boxing.
+ */
+public interface LongVertexPropertyGetter extends VertexPropertyGetter<Long> {
+    /**
+     * The value of vertices without a value.
+     */
+    long NO_VALUE = Long.MIN_VALUE;
+
+    /**
+     * Gets the value of a vertex.
+     *
+     * @param vertexId the id of the vertex
+     * @return the value, or {@link #NO_VALUE}
+     */
+    long getLong(long vertexId);
+
+    /**
+     * Gets the values of several vertices. Called with sorted ids, see {@link VertexPropertyGetter#get(long[], Object[])}.
+     *
+     * @param vertexIds the ids of the vertices, in increasing order
+     * @param values    receives the value of each vertex, or {@link #NO_VALUE}, at the index of its id
+     */
+    default void getLongs(long[] vertexIds, long[] values) {
+        for (int i = 0; i < vertexIds.length; i++) {
+            values[i] = getLong(vertexIds[i]);
+        }
+    }
+
+    @Override
+    default Long get(long vertexId) {
+        long res = getLong(vertexId);
+        return res == NO_VALUE ? null : res;
+    }
+
+    @Override
+    default LongPredicate filter(P<?> predicate) {
+        return PrimitivePredicates.integral(predicate, this::getLong, NO_VALUE);
+    }
+}
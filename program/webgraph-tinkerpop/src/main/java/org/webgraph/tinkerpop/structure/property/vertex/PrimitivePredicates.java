@@ -0,0 +1,232 @@
+package org.webgraph.tinkerpop.structure.property.vertex;
+
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import org.apache.tinkerpop.gremlin.process.traversal.Compare;
+import org.apache.tinkerpop.gremlin.process.traversal.Contains;
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.util.AndP;
+import org.apache.tinkerpop.gremlin.process.traversal.util.OrP;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.DoublePredicate;
+import java.util.function.LongPredicate;
+import java.util.function.LongToDoubleFunction;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * Compiles {@code has()} predicates on primitive property values into predicates on vertex ids, which read the values
+ * with primitive accessors instead of boxing them. Compiled predicates agree with {@link Compare} and {@link Contains}
+ * on numbers, i.e. integral and floating-point values are compared by value whatever their type.
+ * <p>
+ * Supported predicates are comparisons with a {@code Byte}, {@code Short}, {@code Integer}, {@code Long}, {@code Float}
+ * or {@code Double}, {@code within}/{@code without} such numbers, and conjunctions or disjunctions of these.
+ * Vertices without a value never match.
+ */
+public class PrimitivePredicates {
+
+    private PrimitivePredicates() {
+    }
+
+    /**
+     * Compiles a predicate on integral values.
+     *
+     * @param predicate the predicate on the values
+     * @param values    returns the value of a vertex
+     * @param noValue   the value of vertices without a value
+     * @return a predicate on vertex ids, or {@code null} if the predicate is not supported
+     */
+    public static LongPredicate integral(P<?> predicate, LongUnaryOperator values, long noValue) {
+        DoublePredicate test = compile(predicate);
+        if (test == null) {
+            return null;
+        }
+        LongPredicate longTest = longTest(predicate);
+        if (longTest != null) { // exact comparison of longs which are not representable as doubles
+            return id -> {
+                long value = values.applyAsLong(id);
+                return value != noValue && longTest.test(value);
+            };
+        }
+        return id -> {
+            long value = values.applyAsLong(id);
+            return value != noValue && test.test(value);
+        };
+    }
+
+    /**
+     * Compiles a predicate on floating-point values.
+     *
+     * @param predicate the predicate on the values
+     * @param values    returns the value of a vertex, or {@code NaN} if it has none
+     * @return a predicate on vertex ids, or {@code null} if the predicate is not supported
+     */
+    public static LongPredicate floating(P<?> predicate, LongToDoubleFunction values) {
+        DoublePredicate test = compile(predicate);
+        if (test == null) {
+            return null;
+        }
+        return id -> {
+            double value = values.applyAsDouble(id);
+            return !Double.isNaN(value) && test.test(value);
+        };
+    }
+
+    /**
+     * Compiles a predicate on boolean values. Supports {@code eq} and {@code neq}.
+     *
+     * @param predicate the predicate on the values
+     * @param values    returns the value of a vertex
+     * @return a predicate on vertex ids, or {@code null} if the predicate is not supported
+     */
+    public static LongPredicate bool(P<?> predicate, LongPredicate values) {
+        if (predicate.getBiPredicate() != Compare.eq && predicate.getBiPredicate() != Compare.neq) {
+            return null;
+        }
+        boolean eq = predicate.getBiPredicate() == Compare.eq;
+        if (!(predicate.getValue() instanceof Boolean)) {
+            return id -> !eq;
+        }
+        boolean expected = (Boolean) predicate.getValue() == eq;
+        return id -> values.test(id) == expected;
+    }
+
+    private static DoublePredicate compile(P<?> predicate) {
+        if (predicate instanceof AndP || predicate instanceof OrP) {
+            boolean and = predicate instanceof AndP;
+            DoublePredicate res = null;
+            for (P<?> p : (and ? ((AndP<?>) predicate).getPredicates() : ((OrP<?>) predicate).getPredicates())) {
+                DoublePredicate test = compile(p);
+                if (test == null) {
+                    return null;
+                }
+                res = res == null ? test : and ? res.and(test) : res.or(test);
+            }
+            return res;
+        }
+        Object value = predicate.getValue();
+        if (predicate.getBiPredicate() == Contains.within || predicate.getBiPredicate() == Contains.without) {
+            List<Double> numbers = numbers(value);
+            if (numbers == null) {
+                return null;
+            }
+            double[] keys = numbers.stream().mapToDouble(Double::doubleValue).toArray();
+            boolean within = predicate.getBiPredicate() == Contains.within;
+            return v -> {
+                for (double key : keys) {
+                    if (Double.compare(v, key) == 0) {
+                        return within;
+                    }
+                }
+                return !within;
+            };
+        }
+        if (!(predicate.getBiPredicate() instanceof Compare) || !isPrimitiveNumber(value)) {
+            return null;
+        }
+        double key = ((Number) value).doubleValue();
+        if (Double.isNaN(key)) {
+            return null;
+        }
+        switch ((Compare) predicate.getBiPredicate()) {
+            case eq:
+                return v -> Double.compare(v, key) == 0;
+            case neq:
+                return v -> Double.compare(v, key) != 0;
+            case gt:
+                return v -> Double.compare(v, key) > 0;
+            case gte:
+                return v -> Double.compare(v, key) >= 0;
+            case lt:
+                return v -> Double.compare(v, key) < 0;
+            case lte:
+                return v -> Double.compare(v, key) <= 0;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Compiles a predicate whose values are all integral to a predicate on {@code long}s.
+     *
+     * @return the predicate, or {@code null} if some value is not integral
+     */
+    private static LongPredicate longTest(P<?> predicate) {
+        if (predicate instanceof AndP || predicate instanceof OrP) {
+            boolean and = predicate instanceof AndP;
+            LongPredicate res = null;
+            for (P<?> p : (and ? ((AndP<?>) predicate).getPredicates() : ((OrP<?>) predicate).getPredicates())) {
+                LongPredicate test = longTest(p);
+                if (test == null) {
+                    return null;
+                }
+                res = res == null ? test : and ? res.and(test) : res.or(test);
+            }
+            return res;
+        }
+        Object value = predicate.getValue();
+        if (predicate.getBiPredicate() == Contains.within || predicate.getBiPredicate() == Contains.without) {
+            LongOpenHashSet keys = new LongOpenHashSet();
+            for (Object v : (Collection<?>) value) {
+                if (v instanceof Number) {
+                    if (!isIntegral(v)) {
+                        return null;
+                    }
+                    keys.add(((Number) v).longValue());
+                }
+            }
+            boolean within = predicate.getBiPredicate() == Contains.within;
+            return v -> keys.contains(v) == within;
+        }
+        if (!isIntegral(value)) {
+            return null;
+        }
+        long key = ((Number) value).longValue();
+        switch ((Compare) predicate.getBiPredicate()) {
+            case eq:
+                return v -> v == key;
+            case neq:
+                return v -> v != key;
+            case gt:
+                return v -> v > key;
+            case gte:
+                return v -> v >= key;
+            case lt:
+                return v -> v < key;
+            case lte:
+                return v -> v <= key;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Returns the numbers of a collection, ignoring values which are not numbers, as they never equal a number.
+     *
+     * @return the numbers, or {@code null} if the value is not a collection or holds unsupported numbers
+     */
+    private static List<Double> numbers(Object value) {
+        if (!(value instanceof Collection)) {
+            return null;
+        }
+        List<Double> res = new ArrayList<>();
+        for (Object v : (Collection<?>) value) {
+            if (v instanceof Number) {
+                if (!isPrimitiveNumber(v) || Double.isNaN(((Number) v).doubleValue())) {
+                    return null;
+                }
+                res.add(((Number) v).doubleValue());
+            }
+        }
+        return res;
+    }
+
+    private static boolean isIntegral(Object value) {
+        return value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte;
+    }
+
+    private static boolean isPrimitiveNumber(Object value) {
+        return isIntegral(value) || value instanceof Double || value instanceof Float;
+    }
+}
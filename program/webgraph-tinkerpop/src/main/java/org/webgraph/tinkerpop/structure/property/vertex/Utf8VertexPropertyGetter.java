@@ -0,0 +1,110 @@
+package org.webgraph.tinkerpop.structure.property.vertex;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Compare;
+import org.apache.tinkerpop.gremlin.process.traversal.Contains;
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.Text;
+import org.webgraph.tinkerpop.util.Utf8View;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.LongPredicate;
+import java.util.function.Predicate;
+
+/**
+ * Getter of a property whose values are strings stored as UTF-8 bytes, which can be read and compared without decoding.
+ */
+public interface Utf8VertexPropertyGetter extends VertexPropertyGetter<String> {
+
+    /**
+     * Gets the value of a vertex without copying its bytes.
+     *
+     * @param vertexId the id of the vertex
+     * @return a view of the value, or null if the vertex has none
+     */
+    Utf8View getView(long vertexId);
+
+    @Override
+    default String get(long vertexId) {
+        Utf8View res = getView(vertexId);
+        return res == null ? null : res.toString();
+    }
+
+    /**
+     * Compiles a predicate on the values into a predicate on vertex ids, comparing the bytes of the values.
+     * Supports {@code eq}, {@code neq}, {@code within}, {@code without} with string values, and {@link Text} predicates.
+     * Vertices without a value never match.
+     *
+     * @param predicate the predicate on the values
+     * @return a predicate on vertex ids, or {@code null} if the predicate is not supported
+     */
+    @Override
+    default LongPredicate filter(P<?> predicate) {
+        Predicate<Utf8View> viewPredicate = viewPredicate(predicate);
+        if (viewPredicate == null) {
+            return null;
+        }
+        return id -> {
+            Utf8View value = getView(id);
+            return value != null && viewPredicate.test(value);
+        };
+    }
+
+    private static Predicate<Utf8View> viewPredicate(P<?> predicate) {
+        Object value = predicate.getValue();
+        if (predicate.getBiPredicate() == Compare.eq || predicate.getBiPredicate() == Compare.neq) {
+            boolean eq = predicate.getBiPredicate() == Compare.eq;
+            if (!(value instanceof String)) {
+                return view -> !eq;
+            }
+            byte[] bytes = utf8((String) value);
+            return view -> view.contentEquals(bytes) == eq;
+        }
+        if (predicate.getBiPredicate() == Contains.within || predicate.getBiPredicate() == Contains.without) {
+            if (!(value instanceof Collection)) {
+                return null;
+            }
+            boolean within = predicate.getBiPredicate() == Contains.within;
+            List<byte[]> values = new ArrayList<>();
+            for (Object v : (Collection<?>) value) {
+                if (v instanceof String) { // other values never equal a string
+                    values.add(utf8((String) v));
+                }
+            }
+            return view -> {
+                for (byte[] bytes : values) {
+                    if (view.contentEquals(bytes)) {
+                        return within;
+                    }
+                }
+                return !within;
+            };
+        }
+        if (predicate.getBiPredicate() instanceof Text && value instanceof String) {
+            byte[] bytes = utf8((String) value);
+            switch ((Text) predicate.getBiPredicate()) {
+                case startingWith:
+                    return view -> view.startsWith(bytes);
+                case notStartingWith:
+                    return view -> !view.startsWith(bytes);
+                case endingWith:
+                    return view -> view.endsWith(bytes);
+                case notEndingWith:
+                    return view -> !view.endsWith(bytes);
+                case containing:
+                    return view -> view.contains(bytes);
+                case notContaining:
+                    return view -> !view.contains(bytes);
+                default:
+                    return null;
+            }
+        }
+        return null;
+    }
+
+    private static byte[] utf8(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -1,5 +1,10 @@
 package org.webgraph.tinkerpop.structure.property.vertex;
 
+import it.unimi.dsi.fastutil.ints.IntArrays;
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+
+import java.util.function.LongPredicate;
+
 /**
  * Defines a vertex property of a graph.
  */
@@ -37,4 +42,98 @@ public class VertexProperty<T> {
     public T get(long vertexId) {
         return propertyGetter.get(vertexId);
     }
+
+    /**
+     * Gets the values of this property for several vertices.
+     * The ids are read in increasing order, so that properties stored in files are read sequentially.
+     *
+     * @param vertexIds the ids of the vertices, in any order.
+     * @param values    receives the value of each vertex, at the index of its id.
+     */
+    public void get(long[] vertexIds, Object[] values) {
+        int[] order = sortedOrder(vertexIds);
+        if (order == null) {
+            propertyGetter.get(vertexIds, values);
+            return;
+        }
+        Object[] sortedValues = new Object[vertexIds.length];
+        propertyGetter.get(sortedIds(vertexIds, order), sortedValues);
+        for (int i = 0; i < order.length; i++) {
+            values[order[i]] = sortedValues[i];
+        }
+    }
+
+    /**
+     * Gets the values of this property for several vertices without boxing, if its values are {@code long}s.
+     *
+     * @param vertexIds the ids of the vertices, in any order.
+     * @param values    receives the value of each vertex, or {@link LongVertexPropertyGetter#NO_VALUE}, at the index of its id.
+     * @return {@code false} if the values are not read as {@code long}s, see {@link LongVertexPropertyGetter}.
+     */
+    public boolean get(long[] vertexIds, long[] values) {
+        if (!(propertyGetter instanceof LongVertexPropertyGetter)) {
+            return false;
+        }
+        LongVertexPropertyGetter longGetter = (LongVertexPropertyGetter) propertyGetter;
+        int[] order = sortedOrder(vertexIds);
+        if (order == null) {
+            longGetter.getLongs(vertexIds, values);
+            return true;
+        }
+        long[] sortedValues = new long[vertexIds.length];
+        longGetter.getLongs(sortedIds(vertexIds, order), sortedValues);
+        for (int i = 0; i < order.length; i++) {
+            values[order[i]] = sortedValues[i];
+        }
+        return true;
+    }
+
+    /**
+     * Whether vertices memoize the values of this property once read, see
+     * {@link org.webgraph.tinkerpop.structure.provider.PropertySchema}.
+     *
+     * @return {@code false} if the values are cheaper to read again than to keep, see {@link VertexPropertyGetter#isMemoized()}.
+     */
+    public boolean isMemoized() {
+        return propertyGetter.isMemoized();
+    }
+
+    /**
+     * Compiles a predicate on the values of this property into a predicate on vertex ids, which does not
+     * materialize the values, if the getter supports it.
+     *
+     * @param predicate the predicate on the values.
+     * @return a predicate on vertex ids, or {@code null} if the getter does not support the predicate.
+     * @see VertexPropertyGetter#filter(P)
+     */
+    public LongPredicate filter(P<?> predicate) {
+        return propertyGetter.filter(predicate);
+    }
+
+    /**
+     * Returns the permutation sorting the ids, or {@code null} if they are already sorted.
+     */
+    private static int[] sortedOrder(long[] vertexIds) {
+        boolean sorted = true;
+        for (int i = 1; i < vertexIds.length && sorted; i++) {
+            sorted = vertexIds[i - 1] <= vertexIds[i];
+        }
+        if (sorted) {
+            return null;
+        }
+        int[] order = new int[vertexIds.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        IntArrays.quickSort(order, (a, b) -> Long.compare(vertexIds[a], vertexIds[b]));
+        return order;
+    }
+
+    private static long[] sortedIds(long[] vertexIds, int[] order) {
+        long[] res = new long[order.length];
+        for (int i = 0; i < order.length; i++) {
+            res[i] = vertexIds[order[i]];
+        }
+        return res;
+    }
 }
@@ -1,6 +1,43 @@
 package org.webgraph.tinkerpop.structure.property.vertex;
 
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+
+import java.util.function.LongPredicate;
+
 @FunctionalInterface
 public interface VertexPropertyGetter<T> {
     T get(long vertexId);
+
+    /**
+     * Gets the values of several vertices. Called with sorted ids, so that getters reading files access them sequentially.
+     *
+     * @param vertexIds the ids of the vertices, in increasing order
+     * @param values    receives the value of each vertex, at the index of its id
+     */
+    default void get(long[] vertexIds, Object[] values) {
+        for (int i = 0; i < vertexIds.length; i++) {
+            values[i] = get(vertexIds[i]);
+        }
+    }
+
+    /**
+     * Compiles a predicate on the values into a predicate on vertex ids, which does not materialize the values,
+     * e.g. by reading them with primitive accessors. Vertices without a value never match.
+     *
+     * @param predicate the predicate on the values
+     * @return a predicate on vertex ids, or {@code null} if the predicate is not supported
+     */
+    default LongPredicate filter(P<?> predicate) {
+        return null;
+    }
+
+    /**
+     * Whether vertices memoize the values once read. Getters reading primitive values from memory-mapped columns
+     * return {@code false}, as reading a value again costs less than keeping it in every vertex.
+     *
+     * @return {@code true} by default
+     */
+    default boolean isMemoized() {
+        return true;
+    }
 }
@@ -2,7 +2,15 @@ package org.webgraph.tinkerpop.structure.property.vertex.file;
 
 import org.webgraph.tinkerpop.structure.property.vertex.VertexProperty;
 import org.webgraph.tinkerpop.structure.property.vertex.VertexPropertyGetter;
+import org.webgraph.tinkerpop.structure.property.vertex.file.type.BooleanFileVertexPropertyGetter;
+import org.webgraph.tinkerpop.structure.property.vertex.file.type.ByteFileVertexPropertyGetter;
+import org.webgraph.tinkerpop.structure.property.vertex.file.type.DoubleFileVertexPropertyGetter;
+import org.webgraph.tinkerpop.structure.property.vertex.file.type.FixedWidthBytesFileVertexPropertyGetter;
+import org.webgraph.tinkerpop.structure.property.vertex.file.type.FloatFileVertexPropertyGetter;
+import org.webgraph.tinkerpop.structure.property.vertex.file.type.FrontCodedStringFileVertexPropertyGetter;
+import org.webgraph.tinkerpop.structure.property.vertex.file.type.IntFileVertexPropertyGetter;
 import org.webgraph.tinkerpop.structure.property.vertex.file.type.LongFileVertexPropertyGetter;
+import org.webgraph.tinkerpop.structure.property.vertex.file.type.ShortFileVertexPropertyGetter;
 
 import java.io.IOException;
 import java.nio.file.Path;
@@ -11,7 +19,11 @@ import java.nio.file.Path;
  * Vertex property provider for properties stored in a file.
  * Based on the type of the property it uses one of the handlers.
  *
- * @implNote currently supports only {@code Long} type.
+ * @implNote supports {@code Long}, {@code Integer}, {@code Short}, {@code Byte}, {@code Double}, {@code Float},
+ * {@code Boolean} (one bit per vertex) and {@code String} (front-coded list) types. Fixed-width byte arrays are
+ * created with {@link #fixedWidthBytes(String, Path, int)}, and strings with offsets with a
+ * {@link org.webgraph.tinkerpop.structure.property.vertex.file.type.StringFileVertexPropertyGetter}.
+ * Getters of numeric and boolean types compile {@code has()} predicates to primitive comparisons.
  * @see LongFileVertexPropertyGetter
  */
 public class FileVertexProperty<T> extends VertexProperty<T> {
@@ -19,16 +31,48 @@ public class FileVertexProperty<T> extends VertexProperty<T> {
     /**
      * @param key  the string key of the property
      * @param type the type of the property, which defines which handler should be used.
-     * @param path the path to property file
+     * @param path the path to property file, or the basename of the list files for {@code String}
      * @throws IOException if an I/O error occurs
      */
     public FileVertexProperty(String key, Class<T> type, Path path) throws IOException {
         super(key, getFilePropertyGetterForType(type, path));
     }
 
+    private FileVertexProperty(String key, VertexPropertyGetter<T> propertyGetter) {
+        super(key, propertyGetter);
+    }
+
+    /**
+     * Creates a property whose values are byte arrays of the same length.
+     *
+     * @param key   the string key of the property
+     * @param path  the path to property file
+     * @param width the length of the values in bytes
+     * @return the property
+     * @throws IOException if an I/O error occurs
+     * @see FixedWidthBytesFileVertexPropertyGetter
+     */
+    public static FileVertexProperty<byte[]> fixedWidthBytes(String key, Path path, int width) throws IOException {
+        return new FileVertexProperty<>(key, new FixedWidthBytesFileVertexPropertyGetter(path, width));
+    }
+
     private static <T> VertexPropertyGetter<T> getFilePropertyGetterForType(Class<T> type, Path path) throws IOException {
         if (type == Long.class) {
             return (VertexPropertyGetter<T>) new LongFileVertexPropertyGetter(path);
+        } else if (type == Integer.class) {
+            return (VertexPropertyGetter<T>) new IntFileVertexPropertyGetter(path);
+        } else if (type == Short.class) {
+            return (VertexPropertyGetter<T>) new ShortFileVertexPropertyGetter(path);
+        } else if (type == Byte.class) {
+            return (VertexPropertyGetter<T>) new ByteFileVertexPropertyGetter(path);
+        } else if (type == Double.class) {
+            return (VertexPropertyGetter<T>) new DoubleFileVertexPropertyGetter(path);
+        } else if (type == Float.class) {
+            return (VertexPropertyGetter<T>) new FloatFileVertexPropertyGetter(path);
+        } else if (type == Boolean.class) {
+            return (VertexPropertyGetter<T>) new BooleanFileVertexPropertyGetter(path);
+        } else if (type == String.class) {
+            return (VertexPropertyGetter<T>) new FrontCodedStringFileVertexPropertyGetter(path);
         } else {
             throw new RuntimeException("Unsupported property type: " + type.getSimpleName());
         }
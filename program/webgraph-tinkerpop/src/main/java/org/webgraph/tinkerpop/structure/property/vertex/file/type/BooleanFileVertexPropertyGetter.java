@@ -0,0 +1,65 @@
+package org.webgraph.tinkerpop.structure.property.vertex.file.type;
+
+import it.unimi.dsi.fastutil.longs.LongMappedBigList;
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.webgraph.tinkerpop.structure.property.vertex.PrimitivePredicates;
+import org.webgraph.tinkerpop.structure.property.vertex.VertexPropertyGetter;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.util.function.LongPredicate;
+
+/**
+ * Vertex property getter for file property of type {@code Boolean}, packed in one bit per vertex.
+ * <p>
+ * Expects the property file to store the {@code long}s backing a bit vector with indices corresponding to vertex ids,
+ * e.g. the {@link it.unimi.dsi.bits.LongArrayBitVector#bits() bits} of a
+ * {@link it.unimi.dsi.bits.LongArrayBitVector} stored with {@link it.unimi.dsi.fastutil.io.BinIO#storeLongs}:
+ * the bit of a vertex is bit {@code id % 64} of the {@code long} at index {@code id / 64}.
+ * Every vertex has a value.
+ *
+ * @implNote Uses {@link LongMappedBigList#map} to read the file. Mapped lists are not thread-safe,
+ * so each thread reads through its own {@link LongMappedBigList#copy() copy}.
+ */
+public class BooleanFileVertexPropertyGetter implements VertexPropertyGetter<Boolean> {
+    private final ThreadLocal<LongMappedBigList> bits;
+
+    /**
+     * Constructs a property getter from file path.
+     *
+     * @param path the path to the property file containing the bits.
+     * @throws IOException if an I/O error occurs
+     */
+    public BooleanFileVertexPropertyGetter(Path path) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(path.toFile(), "r")) {
+            LongMappedBigList mapped = LongMappedBigList.map(raf.getChannel());
+            this.bits = ThreadLocal.withInitial(mapped::copy);
+        }
+    }
+
+    /**
+     * Gets the value of a vertex without boxing.
+     *
+     * @param vertexId the id of the vertex
+     * @return the value
+     */
+    public boolean getBoolean(long vertexId) {
+        return (bits.get().getLong(vertexId >>> 6) & 1L << vertexId) != 0;
+    }
+
+    @Override
+    public Boolean get(long vertexId) {
+        return getBoolean(vertexId);
+    }
+
+    @Override
+    public LongPredicate filter(P<?> predicate) {
+        return PrimitivePredicates.bool(predicate, this::getBoolean);
+    }
+
+    @Override
+    public boolean isMemoized() {
+        return false;
+    }
+}
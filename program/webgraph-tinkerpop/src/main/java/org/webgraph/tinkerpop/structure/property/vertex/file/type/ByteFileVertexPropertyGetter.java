@@ -0,0 +1,77 @@
+package org.webgraph.tinkerpop.structure.property.vertex.file.type;
+
+import it.unimi.dsi.fastutil.bytes.ByteMappedBigList;
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.webgraph.tinkerpop.structure.property.vertex.PrimitivePredicates;
+import org.webgraph.tinkerpop.structure.property.vertex.VertexPropertyGetter;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.util.function.LongPredicate;
+
+/**
+ * Vertex property getter for file property of type {@code Byte}.
+ * <p>
+ * Expects the property file to store a {@code ByteBigList} with indices corresponding to vertex ids.
+ * A value of {@link Byte#MIN_VALUE} ({@link #NO_VALUE}) corresponds to empty value.
+ *
+ * @implNote Uses {@link ByteMappedBigList#map} to read the file. Mapped lists are not thread-safe,
+ * so each thread reads through its own {@link ByteMappedBigList#copy() copy}.
+ */
+public class ByteFileVertexPropertyGetter implements VertexPropertyGetter<Byte> {
+    /**
+     * The value of vertices without a value.
+     */
+    public static final byte NO_VALUE = Byte.MIN_VALUE;
+
+    private final ThreadLocal<ByteMappedBigList> list;
+
+    /**
+     * Constructs a property getter from file path.
+     *
+     * @param path the path to the property file containing a {@code ByteBigList}.
+     * @throws IOException if an I/O error occurs
+     */
+    public ByteFileVertexPropertyGetter(Path path) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(path.toFile(), "r")) {
+            ByteMappedBigList mapped = ByteMappedBigList.map(raf.getChannel());
+            this.list = ThreadLocal.withInitial(mapped::copy);
+        }
+    }
+
+    /**
+     * Gets the value of a vertex without boxing.
+     *
+     * @param vertexId the id of the vertex
+     * @return the value, or {@link #NO_VALUE}
+     */
+    public byte getByte(long vertexId) {
+        return list.get().getByte(vertexId);
+    }
+
+    @Override
+    public Byte get(long vertexId) {
+        byte res = getByte(vertexId);
+        return res == NO_VALUE ? null : res;
+    }
+
+    @Override
+    public void get(long[] vertexIds, Object[] values) {
+        ByteMappedBigList list = this.list.get();
+        for (int i = 0; i < vertexIds.length; i++) {
+            byte value = list.getByte(vertexIds[i]);
+            values[i] = value == NO_VALUE ? null : value;
+        }
+    }
+
+    @Override
+    public LongPredicate filter(P<?> predicate) {
+        return PrimitivePredicates.integral(predicate, this::getByte, NO_VALUE);
+    }
+
+    @Override
+    public boolean isMemoized() {
+        return false;
+    }
+}
@@ -0,0 +1,72 @@
+package org.webgraph.tinkerpop.structure.property.vertex.file.type;
+
+import it.unimi.dsi.fastutil.doubles.DoubleMappedBigList;
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.webgraph.tinkerpop.structure.property.vertex.PrimitivePredicates;
+import org.webgraph.tinkerpop.structure.property.vertex.VertexPropertyGetter;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.util.function.LongPredicate;
+
+/**
+ * Vertex property getter for file property of type {@code Double}.
+ * <p>
+ * Expects the property file to store a {@code DoubleBigList} with indices corresponding to vertex ids.
+ * A value of {@link Double#NaN} corresponds to empty value.
+ *
+ * @implNote Uses {@link DoubleMappedBigList#map} to read the file. Mapped lists are not thread-safe,
+ * so each thread reads through its own {@link DoubleMappedBigList#copy() copy}.
+ */
+public class DoubleFileVertexPropertyGetter implements VertexPropertyGetter<Double> {
+    private final ThreadLocal<DoubleMappedBigList> list;
+
+    /**
+     * Constructs a property getter from file path.
+     *
+     * @param path the path to the property file containing a {@code DoubleBigList}.
+     * @throws IOException if an I/O error occurs
+     */
+    public DoubleFileVertexPropertyGetter(Path path) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(path.toFile(), "r")) {
+            DoubleMappedBigList mapped = DoubleMappedBigList.map(raf.getChannel());
+            this.list = ThreadLocal.withInitial(mapped::copy);
+        }
+    }
+
+    /**
+     * Gets the value of a vertex without boxing.
+     *
+     * @param vertexId the id of the vertex
+     * @return the value, or {@code NaN}
+     */
+    public double getDouble(long vertexId) {
+        return list.get().getDouble(vertexId);
+    }
+
+    @Override
+    public Double get(long vertexId) {
+        double res = getDouble(vertexId);
+        return Double.isNaN(res) ? null : res;
+    }
+
+    @Override
+    public void get(long[] vertexIds, Object[] values) {
+        DoubleMappedBigList list = this.list.get();
+        for (int i = 0; i < vertexIds.length; i++) {
+            double value = list.getDouble(vertexIds[i]);
+            values[i] = Double.isNaN(value) ? null : value;
+        }
+    }
+
+    @Override
+    public LongPredicate filter(P<?> predicate) {
+        return PrimitivePredicates.floating(predicate, this::getDouble);
+    }
+
+    @Override
+    public boolean isMemoized() {
+        return false;
+    }
+}
@@ -0,0 +1,63 @@
+package org.webgraph.tinkerpop.structure.property.vertex.file.type;
+
+import it.unimi.dsi.fastutil.bytes.ByteMappedBigList;
+import org.webgraph.tinkerpop.structure.property.vertex.VertexPropertyGetter;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+
+/**
+ * Vertex property getter for file property of type {@code byte[]}, whose values all have the same length,
+ * e.g. hashes.
+ * <p>
+ * Expects the property file to store a {@code ByteBigList} with the value of vertex {@code id}
+ * at positions {@code id * width} to {@code (id + 1) * width}. Every vertex has a value.
+ *
+ * @implNote Uses {@link ByteMappedBigList#map} to read the file. Mapped lists are not thread-safe,
+ * so each thread reads through its own {@link ByteMappedBigList#copy() copy}.
+ */
+public class FixedWidthBytesFileVertexPropertyGetter implements VertexPropertyGetter<byte[]> {
+    private final ThreadLocal<ByteMappedBigList> list;
+    private final int width;
+
+    /**
+     * Constructs a property getter from file path.
+     *
+     * @param path  the path to the property file containing a {@code ByteBigList}.
+     * @param width the length of the values in bytes.
+     * @throws IOException if an I/O error occurs
+     */
+    public FixedWidthBytesFileVertexPropertyGetter(Path path, int width) throws IOException {
+        this.width = width;
+        try (RandomAccessFile raf = new RandomAccessFile(path.toFile(), "r")) {
+            ByteMappedBigList mapped = ByteMappedBigList.map(raf.getChannel());
+            this.list = ThreadLocal.withInitial(mapped::copy);
+        }
+    }
+
+    /**
+     * @return the length of the values in bytes
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Copies the value of a vertex to an array, without allocating.
+     *
+     * @param vertexId the id of the vertex
+     * @param dest     the array receiving the value
+     * @param offset   the position of the first byte of the value in {@code dest}
+     */
+    public void getBytes(long vertexId, byte[] dest, int offset) {
+        list.get().getElements(vertexId * width, dest, offset, width);
+    }
+
+    @Override
+    public byte[] get(long vertexId) {
+        byte[] res = new byte[width];
+        getBytes(vertexId, res, 0);
+        return res;
+    }
+}
@@ -0,0 +1,72 @@
+package org.webgraph.tinkerpop.structure.property.vertex.file.type;
+
+import it.unimi.dsi.fastutil.floats.FloatMappedBigList;
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.webgraph.tinkerpop.structure.property.vertex.PrimitivePredicates;
+import org.webgraph.tinkerpop.structure.property.vertex.VertexPropertyGetter;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.util.function.LongPredicate;
+
+/**
+ * Vertex property getter for file property of type {@code Float}.
+ * <p>
+ * Expects the property file to store a {@code FloatBigList} with indices corresponding to vertex ids.
+ * A value of {@link Float#NaN} corresponds to empty value.
+ *
+ * @implNote Uses {@link FloatMappedBigList#map} to read the file. Mapped lists are not thread-safe,
+ * so each thread reads through its own {@link FloatMappedBigList#copy() copy}.
+ */
+public class FloatFileVertexPropertyGetter implements VertexPropertyGetter<Float> {
+    private final ThreadLocal<FloatMappedBigList> list;
+
+    /**
+     * Constructs a property getter from file path.
+     *
+     * @param path the path to the property file containing a {@code FloatBigList}.
+     * @throws IOException if an I/O error occurs
+     */
+    public FloatFileVertexPropertyGetter(Path path) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(path.toFile(), "r")) {
+            FloatMappedBigList mapped = FloatMappedBigList.map(raf.getChannel());
+            this.list = ThreadLocal.withInitial(mapped::copy);
+        }
+    }
+
+    /**
+     * Gets the value of a vertex without boxing.
+     *
+     * @param vertexId the id of the vertex
+     * @return the value, or {@code NaN}
+     */
+    public float getFloat(long vertexId) {
+        return list.get().getFloat(vertexId);
+    }
+
+    @Override
+    public Float get(long vertexId) {
+        float res = getFloat(vertexId);
+        return Float.isNaN(res) ? null : res;
+    }
+
+    @Override
+    public void get(long[] vertexIds, Object[] values) {
+        FloatMappedBigList list = this.list.get();
+        for (int i = 0; i < vertexIds.length; i++) {
+            float value = list.getFloat(vertexIds[i]);
+            values[i] = Float.isNaN(value) ? null : value;
+        }
+    }
+
+    @Override
+    public LongPredicate filter(P<?> predicate) {
+        return PrimitivePredicates.floating(predicate, this::getFloat);
+    }
+
+    @Override
+    public boolean isMemoized() {
+        return false;
+    }
+}
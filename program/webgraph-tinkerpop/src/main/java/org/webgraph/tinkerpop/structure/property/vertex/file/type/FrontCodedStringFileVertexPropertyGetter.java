@@ -0,0 +1,50 @@
+package org.webgraph.tinkerpop.structure.property.vertex.file.type;
+
+import it.unimi.dsi.big.util.MappedFrontCodedStringBigList;
+import org.apache.commons.configuration2.ex.ConfigurationException;
+import org.webgraph.tinkerpop.structure.property.vertex.VertexPropertyGetter;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Vertex property getter for file property of type {@code String}, stored as a front-coded list.
+ * <p>
+ * Expects the property files to store a {@link MappedFrontCodedStringBigList} with indices corresponding to vertex ids,
+ * as built by {@link MappedFrontCodedStringBigList#build}. Front coding compresses strings sharing prefixes,
+ * e.g. sorted names or identifiers. Every vertex has a value.
+ *
+ * @implNote The list reads the mapped files at absolute positions only, so it is shared by all threads.
+ */
+public class FrontCodedStringFileVertexPropertyGetter implements VertexPropertyGetter<String> {
+    private final MappedFrontCodedStringBigList list;
+
+    /**
+     * Constructs a property getter from the basename of the list files.
+     *
+     * @param basename the basename of the list files.
+     * @throws IOException if an I/O error occurs or the list files are invalid
+     */
+    public FrontCodedStringFileVertexPropertyGetter(Path basename) throws IOException {
+        try {
+            this.list = MappedFrontCodedStringBigList.load(basename.toString());
+        } catch (ConfigurationException e) {
+            throw new IOException("Invalid front-coded list " + basename, e);
+        }
+    }
+
+    /**
+     * Gets the bytes of the value of a vertex, without decoding them.
+     *
+     * @param vertexId the id of the vertex
+     * @return the UTF-8 bytes of the value
+     */
+    public byte[] getBytes(long vertexId) {
+        return list.getArray(vertexId);
+    }
+
+    @Override
+    public String get(long vertexId) {
+        return list.getString(vertexId);
+    }
+}
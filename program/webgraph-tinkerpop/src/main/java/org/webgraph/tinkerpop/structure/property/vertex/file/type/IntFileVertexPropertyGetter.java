@@ -0,0 +1,77 @@
+package org.webgraph.tinkerpop.structure.property.vertex.file.type;
+
+import it.unimi.dsi.fastutil.ints.IntMappedBigList;
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.webgraph.tinkerpop.structure.property.vertex.PrimitivePredicates;
+import org.webgraph.tinkerpop.structure.property.vertex.VertexPropertyGetter;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.util.function.LongPredicate;
+
+/**
+ * Vertex property getter for file property of type {@code Integer}.
+ * <p>
+ * Expects the property file to store a {@code IntBigList} with indices corresponding to vertex ids.
+ * A value of {@link Integer#MIN_VALUE} ({@link #NO_VALUE}) corresponds to empty value.
+ *
+ * @implNote Uses {@link IntMappedBigList#map} to read the file. Mapped lists are not thread-safe,
+ * so each thread reads through its own {@link IntMappedBigList#copy() copy}.
+ */
+public class IntFileVertexPropertyGetter implements VertexPropertyGetter<Integer> {
+    /**
+     * The value of vertices without a value.
+     */
+    public static final int NO_VALUE = Integer.MIN_VALUE;
+
+    private final ThreadLocal<IntMappedBigList> list;
+
+    /**
+     * Constructs a property getter from file path.
+     *
+     * @param path the path to the property file containing a {@code IntBigList}.
+     * @throws IOException if an I/O error occurs
+     */
+    public IntFileVertexPropertyGetter(Path path) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(path.toFile(), "r")) {
+            IntMappedBigList mapped = IntMappedBigList.map(raf.getChannel());
+            this.list = ThreadLocal.withInitial(mapped::copy);
+        }
+    }
+
+    /**
+     * Gets the value of a vertex without boxing.
+     *
+     * @param vertexId the id of the vertex
+     * @return the value, or {@link #NO_VALUE}
+     */
+    public int getInt(long vertexId) {
+        return list.get().getInt(vertexId);
+    }
+
+    @Override
+    public Integer get(long vertexId) {
+        int res = getInt(vertexId);
+        return res == NO_VALUE ? null : res;
+    }
+
+    @Override
+    public void get(long[] vertexIds, Object[] values) {
+        IntMappedBigList list = this.list.get();
+        for (int i = 0; i < vertexIds.length; i++) {
+            int value = list.getInt(vertexIds[i]);
+            values[i] = value == NO_VALUE ? null : value;
+        }
+    }
+
+    @Override
+    public LongPredicate filter(P<?> predicate) {
+        return PrimitivePredicates.integral(predicate, this::getInt, NO_VALUE);
+    }
+
+    @Override
+    public boolean isMemoized() {
+        return false;
+    }
+}
@@ -1,8 +1,7 @@
 package org.webgraph.tinkerpop.structure.property.vertex.file.type;
 
-import it.unimi.dsi.fastutil.longs.LongBigList;
 import it.unimi.dsi.fastutil.longs.LongMappedBigList;
-import org.webgraph.tinkerpop.structure.property.vertex.VertexPropertyGetter;
+import org.webgraph.tinkerpop.structure.property.vertex.LongVertexPropertyGetter;
 
 import java.io.IOException;
 import java.io.RandomAccessFile;
@@ -12,12 +11,13 @@ import java.nio.file.Path;
  * Vertex property getter for file property of type {@code Long}.
  * <p>
  * Expects the property file to store a {@code LongBigList} with indices corresponding to vertex ids.
- * A value of {@link Long#MIN_VALUE}  corresponds to empty value.
+ * A value of {@link Long#MIN_VALUE} ({@link #NO_VALUE}) corresponds to empty value.
  *
- * @implNote Uses {@link LongMappedBigList#map} to read the file.
+ * @implNote Uses {@link LongMappedBigList#map} to read the file. Mapped lists are not thread-safe,
+ * so each thread reads through its own {@link LongMappedBigList#copy() copy}.
  */
-public class LongFileVertexPropertyGetter implements VertexPropertyGetter<Long> {
-    private final LongBigList list;
+public class LongFileVertexPropertyGetter implements LongVertexPropertyGetter {
+    private final ThreadLocal<LongMappedBigList> list;
 
     /**
      * Constructs a property getter from file path.
@@ -27,16 +27,35 @@ public class LongFileVertexPropertyGetter implements VertexPropertyGetter<Long>
      */
     public LongFileVertexPropertyGetter(Path path) throws IOException {
         try (RandomAccessFile raf = new RandomAccessFile(path.toFile(), "r")) {
-            this.list = LongMappedBigList.map(raf.getChannel());
+            LongMappedBigList mapped = LongMappedBigList.map(raf.getChannel());
+            this.list = ThreadLocal.withInitial(mapped::copy);
         }
     }
 
     @Override
-    public Long get(long vertexId) {
-        long res = list.getLong(vertexId);
-        if (res == Long.MIN_VALUE) {
-            return null;
+    public long getLong(long vertexId) {
+        return list.get().getLong(vertexId);
+    }
+
+    @Override
+    public void getLongs(long[] vertexIds, long[] values) {
+        LongMappedBigList list = this.list.get();
+        for (int i = 0; i < vertexIds.length; i++) {
+            values[i] = list.getLong(vertexIds[i]);
+        }
+    }
+
+    @Override
+    public void get(long[] vertexIds, Object[] values) {
+        LongMappedBigList list = this.list.get();
+        for (int i = 0; i < vertexIds.length; i++) {
+            long value = list.getLong(vertexIds[i]);
+            values[i] = value == NO_VALUE ? null : value;
         }
-        return res;
+    }
+
+    @Override
+    public boolean isMemoized() {
+        return false;
     }
 }
@@ -0,0 +1,77 @@
+package org.webgraph.tinkerpop.structure.property.vertex.file.type;
+
+import it.unimi.dsi.fastutil.shorts.ShortMappedBigList;
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.webgraph.tinkerpop.structure.property.vertex.PrimitivePredicates;
+import org.webgraph.tinkerpop.structure.property.vertex.VertexPropertyGetter;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.util.function.LongPredicate;
+
+/**
+ * Vertex property getter for file property of type {@code Short}.
+ * <p>
+ * Expects the property file to store a {@code ShortBigList} with indices corresponding to vertex ids.
+ * A value of {@link Short#MIN_VALUE} ({@link #NO_VALUE}) corresponds to empty value.
+ *
+ * @implNote Uses {@link ShortMappedBigList#map} to read the file. Mapped lists are not thread-safe,
+ * so each thread reads through its own {@link ShortMappedBigList#copy() copy}.
+ */
+public class ShortFileVertexPropertyGetter implements VertexPropertyGetter<Short> {
+    /**
+     * The value of vertices without a value.
+     */
+    public static final short NO_VALUE = Short.MIN_VALUE;
+
+    private final ThreadLocal<ShortMappedBigList> list;
+
+    /**
+     * Constructs a property getter from file path.
+     *
+     * @param path the path to the property file containing a {@code ShortBigList}.
+     * @throws IOException if an I/O error occurs
+     */
+    public ShortFileVertexPropertyGetter(Path path) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(path.toFile(), "r")) {
+            ShortMappedBigList mapped = ShortMappedBigList.map(raf.getChannel());
+            this.list = ThreadLocal.withInitial(mapped::copy);
+        }
+    }
+
+    /**
+     * Gets the value of a vertex without boxing.
+     *
+     * @param vertexId the id of the vertex
+     * @return the value, or {@link #NO_VALUE}
+     */
+    public short getShort(long vertexId) {
+        return list.get().getShort(vertexId);
+    }
+
+    @Override
+    public Short get(long vertexId) {
+        short res = getShort(vertexId);
+        return res == NO_VALUE ? null : res;
+    }
+
+    @Override
+    public void get(long[] vertexIds, Object[] values) {
+        ShortMappedBigList list = this.list.get();
+        for (int i = 0; i < vertexIds.length; i++) {
+            short value = list.getShort(vertexIds[i]);
+            values[i] = value == NO_VALUE ? null : value;
+        }
+    }
+
+    @Override
+    public LongPredicate filter(P<?> predicate) {
+        return PrimitivePredicates.integral(predicate, this::getShort, NO_VALUE);
+    }
+
+    @Override
+    public boolean isMemoized() {
+        return false;
+    }
+}
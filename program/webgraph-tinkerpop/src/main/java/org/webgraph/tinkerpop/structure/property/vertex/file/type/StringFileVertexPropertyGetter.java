@@ -2,9 +2,9 @@ package org.webgraph.tinkerpop.structure.property.vertex.file.type;
 
 import it.unimi.dsi.fastutil.bytes.ByteBigList;
 import it.unimi.dsi.fastutil.bytes.ByteMappedBigList;
-import it.unimi.dsi.fastutil.longs.LongBigList;
 import it.unimi.dsi.fastutil.longs.LongMappedBigList;
-import org.webgraph.tinkerpop.structure.property.vertex.VertexPropertyGetter;
+import org.webgraph.tinkerpop.structure.property.vertex.Utf8VertexPropertyGetter;
+import org.webgraph.tinkerpop.util.Utf8View;
 
 import java.io.IOException;
 import java.io.RandomAccessFile;
@@ -15,11 +15,14 @@ import java.nio.file.Path;
  * <p>
  * Expects the property file to store a {@code ByteBigList} buffer and {@code LongBigList} with offsets.
  * Offsets correspond to node ids. At the given offset the buffer stores 4 bytes for the length of the message
- * in bytes then the string bytes.
+ * in bytes then the string bytes, encoded in UTF-8.
+ * Values are read as {@link Utf8View}s of the mapped buffer, so that filters compare the bytes without decoding them,
+ * see {@link Utf8VertexPropertyGetter#filter}. Strings are only decoded when read with {@link #get(long)}.
+ * Mapped lists are not thread-safe, so each thread reads through its own copies.
  */
-public class StringFileVertexPropertyGetter implements VertexPropertyGetter<String> {
-    private final ByteBigList buffer;
-    private final LongBigList offsets;
+public class StringFileVertexPropertyGetter implements Utf8VertexPropertyGetter {
+    private final ThreadLocal<ByteMappedBigList> buffer;
+    private final ThreadLocal<LongMappedBigList> offsets;
 
     /**
      * Constructs a property getter from buffer and offset file paths
@@ -31,29 +34,21 @@ public class StringFileVertexPropertyGetter implements VertexPropertyGetter<Stri
     public StringFileVertexPropertyGetter(Path bufferPath, Path offsetPath) throws IOException {
         try (RandomAccessFile bufferFile = new RandomAccessFile(bufferPath.toFile(), "r");
              RandomAccessFile offsetFile = new RandomAccessFile(offsetPath.toFile(), "r")) {
-            this.buffer = ByteMappedBigList.map(bufferFile.getChannel());
-            this.offsets = LongMappedBigList.map(offsetFile.getChannel());
+            ByteMappedBigList mappedBuffer = ByteMappedBigList.map(bufferFile.getChannel());
+            LongMappedBigList mappedOffsets = LongMappedBigList.map(offsetFile.getChannel());
+            this.buffer = ThreadLocal.withInitial(mappedBuffer::copy);
+            this.offsets = ThreadLocal.withInitial(mappedOffsets::copy);
         }
     }
 
     @Override
-    public String get(long vertexId) {
-        long offset = offsets.getLong(vertexId);
-        byte[] lengthBytes = new byte[Integer.BYTES];
-        buffer.getElements(offset, lengthBytes, 0, Integer.BYTES);
-        int length = bytesToInt(lengthBytes);
-
-        byte[] stringBytes = new byte[length];
-        buffer.getElements(offset + Integer.BYTES, stringBytes, 0, length);
-        return new String(stringBytes);
-    }
-
-    private int bytesToInt(byte[] b) {
-        int result = 0;
+    public Utf8View getView(long vertexId) {
+        ByteBigList buffer = this.buffer.get();
+        long offset = offsets.get().getLong(vertexId);
+        int length = 0;
         for (int i = 0; i < Integer.BYTES; i++) {
-            result <<= Byte.SIZE;
-            result |= (b[i] & 0xFF);
+            length = length << Byte.SIZE | (buffer.getByte(offset + i) & 0xFF);
         }
-        return result;
+        return new Utf8View(buffer, offset + Integer.BYTES, length);
     }
 }
@@ -0,0 +1,104 @@
+package org.webgraph.tinkerpop.structure.property.vertex.index;
+
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongIterators;
+import org.apache.tinkerpop.gremlin.process.traversal.Compare;
+import org.apache.tinkerpop.gremlin.process.traversal.Contains;
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.webgraph.tinkerpop.structure.property.vertex.VertexProperty;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Equality index of a property of any type, sorted by a 64-bit hash of the string representation of the values.
+ * <p>
+ * Answers {@code eq} and {@code within}. Values with the same string representation, or colliding hashes,
+ * are returned as candidates, so matches must be confirmed on the actual value.
+ * <pre>
+ * HashVertexPropertyIndex.build(swhid, graph.numNodes(), "graph.swhid");
+ * provider.addVertexPropertyIndex(new HashVertexPropertyIndex("swhid", "graph.swhid"));
+ * </pre>
+ */
+public class HashVertexPropertyIndex extends SortedVertexPropertyIndex {
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    /**
+     * Opens an index built by {@link #build(VertexProperty, long, String)}.
+     *
+     * @param key      the key of the indexed property
+     * @param basename the basename of the index files
+     * @throws IOException if an I/O error occurs
+     */
+    public HashVertexPropertyIndex(String key, String basename) throws IOException {
+        super(key, basename);
+    }
+
+    /**
+     * Builds the index of a property.
+     *
+     * @param property the property to index
+     * @param numNodes the number of vertices of the graph
+     * @param basename the basename of the index files
+     * @throws IOException if an I/O error occurs
+     */
+    public static void build(VertexProperty<?> property, long numNodes, String basename) throws IOException {
+        build(property, numNodes, HashVertexPropertyIndex::hash, basename);
+    }
+
+    @Override
+    public LongIterator candidates(P<?> predicate) {
+        if (predicate.getBiPredicate() == Compare.eq && predicate.getValue() != null) {
+            return candidates(predicate.getValue());
+        }
+        if (predicate.getBiPredicate() == Contains.within && predicate.getValue() instanceof Collection) {
+            LongIterator res = LongIterators.EMPTY_ITERATOR;
+            for (Object value : (Collection<?>) predicate.getValue()) {
+                if (value != null) {
+                    res = LongIterators.concat(res, candidates(value));
+                }
+            }
+            return res;
+        }
+        return null;
+    }
+
+    @Override
+    public List<LongIterator> sortedCandidates(P<?> predicate) {
+        if (predicate.getBiPredicate() == Compare.eq && predicate.getValue() != null) {
+            return List.of(candidates(predicate.getValue()));
+        }
+        if (predicate.getBiPredicate() == Contains.within && predicate.getValue() instanceof Collection) {
+            List<LongIterator> res = new ArrayList<>();
+            for (Object value : (Collection<?>) predicate.getValue()) {
+                if (value != null) {
+                    res.add(candidates(value));
+                }
+            }
+            return res;
+        }
+        return null;
+    }
+
+    private LongIterator candidates(Object value) {
+        long key = hash(value);
+        return ids(lowerBound(key), upperBound(key));
+    }
+
+    /**
+     * 64-bit FNV-1a hash of the characters of the string representation of a value.
+     */
+    private static long hash(Object value) {
+        String s = value.toString();
+        long res = FNV_OFFSET_BASIS;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            res = (res ^ (c & 0xFF)) * FNV_PRIME;
+            res = (res ^ (c >>> 8)) * FNV_PRIME;
+        }
+        return res;
+    }
+}
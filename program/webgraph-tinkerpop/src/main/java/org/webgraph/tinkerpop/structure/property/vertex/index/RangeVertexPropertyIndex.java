@@ -0,0 +1,161 @@
+package org.webgraph.tinkerpop.structure.property.vertex.index;
+
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongIterators;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import org.apache.tinkerpop.gremlin.process.traversal.Compare;
+import org.apache.tinkerpop.gremlin.process.traversal.Contains;
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.util.AndP;
+import org.webgraph.tinkerpop.structure.property.vertex.VertexProperty;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Index of an integral numeric property, sorted by value.
+ * <p>
+ * Answers {@code eq}, {@code gt}, {@code gte}, {@code lt}, {@code lte}, conjunctions of them
+ * (e.g. {@code between} or {@code inside}) and {@code within} with integral values.
+ * Other predicates, and comparisons with non-integral values, are left to a scan.
+ * Supported predicates are answered exactly, so they can also be counted without reading the ids.
+ * <pre>
+ * RangeVertexPropertyIndex.build(timestamp, graph.numNodes(), "graph.timestamp");
+ * provider.addVertexPropertyIndex(new RangeVertexPropertyIndex("timestamp", "graph.timestamp"));
+ * </pre>
+ */
+public class RangeVertexPropertyIndex extends SortedVertexPropertyIndex {
+
+    /**
+     * Opens an index built by {@link #build(VertexProperty, long, String)}.
+     *
+     * @param key      the key of the indexed property
+     * @param basename the basename of the index files
+     * @throws IOException if an I/O error occurs
+     */
+    public RangeVertexPropertyIndex(String key, String basename) throws IOException {
+        super(key, basename);
+    }
+
+    /**
+     * Builds the index of a property whose values are {@link Long}s, {@link Integer}s, {@link Short}s or {@link Byte}s.
+     *
+     * @param property the property to index
+     * @param numNodes the number of vertices of the graph
+     * @param basename the basename of the index files
+     * @throws IOException if an I/O error occurs
+     */
+    public static void build(VertexProperty<?> property, long numNodes, String basename) throws IOException {
+        build(property, numNodes, value -> {
+            if (!isIntegral(value)) {
+                throw new IllegalArgumentException("Not an integral value of " + property.getKey() + ": " + value);
+            }
+            return ((Number) value).longValue();
+        }, basename);
+    }
+
+    @Override
+    public LongIterator candidates(P<?> predicate) {
+        if (predicate.getBiPredicate() == Contains.within && predicate.getValue() instanceof Collection) {
+            LongIterator res = LongIterators.EMPTY_ITERATOR;
+            for (Object value : (Collection<?>) predicate.getValue()) {
+                if (!isIntegral(value)) {
+                    return null;
+                }
+                long key = ((Number) value).longValue();
+                res = LongIterators.concat(res, ids(lowerBound(key), upperBound(key)));
+            }
+            return res;
+        }
+        long[] range = range(predicate);
+        return range == null ? null : ids(range[0], range[1]);
+    }
+
+    /**
+     * Returns a run per value for {@code eq} and {@code within}. The ids of a range of values are not sorted.
+     */
+    @Override
+    public List<LongIterator> sortedCandidates(P<?> predicate) {
+        if (predicate.getBiPredicate() == Compare.eq && isIntegral(predicate.getValue())) {
+            long key = ((Number) predicate.getValue()).longValue();
+            return List.of(ids(lowerBound(key), upperBound(key)));
+        }
+        if (predicate.getBiPredicate() == Contains.within && predicate.getValue() instanceof Collection) {
+            List<LongIterator> res = new ArrayList<>();
+            for (Object value : (Collection<?>) predicate.getValue()) {
+                if (!isIntegral(value)) {
+                    return null;
+                }
+                long key = ((Number) value).longValue();
+                res.add(ids(lowerBound(key), upperBound(key)));
+            }
+            return res;
+        }
+        return null;
+    }
+
+    @Override
+    public long count(P<?> predicate) {
+        if (predicate.getBiPredicate() == Contains.within && predicate.getValue() instanceof Collection) {
+            LongOpenHashSet keys = new LongOpenHashSet();
+            for (Object value : (Collection<?>) predicate.getValue()) {
+                if (!isIntegral(value)) {
+                    return -1;
+                }
+                keys.add(((Number) value).longValue());
+            }
+            long res = 0;
+            for (LongIterator i = keys.iterator(); i.hasNext(); ) {
+                long key = i.nextLong();
+                res += upperBound(key) - lowerBound(key);
+            }
+            return res;
+        }
+        long[] range = range(predicate);
+        return range == null ? -1 : range[1] - range[0];
+    }
+
+    /**
+     * Returns the positions of the keys satisfying a comparison or a conjunction of comparisons.
+     *
+     * @return the first (inclusive) and last (exclusive) position, or {@code null} if the predicate is not supported
+     */
+    private long[] range(P<?> predicate) {
+        if (predicate instanceof AndP) {
+            long[] res = {0, size()};
+            for (P<?> p : ((AndP<?>) predicate).getPredicates()) {
+                long[] range = range(p);
+                if (range == null) {
+                    return null;
+                }
+                res[0] = Math.max(res[0], range[0]);
+                res[1] = Math.max(res[0], Math.min(res[1], range[1]));
+            }
+            return res;
+        }
+        if (!(predicate.getBiPredicate() instanceof Compare) || !isIntegral(predicate.getValue())) {
+            return null;
+        }
+        long key = ((Number) predicate.getValue()).longValue();
+        switch ((Compare) predicate.getBiPredicate()) {
+            case eq:
+                return new long[]{lowerBound(key), upperBound(key)};
+            case gt:
+                return new long[]{upperBound(key), size()};
+            case gte:
+                return new long[]{lowerBound(key), size()};
+            case lt:
+                return new long[]{0, lowerBound(key)};
+            case lte:
+                return new long[]{0, upperBound(key)};
+            default:
+                return null;
+        }
+    }
+
+    private static boolean isIntegral(Object value) {
+        return value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte;
+    }
+}
@@ -0,0 +1,154 @@
+package org.webgraph.tinkerpop.structure.property.vertex.index;
+
+import it.unimi.dsi.fastutil.BigArrays;
+import it.unimi.dsi.fastutil.io.BinIO;
+import it.unimi.dsi.fastutil.longs.LongBigArrays;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongMappedBigList;
+import org.webgraph.tinkerpop.structure.property.vertex.VertexProperty;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.NoSuchElementException;
+import java.util.function.ToLongFunction;
+
+/**
+ * Base class of indexes storing the ids of all vertices with a value, sorted by a {@code long} key derived from it.
+ * <p>
+ * An index consists of two files of big-endian {@code long}s: {@code <basename>.keys} holds the sorted keys and
+ * {@code <basename>.ids} the vertex id of each key, ties being sorted by id. Both files are memory-mapped, and
+ * a lookup is a binary search on the keys followed by a sequential read of the ids, i.e. {@code O(log n + k)}.
+ * As ties are sorted by id, the ids of a single key are sorted, see {@link #sortedCandidates}.
+ * Mapped lists are not thread-safe, so each thread reads through its own copies.
+ * <p>
+ * Indexes are built offline by a single scan of the property, see the {@code build} method of each subclass.
+ * Building sorts all keys in memory, i.e. takes 16 bytes per vertex with a value.
+ */
+public abstract class SortedVertexPropertyIndex implements VertexPropertyIndex {
+    private final String key;
+    private final ThreadLocal<LongMappedBigList> keys;
+    private final ThreadLocal<LongMappedBigList> ids;
+    private final long size;
+
+    /**
+     * Opens an index built by {@link #build}.
+     *
+     * @param key      the key of the indexed property
+     * @param basename the basename of the index files
+     * @throws IOException if an I/O error occurs
+     */
+    protected SortedVertexPropertyIndex(String key, String basename) throws IOException {
+        this.key = key;
+        try (RandomAccessFile keysFile = new RandomAccessFile(basename + ".keys", "r");
+             RandomAccessFile idsFile = new RandomAccessFile(basename + ".ids", "r")) {
+            LongMappedBigList mappedKeys = LongMappedBigList.map(keysFile.getChannel());
+            LongMappedBigList mappedIds = LongMappedBigList.map(idsFile.getChannel());
+            this.size = mappedKeys.size64();
+            this.keys = ThreadLocal.withInitial(mappedKeys::copy);
+            this.ids = ThreadLocal.withInitial(mappedIds::copy);
+        }
+    }
+
+    @Override
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * @return the number of indexed vertices
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Returns the position of the first key greater than or equal to the given one.
+     *
+     * @param key the key
+     * @return a position between 0 and {@link #size()}
+     */
+    protected long lowerBound(long key) {
+        LongMappedBigList keys = this.keys.get();
+        long low = 0;
+        long high = size;
+        while (low < high) {
+            long mid = (low + high) >>> 1;
+            if (keys.getLong(mid) < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Returns the position of the first key greater than the given one.
+     *
+     * @param key the key
+     * @return a position between 0 and {@link #size()}
+     */
+    protected long upperBound(long key) {
+        return key == Long.MAX_VALUE ? size : lowerBound(key + 1);
+    }
+
+    /**
+     * Returns the ids stored between two positions.
+     *
+     * @param from the first position (inclusive)
+     * @param to   the last position (exclusive)
+     * @return the ids, lazily read from the index
+     */
+    protected LongIterator ids(long from, long to) {
+        LongMappedBigList ids = this.ids.get();
+        return new LongIterator() {
+            long next = from;
+
+            @Override
+            public boolean hasNext() {
+                return next < to;
+            }
+
+            @Override
+            public long nextLong() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return ids.getLong(next++);
+            }
+        };
+    }
+
+    /**
+     * Builds the index files of a property.
+     *
+     * @param property the property to index
+     * @param numNodes the number of vertices of the graph
+     * @param keyOf    computes the key of a non-null property value
+     * @param basename the basename of the index files
+     * @throws IOException if an I/O error occurs
+     */
+    protected static void build(VertexProperty<?> property, long numNodes, ToLongFunction<Object> keyOf,
+                                String basename) throws IOException {
+        long[][] keys = LongBigArrays.newBigArray(numNodes);
+        long[][] ids = LongBigArrays.newBigArray(numNodes);
+        long size = 0;
+        for (long id = 0; id < numNodes; id++) {
+            Object value = property.get(id);
+            if (value != null) {
+                BigArrays.set(keys, size, keyOf.applyAsLong(value));
+                BigArrays.set(ids, size, id);
+                size++;
+            }
+        }
+        BigArrays.quickSort(0, size, (a, b) -> {
+            int res = Long.compare(BigArrays.get(keys, a), BigArrays.get(keys, b));
+            return res != 0 ? res : Long.compare(BigArrays.get(ids, a), BigArrays.get(ids, b));
+        }, (a, b) -> {
+            BigArrays.swap(keys, a, b);
+            BigArrays.swap(ids, a, b);
+        });
+        BinIO.storeLongs(keys, 0, size, basename + ".keys");
+        BinIO.storeLongs(ids, 0, size, basename + ".ids");
+    }
+}
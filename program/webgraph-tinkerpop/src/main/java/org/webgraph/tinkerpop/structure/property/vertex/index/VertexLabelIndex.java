@@ -0,0 +1,351 @@
+package org.webgraph.tinkerpop.structure.property.vertex.index;
+
+import it.unimi.dsi.fastutil.BigArrays;
+import it.unimi.dsi.fastutil.io.BinIO;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongBigArrays;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongIterators;
+import it.unimi.dsi.fastutil.longs.LongMappedBigList;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import org.apache.tinkerpop.gremlin.process.traversal.Compare;
+import org.apache.tinkerpop.gremlin.process.traversal.Contains;
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.webgraph.tinkerpop.structure.provider.WebGraphPropertyProvider;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Index of the vertex labels, answering {@code hasLabel(...)} with the sorted ids of the vertices of each label.
+ * <p>
+ * The index consists of two files of big-endian {@code long}s: {@code <basename>.labels} holds the ids of all vertices
+ * grouped by label, each group sorted by id, and {@code <basename>.labeloffsets} the position of the first id of
+ * each label, plus the number of vertices. The ids are memory-mapped and the offsets are loaded in memory, so
+ * counting the vertices of a label takes constant time, and enumerating or sampling them takes time proportional
+ * to the output. Mapped lists are not thread-safe, so each thread reads through its own copy.
+ * <p>
+ * The labeller of the provider must have a fixed set of labels, see
+ * {@link org.webgraph.tinkerpop.structure.provider.StandardWebGraphPropertyProvider#setVertexLabeller(String[], java.util.function.LongToIntFunction)}.
+ * The index is normally opened by the graph, see {@link org.webgraph.tinkerpop.structure.WebGraphGraph#VERTEX_LABEL_INDEX}.
+ */
+public class VertexLabelIndex implements VertexPropertyIndex {
+    private final Map<String, Integer> labelIds = new HashMap<>();
+    private final long[] offsets;
+    private final ThreadLocal<LongMappedBigList> ids;
+
+    /**
+     * Opens an index built by {@link #build(WebGraphPropertyProvider, long, String)}, checking that it matches
+     * the labels of the graph: each group of ids must be sorted and only hold vertices with its label.
+     * As the groups hold {@code numNodes} ids in total, they then hold exactly the vertices of their labels.
+     * Checking reads the label of every vertex once, as a scan would.
+     *
+     * @param provider the property provider, whose vertex labeller has a fixed set of labels
+     * @param numNodes the number of vertices of the graph
+     * @param basename the basename of the index files
+     * @throws IOException              if an I/O error occurs
+     * @throws IllegalArgumentException if the index does not match the labels of the graph
+     */
+    public VertexLabelIndex(WebGraphPropertyProvider provider, long numNodes, String basename) throws IOException {
+        String[] labels = provider.vertexLabelDictionary();
+        if (labels == null) {
+            throw new IllegalArgumentException("The vertex labeller does not have a fixed set of labels");
+        }
+        this.offsets = BinIO.loadLongs(basename + ".labeloffsets");
+        String mismatch = mismatch(offsets, labels, numNodes, basename);
+        if (mismatch != null) {
+            throw new IllegalArgumentException(mismatch);
+        }
+        for (int i = 0; i < labels.length; i++) {
+            labelIds.put(labels[i], i);
+        }
+        try (RandomAccessFile idsFile = new RandomAccessFile(basename + ".labels", "r")) {
+            LongMappedBigList mappedIds = LongMappedBigList.map(idsFile.getChannel());
+            if (mappedIds.size64() != numNodes) {
+                throw new IllegalArgumentException("Label index " + basename + " holds " + mappedIds.size64()
+                        + " ids, the graph has " + numNodes + " vertices");
+            }
+            mismatch = mismatch(mappedIds, offsets, provider, numNodes, basename);
+            if (mismatch != null) {
+                throw new IllegalArgumentException(mismatch);
+            }
+            this.ids = ThreadLocal.withInitial(mappedIds::copy);
+        }
+    }
+
+    /**
+     * Checks that each group of ids is sorted, and only holds vertices with its label.
+     *
+     * @return a description of the mismatch, or {@code null} if the ids match
+     */
+    private static String mismatch(LongMappedBigList ids, long[] offsets, WebGraphPropertyProvider provider,
+                                   long numNodes, String basename) {
+        for (int label = 0; label < offsets.length - 1; label++) {
+            long prev = -1;
+            for (long i = offsets[label]; i < offsets[label + 1]; i++) {
+                long id = ids.getLong(i);
+                if (id <= prev || id >= numNodes) {
+                    return "Label index " + basename + " has unsorted or invalid ids";
+                }
+                if (provider.vertexLabelId(id) != label) {
+                    return "Label index " + basename + " does not match the label of vertex " + id;
+                }
+                prev = id;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Checks the offsets of an index against the label dictionary and the graph.
+     *
+     * @return a description of the mismatch, or {@code null} if the offsets match
+     */
+    private static String mismatch(long[] offsets, String[] labels, long numNodes, String basename) {
+        if (offsets.length != labels.length + 1) {
+            return "Label index " + basename + " was built for " + (offsets.length - 1)
+                    + " labels, the label dictionary has " + labels.length;
+        }
+        if (offsets[0] != 0 || offsets[labels.length] != numNodes) {
+            return "Label index " + basename + " was built for " + offsets[labels.length]
+                    + " vertices, the graph has " + numNodes;
+        }
+        for (int i = 0; i < labels.length; i++) {
+            if (offsets[i] > offsets[i + 1]) {
+                return "Label index " + basename + " has decreasing offsets";
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Opens the index with the given basename, building it first if its files do not exist,
+     * or were built for another number of labels or vertices. An index whose ids do not match the labels
+     * of the graph, e.g. a stale one, is rebuilt as well.
+     *
+     * @param provider the property provider, whose vertex labeller has a fixed set of labels
+     * @param numNodes the number of vertices of the graph
+     * @param basename the basename of the index files
+     * @return the index
+     * @throws IOException if an I/O error occurs
+     */
+    public static VertexLabelIndex openOrBuild(WebGraphPropertyProvider provider, long numNodes, String basename) throws IOException {
+        File idsFile = new File(basename + ".labels");
+        File offsetsFile = new File(basename + ".labeloffsets");
+        String[] labels = provider.vertexLabelDictionary();
+        if (!idsFile.exists() || !offsetsFile.exists()
+                || mismatch(BinIO.loadLongs(offsetsFile), labels == null ? new String[0] : labels, numNodes, basename) != null
+                || idsFile.length() != numNodes * Long.BYTES) {
+            build(provider, numNodes, basename);
+            return new VertexLabelIndex(provider, numNodes, basename);
+        }
+        try {
+            return new VertexLabelIndex(provider, numNodes, basename);
+        } catch (IllegalArgumentException e) {
+            build(provider, numNodes, basename);
+            return new VertexLabelIndex(provider, numNodes, basename);
+        }
+    }
+
+    /**
+     * Builds the index files with two scans of the vertex labels.
+     * Building keeps all ids in memory, i.e. takes 8 bytes per vertex.
+     *
+     * @param provider the property provider, whose vertex labeller has a fixed set of labels
+     * @param numNodes the number of vertices of the graph
+     * @param basename the basename of the index files
+     * @throws IOException if an I/O error occurs
+     */
+    public static void build(WebGraphPropertyProvider provider, long numNodes, String basename) throws IOException {
+        String[] labels = provider.vertexLabelDictionary();
+        if (labels == null) {
+            throw new IllegalArgumentException("The vertex labeller does not have a fixed set of labels");
+        }
+        long[] offsets = new long[labels.length + 1];
+        for (long id = 0; id < numNodes; id++) {
+            offsets[provider.vertexLabelId(id) + 1]++;
+        }
+        for (int i = 0; i < labels.length; i++) {
+            offsets[i + 1] += offsets[i];
+        }
+        long[] next = offsets.clone();
+        long[][] ids = LongBigArrays.newBigArray(numNodes);
+        for (long id = 0; id < numNodes; id++) {
+            BigArrays.set(ids, next[provider.vertexLabelId(id)]++, id);
+        }
+        BinIO.storeLongs(ids, 0, numNodes, basename + ".labels");
+        BinIO.storeLongs(offsets, basename + ".labeloffsets");
+    }
+
+    @Override
+    public String getKey() {
+        return T.label.getAccessor();
+    }
+
+    /**
+     * @param label a vertex label
+     * @return the number of vertices with the label
+     */
+    public long count(String label) {
+        Integer labelId = labelIds.get(label);
+        return labelId == null ? 0 : offsets[labelId + 1] - offsets[labelId];
+    }
+
+    /**
+     * @param label a vertex label
+     * @return the ids of the vertices with the label, sorted
+     */
+    public LongIterator ids(String label) {
+        Integer labelId = labelIds.get(label);
+        return labelId == null ? LongIterators.EMPTY_ITERATOR : ids(offsets[labelId], offsets[labelId + 1]);
+    }
+
+    @Override
+    public LongIterator candidates(P<?> predicate) {
+        Set<String> labels = labels(predicate);
+        if (labels == null) {
+            return null;
+        }
+        LongIterator res = LongIterators.EMPTY_ITERATOR;
+        for (String label : labels) {
+            res = LongIterators.concat(res, ids(label));
+        }
+        return res;
+    }
+
+    /**
+     * Returns the sorted ids of each label, read directly from the index.
+     */
+    @Override
+    public List<LongIterator> sortedCandidates(P<?> predicate) {
+        Set<String> labels = labels(predicate);
+        if (labels == null) {
+            return null;
+        }
+        List<LongIterator> res = new ArrayList<>(labels.size());
+        for (String label : labels) {
+            res.add(ids(label));
+        }
+        return res;
+    }
+
+    @Override
+    public long count(P<?> predicate) {
+        Set<String> labels = labels(predicate);
+        if (labels == null) {
+            return -1;
+        }
+        return labels.stream().mapToLong(this::count).sum();
+    }
+
+    /**
+     * Picks distinct positions with Floyd's algorithm, and reads the ids at these positions,
+     * in time proportional to {@code amount}.
+     */
+    @Override
+    public LongIterator sample(P<?> predicate, int amount, Random random) {
+        Set<String> labels = labels(predicate);
+        if (labels == null) {
+            return null;
+        }
+        LongArrayList ranges = new LongArrayList();
+        long total = 0;
+        for (String label : labels) {
+            Integer labelId = labelIds.get(label);
+            if (labelId != null && offsets[labelId] < offsets[labelId + 1]) {
+                ranges.add(offsets[labelId]);
+                ranges.add(offsets[labelId + 1]);
+                total += offsets[labelId + 1] - offsets[labelId];
+            }
+        }
+        LongOpenHashSet positions = new LongOpenHashSet();
+        if (amount >= total) {
+            for (long position = 0; position < total; position++) {
+                positions.add(position);
+            }
+        } else {
+            for (long j = total - amount; j < total; j++) {
+                long position = nextLong(random, j + 1);
+                positions.add(positions.contains(position) ? j : position);
+            }
+        }
+        LongMappedBigList ids = this.ids.get();
+        LongArrayList res = new LongArrayList(positions.size());
+        for (LongIterator i = positions.iterator(); i.hasNext(); ) {
+            long position = i.nextLong();
+            // map the position among the matching vertices to a position in the index
+            for (int j = 0; j < ranges.size(); j += 2) {
+                long length = ranges.getLong(j + 1) - ranges.getLong(j);
+                if (position < length) {
+                    res.add(ids.getLong(ranges.getLong(j) + position));
+                    break;
+                }
+                position -= length;
+            }
+        }
+        return res.iterator();
+    }
+
+    /**
+     * Returns the labels accepted by an {@code eq} or {@code within} predicate.
+     *
+     * @return the labels, or {@code null} if the predicate is not supported
+     */
+    private static Set<String> labels(P<?> predicate) {
+        if (predicate.getBiPredicate() == Compare.eq && predicate.getValue() instanceof String) {
+            return Set.of((String) predicate.getValue());
+        }
+        if (predicate.getBiPredicate() == Contains.within && predicate.getValue() instanceof Collection) {
+            Set<String> res = new LinkedHashSet<>();
+            for (Object value : (Collection<?>) predicate.getValue()) {
+                if (!(value instanceof String)) {
+                    return null;
+                }
+                res.add((String) value);
+            }
+            return res;
+        }
+        return null;
+    }
+
+    private LongIterator ids(long from, long to) {
+        LongMappedBigList ids = this.ids.get();
+        return new LongIterator() {
+            long next = from;
+
+            @Override
+            public boolean hasNext() {
+                return next < to;
+            }
+
+            @Override
+            public long nextLong() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return ids.getLong(next++);
+            }
+        };
+    }
+
+    private static long nextLong(Random random, long bound) {
+        long bits;
+        long res;
+        do {
+            bits = random.nextLong() >>> 1;
+            res = bits % bound;
+        } while (bits - res + (bound - 1) < 0);
+        return res;
+    }
+}
@@ -0,0 +1,69 @@
+package org.webgraph.tinkerpop.structure.property.vertex.index;
+
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * A secondary index over the values of a vertex property, used to answer {@code has(key, predicate)}
+ * without reading the property of every vertex.
+ *
+ * @see org.webgraph.tinkerpop.structure.provider.StandardWebGraphPropertyProvider#addVertexPropertyIndex
+ */
+public interface VertexPropertyIndex {
+
+    /**
+     * @return the key of the indexed property
+     */
+    String getKey();
+
+    /**
+     * Returns the vertices whose property value may satisfy a predicate.
+     * The result may contain false positives, so callers must test the predicate on the returned vertices,
+     * but never misses a matching vertex.
+     *
+     * @param predicate the predicate on the property value
+     * @return the ids of the candidate vertices, in no particular order,
+     * or {@code null} if the predicate cannot be answered by this index
+     */
+    LongIterator candidates(P<?> predicate);
+
+    /**
+     * Returns the vertices whose property value may satisfy a predicate as runs of ids, each sorted by id,
+     * so that they can be merged lazily instead of being collected and sorted.
+     * Runs may overlap, and have the same false positives as {@link #candidates(P)}.
+     *
+     * @param predicate the predicate on the property value
+     * @return the runs, or {@code null} if the index cannot return sorted runs for the predicate,
+     * in which case {@link #candidates(P)} must be used
+     */
+    default List<LongIterator> sortedCandidates(P<?> predicate) {
+        return null;
+    }
+
+    /**
+     * Returns the exact number of vertices whose property value satisfies a predicate, without enumerating them.
+     *
+     * @param predicate the predicate on the property value
+     * @return the number of matching vertices, or {@code -1} if the index cannot count them exactly
+     */
+    default long count(P<?> predicate) {
+        return -1;
+    }
+
+    /**
+     * Returns distinct vertices chosen uniformly at random among those whose property value satisfies a predicate.
+     * Only called for predicates which the index can {@link #count(P)} exactly.
+     *
+     * @param predicate the predicate on the property value
+     * @param amount    the number of vertices to return; all matching vertices are returned if they are fewer
+     * @param random    the source of randomness
+     * @return the ids of the sampled vertices, in no particular order,
+     * or {@code null} if sampling is not supported by this index
+     */
+    default LongIterator sample(P<?> predicate, int amount, Random random) {
+        return null;
+    }
+}
@@ -0,0 +1,64 @@
+package org.webgraph.tinkerpop.structure.provider;
+
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+
+/**
+ * The fixed set of property keys of the vertices or of the edges of a graph, each mapped to a small index.
+ * <p>
+ * Elements memoize the values of their properties in an array indexed by the schema, allocated on first use,
+ * instead of a map per element. Properties whose values are cheap to read again, e.g. mapped primitive columns,
+ * can be excluded from memoization.
+ */
+public class PropertySchema {
+    private final String[] keys;
+    private final boolean[] memoized;
+    private final Object2IntMap<String> indexes;
+
+    /**
+     * @param keys     the property keys
+     * @param memoized whether elements memoize the values of the property with the key at the same index
+     */
+    public PropertySchema(String[] keys, boolean[] memoized) {
+        if (keys.length != memoized.length) {
+            throw new IllegalArgumentException("Expected " + keys.length + " memoization flags, got " + memoized.length);
+        }
+        this.keys = keys;
+        this.memoized = memoized;
+        this.indexes = new Object2IntOpenHashMap<>(keys.length);
+        indexes.defaultReturnValue(-1);
+        for (int i = 0; i < keys.length; i++) {
+            indexes.put(keys[i], i);
+        }
+    }
+
+    /**
+     * @return the number of keys
+     */
+    public int size() {
+        return keys.length;
+    }
+
+    /**
+     * @return the keys, indexed by their index; the array must not be modified
+     */
+    public String[] keys() {
+        return keys;
+    }
+
+    /**
+     * @param key a property key
+     * @return the index of the key, or -1 if it is not part of the schema
+     */
+    public int indexOf(String key) {
+        return indexes.getInt(key);
+    }
+
+    /**
+     * @param index the index of a key
+     * @return whether elements memoize the values of the property
+     */
+    public boolean isMemoized(int index) {
+        return memoized[index];
+    }
+}
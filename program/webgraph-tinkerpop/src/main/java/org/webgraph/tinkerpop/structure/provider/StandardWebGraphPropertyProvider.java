@@ -1,12 +1,22 @@
 package org.webgraph.tinkerpop.structure.provider;
 
+import it.unimi.dsi.big.webgraph.labelling.ArcLabelledImmutableGraph;
+import it.unimi.dsi.big.webgraph.labelling.Label;
+import org.apache.tinkerpop.gremlin.process.traversal.P;
 import org.webgraph.tinkerpop.structure.property.edge.EdgeProperty;
 import org.webgraph.tinkerpop.structure.property.vertex.VertexProperty;
+import org.webgraph.tinkerpop.structure.property.vertex.index.HashVertexPropertyIndex;
+import org.webgraph.tinkerpop.structure.property.vertex.index.RangeVertexPropertyIndex;
+import org.webgraph.tinkerpop.structure.property.vertex.index.VertexPropertyIndex;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.function.BiFunction;
 import java.util.function.Function;
+import java.util.function.LongPredicate;
+import java.util.function.LongToIntFunction;
+import java.util.function.Predicate;
 
 /**
  * Enables the user to provide access to vertex and edge properties.
@@ -16,9 +26,17 @@ import java.util.function.Function;
 public class StandardWebGraphPropertyProvider implements WebGraphPropertyProvider {
 
     private final Map<String, VertexProperty<?>> vertexProperties = new HashMap<>();
+    private final Map<String, VertexPropertyIndex> vertexPropertyIndexes = new HashMap<>();
     private final Map<String, EdgeProperty<?>> edgeProperties = new HashMap<>();
     private Function<Long, String> vertexLabeller = id -> "vertex";
+    private String[] vertexLabels = {"vertex"};
+    private LongToIntFunction vertexLabelIdGetter = id -> 0;
     private BiFunction<Long, Long, String> edgeLabeller = (from, to) -> "edge";
+    private String[] edgeLabels = {"edge"};
+    private ArcLabelledImmutableGraph arcLabelledGraph;
+    private ArcLabelledImmutableGraph transposedArcLabelledGraph;
+    private volatile PropertySchema vertexPropertySchema;
+    private volatile PropertySchema edgePropertySchema;
 
     /**
      * Defines the label of a vertex.
@@ -27,6 +45,28 @@ public class StandardWebGraphPropertyProvider implements WebGraphPropertyProvide
      */
     public void setVertexLabeller(Function<Long, String> labeller) {
         this.vertexLabeller = labeller;
+        this.vertexLabels = null;
+        this.vertexLabelIdGetter = null;
+    }
+
+    /**
+     * Defines the label of a vertex from a fixed set of labels.
+     * Elements then store the small label id instead of the string, and label filters are evaluated on ids.
+     *
+     * @param labels   all possible vertex labels, at most {@code 128}
+     * @param labeller a function, which accepts a vertex id and returns the index of its label in {@code labels}.
+     */
+    public void setVertexLabeller(String[] labels, LongToIntFunction labeller) {
+        if (labels.length > Byte.MAX_VALUE + 1) {
+            throw new IllegalArgumentException("Too many vertex labels: " + labels.length);
+        }
+        String[] interned = new String[labels.length];
+        for (int i = 0; i < labels.length; i++) {
+            interned[i] = labels[i].intern();
+        }
+        this.vertexLabels = interned;
+        this.vertexLabelIdGetter = labeller;
+        this.vertexLabeller = id -> interned[labeller.applyAsInt(id)];
     }
 
     @Override
@@ -34,6 +74,19 @@ public class StandardWebGraphPropertyProvider implements WebGraphPropertyProvide
         return vertexLabeller.apply(vertexId);
     }
 
+    @Override
+    public String[] vertexLabelDictionary() {
+        return vertexLabels;
+    }
+
+    @Override
+    public byte vertexLabelId(long vertexId) {
+        if (vertexLabelIdGetter == null) {
+            throw new UnsupportedOperationException("Vertex label ids are not supported by the vertex labeller");
+        }
+        return (byte) vertexLabelIdGetter.applyAsInt(vertexId);
+    }
+
     /**
      * Register a vertex property in the provider. TinkerPop will be able to request this property by key.
      *
@@ -44,11 +97,26 @@ public class StandardWebGraphPropertyProvider implements WebGraphPropertyProvide
         if (vertexProperties.put(vertexProperty.getKey(), vertexProperty) != null) {
             throw new IllegalArgumentException("Key already exists: " + vertexProperty.getKey());
         }
+        vertexPropertySchema = null;
     }
 
     @Override
     public String[] vertexProperties(long vertexId) {
-        return vertexProperties.keySet().toArray(String[]::new);
+        return vertexPropertySchema().keys();
+    }
+
+    @Override
+    public PropertySchema vertexPropertySchema() {
+        PropertySchema res = vertexPropertySchema;
+        if (res == null) {
+            String[] keys = vertexProperties.keySet().toArray(String[]::new);
+            boolean[] memoized = new boolean[keys.length];
+            for (int i = 0; i < keys.length; i++) {
+                memoized[i] = vertexProperties.get(keys[i]).isMemoized();
+            }
+            res = vertexPropertySchema = new PropertySchema(keys, memoized);
+        }
+        return res;
     }
 
     @Override
@@ -60,6 +128,48 @@ public class StandardWebGraphPropertyProvider implements WebGraphPropertyProvide
         return vertexProperty.get(nodeId);
     }
 
+    @Override
+    public void vertexProperties(String key, long[] vertexIds, Object[] values) {
+        VertexProperty<?> vertexProperty = vertexProperties.get(key);
+        if (vertexProperty == null) {
+            Arrays.fill(values, 0, vertexIds.length, null);
+            return;
+        }
+        vertexProperty.get(vertexIds, values);
+    }
+
+    @Override
+    public boolean vertexProperties(String key, long[] vertexIds, long[] values) {
+        VertexProperty<?> vertexProperty = vertexProperties.get(key);
+        return vertexProperty != null && vertexProperty.get(vertexIds, values);
+    }
+
+    @Override
+    public LongPredicate vertexPropertyFilter(String key, P<?> predicate) {
+        VertexProperty<?> vertexProperty = vertexProperties.get(key);
+        return vertexProperty == null ? null : vertexProperty.filter(predicate);
+    }
+
+    /**
+     * Register an index of a vertex property, e.g. a {@link RangeVertexPropertyIndex} or a {@link HashVertexPropertyIndex}.
+     * The property must be registered first.
+     *
+     * @param index the index to register in the provider.
+     */
+    public void addVertexPropertyIndex(VertexPropertyIndex index) {
+        if (!vertexProperties.containsKey(index.getKey())) {
+            throw new IllegalArgumentException("Unknown vertex property: " + index.getKey());
+        }
+        if (vertexPropertyIndexes.put(index.getKey(), index) != null) {
+            throw new IllegalArgumentException("Index already exists: " + index.getKey());
+        }
+    }
+
+    @Override
+    public VertexPropertyIndex vertexPropertyIndex(String key) {
+        return vertexPropertyIndexes.get(key);
+    }
+
     /**
      * Defines the label of an edge.
      *
@@ -67,6 +177,7 @@ public class StandardWebGraphPropertyProvider implements WebGraphPropertyProvide
      */
     public void setEdgeLabeller(BiFunction<Long, Long, String> labeller) {
         this.edgeLabeller = labeller;
+        this.edgeLabels = null;
     }
 
     @Override
@@ -74,8 +185,23 @@ public class StandardWebGraphPropertyProvider implements WebGraphPropertyProvide
         return edgeLabeller.apply(fromId, toId);
     }
 
+    @Override
+    public String[] edgeLabelDictionary() {
+        return edgeLabels;
+    }
+
+    @Override
+    public byte edgeLabelId(long fromId, long toId) {
+        if (edgeLabels == null) {
+            throw new UnsupportedOperationException("Edge label ids are not supported by the edge labeller");
+        }
+        return 0;
+    }
+
     /**
      * Register an edge property in the provider. TinkerPop will be able to request this property by key.
+     * The labelled graph of the first property based on arc labels becomes the {@link #arcLabelledGraph()},
+     * and its transpose, if any, the {@link #transposedArcLabelledGraph()}.
      *
      * @param edgeProperty the property to register in the provider.
      * @see EdgeProperty
@@ -84,11 +210,28 @@ public class StandardWebGraphPropertyProvider implements WebGraphPropertyProvide
         if (edgeProperties.put(edgeProperty.getKey(), edgeProperty) != null) {
             throw new IllegalArgumentException("Key already exists: " + edgeProperty.getKey());
         }
+        if (arcLabelledGraph == null) {
+            arcLabelledGraph = edgeProperty.labelledGraph();
+            transposedArcLabelledGraph = edgeProperty.transposedLabelledGraph();
+        }
+        edgePropertySchema = null;
     }
 
     @Override
     public String[] edgeProperties(long fromId, long toId) {
-        return edgeProperties.keySet().toArray(String[]::new);
+        return edgePropertySchema().keys();
+    }
+
+    @Override
+    public PropertySchema edgePropertySchema() {
+        PropertySchema res = edgePropertySchema;
+        if (res == null) {
+            String[] keys = edgeProperties.keySet().toArray(String[]::new);
+            boolean[] memoized = new boolean[keys.length];
+            Arrays.fill(memoized, true);
+            res = edgePropertySchema = new PropertySchema(keys, memoized);
+        }
+        return res;
     }
 
     @Override
@@ -99,4 +242,47 @@ public class StandardWebGraphPropertyProvider implements WebGraphPropertyProvide
         }
         return edgeProperty.get(fromId, toId);
     }
+
+    @Override
+    public ArcLabelledImmutableGraph arcLabelledGraph() {
+        return arcLabelledGraph;
+    }
+
+    @Override
+    public ArcLabelledImmutableGraph transposedArcLabelledGraph() {
+        return transposedArcLabelledGraph;
+    }
+
+    @Override
+    public Object edgeProperty(String key, long fromId, long toId, Label arcLabel) {
+        EdgeProperty<?> edgeProperty = edgeProperties.get(key);
+        if (edgeProperty == null) {
+            return null;
+        }
+        if (arcLabel != null && edgeProperty.labelledGraph() == arcLabelledGraph) {
+            return edgeProperty.get(fromId, toId, arcLabel);
+        }
+        return edgeProperty.get(fromId, toId);
+    }
+
+    @Override
+    public Predicate<Label> edgePropertyFilter(String key, P<?> predicate) {
+        EdgeProperty<?> edgeProperty = edgeProperties.get(key);
+        if (edgeProperty == null || arcLabelledGraph == null || edgeProperty.labelledGraph() != arcLabelledGraph) {
+            return null;
+        }
+        return edgeProperty.arcLabelFilter(predicate);
+    }
+
+    @Override
+    public Object edgeProperty(String key, long arcId, long fromId, long toId, Label arcLabel) {
+        EdgeProperty<?> edgeProperty = edgeProperties.get(key);
+        if (edgeProperty == null) {
+            return null;
+        }
+        if (arcLabel != null && edgeProperty.labelledGraph() == arcLabelledGraph) {
+            return edgeProperty.get(fromId, toId, arcLabel);
+        }
+        return edgeProperty.get(arcId, fromId, toId);
+    }
 }
@@ -1,5 +1,13 @@
 package org.webgraph.tinkerpop.structure.provider;
 
+import it.unimi.dsi.big.webgraph.labelling.ArcLabelledImmutableGraph;
+import it.unimi.dsi.big.webgraph.labelling.Label;
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.webgraph.tinkerpop.structure.property.vertex.index.VertexPropertyIndex;
+
+import java.util.function.LongPredicate;
+import java.util.function.Predicate;
+
 /**
  * This interface defines methods to be provided to the TinkerPop implementation.
  * The methods include fetching vertex/edge labels and properties, as well as associated property keys.
@@ -15,6 +23,26 @@ public interface WebGraphPropertyProvider {
      */
     String vertexLabel(long vertexId);
 
+    /**
+     * Returns all possible vertex labels, indexed by label id.
+     * Providers which return a dictionary must implement {@link #vertexLabelId(long)}.
+     *
+     * @return the vertex label dictionary, or null if label ids are not supported
+     */
+    default String[] vertexLabelDictionary() {
+        return null;
+    }
+
+    /**
+     * Returns the id of the label associated with a vertex, i.e. its index in {@link #vertexLabelDictionary()}.
+     *
+     * @param vertexId the id of the vertex
+     * @return the associated label id
+     */
+    default byte vertexLabelId(long vertexId) {
+        throw new UnsupportedOperationException("Vertex label ids are not supported");
+    }
+
     /**
      * Returns keys of all properties, available for this vertex.
      *
@@ -23,6 +51,16 @@ public interface WebGraphPropertyProvider {
      */
     String[] vertexProperties(long vertexId);
 
+    /**
+     * Returns the keys of the properties of all vertices, with the index of their values in the vertices.
+     * If a schema is returned, {@link #vertexProperties(long)} returns its keys for every vertex.
+     *
+     * @return the schema, or null if the keys depend on the vertex
+     */
+    default PropertySchema vertexPropertySchema() {
+        return null;
+    }
+
     /**
      * Returns the value of the property associated with a vertex.
      *
@@ -32,6 +70,57 @@ public interface WebGraphPropertyProvider {
      */
     Object vertexProperty(String key, long vertexId);
 
+    /**
+     * Returns the values of a property for several vertices.
+     * Providers reading properties from files should read the vertices in increasing id order.
+     *
+     * @param key       the key of the property
+     * @param vertexIds the ids of the vertices, in any order
+     * @param values    receives the value of each vertex, or null, at the index of its id
+     */
+    default void vertexProperties(String key, long[] vertexIds, Object[] values) {
+        for (int i = 0; i < vertexIds.length; i++) {
+            values[i] = vertexProperty(key, vertexIds[i]);
+        }
+    }
+
+    /**
+     * Returns the values of a property for several vertices without boxing, if its values are {@code long}s.
+     *
+     * @param key       the key of the property
+     * @param vertexIds the ids of the vertices, in any order
+     * @param values    receives the value of each vertex, or {@link Long#MIN_VALUE} if it has none, at the index of its id
+     * @return {@code false} if the property values are not available as {@code long}s, in which case
+     * {@link #vertexProperties(String, long[], Object[])} must be used
+     */
+    default boolean vertexProperties(String key, long[] vertexIds, long[] values) {
+        return false;
+    }
+
+    /**
+     * Returns a predicate on vertex ids testing a property without materializing its values, e.g. by comparing the
+     * bytes of strings stored in a file. Used by filters compiled by
+     * {@link org.webgraph.tinkerpop.process.traversal.util.VertexFilters}.
+     *
+     * @param key       the key of the property
+     * @param predicate the predicate on the values of the property
+     * @return a predicate on vertex ids, which is false for vertices without a value,
+     * or null if the property values must be tested with {@link #vertexProperty(String, long)}
+     */
+    default LongPredicate vertexPropertyFilter(String key, P<?> predicate) {
+        return null;
+    }
+
+    /**
+     * Returns the secondary index of a vertex property, used to answer {@code has()} filters at the start of a traversal.
+     *
+     * @param key the key of the property
+     * @return the index, or null if the property is not indexed
+     */
+    default VertexPropertyIndex vertexPropertyIndex(String key) {
+        return null;
+    }
+
     /**
      * Returns keys of all properties, available for this edge.
      *
@@ -41,6 +130,16 @@ public interface WebGraphPropertyProvider {
      */
     String[] edgeProperties(long fromId, long toId);
 
+    /**
+     * Returns the keys of the properties of all edges, with the index of their values in the edges.
+     * If a schema is returned, {@link #edgeProperties(long, long)} returns its keys for every edge.
+     *
+     * @return the schema, or null if the keys depend on the edge
+     */
+    default PropertySchema edgePropertySchema() {
+        return null;
+    }
+
     /**
      * Returns the label associated with an edge.
      * An edge can only have one label.
@@ -51,6 +150,27 @@ public interface WebGraphPropertyProvider {
      */
     String edgeLabel(long fromId, long toId);
 
+    /**
+     * Returns all possible edge labels, indexed by label id.
+     * Providers which return a dictionary must implement {@link #edgeLabelId(long, long)}.
+     *
+     * @return the edge label dictionary, or null if label ids are not supported
+     */
+    default String[] edgeLabelDictionary() {
+        return null;
+    }
+
+    /**
+     * Returns the id of the label associated with an edge, i.e. its index in {@link #edgeLabelDictionary()}.
+     *
+     * @param fromId the id of the outgoing vertex (tail of the edge)
+     * @param toId   the id of the in vertex (head of the edge)
+     * @return the associated label id
+     */
+    default byte edgeLabelId(long fromId, long toId) {
+        throw new UnsupportedOperationException("Edge label ids are not supported");
+    }
+
     /**
      * Returns the value of the property associated with an edge.
      *
@@ -61,4 +181,71 @@ public interface WebGraphPropertyProvider {
      */
     Object edgeProperty(String key, long fromId, long toId);
 
+    /**
+     * Returns the arc-labelled graph whose labels back some of the edge properties, see
+     * {@link org.webgraph.tinkerpop.structure.property.edge.ArcLabelEdgeProperty}.
+     * Its successor lists must be those of the base graph: outgoing edges are then enumerated from it,
+     * and carry the label of their arc, see {@link #edgeProperty(String, long, long, Label)}.
+     *
+     * @return the labelled graph, or null if no edge property is based on arc labels
+     */
+    default ArcLabelledImmutableGraph arcLabelledGraph() {
+        return null;
+    }
+
+    /**
+     * Returns the transpose of {@link #arcLabelledGraph()}, with the same label on each reversed arc.
+     * Its successor lists must be the predecessor lists of the base graph: incoming edges are then enumerated
+     * from it, and carry the label of their arc.
+     *
+     * @return the transposed labelled graph, or null if there is none
+     */
+    default ArcLabelledImmutableGraph transposedArcLabelledGraph() {
+        return null;
+    }
+
+    /**
+     * Returns the value of the property associated with an edge, whose label in {@link #arcLabelledGraph()}
+     * or {@link #transposedArcLabelledGraph()} has already been read. Properties based on arc labels are computed from it, without a lookup in the labelled graph.
+     *
+     * @param key      the key of the property
+     * @param fromId   the id of the outgoing vertex
+     * @param toId     the id of the in vertex
+     * @param arcLabel the label of the arc, or null if it is not known
+     * @return the value of the property, or null of no value is present
+     */
+    default Object edgeProperty(String key, long fromId, long toId, Label arcLabel) {
+        return edgeProperty(key, fromId, toId);
+    }
+
+    /**
+     * Returns a predicate on the arc labels of {@link #arcLabelledGraph()} (and of its transpose) testing an edge
+     * property, so that edges are filtered while the labelled successors are iterated, before they are created.
+     * Used by {@link org.webgraph.tinkerpop.process.traversal.strategy.optimization.WebGraphEdgePropertyStrategy}.
+     *
+     * @param key       the key of the property
+     * @param predicate the predicate on the values of the property
+     * @return a predicate on arc labels, which is false for edges without a value,
+     * or null if the property is not computed from the arc labels
+     */
+    default Predicate<Label> edgePropertyFilter(String key, P<?> predicate) {
+        return null;
+    }
+
+    /**
+     * Returns the value of the property associated with an edge, whose arc id is known when edges are identified
+     * by arc ids. Properties stored per arc, such as
+     * {@link org.webgraph.tinkerpop.structure.property.edge.FileEdgeProperty}, are then read without a lookup in the graph.
+     *
+     * @param key      the key of the property
+     * @param arcId    the id of the arc, see {@link org.webgraph.tinkerpop.util.ArcIndex}, or -1 if it is not known
+     * @param fromId   the id of the outgoing vertex
+     * @param toId     the id of the in vertex
+     * @param arcLabel the label of the arc, or null if it is not known
+     * @return the value of the property, or null of no value is present
+     */
+    default Object edgeProperty(String key, long arcId, long fromId, long toId, Label arcLabel) {
+        return edgeProperty(key, fromId, toId, arcLabel);
+    }
+
 }
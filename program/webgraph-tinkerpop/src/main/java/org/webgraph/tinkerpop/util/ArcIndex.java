@@ -0,0 +1,149 @@
+package org.webgraph.tinkerpop.util;
+
+import it.unimi.dsi.big.webgraph.ImmutableGraph;
+import it.unimi.dsi.big.webgraph.LazyLongIterator;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.sux4j.util.EliasFanoMonotoneLongBigList;
+
+/**
+ * Numbers the arcs of a graph with consecutive {@code long} ids.
+ * <p>
+ * The id of an arc is the offset of its source node, i.e. the sum of the outdegrees of all preceding nodes,
+ * plus the position of the target in the successor list of the source.
+ * Offsets are kept in an {@link EliasFanoMonotoneLongBigList}, which takes a few bits per node
+ * and supports constant-time random access without internal state, so the index can be shared by threads.
+ * Methods reading successor lists take the graph as a parameter, so that each thread can pass its own copy.
+ */
+public class ArcIndex {
+    private final EliasFanoMonotoneLongBigList offsets;
+    private final long numNodes;
+    private final long numArcs;
+
+    /**
+     * Builds the index with a sequential scan of the outdegrees of the graph.
+     *
+     * @param graph the graph
+     */
+    public ArcIndex(ImmutableGraph graph) {
+        this.numNodes = graph.numNodes();
+        this.numArcs = graph.numArcs();
+        LongIterator outdegrees = graph.outdegrees();
+        this.offsets = new EliasFanoMonotoneLongBigList(graph.numNodes() + 1, numArcs + 1, new LongIterator() {
+            long offset = 0;
+            boolean first = true;
+
+            @Override
+            public boolean hasNext() {
+                return first || outdegrees.hasNext();
+            }
+
+            @Override
+            public long nextLong() {
+                if (first) {
+                    first = false;
+                } else {
+                    offset += outdegrees.nextLong();
+                }
+                return offset;
+            }
+        });
+    }
+
+    /**
+     * @return the number of arcs, which is also the upper bound (exclusive) of arc ids
+     */
+    public long numArcs() {
+        return numArcs;
+    }
+
+    /**
+     * Returns the id of the first arc leaving a node.
+     *
+     * @param node the node
+     * @return the offset of the node
+     */
+    public long offset(long node) {
+        return offsets.getLong(node);
+    }
+
+    /**
+     * Returns the id of an arc.
+     *
+     * @param graph the indexed graph, or a copy of it
+     * @param from  the source of the arc
+     * @param to    the target of the arc
+     * @return the arc id, or -1 if the arc does not exist
+     */
+    public long arcId(ImmutableGraph graph, long from, long to) {
+        long position = successorIndex(graph, from, to);
+        return position == -1 ? -1 : offset(from) + position;
+    }
+
+    /**
+     * Returns the source of an arc.
+     *
+     * @param arcId the arc id
+     * @return the source node
+     */
+    public long source(long arcId) {
+        // the last node whose offset is not greater than the arc id; nodes without arcs share the offset of the next one
+        long low = 0;
+        long high = numNodes - 1;
+        while (low < high) {
+            long mid = (low + high + 1) >>> 1;
+            if (offsets.getLong(mid) <= arcId) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Returns the target of an arc whose source is already known.
+     *
+     * @param graph the indexed graph, or a copy of it
+     * @param arcId the arc id
+     * @param from  the source of the arc, as returned by {@link #source(long)}
+     * @return the target node
+     */
+    public long target(ImmutableGraph graph, long arcId, long from) {
+        LazyLongIterator successors = graph.successors(from);
+        successors.skip(arcId - offset(from));
+        return successors.nextLong();
+    }
+
+    /**
+     * Checks whether an id belongs to an arc of the graph.
+     *
+     * @param arcId the arc id
+     * @return {@code true} if the arc exists
+     */
+    public boolean contains(long arcId) {
+        return arcId >= 0 && arcId < numArcs;
+    }
+
+    /**
+     * Finds the position of a node in the successor list of another node.
+     * Relies on successor lists being sorted, as they are in all WebGraph formats.
+     *
+     * @param graph the graph
+     * @param from  the source of the arc
+     * @param to    the target of the arc
+     * @return the position of {@code to} among the successors of {@code from}, or -1 if there is no such arc
+     */
+    public static long successorIndex(ImmutableGraph graph, long from, long to) {
+        if (from < 0 || from >= graph.numNodes()) {
+            return -1;
+        }
+        LazyLongIterator successors = graph.successors(from);
+        long position = 0;
+        for (long next; (next = successors.nextLong()) != -1 && next <= to; position++) {
+            if (next == to) {
+                return position;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,156 @@
+package org.webgraph.tinkerpop.util;
+
+import it.unimi.dsi.fastutil.bytes.ByteBigList;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A string stored as UTF-8 bytes in a {@link ByteBigList}, e.g. a memory-mapped property file, read without copying.
+ * <p>
+ * Byte comparisons ({@link #contentEquals(byte[])}, {@link #startsWith(byte[])}, {@link #endsWith(byte[])},
+ * {@link #contains(byte[])}) do not decode the string: as UTF-8 encodes each code point with a unique
+ * byte sequence, they give the same results as the corresponding {@link String} methods on the decoded strings.
+ * The {@link CharSequence} methods decode the string on first use, and keep it.
+ * <p>
+ * Reads from the list use absolute positions only, so a view may be read by other threads than the one creating it,
+ * as long as the list supports concurrent absolute reads, as {@link it.unimi.dsi.fastutil.bytes.ByteMappedBigList} does.
+ */
+public class Utf8View implements CharSequence {
+    private final ByteBigList bytes;
+    private final long offset;
+    private final int length;
+    private String decoded;
+
+    /**
+     * @param bytes  the list storing the string
+     * @param offset the position of the first byte of the string
+     * @param length the length of the string in bytes
+     */
+    public Utf8View(ByteBigList bytes, long offset, int length) {
+        this.bytes = bytes;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    /**
+     * @return the length of the string in bytes
+     */
+    public int byteLength() {
+        return length;
+    }
+
+    /**
+     * @param index the index of a byte of the string
+     * @return the byte
+     */
+    public byte byteAt(int index) {
+        return bytes.getByte(offset + index);
+    }
+
+    /**
+     * @return a copy of the bytes of the string
+     */
+    public byte[] toByteArray() {
+        byte[] res = new byte[length];
+        bytes.getElements(offset, res, 0, length);
+        return res;
+    }
+
+    /**
+     * @param other UTF-8 bytes
+     * @return whether the string consists of the given bytes
+     */
+    public boolean contentEquals(byte[] other) {
+        return length == other.length && regionMatches(0, other);
+    }
+
+    /**
+     * @param prefix UTF-8 bytes
+     * @return whether the string starts with the given bytes
+     */
+    public boolean startsWith(byte[] prefix) {
+        return prefix.length <= length && regionMatches(0, prefix);
+    }
+
+    /**
+     * @param suffix UTF-8 bytes
+     * @return whether the string ends with the given bytes
+     */
+    public boolean endsWith(byte[] suffix) {
+        return suffix.length <= length && regionMatches(length - suffix.length, suffix);
+    }
+
+    /**
+     * @param infix UTF-8 bytes
+     * @return whether the string contains the given bytes
+     */
+    public boolean contains(byte[] infix) {
+        for (int i = 0; i <= length - infix.length; i++) {
+            if (regionMatches(i, infix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean regionMatches(int from, byte[] other) {
+        for (int i = 0; i < other.length; i++) {
+            if (bytes.getByte(offset + from + i) != other[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int length() {
+        return toString().length();
+    }
+
+    @Override
+    public char charAt(int index) {
+        return toString().charAt(index);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        return toString().subSequence(start, end);
+    }
+
+    @Override
+    public String toString() {
+        if (decoded == null) {
+            decoded = new String(toByteArray(), StandardCharsets.UTF_8);
+        }
+        return decoded;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof Utf8View)) {
+            return false;
+        }
+        Utf8View other = (Utf8View) obj;
+        if (length != other.length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (byteAt(i) != other.byteAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int res = 1;
+        for (int i = 0; i < length; i++) {
+            res = 31 * res + byteAt(i);
+        }
+        return res;
+    }
+}
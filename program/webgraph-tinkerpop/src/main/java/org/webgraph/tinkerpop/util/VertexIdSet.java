@@ -0,0 +1,240 @@
+package org.webgraph.tinkerpop.util;
+
+import it.unimi.dsi.bits.LongBigArrayBitVector;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.BigArrays;
+import it.unimi.dsi.fastutil.longs.LongArrays;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * A set of vertex ids of a graph with a known number of nodes.
+ * <p>
+ * Small sets are kept in a {@link LongOpenHashSet}. Once the set grows to the point where a bitset over all
+ * nodes is smaller, it switches to a {@link LongBigArrayBitVector}, which takes one bit per node of the graph.
+ */
+public class VertexIdSet {
+    /**
+     * Approximate memory taken by a single element of {@link LongOpenHashSet}, in bits.
+     */
+    private static final long SPARSE_BITS_PER_ELEMENT = 128;
+
+    private final long numNodes;
+    private LongOpenHashSet sparse;
+    private LongBigArrayBitVector dense;
+    private long size;
+
+    /**
+     * Constructs an empty set, which starts sparse.
+     *
+     * @param numNodes the number of nodes in the graph
+     */
+    public VertexIdSet(long numNodes) {
+        this(numNodes, 0);
+    }
+
+    /**
+     * Constructs an empty set, choosing the representation based on the expected number of elements.
+     *
+     * @param numNodes     the number of nodes in the graph
+     * @param expectedSize the expected number of elements
+     */
+    public VertexIdSet(long numNodes, long expectedSize) {
+        this.numNodes = numNodes;
+        if (shouldBeDense(expectedSize)) {
+            this.dense = LongBigArrayBitVector.ofLength(numNodes);
+        } else {
+            this.sparse = new LongOpenHashSet();
+        }
+    }
+
+    /**
+     * Adds a vertex id to the set.
+     *
+     * @param id the vertex id
+     * @return {@code true} if the set did not contain the id
+     */
+    public boolean add(long id) {
+        if (dense != null) {
+            if (dense.getBoolean(id)) {
+                return false;
+            }
+            dense.set(id);
+        } else {
+            if (!sparse.add(id)) {
+                return false;
+            }
+            if (shouldBeDense(sparse.size())) {
+                toDense();
+            }
+        }
+        size++;
+        return true;
+    }
+
+    /**
+     * Checks whether the set contains a vertex id.
+     *
+     * @param id the vertex id
+     * @return {@code true} if the set contains the id
+     */
+    public boolean contains(long id) {
+        return dense != null ? dense.getBoolean(id) : sparse.contains(id);
+    }
+
+    /**
+     * Returns the number of ids in the set.
+     *
+     * @return the number of ids in the set
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Returns the approximate heap memory taken by the set.
+     *
+     * @return the estimated size of the set in bytes
+     */
+    public long memoryBytes() {
+        return dense != null ? (numNodes + 7) / 8 : sparse.size() * SPARSE_BITS_PER_ELEMENT / 8;
+    }
+
+    /**
+     * Returns {@code true} if the set is backed by a bitset.
+     *
+     * @return {@code true} if the set is backed by a bitset
+     */
+    public boolean isDense() {
+        return dense != null;
+    }
+
+    /**
+     * Removes all ids from the set, keeping the current representation.
+     */
+    public void clear() {
+        if (dense != null) {
+            dense.fill(false);
+        } else {
+            sparse.clear();
+        }
+        size = 0;
+    }
+
+    private boolean shouldBeDense(long expectedSize) {
+        return expectedSize * SPARSE_BITS_PER_ELEMENT >= numNodes;
+    }
+
+    private void toDense() {
+        dense = LongBigArrayBitVector.ofLength(numNodes);
+        LongIterator it = sparse.iterator();
+        while (it.hasNext()) {
+            dense.set(it.nextLong());
+        }
+        sparse = null;
+    }
+
+    /**
+     * Writes the set in a compact form: a dense set as its bitset, a sparse set as the gaps between its sorted ids.
+     * Long runs of equal bits are left to a general-purpose compressor applied to the output.
+     *
+     * @param out the output
+     * @throws IOException if the output fails
+     */
+    public void write(DataOutput out) throws IOException {
+        out.writeBoolean(dense != null);
+        out.writeLong(size);
+        if (dense != null) {
+            long[][] bits = dense.bigBits();
+            long words = (numNodes + Long.SIZE - 1) / Long.SIZE;
+            for (long i = 0; i < words; i++) {
+                out.writeLong(BigArrays.get(bits, i));
+            }
+        } else {
+            long[] ids = sparse.toLongArray();
+            LongArrays.radixSort(ids);
+            long prev = -1;
+            for (long id : ids) {
+                writeVarLong(out, id - prev);
+                prev = id;
+            }
+        }
+    }
+
+    /**
+     * Reads a set written by {@link #write(DataOutput)}.
+     * The size and every id are checked against the number of nodes before anything is allocated or added,
+     * so that a corrupted input is rejected rather than exhausting the memory.
+     *
+     * @param in       the input
+     * @param numNodes the number of nodes in the graph, as when the set was written
+     * @return the set
+     * @throws IOException if the input fails or does not hold a valid set
+     */
+    public static VertexIdSet read(DataInput in, long numNodes) throws IOException {
+        boolean isDense = in.readBoolean();
+        long size = in.readLong();
+        if (size < 0 || size > numNodes) {
+            throw new IOException("Invalid size " + size + " of a set of ids of " + numNodes + " nodes");
+        }
+        VertexIdSet res = new VertexIdSet(numNodes, isDense ? numNodes : 0);
+        if (isDense) {
+            long[][] bits = res.dense.bigBits();
+            long words = (numNodes + Long.SIZE - 1) / Long.SIZE;
+            long count = 0;
+            for (long i = 0; i < words; i++) {
+                long word = in.readLong();
+                if (i == words - 1 && numNodes % Long.SIZE != 0 && word >>> (numNodes % Long.SIZE) != 0) {
+                    throw new IOException("Id out of range in a set of ids of " + numNodes + " nodes");
+                }
+                BigArrays.set(bits, i, word);
+                count += Long.bitCount(word);
+            }
+            if (count != size) {
+                throw new IOException("Set of " + count + " ids, expected " + size);
+            }
+            res.size = size;
+        } else {
+            long prev = -1;
+            for (long i = 0; i < size; i++) {
+                long gap = readVarLong(in);
+                if (gap <= 0 || gap > numNodes - 1 - prev) {
+                    throw new IOException("Id out of range in a set of ids of " + numNodes + " nodes");
+                }
+                prev += gap;
+                res.add(prev);
+            }
+        }
+        return res;
+    }
+
+    private static void writeVarLong(DataOutput out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long readVarLong(DataInput in) throws IOException {
+        long res = 0;
+        for (int shift = 0; ; shift += 7) {
+            if (shift >= Long.SIZE) {
+                throw new IOException("Malformed variable-length long");
+            }
+            byte b = in.readByte();
+            res |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return res;
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "VertexIdSet[size=" + size + (isDense() ? ", dense" : ", sparse") + "]";
+    }
+}
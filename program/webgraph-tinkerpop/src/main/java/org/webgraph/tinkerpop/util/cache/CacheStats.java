@@ -0,0 +1,51 @@
+package org.webgraph.tinkerpop.util.cache;
+
+/**
+ * A snapshot of cache counters.
+ */
+public class CacheStats {
+    private final long hitCount;
+    private final long missCount;
+    private final long evictionCount;
+
+    public CacheStats(long hitCount, long missCount, long evictionCount) {
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.evictionCount = evictionCount;
+    }
+
+    /**
+     * @return the number of lookups which found a cached value
+     */
+    public long hitCount() {
+        return hitCount;
+    }
+
+    /**
+     * @return the number of lookups which did not find a cached value
+     */
+    public long missCount() {
+        return missCount;
+    }
+
+    /**
+     * @return the number of values evicted from the cache or rejected by its admission policy
+     */
+    public long evictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * @return the ratio of hits to all lookups, or {@code 1} if there were no lookups
+     */
+    public double hitRate() {
+        long total = hitCount + missCount;
+        return total == 0 ? 1.0 : 1.0 * hitCount / total;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("CacheStats[hits=%d, misses=%d, evictions=%d, hitRate=%.2f]",
+                hitCount, missCount, evictionCount, hitRate());
+    }
+}
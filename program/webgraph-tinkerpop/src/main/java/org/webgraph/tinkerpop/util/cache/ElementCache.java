@@ -0,0 +1,64 @@
+package org.webgraph.tinkerpop.util.cache;
+
+import java.util.function.LongFunction;
+
+/**
+ * A bounded cache of graph elements with primitive {@code long} keys.
+ * <p>
+ * Implementations must be thread-safe.
+ *
+ * @param <V> the type of cached elements
+ */
+public interface ElementCache<V> {
+
+    /**
+     * Returns the cached value for the key, or {@code null} if it is not cached.
+     *
+     * @param key the key
+     * @return the cached value, or {@code null}
+     */
+    V getIfPresent(long key);
+
+    /**
+     * Offers a value to the cache. The cache may decide not to keep it.
+     *
+     * @param key   the key
+     * @param value the value
+     */
+    void put(long key, V value);
+
+    /**
+     * Returns the cached value for the key, computing and offering it to the cache if it is not cached.
+     *
+     * @param key             the key
+     * @param mappingFunction the function computing the value
+     * @return the cached or computed value
+     */
+    default V computeIfAbsent(long key, LongFunction<? extends V> mappingFunction) {
+        V value = getIfPresent(key);
+        if (value == null) {
+            value = mappingFunction.apply(key);
+            put(key, value);
+        }
+        return value;
+    }
+
+    /**
+     * Removes all values from the cache. Statistics are not reset.
+     */
+    void clear();
+
+    /**
+     * Returns the number of cached values.
+     *
+     * @return the number of cached values
+     */
+    long size();
+
+    /**
+     * Returns the hit/miss/eviction counters of this cache.
+     *
+     * @return the cache statistics
+     */
+    CacheStats stats();
+}
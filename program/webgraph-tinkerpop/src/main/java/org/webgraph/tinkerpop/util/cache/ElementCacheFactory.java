@@ -0,0 +1,19 @@
+package org.webgraph.tinkerpop.util.cache;
+
+/**
+ * Creates element caches for {@code WebGraphGraph}.
+ * <p>
+ * A custom implementation can be selected with the {@code webgraph.cache.factory} configuration key,
+ * which holds the name of a class with a public no-argument constructor.
+ */
+public interface ElementCacheFactory {
+
+    /**
+     * Creates a cache holding up to {@code capacity} elements.
+     *
+     * @param capacity the maximum number of cached elements
+     * @param <V>      the type of cached elements
+     * @return the cache
+     */
+    <V> ElementCache<V> create(long capacity);
+}
@@ -0,0 +1,67 @@
+package org.webgraph.tinkerpop.util.cache;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A synchronized least-recently-used cache.
+ * <p>
+ * A single large scan evicts all other entries, see {@link TinyLfuElementCache} for a scan-resistant alternative.
+ */
+public class LruElementCache<V> implements ElementCache<V> {
+    private final long capacity;
+    private final Long2ObjectLinkedOpenHashMap<V> map = new Long2ObjectLinkedOpenHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public LruElementCache(long capacity) {
+        this.capacity = capacity;
+    }
+
+    @Override
+    public synchronized V getIfPresent(long key) {
+        V value = map.getAndMoveToLast(key);
+        (value != null ? hits : misses).increment();
+        return value;
+    }
+
+    @Override
+    public synchronized void put(long key, V value) {
+        if (capacity == 0) {
+            evictions.increment();
+            return;
+        }
+        map.putAndMoveToLast(key, value);
+        if (map.size() > capacity) {
+            map.removeFirst();
+            evictions.increment();
+        }
+    }
+
+    @Override
+    public synchronized void clear() {
+        map.clear();
+    }
+
+    @Override
+    public synchronized long size() {
+        return map.size();
+    }
+
+    @Override
+    public CacheStats stats() {
+        return new CacheStats(hits.sum(), misses.sum(), evictions.sum());
+    }
+
+    /**
+     * Creates {@link LruElementCache}s.
+     */
+    public static class Factory implements ElementCacheFactory {
+        @Override
+        public <V> ElementCache<V> create(long capacity) {
+            return new LruElementCache<>(capacity);
+        }
+    }
+}
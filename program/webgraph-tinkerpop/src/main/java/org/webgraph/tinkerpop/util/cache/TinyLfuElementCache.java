@@ -0,0 +1,194 @@
+package org.webgraph.tinkerpop.util.cache;
+
+import it.unimi.dsi.fastutil.HashCommon;
+import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A striped, scan-resistant cache with a W-TinyLFU admission policy.
+ * <p>
+ * Keys are spread over independently locked segments. Each segment keeps new entries in a small LRU window.
+ * An entry leaving the window is admitted to the main LRU region only if it was requested more often
+ * than the entry it would evict, according to a 4-bit count-min sketch of recent key frequencies.
+ * A one-off scan over many elements therefore only churns the window and does not evict popular elements.
+ */
+public class TinyLfuElementCache<V> implements ElementCache<V> {
+    private static final int MIN_SEGMENT_CAPACITY = 64;
+
+    private final Segment<V>[] segments;
+    private final int segmentMask;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public TinyLfuElementCache(long capacity) {
+        int maxSegments = HashCommon.nextPowerOfTwo(Runtime.getRuntime().availableProcessors() * 4);
+        int segmentCount = 1;
+        while (segmentCount < maxSegments && capacity / (segmentCount * 2L) >= MIN_SEGMENT_CAPACITY) {
+            segmentCount *= 2;
+        }
+        this.segments = new Segment[segmentCount];
+        this.segmentMask = segmentCount - 1;
+        for (int i = 0; i < segmentCount; i++) {
+            long segmentCapacity = capacity / segmentCount + (i < capacity % segmentCount ? 1 : 0);
+            segments[i] = new Segment<>(segmentCapacity);
+        }
+    }
+
+    private Segment<V> segmentFor(long key) {
+        return segments[(int) (HashCommon.mix(key) >>> 32) & segmentMask];
+    }
+
+    @Override
+    public V getIfPresent(long key) {
+        V value = segmentFor(key).get(key);
+        (value != null ? hits : misses).increment();
+        return value;
+    }
+
+    @Override
+    public void put(long key, V value) {
+        if (segmentFor(key).put(key, value)) {
+            evictions.increment();
+        }
+    }
+
+    @Override
+    public void clear() {
+        for (Segment<V> segment : segments) {
+            segment.clear();
+        }
+    }
+
+    @Override
+    public long size() {
+        long size = 0;
+        for (Segment<V> segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    @Override
+    public CacheStats stats() {
+        return new CacheStats(hits.sum(), misses.sum(), evictions.sum());
+    }
+
+    private static class Segment<V> {
+        private final Long2ObjectLinkedOpenHashMap<V> window = new Long2ObjectLinkedOpenHashMap<>();
+        private final Long2ObjectLinkedOpenHashMap<V> main = new Long2ObjectLinkedOpenHashMap<>();
+        private final long windowCapacity;
+        private final long mainCapacity;
+        private final FrequencySketch sketch;
+
+        Segment(long capacity) {
+            this.windowCapacity = capacity == 0 ? 0 : Math.max(1, capacity / 100);
+            this.mainCapacity = capacity - windowCapacity;
+            this.sketch = new FrequencySketch(capacity);
+        }
+
+        synchronized V get(long key) {
+            sketch.increment(key);
+            V value = window.getAndMoveToLast(key);
+            return value != null ? value : main.getAndMoveToLast(key);
+        }
+
+        /**
+         * @return {@code true} if an entry was evicted or rejected
+         */
+        synchronized boolean put(long key, V value) {
+            if (main.containsKey(key)) {
+                main.put(key, value);
+                return false;
+            }
+            if (windowCapacity == 0) {
+                return true;
+            }
+            window.putAndMoveToLast(key, value);
+            if (window.size() <= windowCapacity) {
+                return false;
+            }
+            long candidateKey = window.firstLongKey();
+            V candidate = window.removeFirst();
+            if (main.size() < mainCapacity) {
+                main.putAndMoveToLast(candidateKey, candidate);
+                return false;
+            }
+            if (mainCapacity > 0 && sketch.frequency(candidateKey) > sketch.frequency(main.firstLongKey())) {
+                main.removeFirst();
+                main.putAndMoveToLast(candidateKey, candidate);
+            }
+            return true;
+        }
+
+        synchronized void clear() {
+            window.clear();
+            main.clear();
+        }
+
+        synchronized long size() {
+            return window.size() + main.size();
+        }
+    }
+
+    /**
+     * A count-min sketch with four 4-bit counters per key. All counters are halved periodically,
+     * so that the sketch reflects recent frequencies.
+     */
+    private static class FrequencySketch {
+        private static final long[] SEEDS = {0x97cb3127L, 0x5fe7f6c3L, 0xbe1a2a8bL, 0x3c6ef372L};
+        private static final long RESET_MASK = 0x7777777777777777L;
+        private static final int MAX_TABLE_SIZE = 1 << 24;
+
+        private final long[] table;
+        private final long counterMask;
+        private final long sampleSize;
+        private long additions;
+
+        FrequencySketch(long capacity) {
+            int size = (int) Math.min(MAX_TABLE_SIZE, HashCommon.nextPowerOfTwo(Math.max(capacity, 16)) / 4);
+            this.table = new long[size];
+            this.counterMask = size * 16L - 1;
+            this.sampleSize = 10 * Math.max(capacity, 16);
+        }
+
+        int frequency(long key) {
+            int frequency = 15;
+            for (long seed : SEEDS) {
+                long counter = HashCommon.mix(key ^ seed) & counterMask;
+                frequency = Math.min(frequency, (int) ((table[(int) (counter >>> 4)] >>> ((counter & 15) << 2)) & 15));
+            }
+            return frequency;
+        }
+
+        void increment(long key) {
+            boolean added = false;
+            for (long seed : SEEDS) {
+                long counter = HashCommon.mix(key ^ seed) & counterMask;
+                int index = (int) (counter >>> 4);
+                int shift = (int) ((counter & 15) << 2);
+                if (((table[index] >>> shift) & 15) < 15) {
+                    table[index] += 1L << shift;
+                    added = true;
+                }
+            }
+            if (added && ++additions >= sampleSize) {
+                for (int i = 0; i < table.length; i++) {
+                    table[i] = (table[i] >>> 1) & RESET_MASK;
+                }
+                additions /= 2;
+            }
+        }
+    }
+
+    /**
+     * Creates {@link TinyLfuElementCache}s.
+     */
+    public static class Factory implements ElementCacheFactory {
+        @Override
+        public <V> ElementCache<V> create(long capacity) {
+            return new TinyLfuElementCache<>(capacity);
+        }
+    }
+}